@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.benchmark;
+
+import com.github.avarabyeu.restendpoint.http.HttpClientRestEndpoint;
+import com.github.avarabyeu.restendpoint.http.HttpMethod;
+import com.github.avarabyeu.restendpoint.http.RestEndpoints;
+import com.github.avarabyeu.restendpoint.http.annotation.Path;
+import com.github.avarabyeu.restendpoint.http.annotation.Request;
+import com.github.avarabyeu.restendpoint.http.netty.NettyTransport;
+import com.github.avarabyeu.restendpoint.serializer.json.GsonSerializer;
+import com.google.common.io.ByteStreams;
+import com.google.common.net.HttpHeaders;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end request execution against loopback HTTP server: request serialization, I/O reactor,
+ * response streaming and deserialization over Apache and Netty transports. Reports both throughput and
+ * latency distribution.
+ * Run with <b>-t</b> option to measure under concurrent load
+ *
+ * @author Andrei Varabyeu
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndToEndBenchmark {
+
+    @Param({ "1", "100" })
+    private int items;
+
+    @Param({ "apache", "netty" })
+    private String transport;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private HttpClientRestEndpoint endpoint;
+    private Api api;
+    private Payload payload;
+
+    @Setup
+    public void setup() throws IOException {
+        payload = Payload.create(items);
+        final byte[] response = new GsonSerializer().serialize(payload);
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                ByteStreams.exhaust(exchange.getRequestBody());
+                exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "application/json");
+                exchange.sendResponseHeaders(200, response.length);
+                OutputStream body = exchange.getResponseBody();
+                body.write(response);
+                body.close();
+            }
+        });
+        serverExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        RestEndpoints.Builder builder = RestEndpoints.create()
+                .withBaseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .withSerializer(new GsonSerializer());
+        if ("netty".equals(transport)) {
+            builder.withTransport(NettyTransport.create().build());
+        }
+        endpoint = (HttpClientRestEndpoint) builder.build();
+        api = RestEndpoints.forInterface(Api.class, endpoint);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        endpoint.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public Payload get() {
+        return endpoint.getFor("/payload", Payload.class).blockingGet();
+    }
+
+    @Benchmark
+    public Payload post() {
+        return endpoint.postFor("/payload", payload, Payload.class).blockingGet();
+    }
+
+    @Benchmark
+    public Payload proxyGet() {
+        return api.get(42);
+    }
+
+    public interface Api {
+
+        @Request(method = HttpMethod.GET, url = "/payload/{id}")
+        Payload get(@Path("id") int id);
+    }
+}
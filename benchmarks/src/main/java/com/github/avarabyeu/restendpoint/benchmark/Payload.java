@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Typical JSON payload: object with a few scalar fields and a list of nested objects
+ *
+ * @author Andrei Varabyeu
+ */
+public class Payload {
+
+    public long id;
+    public String name;
+    public boolean active;
+    public List<Item> items;
+
+    public static Payload create(int size) {
+        Payload payload = new Payload();
+        payload.id = 42;
+        payload.name = "payload";
+        payload.active = true;
+        payload.items = new ArrayList<Item>(size);
+        for (int i = 0; i < size; i++) {
+            Item item = new Item();
+            item.id = i;
+            item.title = "item #" + i;
+            item.price = i * 1.5;
+            payload.items.add(item);
+        }
+        return payload;
+    }
+
+    public static class Item {
+        public int id;
+        public String title;
+        public double price;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.benchmark;
+
+import com.github.avarabyeu.restendpoint.serializer.StreamingSerializer;
+import com.github.avarabyeu.restendpoint.serializer.json.GsonSerializer;
+import com.github.avarabyeu.restendpoint.serializer.json.JacksonSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GsonSerializer} vs {@link JacksonSerializer}: byte array and streaming APIs.
+ * Endpoint uses streaming ones, byte array ones are used by caching and blocking fallbacks
+ *
+ * @author Andrei Varabyeu
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({ "gson", "jackson" })
+    private String serializer;
+
+    @Param({ "1", "100" })
+    private int items;
+
+    private StreamingSerializer json;
+    private Payload payload;
+    private byte[] content;
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setup() {
+        json = "gson".equals(serializer) ? new GsonSerializer() : new JacksonSerializer();
+        payload = Payload.create(items);
+        content = json.serialize(payload);
+        out = new ByteArrayOutputStream(content.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return json.serialize(payload);
+    }
+
+    @Benchmark
+    public int serializeToStream() {
+        out.reset();
+        json.serialize(payload, out);
+        return out.size();
+    }
+
+    @Benchmark
+    public Payload deserialize() {
+        return json.deserialize(content, Payload.class);
+    }
+
+    @Benchmark
+    public Payload deserializeFromStream() {
+        return json.deserialize(new ByteArrayInputStream(content), Payload.class);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.benchmark;
+
+import com.github.avarabyeu.restendpoint.http.uri.UrlTemplate;
+import com.google.common.collect.ImmutableMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UrlTemplate} expansion: positional (used by proxies), named and with query parameters
+ *
+ * @author Andrei Varabyeu
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlTemplateBenchmark {
+
+    private UrlTemplate template;
+    private Object[] args;
+    private int[] argIndexes;
+    private Map<String, Object> pathParameters;
+    private Map<String, String> queryParameters;
+
+    @Setup
+    public void setup() {
+        template = UrlTemplate.create("/api/v1/users/{user}/repos/{repo}/issues/{id}");
+        args = new Object[] { "avarabyeu", "restendpoint", 42 };
+        argIndexes = new int[] { 0, 1, 2 };
+        pathParameters = ImmutableMap.<String, Object>of("user", "avarabyeu", "repo", "restendpoint", "id", 42);
+        queryParameters = ImmutableMap.of("state", "open", "sort", "created", "page", "2");
+    }
+
+    @Benchmark
+    public UrlTemplate parse() {
+        return UrlTemplate.create("/api/v1/users/{user}/repos/{repo}/issues/{id}");
+    }
+
+    @Benchmark
+    public String expandPositional() {
+        return template.expand(args, argIndexes);
+    }
+
+    @Benchmark
+    public String expandNamed() {
+        return template.merge().expand(pathParameters).build();
+    }
+
+    @Benchmark
+    public String expandWithQuery() {
+        return template.merge(args, argIndexes).appendQueryParameters(queryParameters).build();
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.benchmark;
+
+import com.github.avarabyeu.restendpoint.http.HttpClientRestEndpoint;
+import com.github.avarabyeu.restendpoint.http.HttpMethod;
+import com.github.avarabyeu.restendpoint.http.RestEndpoints;
+import com.github.avarabyeu.restendpoint.http.annotation.Path;
+import com.github.avarabyeu.restendpoint.http.annotation.Request;
+import com.github.avarabyeu.restendpoint.serializer.json.GsonSerializer;
+import com.google.common.io.ByteStreams;
+import com.google.common.net.HttpHeaders;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 100k concurrent synchronous calls against loopback HTTP server. Compares proxy calls, which are executed
+ * directly on virtual threads, with awaiting {@link io.reactivex.Maybe#blockingGet()}, and virtual threads
+ * with pool of platform threads. Requires Java 21 runtime and library built with -Djava21.home, the module
+ * itself is compiled for Java 7, so virtual thread executor is obtained reflectively
+ *
+ * @author Andrei Varabyeu
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class VirtualThreadBenchmark {
+
+    private static final int CALLS = 100000;
+
+    /**
+     * Size of platform thread pool and connection pool. Virtual threads beyond it wait for connection
+     */
+    private static final int POOL_SIZE = 200;
+
+    @Param({ "virtual", "platform" })
+    private String threads;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ExecutorService executor;
+    private HttpClientRestEndpoint endpoint;
+    private Api api;
+
+    @Setup
+    public void setup() throws IOException {
+        final byte[] response = new GsonSerializer().serialize(Payload.create(1));
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), POOL_SIZE);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                ByteStreams.exhaust(exchange.getRequestBody());
+                exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "application/json");
+                exchange.sendResponseHeaders(200, response.length);
+                OutputStream body = exchange.getResponseBody();
+                body.write(response);
+                body.close();
+            }
+        });
+        serverExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        executor = "virtual".equals(threads) ? newVirtualThreadExecutor() : Executors.newFixedThreadPool(POOL_SIZE);
+        endpoint = (HttpClientRestEndpoint) RestEndpoints.create()
+                .withBaseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .withSerializer(new GsonSerializer())
+                .withMaxConnections(POOL_SIZE)
+                .withMaxConnectionsPerRoute(POOL_SIZE)
+                .build();
+        api = RestEndpoints.forInterface(Api.class, endpoint);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        endpoint.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public int proxy() throws Exception {
+        return awaitAll(new Callable<Payload>() {
+            @Override
+            public Payload call() {
+                return api.get(42);
+            }
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public int blockingGet() throws Exception {
+        return awaitAll(new Callable<Payload>() {
+            @Override
+            public Payload call() {
+                return endpoint.getFor("/payload/42", Payload.class).blockingGet();
+            }
+        });
+    }
+
+    private int awaitAll(Callable<Payload> call) throws InterruptedException, ExecutionException {
+        List<Future<Payload>> results = new ArrayList<Future<Payload>>(CALLS);
+        for (int i = 0; i < CALLS; i++) {
+            results.add(executor.submit(call));
+        }
+        int completed = 0;
+        for (Future<Payload> result : results) {
+            completed += null == result.get() ? 0 : 1;
+        }
+        return completed;
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (Exception e) {
+            throw new IllegalStateException("Virtual threads require Java 21 or later", e);
+        }
+    }
+
+    public interface Api {
+
+        @Request(method = HttpMethod.GET, url = "/payload/{id}")
+        Payload get(@Path("id") int id);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.github.avarabyeu.restendpoint.benchmark.Payload;
+import com.github.avarabyeu.restendpoint.serializer.ByteArraySerializer;
+import com.github.avarabyeu.restendpoint.serializer.Serializer;
+import com.github.avarabyeu.restendpoint.serializer.StringSerializer;
+import com.github.avarabyeu.restendpoint.serializer.TextSerializer;
+import com.github.avarabyeu.restendpoint.serializer.VoidSerializer;
+import com.github.avarabyeu.restendpoint.serializer.json.GsonSerializer;
+import com.github.avarabyeu.restendpoint.serializer.json.JacksonSerializer;
+import com.google.common.collect.ImmutableList;
+import com.google.common.net.MediaType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializer lookup with six serializers registered: {@link SerializerResolver} (cached) vs linear scan
+ * over serializers performed per request. Lives in library's package since resolver is package-private
+ *
+ * @author Andrei Varabyeu
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerResolverBenchmark {
+
+    private List<Serializer> serializers;
+    private SerializerResolver resolver;
+    private Payload payload;
+    private MediaType contentType;
+    private Type resultType;
+
+    @Setup
+    public void setup() {
+        /* JSON serializers are the last ones, so linear scan checks all the others first */
+        serializers = ImmutableList.<Serializer>of(new VoidSerializer(), new ByteArraySerializer(),
+                new StringSerializer(), new TextSerializer(), new JacksonSerializer(), new GsonSerializer());
+        resolver = new SerializerResolver(serializers, 1000);
+        payload = Payload.create(1);
+        contentType = MediaType.parse("application/json; charset=utf-8");
+        resultType = Payload.class;
+    }
+
+    @Benchmark
+    public Serializer resolveWriter() {
+        return resolver.getWriter(payload);
+    }
+
+    @Benchmark
+    public Serializer resolveReader() {
+        return resolver.getReader(contentType, resultType);
+    }
+
+    @Benchmark
+    public Serializer scanWriter() {
+        for (Serializer serializer : serializers) {
+            if (serializer.canWrite(payload)) {
+                return serializer;
+            }
+        }
+        throw new IllegalStateException("Serializer not found");
+    }
+
+    @Benchmark
+    public Serializer scanReader() {
+        for (Serializer serializer : serializers) {
+            if (serializer.canRead(contentType, resultType)) {
+                return serializer;
+            }
+        }
+        throw new IllegalStateException("Serializer not found");
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http.proxy;
+
+import com.github.avarabyeu.restendpoint.benchmark.Payload;
+import com.github.avarabyeu.restendpoint.http.HttpMethod;
+import com.github.avarabyeu.restendpoint.http.RestCommand;
+import com.github.avarabyeu.restendpoint.http.annotation.Body;
+import com.github.avarabyeu.restendpoint.http.annotation.Path;
+import com.github.avarabyeu.restendpoint.http.annotation.Query;
+import com.github.avarabyeu.restendpoint.http.annotation.Request;
+import com.google.common.collect.ImmutableMap;
+import io.reactivex.Maybe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building {@link RestCommand} of proxy method call: URL expansion, query building and validation.
+ * Lives in library's package since {@link RestMethodInfo} is package-private
+ *
+ * @author Andrei Varabyeu
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RestMethodInfoBenchmark {
+
+    private RestMethodInfo noArgs;
+    private RestMethodInfo pathArgs;
+    private RestMethodInfo queryArgs;
+    private RestMethodInfo bodyArgs;
+
+    private Map<String, String> query;
+    private Payload body;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        noArgs = new RestMethodInfo(Api.class.getMethod("list"));
+        pathArgs = new RestMethodInfo(Api.class.getMethod("get", String.class, long.class));
+        queryArgs = new RestMethodInfo(Api.class.getMethod("search", String.class, Map.class));
+        bodyArgs = new RestMethodInfo(Api.class.getMethod("update", String.class, Payload.class));
+        query = ImmutableMap.of("q", "rest endpoint", "page", "2", "size", "50");
+        body = Payload.create(1);
+    }
+
+    @Benchmark
+    public RestCommand<Object, Object> noArguments() {
+        return noArgs.createRestCommand();
+    }
+
+    @Benchmark
+    public RestCommand<Object, Object> pathArguments() {
+        return pathArgs.createRestCommand("avarabyeu", 42L);
+    }
+
+    @Benchmark
+    public RestCommand<Object, Object> queryArguments() {
+        return queryArgs.createRestCommand("avarabyeu", query);
+    }
+
+    @Benchmark
+    public RestCommand<Object, Object> bodyArgument() {
+        return bodyArgs.createRestCommand("avarabyeu", body);
+    }
+
+    public interface Api {
+
+        @Request(method = HttpMethod.GET, url = "/users")
+        Maybe<String> list();
+
+        @Request(method = HttpMethod.GET, url = "/users/{user}/repos/{id}")
+        Maybe<String> get(@Path("user") String user, @Path("id") long id);
+
+        @Request(method = HttpMethod.GET, url = "/users/{user}/search")
+        Maybe<String> search(@Path("user") String user, @Query Map<String, String> query);
+
+        @Request(method = HttpMethod.PUT, url = "/users/{user}")
+        Maybe<String> update(@Path("user") String user, @Body Payload body);
+    }
+}
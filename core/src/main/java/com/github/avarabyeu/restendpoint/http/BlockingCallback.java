@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http;
+
+import io.reactivex.functions.Cancellable;
+
+import javax.annotation.Nullable;
+import java.io.InterruptedIOException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Transport callback calling thread waits for response on. Thread is parked with {@link LockSupport}
+ * rather than blocked on monitor, so virtual thread releases its carrier while waiting
+ *
+ * @author Andrei Varabyeu
+ */
+final class BlockingCallback implements TransportCallback {
+
+    private final Thread caller;
+    private final RequestTimer timer;
+
+    private volatile TransportResponse response;
+    private volatile Exception failure;
+
+    /**
+     * @param timer Timer of request attempt. NULL if metrics are disabled
+     */
+    BlockingCallback(@Nullable RequestTimer timer) {
+        this.caller = Thread.currentThread();
+        this.timer = timer;
+    }
+
+    @Override
+    public void onRequestSent(long bytes) {
+        if (null != timer) {
+            timer.onRequestSent(bytes);
+        }
+    }
+
+    @Override
+    public void onResponse(TransportResponse response) {
+        if (null != timer) {
+            timer.onResponseReceived(response.getStatus());
+        }
+        this.response = response;
+        LockSupport.unpark(caller);
+    }
+
+    @Override
+    public void onFailure(Exception e) {
+        this.failure = e;
+        LockSupport.unpark(caller);
+    }
+
+    /**
+     * Parks calling thread until response head is received. Should be called by thread callback is created on
+     *
+     * @param cancellable Cancels request if calling thread is interrupted
+     * @return Response
+     * @throws Exception Failure reported by transport or {@link InterruptedIOException} if thread is interrupted
+     */
+    TransportResponse await(Cancellable cancellable) throws Exception {
+        while (null == response && null == failure) {
+            LockSupport.park(this);
+            if (Thread.interrupted()) {
+                cancellable.cancel();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for response");
+            }
+        }
+        if (null != failure) {
+            throw failure;
+        }
+        return response;
+    }
+}
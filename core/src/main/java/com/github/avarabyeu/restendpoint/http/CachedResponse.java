@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.google.common.collect.Multimap;
+import com.google.common.io.ByteSource;
+import com.google.common.net.HttpHeaders;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpStatus;
+import org.apache.http.message.BasicHeaderValueParser;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response stored in {@link ResponseCache}. Keeps raw body, so it may be
+ * deserialized into any type supported by endpoint's serializers
+ *
+ * @author Andrei Varabyeu
+ */
+@Immutable
+public final class CachedResponse {
+
+    private final int status;
+    private final String reason;
+    private final Multimap<String, String> headers;
+    private final byte[] body;
+    private final String contentType;
+    private final String eTag;
+    private final String lastModified;
+    private final long expiresAt;
+
+    CachedResponse(int status, String reason, Multimap<String, String> headers, byte[] body,
+            @Nullable String contentType, @Nullable String eTag, @Nullable String lastModified, long expiresAt) {
+        this.status = status;
+        this.reason = reason;
+        this.headers = headers;
+        this.body = body;
+        this.contentType = contentType;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+        this.expiresAt = expiresAt;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public Multimap<String, String> getHeaders() {
+        return headers;
+    }
+
+    public ByteSource getBody() {
+        return ByteSource.wrap(body);
+    }
+
+    /**
+     * @return Size of body in bytes
+     */
+    public int getSize() {
+        return body.length;
+    }
+
+    @Nullable
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Nullable
+    public String getETag() {
+        return eTag;
+    }
+
+    @Nullable
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return Time (in milliseconds since epoch) response is fresh until.
+     * Stale response has to be revalidated before use
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * @param now Current time in milliseconds
+     * @return TRUE if response may be used without revalidation
+     */
+    public boolean isFresh(long now) {
+        return now < expiresAt;
+    }
+
+    /**
+     * @return TRUE if response has ETag or Last-Modified, so it may be revalidated
+     */
+    public boolean isRevalidatable() {
+        return null != eTag || null != lastModified;
+    }
+
+    /**
+     * Creates cached response of provided one with updated freshness. Used once server
+     * confirmed cached response is still valid
+     *
+     * @param notModified 304 Not Modified response
+     * @param now         Current time in milliseconds
+     * @return Revalidated response
+     */
+    CachedResponse revalidate(TransportResponse notModified, long now) {
+        String newETag = notModified.getHeader(HttpHeaders.ETAG);
+        String newLastModified = notModified.getHeader(HttpHeaders.LAST_MODIFIED);
+        return new CachedResponse(status, reason, headers, body, contentType,
+                null == newETag ? eTag : newETag,
+                null == newLastModified ? lastModified : newLastModified,
+                expiresAt(notModified, now));
+    }
+
+    /**
+     * Checks whether response may be cached: response is successful, storing isn't prohibited
+     * and response is either has max-age or can be revalidated
+     *
+     * @param response Response
+     * @return TRUE if response may be cached
+     */
+    static boolean isCacheable(TransportResponse response) {
+        if (HttpStatus.SC_OK != response.getStatus() || null != response.getHeader(HttpHeaders.VARY)) {
+            return false;
+        }
+        boolean maxAge = false;
+        for (HeaderElement directive : cacheControl(response)) {
+            if ("no-store".equalsIgnoreCase(directive.getName())) {
+                return false;
+            }
+            maxAge |= "max-age".equalsIgnoreCase(directive.getName());
+        }
+        return maxAge || null != response.getHeader(HttpHeaders.ETAG)
+                || null != response.getHeader(HttpHeaders.LAST_MODIFIED);
+    }
+
+    /**
+     * Creates cached response
+     *
+     * @param response HTTP response
+     * @param headers  Response headers
+     * @param body     Response body
+     * @param now      Current time in milliseconds
+     * @return Cached response
+     */
+    static CachedResponse of(TransportResponse response, Multimap<String, String> headers, byte[] body, long now) {
+        return new CachedResponse(response.getStatus(),
+                response.getReason(),
+                headers,
+                body,
+                response.getHeader(HttpHeaders.CONTENT_TYPE),
+                response.getHeader(HttpHeaders.ETAG),
+                response.getHeader(HttpHeaders.LAST_MODIFIED),
+                expiresAt(response, now));
+    }
+
+    /**
+     * Calculates freshness based on Cache-Control header. Responses without max-age
+     * or marked as no-cache should be revalidated each time
+     */
+    private static long expiresAt(TransportResponse response, long now) {
+        long maxAge = 0;
+        for (HeaderElement directive : cacheControl(response)) {
+            if ("no-cache".equalsIgnoreCase(directive.getName())) {
+                return now;
+            }
+            if ("max-age".equalsIgnoreCase(directive.getName()) && null != directive.getValue()) {
+                try {
+                    maxAge = Math.max(0, Long.parseLong(directive.getValue().trim()));
+                } catch (NumberFormatException e) {
+                    return now;
+                }
+            }
+        }
+        return now + TimeUnit.SECONDS.toMillis(maxAge);
+    }
+
+    private static HeaderElement[] cacheControl(TransportResponse response) {
+        String cacheControl = response.getHeader(HttpHeaders.CACHE_CONTROL);
+        return null == cacheControl ?
+                new HeaderElement[0] :
+                BasicHeaderValueParser.parseElements(cacheControl, BasicHeaderValueParser.INSTANCE);
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.google.common.base.Objects;
+import com.google.common.net.HttpHeaders;
+import io.reactivex.Maybe;
+import io.reactivex.MaybeEmitter;
+import io.reactivex.MaybeOnSubscribe;
+import io.reactivex.MaybeSource;
+import io.reactivex.functions.BiConsumer;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Serves GET requests from {@link ResponseCache} and coalesces concurrent identical GETs into single
+ * in-flight request. Requests reaching the network are handed over to {@link Exchange}
+ *
+ * @author Andrei Varabyeu
+ */
+final class CachingExecution {
+
+    /**
+     * Cache of GET responses. NULL if caching is disabled
+     */
+    private final ResponseCache responseCache;
+
+    /**
+     * In-flight GET requests. NULL if requests coalescing is disabled
+     */
+    private final ConcurrentMap<InFlightKey, Maybe<?>> inFlight;
+
+    /**
+     * Executor cached responses are deserialized on
+     */
+    private final Executor decodeExecutor;
+
+    /**
+     * @param responseCache  Cache of GET responses. NULL if caching is disabled
+     * @param coalesceGets   Whether concurrent identical GETs share single request
+     * @param decodeExecutor Executor cached responses are deserialized on
+     */
+    CachingExecution(@Nullable ResponseCache responseCache, boolean coalesceGets, Executor decodeExecutor) {
+        this.responseCache = responseCache;
+        this.inFlight = coalesceGets ? new ConcurrentHashMap<InFlightKey, Maybe<?>>() : null;
+        this.decodeExecutor = decodeExecutor;
+    }
+
+    /**
+     * @return TRUE if responses are cached or GETs are coalesced
+     */
+    boolean isEnabled() {
+        return null != responseCache || null != inFlight;
+    }
+
+    /**
+     * Executes request. Concurrent identical GETs share single in-flight request if coalescing is enabled
+     *
+     * @param rq       - Request
+     * @param callback - Callback to be applied on response
+     * @param exchange - Sends requests missing cache
+     * @param <RS>     type of response
+     * @return - Serialized Response Body
+     */
+    <RS> Maybe<Response<RS>> execute(final TransportRequest rq, final HttpEntityCallback<RS> callback,
+            final Exchange exchange) {
+        if (null == inFlight || HttpMethod.GET != rq.getMethod()) {
+            return executeCached(rq, callback, exchange);
+        }
+
+        final InFlightKey key = new InFlightKey(rq, callback.resultType);
+        return Maybe.defer(new Callable<MaybeSource<Response<RS>>>() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public MaybeSource<Response<RS>> call() throws Exception {
+                Maybe<?> shared = inFlight.get(key);
+                if (null != shared) {
+                    return (Maybe<Response<RS>>) shared;
+                }
+
+                /* request is forgotten right before result is emitted, so late subscribers trigger new one */
+                Maybe<Response<RS>> request = executeCached(rq, callback, exchange)
+                        .doOnEvent(new BiConsumer<Response<RS>, Throwable>() {
+                            @Override
+                            public void accept(Response<RS> rs, Throwable throwable) {
+                                inFlight.remove(key);
+                            }
+                        }).cache();
+                shared = inFlight.putIfAbsent(key, request);
+                return null == shared ? request : (Maybe<Response<RS>>) shared;
+            }
+        }).cache();
+    }
+
+    /**
+     * Executes request. GET responses are served from {@link ResponseCache} (if configured)
+     * while fresh or revalidated with conditional request once stale. Other requests invalidate cached response
+     *
+     * @param rq       - Request
+     * @param callback - Callback to be applied on response
+     * @param exchange - Sends requests missing cache
+     * @param <RS>     type of response
+     * @return - Serialized Response Body
+     */
+    private <RS> Maybe<Response<RS>> executeCached(final TransportRequest rq,
+            final HttpEntityCallback<RS> callback, Exchange exchange) {
+        if (null == responseCache) {
+            return exchange.execute(rq, callback, null, null);
+        }
+
+        String url = rq.getUri().toString();
+        if (HttpMethod.GET != rq.getMethod()) {
+            responseCache.invalidate(url);
+            return exchange.execute(rq, callback, null, null);
+        }
+
+        final CachedResponse cached = responseCache.get(url);
+        if (null == cached) {
+            return exchange.execute(rq, callback, url, null);
+        }
+        if (cached.isFresh(System.currentTimeMillis())) {
+            return Maybe.create(new MaybeOnSubscribe<Response<RS>>() {
+                @Override
+                public void subscribe(final MaybeEmitter<Response<RS>> maybeEmitter) throws Exception {
+                    try {
+                        decodeExecutor.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                try {
+                                    maybeEmitter.onSuccess(ResponseHandler.fromCache(rq, cached, callback));
+                                } catch (Exception e) {
+                                    maybeEmitter.onError(e);
+                                }
+                            }
+                        });
+                    } catch (RejectedExecutionException e) {
+                        maybeEmitter.onError(e);
+                    }
+                }
+            }).cache();
+        }
+        if (!cached.isRevalidatable()) {
+            return exchange.execute(rq, callback, url, null);
+        }
+
+        TransportRequest conditional = rq;
+        if (null != cached.getETag()) {
+            conditional = conditional.withHeader(HttpHeaders.IF_NONE_MATCH, cached.getETag());
+        }
+        if (null != cached.getLastModified()) {
+            conditional = conditional.withHeader(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+        }
+        return exchange.execute(conditional, callback, url, cached);
+    }
+
+    /**
+     * Sends request missing cache over the network
+     */
+    interface Exchange {
+
+        /**
+         * @param rq       - Request
+         * @param callback - Callback to be applied on response
+         * @param cacheKey - Key response should be cached with. NULL if response shouldn't be cached
+         * @param cached   - Stale cached response request revalidates. NULL if request isn't conditional
+         * @param <RS>     type of response
+         * @return - Serialized Response Body
+         */
+        <RS> Maybe<Response<RS>> execute(TransportRequest rq, HttpEntityCallback<RS> callback,
+                @Nullable String cacheKey, @Nullable CachedResponse cached);
+    }
+
+    /**
+     * Identity of GET request: URI, headers and type response is converted to
+     */
+    private static final class InFlightKey {
+
+        private final String uri;
+        private final List<String> headers;
+        private final Type resultType;
+        private final int hashCode;
+
+        private InFlightKey(TransportRequest rq, Type resultType) {
+            this.uri = rq.getUri().toString();
+            if (rq.getHeaders().isEmpty()) {
+                this.headers = Collections.emptyList();
+            } else {
+                List<String> headerList = new ArrayList<String>(rq.getHeaders().size());
+                for (Entry<String, String> header : rq.getHeaders().entries()) {
+                    headerList.add(header.getKey() + ':' + header.getValue());
+                }
+                this.headers = headerList;
+            }
+            this.resultType = resultType;
+            this.hashCode = Objects.hashCode(uri, headers, resultType);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof InFlightKey)) {
+                return false;
+            }
+            InFlightKey that = (InFlightKey) o;
+            return uri.equals(that.uri) && headers.equals(that.headers) && resultType.equals(that.resultType);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
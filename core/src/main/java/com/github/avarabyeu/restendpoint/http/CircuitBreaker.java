@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.github.avarabyeu.restendpoint.http.exception.CircuitBreakerOpenException;
+import com.github.avarabyeu.restendpoint.http.exception.RestEndpointException;
+import com.github.avarabyeu.restendpoint.http.exception.RestEndpointIOException;
+import com.github.avarabyeu.restendpoint.http.exception.SerializerException;
+import io.reactivex.Maybe;
+import io.reactivex.MaybeSource;
+import io.reactivex.functions.Action;
+import io.reactivex.functions.BiConsumer;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker of single route. Outcomes of recent calls are kept in sliding window; once rate of failed
+ * or slow calls exceeds threshold circuit is opened and calls are rejected with
+ * {@link CircuitBreakerOpenException} without being sent. After open duration limited number of probe calls
+ * is allowed: circuit is closed once all of them succeed and opened again once any of them fails.
+ * Closed circuit is checked and updated with atomic operations only, so there are no locks on request path
+ *
+ * @author Andrei Varabyeu
+ */
+public final class CircuitBreaker {
+
+    /**
+     * Circuit breaker state
+     */
+    public enum State {
+        /* calls are allowed */
+        CLOSED,
+        /* calls are rejected */
+        OPEN,
+        /* limited number of probe calls is allowed */
+        HALF_OPEN
+    }
+
+    /* outcomes of calls stored in sliding window */
+    private static final int NONE = 0;
+    private static final int FAILURE = 1;
+    private static final int SLOW = 2;
+    private static final int SUCCESS = 4;
+
+    private final String route;
+    private final CircuitBreakerConfig config;
+
+    private final AtomicReference<State> state = new AtomicReference<State>(State.CLOSED);
+    private volatile long openedAt;
+
+    private final AtomicIntegerArray window;
+    private final AtomicInteger position = new AtomicInteger();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicInteger slowCalls = new AtomicInteger();
+
+    private final AtomicInteger probePermits = new AtomicInteger();
+    private final AtomicInteger probeSuccesses = new AtomicInteger();
+
+    CircuitBreaker(String route, CircuitBreakerConfig config) {
+        this.route = route;
+        this.config = config;
+        this.window = new AtomicIntegerArray(config.getWindowSize());
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * @return Rate of failed calls in sliding window
+     */
+    public double getFailureRate() {
+        int total = calls.get();
+        return 0 == total ? 0 : (double) failures.get() / total;
+    }
+
+    /**
+     * @return Rate of slow calls in sliding window
+     */
+    public double getSlowCallRate() {
+        int total = calls.get();
+        return 0 == total ? 0 : (double) slowCalls.get() / total;
+    }
+
+    /**
+     * Rejects request with {@link CircuitBreakerOpenException} if circuit is open, records outcome otherwise
+     *
+     * @param request Request to be protected
+     * @param <T>     Type of response
+     * @return Protected request
+     */
+    <T> Maybe<T> protect(final Maybe<T> request) {
+        return Maybe.defer(new Callable<MaybeSource<T>>() {
+            @Override
+            public MaybeSource<T> call() {
+                final State acquired = tryAcquire();
+                if (null == acquired) {
+                    return Maybe.error(new CircuitBreakerOpenException(route));
+                }
+                final long started = System.nanoTime();
+                return request.doOnEvent(new BiConsumer<T, Throwable>() {
+                    @Override
+                    public void accept(T response, Throwable error) {
+                        onResult(acquired, isFailure(error),
+                                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+                    }
+                }).doOnDispose(new Action() {
+                    @Override
+                    public void run() {
+                        release(acquired);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * @return State call is permitted in or NULL if call is rejected
+     */
+    State tryAcquire() {
+        State current = state.get();
+        if (State.CLOSED == current) {
+            return current;
+        }
+        if (State.OPEN == current) {
+            if (System.currentTimeMillis() - openedAt < config.getOpenDuration()) {
+                return null;
+            }
+            if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                probeSuccesses.set(0);
+                probePermits.set(config.getHalfOpenProbes());
+            }
+        }
+        int permits;
+        do {
+            permits = probePermits.get();
+            if (permits <= 0) {
+                return null;
+            }
+        } while (!probePermits.compareAndSet(permits, permits - 1));
+        return State.HALF_OPEN;
+    }
+
+    /**
+     * Records outcome of call
+     *
+     * @param acquired State call has been permitted in
+     * @param failure  Whether call failed
+     * @param duration Duration of call in milliseconds
+     */
+    void onResult(State acquired, boolean failure, long duration) {
+        boolean slow = config.getSlowCallRateThreshold() > 0 && duration >= config.getSlowCallDuration();
+        if (State.HALF_OPEN == acquired) {
+            if (failure || slow) {
+                open(State.HALF_OPEN);
+            } else if (probeSuccesses.incrementAndGet() >= config.getHalfOpenProbes()
+                    && state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+                reset();
+            }
+            return;
+        }
+
+        int outcome = (failure ? FAILURE : SUCCESS) | (slow ? SLOW : NONE);
+        int slot = (position.getAndIncrement() & Integer.MAX_VALUE) % window.length();
+        int previous = window.getAndSet(slot, outcome);
+        if (NONE == previous) {
+            calls.incrementAndGet();
+        }
+        update(failures, previous, outcome, FAILURE);
+        update(slowCalls, previous, outcome, SLOW);
+
+        int total = calls.get();
+        boolean slowCallsExceeded = config.getSlowCallRateThreshold() > 0
+                && slowCalls.get() >= config.getSlowCallRateThreshold() * total;
+        if (total >= config.getMinimumCalls()
+                && (failures.get() >= config.getFailureRateThreshold() * total || slowCallsExceeded)) {
+            open(State.CLOSED);
+        }
+    }
+
+    /**
+     * Returns permit of call cancelled before completion
+     *
+     * @param acquired State call has been permitted in
+     */
+    void release(State acquired) {
+        if (State.HALF_OPEN == acquired && State.HALF_OPEN == state.get()) {
+            probePermits.incrementAndGet();
+        }
+    }
+
+    private void open(State from) {
+        if (from == state.get()) {
+            /* opening time is updated first, so nobody observes open circuit with outdated time */
+            openedAt = System.currentTimeMillis();
+            state.compareAndSet(from, State.OPEN);
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < window.length(); i++) {
+            window.set(i, NONE);
+        }
+        calls.set(0);
+        failures.set(0);
+        slowCalls.set(0);
+    }
+
+    private static void update(AtomicInteger counter, int previous, int outcome, int flag) {
+        boolean was = 0 != (previous & flag);
+        boolean is = 0 != (outcome & flag);
+        if (was != is) {
+            if (is) {
+                counter.incrementAndGet();
+            } else {
+                counter.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Network errors, timeouts and server errors are failures. Client errors mean server is alive
+     */
+    static boolean isFailure(Throwable error) {
+        if (null == error) {
+            return false;
+        }
+        if (error instanceof RestEndpointException) {
+            return ((RestEndpointException) error).getStatusCode() >= 500;
+        }
+        return error instanceof TimeoutException
+                || error instanceof RestEndpointIOException && !(error instanceof SerializerException);
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker[" + route + ", " + state.get() + "]";
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settings of {@link CircuitBreaker}. Circuit is opened once rate of failed or slow calls
+ * over sliding window of recent calls exceeds threshold
+ *
+ * @author Andrei Varabyeu
+ */
+@Immutable
+public final class CircuitBreakerConfig {
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallDuration;
+    private final double slowCallRateThreshold;
+    private final long openDuration;
+    private final int halfOpenProbes;
+
+    private CircuitBreakerConfig(Builder builder) {
+        this.windowSize = builder.windowSize;
+        this.minimumCalls = builder.minimumCalls;
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.slowCallDuration = builder.slowCallDuration;
+        this.slowCallRateThreshold = builder.slowCallRateThreshold;
+        this.openDuration = builder.openDuration;
+        this.halfOpenProbes = builder.halfOpenProbes;
+    }
+
+    public static Builder create() {
+        return new Builder();
+    }
+
+    /**
+     * @return Number of recent calls rates are calculated of
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * @return Min number of calls in window before rates are taken into account
+     */
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    /**
+     * @return Duration in milliseconds call is considered slow after
+     */
+    public long getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    /**
+     * @return Rate of slow calls circuit is opened at or 0 if slow calls are not taken into account
+     */
+    public double getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    /**
+     * @return Duration in milliseconds circuit stays open before probes are allowed
+     */
+    public long getOpenDuration() {
+        return openDuration;
+    }
+
+    /**
+     * @return Number of probe calls allowed in half-open state
+     */
+    public int getHalfOpenProbes() {
+        return halfOpenProbes;
+    }
+
+    /**
+     * Builder for {@link CircuitBreakerConfig}
+     */
+    public static final class Builder {
+
+        private int windowSize = 100;
+        private int minimumCalls = 20;
+        private double failureRateThreshold = 0.5;
+        private long slowCallDuration = TimeUnit.SECONDS.toMillis(10);
+        private double slowCallRateThreshold;
+        private long openDuration = TimeUnit.SECONDS.toMillis(30);
+        private int halfOpenProbes = 5;
+
+        private Builder() {
+        }
+
+        /**
+         * @param windowSize   Number of recent calls rates are calculated of. 100 by default
+         * @param minimumCalls Min number of calls before circuit may be opened. 20 by default
+         * @return This builder
+         */
+        public Builder withWindow(int windowSize, int minimumCalls) {
+            Preconditions.checkArgument(windowSize > 0, "Window size should be positive");
+            Preconditions.checkArgument(minimumCalls > 0 && minimumCalls <= windowSize,
+                    "Minimum calls should be positive and not greater than window size");
+            this.windowSize = windowSize;
+            this.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        /**
+         * @param threshold Rate of failed calls (network errors, timeouts, 5xx responses) circuit
+         *                  is opened at. 0.5 by default
+         * @return This builder
+         */
+        public Builder withFailureRateThreshold(double threshold) {
+            Preconditions.checkArgument(threshold > 0 && threshold <= 1, "Threshold should be in (0, 1]");
+            this.failureRateThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * @param duration  Duration call is considered slow after
+         * @param unit      Time unit
+         * @param threshold Rate of slow calls circuit is opened at. Slow calls are not taken into account
+         *                  by default
+         * @return This builder
+         */
+        public Builder withSlowCallThreshold(long duration, TimeUnit unit, double threshold) {
+            Preconditions.checkArgument(duration > 0, "Duration should be positive");
+            Preconditions.checkArgument(threshold > 0 && threshold <= 1, "Threshold should be in (0, 1]");
+            this.slowCallDuration = unit.toMillis(duration);
+            this.slowCallRateThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * @param duration Duration circuit stays open before probes are allowed. 30 seconds by default
+         * @param unit     Time unit
+         * @return This builder
+         */
+        public Builder withOpenDuration(long duration, TimeUnit unit) {
+            Preconditions.checkArgument(duration >= 0, "Duration shouldn't be negative");
+            this.openDuration = unit.toMillis(duration);
+            return this;
+        }
+
+        /**
+         * @param probes Number of calls allowed in half-open state. Circuit is closed once all of them
+         *               succeed and opened again once any of them fails. 5 by default
+         * @return This builder
+         */
+        public Builder withHalfOpenProbes(int probes) {
+            Preconditions.checkArgument(probes > 0, "Number of probes should be positive");
+            this.halfOpenProbes = probes;
+            return this;
+        }
+
+        public CircuitBreakerConfig build() {
+            return new CircuitBreakerConfig(this);
+        }
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.github.avarabyeu.restendpoint.http.exception.RestEndpointException;
+import com.google.common.base.Preconditions;
+import io.reactivex.Maybe;
+import io.reactivex.MaybeEmitter;
+import io.reactivex.MaybeObserver;
+import io.reactivex.MaybeOnSubscribe;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Cancellable;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive concurrency limiter. Limits number of requests in flight; requests exceeding limit are queued
+ * (without blocking any thread) and sent once in-flight ones complete. Limit is adjusted with AIMD:
+ * it grows additively while requests succeed and shrinks multiplicatively once server is overloaded
+ * (network errors, timeouts, 429 and 5xx responses) or latency grows, i.e. short-term average latency
+ * exceeds long-term one (server is queueing requests). Latency is measured from the moment request is sent
+ * till response head is received, so time spent waiting for decode thread doesn't look like congestion
+ *
+ * @author Andrei Varabyeu
+ */
+public final class ConcurrencyLimiter {
+
+    /* limit is multiplied by this ratio on congestion */
+    private static final double BACKOFF_RATIO = 0.9;
+
+    /* smoothing factors of short-term (about last 10 requests) and long-term (about last 500 requests) latency */
+    private static final double SHORT_SMOOTHING = 0.1;
+    private static final double LONG_SMOOTHING = 0.002;
+
+    /* short-term latency exceeding long-term one this number of times means congestion */
+    private static final double LATENCY_TOLERANCE = 1.5;
+
+    /* once server gets this number of times faster, long-term latency decays quickly to follow it */
+    private static final double RECOVERY_RATIO = 2.0;
+    private static final double RECOVERY_DECAY = 0.95;
+
+    /* moment of response is unknown */
+    private static final long NONE = -1;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<Runnable>();
+    private final AtomicInteger drainers = new AtomicInteger();
+
+    /* guarded by this */
+    private double limit;
+    private boolean sampled;
+    private double shortLatency;
+    private double longLatency;
+
+    private volatile int currentLimit;
+
+    private ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.limit = initialLimit;
+        this.currentLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Creates AIMD (additive increase, multiplicative decrease) limiter
+     *
+     * @param initialLimit Initial number of requests in flight
+     * @param minLimit     Min number of requests in flight
+     * @param maxLimit     Max number of requests in flight
+     * @return Concurrency limiter
+     */
+    public static ConcurrencyLimiter aimd(int initialLimit, int minLimit, int maxLimit) {
+        Preconditions.checkArgument(minLimit > 0, "Min limit should be positive");
+        Preconditions.checkArgument(minLimit <= initialLimit && initialLimit <= maxLimit,
+                "Initial limit should be between min and max limits");
+        return new ConcurrencyLimiter(initialLimit, minLimit, maxLimit);
+    }
+
+    /**
+     * @return Current limit of requests in flight
+     */
+    public int getLimit() {
+        return currentLimit;
+    }
+
+    /**
+     * @return Number of requests in flight
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return Number of queued requests. Not a constant-time operation
+     */
+    public int getQueued() {
+        return pending.size();
+    }
+
+    /**
+     * Subscribes to request once number of requests in flight is below the limit
+     *
+     * @param request Request to be limited. Should be sent on subscription
+     * @param <T>     Type of response
+     * @return Limited request
+     */
+    public <T> Maybe<T> limit(final Maybe<T> request) {
+        return limit(new SampledRequest<T>() {
+            @Override
+            public Maybe<T> create(@Nullable Sample sample) {
+                return request;
+            }
+        });
+    }
+
+    /**
+     * Subscribes to request once number of requests in flight is below the limit. Request reports
+     * the moment its response is received, so latency doesn't include response handling
+     *
+     * @param request Request to be limited
+     * @param <T>     Type of response
+     * @return Limited request
+     */
+    <T> Maybe<T> limit(final SampledRequest<T> request) {
+        return Maybe.create(new MaybeOnSubscribe<T>() {
+            @Override
+            public void subscribe(MaybeEmitter<T> emitter) {
+                final Call<T> call = new Call<T>(request, emitter);
+                if (pending.isEmpty() && tryAcquire()) {
+                    call.run();
+                } else {
+                    /* call disposed while queued doesn't wait for drain to be dropped.
+                     * Replaced once call is started */
+                    emitter.setCancellable(new Cancellable() {
+                        @Override
+                        public void cancel() {
+                            if (pending.remove(call)) {
+                                call.set(true);
+                            }
+                        }
+                    });
+                    pending.add(call);
+                    drain();
+                }
+            }
+        });
+    }
+
+    private boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= currentLimit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Starts queued requests while there are free slots. Single thread drains queue at a time,
+     * so requests completed synchronously don't cause deep recursion
+     */
+    private void drain() {
+        if (0 != drainers.getAndIncrement()) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (!pending.isEmpty() && tryAcquire()) {
+                Runnable call = pending.poll();
+                if (null == call) {
+                    inFlight.decrementAndGet();
+                } else {
+                    call.run();
+                }
+            }
+            missed = drainers.addAndGet(-missed);
+        } while (0 != missed);
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        drain();
+    }
+
+    private synchronized void adjust(long latency, boolean overload) {
+        if (!sampled) {
+            shortLatency = latency;
+            longLatency = latency;
+            sampled = true;
+        } else {
+            shortLatency += SHORT_SMOOTHING * (latency - shortLatency);
+            longLatency += LONG_SMOOTHING * (latency - longLatency);
+            if (longLatency > RECOVERY_RATIO * shortLatency) {
+                longLatency *= RECOVERY_DECAY;
+            }
+        }
+
+        if (overload || shortLatency > LATENCY_TOLERANCE * longLatency) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        } else if (inFlight.get() >= limit / 2) {
+            /* grow only while limit is actually used */
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+        currentLimit = (int) limit;
+    }
+
+    private static boolean isOverload(Throwable error) {
+        return CircuitBreaker.isFailure(error)
+                || error instanceof RestEndpointException && 429 == ((RestEndpointException) error).getStatusCode();
+    }
+
+    /**
+     * Receives the moment response of limited request is received
+     */
+    interface Sample {
+
+        /**
+         * Called once response head is received, before response body is handled
+         */
+        void onResponseReceived();
+    }
+
+    /**
+     * Request reporting the moment its response is received
+     *
+     * @param <T> Type of response
+     */
+    interface SampledRequest<T> {
+
+        /**
+         * @param sample Receives the moment response is received. NULL if latency isn't sampled
+         * @return Request. Should be sent on subscription
+         */
+        Maybe<T> create(@Nullable Sample sample);
+    }
+
+    /**
+     * Request waiting for or holding a slot. Slot is released exactly once: on completion or disposal
+     */
+    private final class Call<T> extends AtomicBoolean implements Runnable, MaybeObserver<T>, Sample {
+
+        private static final long serialVersionUID = 5096483512416253453L;
+
+        private final SampledRequest<T> request;
+        private final MaybeEmitter<T> emitter;
+        private long started;
+        private volatile long responseReceived = NONE;
+
+        private Call(SampledRequest<T> request, MaybeEmitter<T> emitter) {
+            this.request = request;
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void run() {
+            if (emitter.isDisposed()) {
+                finish(null, false);
+                return;
+            }
+            started = System.nanoTime();
+            request.create(this).subscribe(this);
+        }
+
+        @Override
+        public void onResponseReceived() {
+            if (NONE == responseReceived) {
+                responseReceived = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void onSubscribe(@Nonnull final Disposable d) {
+            emitter.setCancellable(new Cancellable() {
+                @Override
+                public void cancel() {
+                    d.dispose();
+                    finish(null, false);
+                }
+            });
+        }
+
+        @Override
+        public void onSuccess(@Nonnull T t) {
+            finish(null, true);
+            emitter.onSuccess(t);
+        }
+
+        @Override
+        public void onError(@Nonnull Throwable e) {
+            finish(e, true);
+            if (!emitter.isDisposed()) {
+                emitter.onError(e);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            finish(null, true);
+            emitter.onComplete();
+        }
+
+        private void finish(Throwable error, boolean completed) {
+            if (compareAndSet(false, true)) {
+                if (completed) {
+                    /* requests failed without response are measured till failure */
+                    long received = responseReceived;
+                    adjust((NONE == received ? System.nanoTime() : received) - started, isOverload(error));
+                }
+                release();
+            }
+        }
+    }
+}
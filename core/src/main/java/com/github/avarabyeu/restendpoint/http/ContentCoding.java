@@ -0,0 +1,327 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.SequenceInputStream;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Content codings supported by endpoint: gzip and deflate. Responses are decoded on the fly
+ * while being deserialized, request bodies are gzip-compressed. {@link Inflater}s and {@link Deflater}s
+ * hold native memory released on finalization only, so they are pooled rather than created per request
+ *
+ * @author Andrei Varabyeu
+ */
+final class ContentCoding {
+
+    /**
+     * Value of Accept-Encoding header sent by endpoint
+     */
+    static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    static final String GZIP = "gzip";
+
+    private static final String X_GZIP = "x-gzip";
+    private static final String DEFLATE = "deflate";
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /* inflaters of raw deflate stream (used by gzip) and of zlib-wrapped one */
+    private static final Pool<Inflater> RAW_INFLATERS = new Pool<Inflater>();
+    private static final Pool<Inflater> ZLIB_INFLATERS = new Pool<Inflater>();
+    private static final Pool<Deflater> DEFLATERS = new Pool<Deflater>();
+
+    private ContentCoding() {
+        //statics only
+    }
+
+    /**
+     * @param encoding Value of Content-Encoding header
+     * @return TRUE if content with such encoding can be decoded
+     */
+    static boolean isSupported(String encoding) {
+        String coding = encoding.trim();
+        return GZIP.equalsIgnoreCase(coding) || X_GZIP.equalsIgnoreCase(coding) || DEFLATE.equalsIgnoreCase(coding);
+    }
+
+    /**
+     * Wraps content with decoding stream. Closing of returned stream closes provided one
+     *
+     * @param content  Encoded content
+     * @param encoding Supported value of Content-Encoding header
+     * @return Decoded content
+     * @throws IOException In case of malformed content
+     * @see #isSupported(String)
+     */
+    static InputStream decode(InputStream content, String encoding) throws IOException {
+        String coding = encoding.trim();
+        if (DEFLATE.equalsIgnoreCase(coding)) {
+            /* servers send both zlib-wrapped and raw deflate streams, so check for zlib header */
+            PushbackInputStream in = new PushbackInputStream(content, 2);
+            int cmf = in.read();
+            int flg = in.read();
+            if (-1 != flg) {
+                in.unread(flg);
+            }
+            if (-1 == cmf) {
+                /* empty body */
+                return in;
+            }
+            in.unread(cmf);
+            boolean zlib = 8 == (cmf & 0x0f) && -1 != flg && 0 == ((cmf << 8) | flg) % 31;
+            return zlib ?
+                    new PooledInflaterInputStream(in, ZLIB_INFLATERS, false) :
+                    new PooledInflaterInputStream(in, RAW_INFLATERS, true);
+        }
+        return new GzipInputStream(content);
+    }
+
+    /**
+     * Compresses content with gzip
+     *
+     * @param content Content
+     * @return Compressed content
+     */
+    static byte[] gzip(byte[] content) {
+        Deflater deflater = DEFLATERS.poll();
+        if (null == deflater) {
+            deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4 + 32);
+            /* header: magic, deflate method, no flags, no mtime, no extra flags, unknown OS */
+            out.write(new byte[] { (byte) GZIP_MAGIC, (byte) (GZIP_MAGIC >> 8), 8, 0, 0, 0, 0, 0, 0, (byte) 0xff },
+                    0, 10);
+
+            deflater.setInput(content);
+            deflater.finish();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                int compressed = deflater.deflate(buffer);
+                out.write(buffer, 0, compressed);
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            writeInt(out, (int) crc.getValue());
+            writeInt(out, content.length);
+            return out.toByteArray();
+        } finally {
+            deflater.reset();
+            DEFLATERS.offer(deflater);
+        }
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+
+    /**
+     * Bounded pool of codecs. Codecs exceeding pool capacity are left to finalizer
+     */
+    private static final class Pool<T> {
+
+        private static final int CAPACITY = Runtime.getRuntime().availableProcessors() * 4;
+
+        private final Queue<T> codecs = new ConcurrentLinkedQueue<T>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        T poll() {
+            T codec = codecs.poll();
+            if (null != codec) {
+                size.decrementAndGet();
+            }
+            return codec;
+        }
+
+        void offer(T codec) {
+            if (size.incrementAndGet() <= CAPACITY) {
+                codecs.offer(codec);
+            } else {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Inflating stream returning inflater to pool once closed
+     */
+    private static class PooledInflaterInputStream extends InflaterInputStream {
+
+        private final Pool<Inflater> pool;
+        private boolean closed;
+
+        PooledInflaterInputStream(InputStream in, Pool<Inflater> pool, boolean nowrap) {
+            super(in, inflater(pool, nowrap), BUFFER_SIZE);
+            this.pool = pool;
+        }
+
+        private static Inflater inflater(Pool<Inflater> pool, boolean nowrap) {
+            Inflater inflater = pool.poll();
+            return null == inflater ? new Inflater(nowrap) : inflater;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                inf.reset();
+                pool.offer(inf);
+            }
+            super.close();
+        }
+    }
+
+    /**
+     * Gzip decoding stream. Unlike {@link java.util.zip.GZIPInputStream} uses pooled inflater.
+     * Single gzip member is expected, as HTTP servers produce
+     */
+    private static final class GzipInputStream extends PooledInflaterInputStream {
+
+        private final CRC32 crc = new CRC32();
+        private boolean headerRead;
+        private boolean finished;
+
+        GzipInputStream(InputStream in) {
+            super(in, RAW_INFLATERS, true);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return -1 == read(single, 0, 1) ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (!headerRead) {
+                headerRead = true;
+                if (!readHeader()) {
+                    /* empty body */
+                    finished = true;
+                }
+            }
+            if (finished) {
+                return -1;
+            }
+            int read = super.read(b, off, len);
+            if (-1 == read) {
+                finished = true;
+                readTrailer();
+            } else {
+                crc.update(b, off, read);
+            }
+            return read;
+        }
+
+        /**
+         * @return FALSE if stream is empty
+         */
+        private boolean readHeader() throws IOException {
+            int first = in.read();
+            if (-1 == first) {
+                return false;
+            }
+            if (GZIP_MAGIC != (first | (readByte(in) << 8))) {
+                throw new ZipException("Not in GZIP format");
+            }
+            if (8 != readByte(in)) {
+                throw new ZipException("Unsupported compression method");
+            }
+            int flags = readByte(in);
+            /* mtime, extra flags and OS */
+            skip(in, 6);
+            if (FEXTRA == (flags & FEXTRA)) {
+                skip(in, readShort(in));
+            }
+            if (FNAME == (flags & FNAME)) {
+                skipZeroTerminated(in);
+            }
+            if (FCOMMENT == (flags & FCOMMENT)) {
+                skipZeroTerminated(in);
+            }
+            if (FHCRC == (flags & FHCRC)) {
+                skip(in, 2);
+            }
+            return true;
+        }
+
+        private void readTrailer() throws IOException {
+            /* inflater may have consumed part of trailer into buffer */
+            InputStream trailer = in;
+            int remaining = inf.getRemaining();
+            if (remaining > 0) {
+                trailer = new SequenceInputStream(new ByteArrayInputStream(buf, len - remaining, remaining), in);
+            }
+            long expectedCrc = readInt(trailer);
+            long expectedSize = readInt(trailer);
+            if (expectedCrc != crc.getValue() || expectedSize != (inf.getBytesWritten() & 0xffffffffL)) {
+                throw new ZipException("Corrupt GZIP trailer");
+            }
+        }
+
+        private static long readInt(InputStream in) throws IOException {
+            return (long) readShort(in) | ((long) readShort(in) << 16);
+        }
+
+        private static int readShort(InputStream in) throws IOException {
+            return readByte(in) | (readByte(in) << 8);
+        }
+
+        private static int readByte(InputStream in) throws IOException {
+            int b = in.read();
+            if (-1 == b) {
+                throw new EOFException("Unexpected end of GZIP stream");
+            }
+            return b;
+        }
+
+        private static void skip(InputStream in, int bytes) throws IOException {
+            for (int i = 0; i < bytes; i++) {
+                readByte(in);
+            }
+        }
+
+        private static void skipZeroTerminated(InputStream in) throws IOException {
+            while (0 != readByte(in)) {
+                //skip
+            }
+        }
+    }
+}
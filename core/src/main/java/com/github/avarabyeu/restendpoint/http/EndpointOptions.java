@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import io.reactivex.Scheduler;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+
+import javax.net.ssl.SSLContext;
+import java.util.concurrent.Executor;
+
+/**
+ * Optional settings of {@link HttpClientRestEndpoint} collected by {@link RestEndpoints.Builder}.
+ * NULL means feature is disabled or default is used
+ *
+ * @author Andrei Varabyeu
+ */
+final class EndpointOptions {
+
+    /**
+     * Connection pool HTTP client is built with. Used to expose pool statistics
+     */
+    PoolingNHttpClientConnectionManager connectionPool;
+
+    /**
+     * Scheduler request serialization is executed on
+     */
+    Scheduler scheduler;
+
+    /**
+     * Executor response handling is executed on
+     */
+    Executor decodeExecutor;
+
+    /**
+     * Cache of GET responses
+     */
+    ResponseCache responseCache;
+
+    /**
+     * Max size of response body to be cached
+     */
+    int maxCachedBodySize;
+
+    /**
+     * Whether concurrent identical GETs share single in-flight request
+     */
+    boolean coalesceGets;
+
+    /**
+     * Default retry policy of requests
+     */
+    RetryPolicy retryPolicy;
+
+    /**
+     * Budget shared by retries of all requests
+     */
+    RetryBudget retryBudget;
+
+    /**
+     * Hedging policy of idempotent requests
+     */
+    HedgePolicy hedgePolicy;
+
+    /**
+     * Settings of per-route circuit breakers
+     */
+    CircuitBreakerConfig circuitBreaker;
+
+    /**
+     * Limits rate of requests
+     */
+    RateLimiter rateLimiter;
+
+    /**
+     * Limits number of requests in flight
+     */
+    ConcurrencyLimiter concurrencyLimiter;
+
+    /**
+     * Listener of request metrics
+     */
+    RequestListener requestListener;
+
+    /**
+     * Min size of request body to be gzip-compressed
+     */
+    Integer compressionThreshold;
+
+    /**
+     * Whether request bodies are serialized into memory and sent with Content-Length
+     */
+    boolean bufferRequestBodies;
+
+    /**
+     * Whether compressed responses are left as is
+     */
+    boolean disableDecompression;
+
+    /**
+     * Whether requests are sent over HTTP/2 capable JDK client rather than Apache HttpAsyncClient
+     */
+    boolean http2;
+
+    /**
+     * SSL context of HTTP/2 transport
+     */
+    SSLContext sslContext;
+
+    /**
+     * Value of preemptive Authorization header endpoint adds to each request. NULL if transport authorizes
+     * requests itself
+     */
+    String authorization;
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hedging policy: once request isn't completed within hedge delay, duplicate request is sent
+ * and whichever completes first wins. Loser is cancelled. Delay is either fixed or based on
+ * observed latency percentile of endpoint's requests
+ *
+ * @author Andrei Varabyeu
+ */
+@Immutable
+public final class HedgePolicy {
+
+    private final long delay;
+    private final double percentile;
+
+    private HedgePolicy(long delay, double percentile) {
+        this.delay = delay;
+        this.percentile = percentile;
+    }
+
+    /**
+     * Sends hedged request once primary one isn't completed within provided delay
+     *
+     * @param delay Hedge delay
+     * @param unit  Time unit
+     * @return Hedging policy
+     */
+    public static HedgePolicy fixedDelay(long delay, TimeUnit unit) {
+        Preconditions.checkArgument(delay >= 0, "Delay shouldn't be negative");
+        return new HedgePolicy(unit.toMillis(delay), 0);
+    }
+
+    /**
+     * Sends hedged request once primary one takes longer than provided percentile of observed latencies,
+     * e.g. 0.95 hedges the slowest 5% of requests
+     *
+     * @param percentile Latency percentile, from 0 to 1 exclusive
+     * @param minDelay   Min hedge delay. Used until enough latencies are observed
+     * @param unit       Time unit
+     * @return Hedging policy
+     */
+    public static HedgePolicy percentile(double percentile, long minDelay, TimeUnit unit) {
+        Preconditions.checkArgument(percentile > 0 && percentile < 1, "Percentile should be between 0 and 1");
+        Preconditions.checkArgument(minDelay >= 0, "Delay shouldn't be negative");
+        return new HedgePolicy(unit.toMillis(minDelay), percentile);
+    }
+
+    /**
+     * @return Fixed delay or min delay of percentile-based policy in milliseconds
+     */
+    public long getDelay() {
+        return delay;
+    }
+
+    /**
+     * @return Latency percentile or 0 if delay is fixed
+     */
+    public double getPercentile() {
+        return percentile;
+    }
+
+    /**
+     * @return TRUE if delay is based on observed latencies
+     */
+    public boolean isAdaptive() {
+        return percentile > 0;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Snapshot of hedging statistics
+ *
+ * @author Andrei Varabyeu
+ * @see HedgePolicy
+ */
+@Immutable
+public final class HedgeStats {
+
+    private final long requests;
+    private final long hedges;
+    private final long hedgeWins;
+    private final long delay;
+
+    HedgeStats(long requests, long hedges, long hedgeWins, long delay) {
+        this.requests = requests;
+        this.hedges = hedges;
+        this.hedgeWins = hedgeWins;
+        this.delay = delay;
+    }
+
+    /**
+     * @return Number of requests hedging was applicable to
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * @return Number of hedged (duplicate) requests sent
+     */
+    public long getHedges() {
+        return hedges;
+    }
+
+    /**
+     * @return Number of hedged requests completed earlier than primary ones
+     */
+    public long getHedgeWins() {
+        return hedgeWins;
+    }
+
+    /**
+     * @return Current hedge delay in milliseconds
+     */
+    public long getDelay() {
+        return delay;
+    }
+
+    @Override
+    public String toString() {
+        return "HedgeStats[requests=" + requests + ", hedges=" + hedges + ", hedgeWins=" + hedgeWins
+                + ", delay=" + delay + "ms]";
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import io.reactivex.Maybe;
+import io.reactivex.MaybeEmitter;
+import io.reactivex.MaybeObserver;
+import io.reactivex.MaybeOnSubscribe;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Applies {@link HedgePolicy} to requests and keeps track of their latencies.
+ * Percentile of latencies is recalculated periodically over the ring of recent samples,
+ * so recording latency is cheap and lock-free
+ *
+ * @author Andrei Varabyeu
+ */
+final class Hedger {
+
+    /* number of recent latencies percentile is calculated of */
+    private static final int SAMPLES = 512;
+
+    /* percentile is recalculated once per this number of recorded latencies */
+    private static final int RECALCULATION_PERIOD = 64;
+
+    private final HedgePolicy policy;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+
+    private final AtomicLongArray latencies = new AtomicLongArray(SAMPLES);
+    private final AtomicInteger recorded = new AtomicInteger();
+
+    /* current hedge delay in milliseconds */
+    private volatile long delay;
+
+    Hedger(HedgePolicy policy) {
+        this.policy = policy;
+        this.delay = policy.getDelay();
+    }
+
+    /**
+     * Hedges request. Request should be cold, i.e. each subscription should send new request,
+     * and should cancel underlying request once disposed. Once hedge is sent, the first successful
+     * response wins and request fails only if both copies fail
+     *
+     * @param request Request to be hedged
+     * @param <T>     Type of response
+     * @return Response of request completed successfully first
+     */
+    <T> Maybe<T> hedge(final Maybe<T> request) {
+        return Maybe.create(new MaybeOnSubscribe<T>() {
+            @Override
+            public void subscribe(@Nonnull MaybeEmitter<T> emitter) {
+                requests.incrementAndGet();
+                new HedgedRequest<T>(request, emitter).start();
+            }
+        });
+    }
+
+    /**
+     * @return Snapshot of hedging statistics
+     */
+    HedgeStats getStats() {
+        return new HedgeStats(requests.get(), hedges.get(), hedgeWins.get(), delay);
+    }
+
+    private void record(long latency) {
+        if (!policy.isAdaptive()) {
+            return;
+        }
+        int index = recorded.getAndIncrement() & Integer.MAX_VALUE;
+        latencies.set(index % SAMPLES, latency);
+        if (RECALCULATION_PERIOD - 1 == index % RECALCULATION_PERIOD) {
+            int size = index < SAMPLES ? index + 1 : SAMPLES;
+            long[] sorted = new long[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = latencies.get(i);
+            }
+            Arrays.sort(sorted);
+            long observed = sorted[Math.min(size - 1, (int) (size * policy.getPercentile()))];
+            this.delay = Math.max(policy.getDelay(), observed);
+        }
+    }
+
+    /**
+     * Single hedged request: primary copy and hedge sent once delay is elapsed. Winner disposes the loser
+     * since emitter disposes all the subscriptions once terminated
+     *
+     * @param <T> Type of response
+     */
+    private final class HedgedRequest<T> {
+
+        private final Maybe<T> request;
+        private final MaybeEmitter<T> emitter;
+        private final CompositeDisposable subscriptions = new CompositeDisposable();
+        private final long started = System.nanoTime();
+
+        /* guarded by this */
+        private int running;
+        private boolean finished;
+        private Throwable error;
+
+        private HedgedRequest(Maybe<T> request, MaybeEmitter<T> emitter) {
+            this.request = request;
+            this.emitter = emitter;
+        }
+
+        private void start() {
+            emitter.setDisposable(subscriptions);
+            subscriptions.add(Schedulers.computation().scheduleDirect(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (HedgedRequest.this) {
+                        if (finished) {
+                            return;
+                        }
+                        running++;
+                    }
+                    hedges.incrementAndGet();
+                    send(true);
+                }
+            }, delay, TimeUnit.MILLISECONDS));
+            synchronized (this) {
+                running++;
+            }
+            send(false);
+        }
+
+        private void send(final boolean hedge) {
+            request.subscribe(new MaybeObserver<T>() {
+                @Override
+                public void onSubscribe(@Nonnull Disposable d) {
+                    subscriptions.add(d);
+                }
+
+                @Override
+                public void onSuccess(@Nonnull T response) {
+                    if (finish(hedge)) {
+                        emitter.onSuccess(response);
+                    }
+                }
+
+                @Override
+                public void onError(@Nonnull Throwable e) {
+                    Throwable failure;
+                    synchronized (HedgedRequest.this) {
+                        if (finished) {
+                            return;
+                        }
+                        if (null == error) {
+                            error = e;
+                        }
+                        /* the other copy may still succeed */
+                        if (--running > 0) {
+                            return;
+                        }
+                        finished = true;
+                        failure = error;
+                    }
+                    emitter.onError(failure);
+                }
+
+                @Override
+                public void onComplete() {
+                    if (finish(hedge)) {
+                        emitter.onComplete();
+                    }
+                }
+            });
+        }
+
+        private boolean finish(boolean hedge) {
+            synchronized (this) {
+                if (finished) {
+                    return false;
+                }
+                finished = true;
+            }
+            if (hedge) {
+                hedgeWins.incrementAndGet();
+            }
+            record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return true;
+        }
+    }
+}
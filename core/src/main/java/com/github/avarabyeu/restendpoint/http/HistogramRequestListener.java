@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Default {@link RequestListener} aggregating metrics into {@link LatencyHistogram}s.
+ * Metrics are grouped by HTTP method and URL template, e.g. <b>GET /users/{id}</b>.
+ * Recording is lock-free and doesn't allocate once group is created. Number of groups is bounded,
+ * requests exceeding it are aggregated into {@link #OTHER} group
+ *
+ * @author Andrei Varabyeu
+ */
+public final class HistogramRequestListener implements RequestListener {
+
+    /**
+     * Group of requests not fitting into max number of groups
+     */
+    public static final String OTHER = "OTHER";
+
+    private static final int DEFAULT_MAX_GROUPS = 256;
+
+    private final ConcurrentMap<String, RequestStats> stats = new ConcurrentHashMap<String, RequestStats>();
+
+    private final int maxGroups;
+
+    public HistogramRequestListener() {
+        this(DEFAULT_MAX_GROUPS);
+    }
+
+    /**
+     * @param maxGroups Max number of method/URL template groups, {@link #OTHER} group is not counted
+     */
+    public HistogramRequestListener(int maxGroups) {
+        Preconditions.checkArgument(maxGroups > 0, "Max number of groups should be positive");
+        this.maxGroups = maxGroups;
+    }
+
+    @Override
+    public void onRequestCompleted(RequestMetrics metrics) {
+        String key = metrics.getMethod() + " " + metrics.getUrlTemplate();
+        RequestStats requestStats = stats.get(key);
+        if (null == requestStats) {
+            /* bound is approximate under concurrent creation of groups */
+            if (stats.size() >= maxGroups) {
+                key = OTHER;
+                requestStats = stats.get(key);
+            }
+            if (null == requestStats) {
+                requestStats = new RequestStats();
+                RequestStats existing = stats.putIfAbsent(key, requestStats);
+                if (null != existing) {
+                    requestStats = existing;
+                }
+            }
+        }
+        requestStats.record(metrics);
+    }
+
+    /**
+     * @return Statistics by HTTP method and URL template, e.g. <b>GET /users/{id}</b>
+     */
+    public Map<String, RequestStats> getStats() {
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Aggregated metrics of requests with the same method and URL template
+     */
+    public static final class RequestStats {
+
+        private final LatencyHistogram total = new LatencyHistogram();
+        private final LatencyHistogram connection = new LatencyHistogram();
+        private final LatencyHistogram timeToFirstByte = new LatencyHistogram();
+        private final LatencyHistogram bodyRead = new LatencyHistogram();
+        private final LatencyHistogram deserialization = new LatencyHistogram();
+
+        /* index 0 is for requests without response, others are status classes */
+        private final AtomicLongArray statuses = new AtomicLongArray(6);
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong requestBytes = new AtomicLong();
+        private final AtomicLong responseBytes = new AtomicLong();
+
+        private RequestStats() {
+        }
+
+        private void record(RequestMetrics metrics) {
+            total.record(metrics.getTotalTime(), TimeUnit.NANOSECONDS);
+            record(connection, metrics.getConnectionTime());
+            record(timeToFirstByte, metrics.getTimeToFirstByte());
+            record(bodyRead, metrics.getBodyReadTime());
+            record(deserialization, metrics.getDeserializationTime());
+
+            int status = metrics.getStatus() / 100;
+            statuses.incrementAndGet(status > 0 && status < statuses.length() ? status : 0);
+            if (null != metrics.getError()) {
+                errors.incrementAndGet();
+            }
+            requestBytes.addAndGet(metrics.getRequestBytes());
+            responseBytes.addAndGet(metrics.getResponseBytes());
+        }
+
+        private static void record(LatencyHistogram histogram, long value) {
+            if (RequestMetrics.NONE != value) {
+                histogram.record(value, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        /**
+         * @return Total time of requests
+         * @see RequestMetrics#getTotalTime()
+         */
+        public LatencyHistogram getTotal() {
+            return total;
+        }
+
+        /**
+         * @return Time of connection lease, establishment and request write
+         * @see RequestMetrics#getConnectionTime()
+         */
+        public LatencyHistogram getConnection() {
+            return connection;
+        }
+
+        /**
+         * @see RequestMetrics#getTimeToFirstByte()
+         */
+        public LatencyHistogram getTimeToFirstByte() {
+            return timeToFirstByte;
+        }
+
+        /**
+         * @see RequestMetrics#getBodyReadTime()
+         */
+        public LatencyHistogram getBodyRead() {
+            return bodyRead;
+        }
+
+        /**
+         * @see RequestMetrics#getDeserializationTime()
+         */
+        public LatencyHistogram getDeserialization() {
+            return deserialization;
+        }
+
+        /**
+         * @param type Status type
+         * @return Number of responses with status of provided type
+         */
+        public long getResponses(StatusType type) {
+            return statuses.get(type.value());
+        }
+
+        /**
+         * @return Number of failed requests, including ones failed with error status
+         */
+        public long getErrors() {
+            return errors.get();
+        }
+
+        /**
+         * @return Total number of request body bytes sent
+         */
+        public long getRequestBytes() {
+            return requestBytes.get();
+        }
+
+        /**
+         * @return Total number of response body bytes received
+         */
+        public long getResponseBytes() {
+            return responseBytes.get();
+        }
+    }
+}
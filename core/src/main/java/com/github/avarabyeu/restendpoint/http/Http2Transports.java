@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http;
+
+/**
+ * Factory of HTTP/2 {@link Transport}. HTTP/2 transport is based on JDK HTTP client, so
+ * the factory is overridden in multi-release jar by implementation for Java 11 and later
+ *
+ * @author Andrei Varabyeu
+ */
+final class Http2Transports {
+
+    private Http2Transports() {
+    }
+
+    /**
+     * @param options Optional settings
+     * @return HTTP/2 transport
+     * @throws UnsupportedOperationException if runtime doesn't provide HTTP/2 client
+     */
+    static Transport create(EndpointOptions options) {
+        throw new UnsupportedOperationException("HTTP/2 transport requires Java 11 or later");
+    }
+}
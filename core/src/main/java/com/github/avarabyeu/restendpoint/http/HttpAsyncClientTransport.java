@@ -0,0 +1,324 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.Multimap;
+import io.reactivex.Scheduler;
+import io.reactivex.functions.Cancellable;
+import io.reactivex.schedulers.Schedulers;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.FileContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+import org.apache.http.protocol.HttpContext;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link Transport} based on Apache {@link CloseableHttpAsyncClient}. Neither request nor response body
+ * is accumulated in memory: request body is written on provided scheduler into bounded buffer drained
+ * by I/O reactor, response body is exposed as stream backed by bounded buffer
+ *
+ * @author Andrei Varabyeu
+ */
+public class HttpAsyncClientTransport implements Transport {
+
+    /**
+     * Size of buffers request and response bodies are streamed through
+     */
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final CloseableHttpAsyncClient httpClient;
+
+    /**
+     * Scheduler request bodies are written on
+     */
+    private final Scheduler scheduler;
+
+    /**
+     * @param httpClient Apache Async Http Client. Started if it isn't running yet
+     */
+    public HttpAsyncClientTransport(CloseableHttpAsyncClient httpClient) {
+        this(httpClient, Schedulers.io());
+    }
+
+    /**
+     * @param httpClient Apache Async Http Client. Started if it isn't running yet
+     * @param scheduler  Scheduler request bodies are written on. Shouldn't execute tasks on the calling thread
+     *                   since bodies are streamed in blocking manner to I/O reactor
+     */
+    public HttpAsyncClientTransport(CloseableHttpAsyncClient httpClient, Scheduler scheduler) {
+        this.httpClient = Preconditions.checkNotNull(httpClient, "HTTP client shouldn't be null");
+        this.scheduler = Preconditions.checkNotNull(scheduler, "Scheduler shouldn't be null");
+        if (!httpClient.isRunning()) {
+            httpClient.start();
+        }
+    }
+
+    @Override
+    public Cancellable send(TransportRequest request, final TransportCallback callback) {
+        final StreamingResponseConsumer consumer = new StreamingResponseConsumer(BUFFER_SIZE) {
+            @Override
+            protected void onResponse(HttpResponse response, InputStream content) {
+                callback.onResponse(new HttpResponseAdapter(response, content));
+            }
+
+            @Override
+            protected void onFailure(Exception e) {
+                callback.onFailure(e);
+            }
+
+            @Override
+            protected void onCancel() {
+                callback.onFailure(new TimeoutException());
+            }
+        };
+        HttpUriRequest httpRequest = toHttpRequest(request);
+        HttpAsyncRequestProducer producer = new CountingRequestProducer(HttpAsyncMethods.create(httpRequest),
+                callback, getContentLength(httpRequest));
+        final Future<Void> future = httpClient.execute(producer, consumer, null);
+        return new Cancellable() {
+            @Override
+            public void cancel() {
+                future.cancel(true);
+                consumer.abort();
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
+    private HttpUriRequest toHttpRequest(TransportRequest request) {
+        RequestBuilder builder = RequestBuilder.create(request.getMethod().name()).setUri(request.getUri());
+        for (Map.Entry<String, String> header : request.getHeaders().entries()) {
+            builder.addHeader(header.getKey(), header.getValue());
+        }
+        if (null != request.getBody()) {
+            builder.setEntity(toEntity(request.getBody()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return Length of request body. Zero if request has no body, negative if length isn't known in advance
+     */
+    private static long getContentLength(HttpUriRequest request) {
+        if (request instanceof HttpEntityEnclosingRequest) {
+            HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+            return null == entity ? 0 : entity.getContentLength();
+        }
+        return 0;
+    }
+
+    /**
+     * Bodies prepared in memory are sent as is, others are written right into the connection
+     */
+    private HttpEntity toEntity(RequestBody body) {
+        if (body instanceof RequestBody.Multipart) {
+            return ((RequestBody.Multipart) body).getEntity();
+        }
+        if (body instanceof RequestBody.Bytes) {
+            ByteArrayEntity entity = new ByteArrayEntity(((RequestBody.Bytes) body).getContent());
+            entity.setContentType(body.getContentType());
+            entity.setContentEncoding(body.getContentEncoding());
+            return entity;
+        }
+        return new RequestBodyEntity(body, scheduler, BUFFER_SIZE);
+    }
+
+    /**
+     * Exposes Apache response as {@link TransportResponse}
+     */
+    private static final class HttpResponseAdapter implements TransportResponse {
+
+        private final HttpResponse response;
+        private final InputStream body;
+
+        private HttpResponseAdapter(HttpResponse response, InputStream body) {
+            this.response = response;
+            this.body = body;
+        }
+
+        @Override
+        public int getStatus() {
+            return response.getStatusLine().getStatusCode();
+        }
+
+        @Override
+        public String getReason() {
+            return response.getStatusLine().getReasonPhrase();
+        }
+
+        @Override
+        public Multimap<String, String> getHeaders() {
+            ImmutableListMultimap.Builder<String, String> headers = ImmutableListMultimap.builder();
+            for (Header header : response.getAllHeaders()) {
+                headers.put(header.getName(), null == header.getValue() ? "" : header.getValue());
+            }
+            return headers.build();
+        }
+
+        @Nullable
+        @Override
+        public String getHeader(String name) {
+            Header header = response.getFirstHeader(name);
+            return null == header ? null : header.getValue();
+        }
+
+        @Override
+        public InputStream getBody() {
+            return body;
+        }
+    }
+
+    /**
+     * Delegating producer reporting body bytes once request is completely written. Bytes are counted only if
+     * body length isn't known in advance, so the encoder is passed to the delegate as is otherwise
+     */
+    private static final class CountingRequestProducer implements HttpAsyncRequestProducer {
+
+        private final HttpAsyncRequestProducer delegate;
+        private final TransportCallback callback;
+        private final long contentLength;
+
+        /* updated by I/O reactor thread only */
+        private long bytesSent;
+
+        private CountingRequestProducer(HttpAsyncRequestProducer delegate, TransportCallback callback,
+                long contentLength) {
+            this.delegate = delegate;
+            this.callback = callback;
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public HttpHost getTarget() {
+            return delegate.getTarget();
+        }
+
+        @Override
+        public HttpRequest generateRequest() throws IOException, HttpException {
+            return delegate.generateRequest();
+        }
+
+        @Override
+        public void produceContent(ContentEncoder encoder, IOControl ioctrl) throws IOException {
+            if (contentLength >= 0) {
+                delegate.produceContent(encoder, ioctrl);
+            } else if (encoder instanceof FileContentEncoder) {
+                /* keeps zero-copy file transfer available to the delegate */
+                delegate.produceContent(new CountingFileEncoder((FileContentEncoder) encoder), ioctrl);
+            } else {
+                delegate.produceContent(new CountingEncoder(encoder), ioctrl);
+            }
+        }
+
+        @Override
+        public void requestCompleted(HttpContext context) {
+            callback.onRequestSent(contentLength >= 0 ? contentLength : bytesSent);
+            delegate.requestCompleted(context);
+        }
+
+        @Override
+        public void failed(Exception ex) {
+            delegate.failed(ex);
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return delegate.isRepeatable();
+        }
+
+        @Override
+        public void resetRequest() throws IOException {
+            delegate.resetRequest();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        private class CountingEncoder implements ContentEncoder {
+
+            private final ContentEncoder encoder;
+
+            CountingEncoder(ContentEncoder encoder) {
+                this.encoder = encoder;
+            }
+
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                int written = encoder.write(src);
+                bytesSent += written;
+                return written;
+            }
+
+            @Override
+            public void complete() throws IOException {
+                encoder.complete();
+            }
+
+            @Override
+            public boolean isCompleted() {
+                return encoder.isCompleted();
+            }
+        }
+
+        private final class CountingFileEncoder extends CountingEncoder implements FileContentEncoder {
+
+            private final FileContentEncoder encoder;
+
+            CountingFileEncoder(FileContentEncoder encoder) {
+                super(encoder);
+                this.encoder = encoder;
+            }
+
+            @Override
+            public long transfer(FileChannel src, long position, long count) throws IOException {
+                long transferred = encoder.transfer(src, position, count);
+                bytesSent += transferred;
+                return transferred;
+            }
+        }
+    }
+}
@@ -0,0 +1,691 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.github.avarabyeu.restendpoint.http.exception.RestEndpointIOException;
+import com.github.avarabyeu.restendpoint.serializer.Serializer;
+import com.github.avarabyeu.restendpoint.serializer.VoidSerializer;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.Scheduler;
+import io.reactivex.functions.Function;
+import io.reactivex.schedulers.Schedulers;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.reactivestreams.Publisher;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RestEndpoint} implementation. Requests are sent over {@link Transport},
+ * Apache HTTP Components {@link CloseableHttpAsyncClient} based one is used by default.
+ * Endpoint composes request pipeline of collaborators: {@link RequestFactory} builds requests,
+ * {@link CachingExecution} serves them from cache, {@link ResilientExecution} applies retries, hedging,
+ * circuit breakers and limiters to each {@link TransportExchange} and {@link ResponseHandler} handles responses
+ *
+ * @author Andrei Varabyeu
+ */
+public class HttpClientRestEndpoint implements RestEndpoint, Closeable {
+
+    /* max number of cached serializer resolution results */
+    private static final long SERIALIZERS_CACHE_SIZE = 1000;
+
+    /* by default retries may add up to 10% of requests, but not more than 100 in a burst */
+    private static final double DEFAULT_RETRY_RATIO = 0.1;
+    private static final int DEFAULT_MAX_RETRIES = 100;
+
+    /* decode threads wait for body bytes as well as deserialize them, so there are two threads per core */
+    private static final int DEFAULT_DECODE_THREADS = 2 * Runtime.getRuntime().availableProcessors();
+    private static final int DEFAULT_DECODE_QUEUE_SIZE = 1024;
+    private static final long DECODE_THREAD_KEEP_ALIVE = 60;
+
+    /**
+     * Serializer for converting HTTP messages
+     */
+    private final SerializerResolver serializers;
+
+    /**
+     * Builds requests
+     */
+    private final RequestFactory requests;
+
+    /**
+     * Transport requests are sent over
+     */
+    private final Transport transport;
+
+    /**
+     * Connection pool of HTTP Client. NULL if pool is not managed by endpoint
+     */
+    private final PoolingNHttpClientConnectionManager connectionPool;
+
+    /**
+     * Executor response handling (error handling, deserialization) is executed on
+     */
+    private final Executor decodeExecutor;
+
+    /**
+     * Default decode executor created by endpoint. NULL if executor is provided by user
+     */
+    private final ExecutorService defaultDecodeExecutor;
+
+    /**
+     * Handles responses
+     */
+    private final ResponseHandler responseHandler;
+
+    /**
+     * Serves GET requests from cache and coalesces them
+     */
+    private final CachingExecution caching;
+
+    /**
+     * Applies retries, hedging, circuit breakers and limiters to requests
+     */
+    private final ResilientExecution resilience;
+
+    /**
+     * Default retry policy. NULL if requests are not retried by default
+     */
+    private final RetryPolicy retryPolicy;
+
+    /**
+     * Listener of requests. NULL if requests aren't instrumented
+     */
+    private final RequestListener requestListener;
+
+    /**
+     * Default constructor.
+     *
+     * @param httpClient   Apache Async Http Client
+     * @param serializers  Serializer for converting HTTP messages. Shouldn't be null
+     * @param errorHandler Error handler for HTTP messages
+     */
+    public HttpClientRestEndpoint(CloseableHttpAsyncClient httpClient, List<Serializer> serializers,
+            ErrorHandler errorHandler) {
+        this(httpClient, serializers, errorHandler, null);
+    }
+
+    /**
+     * Default constructor.
+     *
+     * @param httpClient   Apache Async Http Client
+     * @param serializers  Serializer for converting HTTP messages. Shouldn't be null
+     * @param errorHandler Error handler for HTTP messages
+     * @param baseUrl      REST WebService Base URL
+     */
+    public HttpClientRestEndpoint(CloseableHttpAsyncClient httpClient, List<Serializer> serializers,
+            ErrorHandler errorHandler,
+            String baseUrl) {
+        this(new HttpAsyncClientTransport(httpClient), serializers, errorHandler, baseUrl);
+    }
+
+    /**
+     * Constructor of endpoint sending requests over provided transport
+     *
+     * @param transport    Transport requests are sent over
+     * @param serializers  Serializer for converting HTTP messages. Shouldn't be null
+     * @param errorHandler Error handler for HTTP messages
+     * @param baseUrl      REST WebService Base URL
+     */
+    public HttpClientRestEndpoint(Transport transport, List<Serializer> serializers, ErrorHandler errorHandler,
+            String baseUrl) {
+        this(transport, serializers, errorHandler, baseUrl, new EndpointOptions());
+    }
+
+    /**
+     * Constructor used by {@link RestEndpoints.Builder}
+     *
+     * @param transport    Transport requests are sent over
+     * @param serializers  Serializer for converting HTTP messages. Shouldn't be null
+     * @param errorHandler Error handler for HTTP messages
+     * @param baseUrl      REST WebService Base URL
+     * @param options      Optional settings. Schedulers should never execute tasks on the calling thread
+     *                     since response bodies are read in blocking manner
+     */
+    HttpClientRestEndpoint(Transport transport,
+            List<Serializer> serializers,
+            ErrorHandler errorHandler,
+            String baseUrl,
+            EndpointOptions options) {
+
+        Preconditions
+                .checkArgument(null != serializers && !serializers.isEmpty(), "There is no any serializer provided");
+        //noinspection ConstantConditions
+        this.serializers = new SerializerResolver(
+                ImmutableList.<Serializer>builder().addAll(serializers).add(new VoidSerializer()).build(),
+                SERIALIZERS_CACHE_SIZE);
+
+        if (!Strings.isNullOrEmpty(baseUrl)) {
+            Preconditions.checkArgument(IOUtils.isValidUrl(baseUrl), "'%s' is not valid URL", baseUrl);
+        }
+        this.requests = new RequestFactory(this.serializers, baseUrl,
+                null == options.compressionThreshold ? RestCommand.NO_COMPRESSION : options.compressionThreshold,
+                options.bufferRequestBodies, !options.disableDecompression, options.authorization,
+                null == options.scheduler ? Schedulers.io() : options.scheduler);
+
+        this.transport = Preconditions.checkNotNull(transport, "Transport shouldn't be null");
+        this.connectionPool = options.connectionPool;
+        if (null != options.decodeExecutor) {
+            this.decodeExecutor = options.decodeExecutor;
+            this.defaultDecodeExecutor = null;
+        } else if (null != options.scheduler) {
+            final Scheduler scheduler = options.scheduler;
+            this.decodeExecutor = new Executor() {
+                @Override
+                public void execute(@Nonnull Runnable command) {
+                    scheduler.scheduleDirect(command);
+                }
+            };
+            this.defaultDecodeExecutor = null;
+        } else {
+            this.defaultDecodeExecutor = newDecodeExecutor();
+            this.decodeExecutor = defaultDecodeExecutor;
+        }
+        this.responseHandler = new ResponseHandler(errorHandler == null ? new DefaultErrorHandler() : errorHandler,
+                options.responseCache, options.maxCachedBodySize, !options.disableDecompression);
+        this.caching = new CachingExecution(options.responseCache, options.coalesceGets, decodeExecutor);
+        this.resilience = new ResilientExecution(
+                null == options.retryBudget ?
+                        new RetryBudget(DEFAULT_RETRY_RATIO, DEFAULT_MAX_RETRIES) :
+                        options.retryBudget,
+                options.hedgePolicy, options.circuitBreaker, options.rateLimiter, options.concurrencyLimiter);
+        this.retryPolicy = options.retryPolicy;
+        this.requestListener = options.requestListener;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see RestEndpoint#post(java.lang .String,
+     * java.lang.Object, java.lang.Class)
+     */
+    @Override
+    public final <RQ, RS> Maybe<Response<RS>> post(String resource, RQ rq, Class<RS> clazz)
+            throws RestEndpointIOException {
+        TransportRequest post = requests.create(HttpMethod.POST, resource, rq);
+        return executeInternal(post, HttpEntityCallback.<RS>of(serializers, clazz));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see RestEndpoint#postFor(java.lang .String,
+     * java.lang.Object, java.lang.Class)
+     */
+    @Override
+    public final <RQ, RS> Maybe<RS> postFor(String resource, RQ rq, Class<RS> clazz)
+            throws RestEndpointIOException {
+        return post(resource, rq, clazz).flatMap(new BodyTransformer<RS>());
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see RestEndpoint#post(java.lang.String,
+     * java.lang.Object, java.lang.reflect.Type)
+     */
+    @Override
+    public final <RQ, RS> Maybe<Response<RS>> post(String resource, RQ rq, Type type)
+            throws RestEndpointIOException {
+        TransportRequest post = requests.create(HttpMethod.POST, resource, rq);
+        return executeInternal(post, HttpEntityCallback.<RS>of(serializers, type));
+    }
+
+    @Override
+    public final <RQ, RS> Maybe<RS> postFor(String resource, RQ rq, Type type)
+            throws RestEndpointIOException {
+        Maybe<Response<RS>> post = post(resource, rq, type);
+        return post.flatMap(new BodyTransformer<RS>());
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see RestEndpoint#post(java.lang .String,
+     * MultiPartRequest, java.lang.Class)
+     */
+    @Override
+    public final <RS> Maybe<Response<RS>> post(String resource, MultiPartRequest request, Class<RS> clazz)
+            throws RestEndpointIOException {
+        TransportRequest post = requests.multipart(resource, request);
+        return executeInternal(post, HttpEntityCallback.<RS>of(serializers, clazz));
+    }
+
+    @Override
+    public final <RS> Maybe<RS> postFor(String resource, MultiPartRequest request, Class<RS> clazz)
+            throws RestEndpointIOException {
+        return post(resource, request, clazz).flatMap(new BodyTransformer<RS>());
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see RestEndpoint#put(java.lang .String,
+     * java.lang.Object, java.lang.Class)
+     */
+    @Override
+    public final <RQ, RS> Maybe<Response<RS>> put(String resource, RQ rq, Class<RS> clazz)
+            throws RestEndpointIOException {
+        TransportRequest put = requests.create(HttpMethod.PUT, resource, rq);
+        return executeInternal(put, HttpEntityCallback.<RS>of(serializers, clazz));
+    }
+
+    @Override
+    public final <RQ, RS> Maybe<RS> putFor(String resource, RQ rq, Class<RS> clazz)
+            throws RestEndpointIOException {
+        return put(resource, rq, clazz).flatMap(new BodyTransformer<RS>());
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see RestEndpoint#put(java.lang.String,
+     * java.lang.Object, java.lang.reflect.Type)
+     */
+    @Override
+    public final <RQ, RS> Maybe<Response<RS>> put(String resource, RQ rq, Type type)
+            throws RestEndpointIOException {
+        TransportRequest put = requests.create(HttpMethod.PUT, resource, rq);
+        return executeInternal(put, HttpEntityCallback.<RS>of(serializers, type));
+    }
+
+    @Override
+    public final <RQ, RS> Maybe<RS> putFor(String resource, RQ rq, Type type)
+            throws RestEndpointIOException {
+        Maybe<Response<RS>> rs = put(resource, rq, type);
+        return rs.flatMap(new BodyTransformer<RS>());
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see RestEndpoint#delete(java.
+     * lang.String, java.lang.Class)
+     */
+    @Override
+    public final <RS> Maybe<Response<RS>> delete(String resource, Class<RS> clazz)
+            throws RestEndpointIOException {
+        TransportRequest delete = requests.create(HttpMethod.DELETE, resource);
+        return executeInternal(delete, HttpEntityCallback.<RS>of(serializers, clazz));
+    }
+
+    @Override
+    public final <RS> Maybe<RS> deleteFor(String resource, Class<RS> clazz) throws RestEndpointIOException {
+        return delete(resource, clazz).flatMap(new BodyTransformer<RS>());
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see RestEndpoint#get(java.lang .String,
+     * java.lang.Class)
+     */
+    @Override
+    public final <RS> Maybe<Response<RS>> get(String resource, Class<RS> clazz)
+            throws RestEndpointIOException {
+        TransportRequest get = requests.create(HttpMethod.GET, resource);
+        return executeInternal(get, HttpEntityCallback.<RS>of(serializers, clazz));
+    }
+
+    @Override
+    public final <RS> Maybe<RS> getFor(String resource, Class<RS> clazz) throws RestEndpointIOException {
+        return get(resource, clazz).flatMap(new BodyTransformer<RS>());
+    }
+
+    @Override
+    public final <RS> Maybe<Response<RS>> get(String resource, Type type) throws RestEndpointIOException {
+        TransportRequest get = requests.create(HttpMethod.GET, resource);
+        return executeInternal(get, HttpEntityCallback.<RS>of(serializers, type));
+    }
+
+    @Override
+    public final <RS> Maybe<RS> getFor(String resource, Type type) throws RestEndpointIOException {
+        Maybe<Response<RS>> rs = get(resource, type);
+        return rs.flatMap(new BodyTransformer<RS>());
+    }
+
+    @Override
+    public final <RS> Maybe<Response<RS>> get(String resource, Map<String, String> parameters,
+            Class<RS> clazz)
+            throws RestEndpointIOException {
+        TransportRequest get = requests.get(resource, parameters);
+        return executeInternal(get, HttpEntityCallback.<RS>of(serializers, clazz));
+    }
+
+    @Override
+    public final <RS> Maybe<RS> getFor(String resource, Map<String, String> parameters, Class<RS> clazz)
+            throws RestEndpointIOException {
+        return get(resource, parameters, clazz).flatMap(new BodyTransformer<RS>());
+    }
+
+    @Override
+    public final <RS> Maybe<Response<RS>> get(String resource, Map<String, String> parameters, Type type)
+            throws RestEndpointIOException {
+        TransportRequest get = requests.get(resource, parameters);
+        return executeInternal(get, HttpEntityCallback.<RS>of(serializers, type));
+    }
+
+    @Override
+    public final <RS> Maybe<RS> getFor(String resource, Map<String, String> parameters, Type type)
+            throws RestEndpointIOException {
+        Maybe<Response<RS>> rs = get(resource, parameters, type);
+        return rs.flatMap(new BodyTransformer<RS>());
+    }
+
+    /**
+     * Executes request command
+     *
+     * @param command REST request representation
+     * @return Future wrapper of REST response
+     * @throws RestEndpointIOException In case of error
+     * @see Maybe
+     */
+    @Override
+    public final <RQ, RS> Maybe<Response<RS>> executeRequest(RestCommand<RQ, RS> command)
+            throws RestEndpointIOException {
+        return executeInternal(requests.create(command),
+                HttpEntityCallback.<RS>of(serializers, command.getResponseType()), command.isIdempotent(),
+                null == command.getRetryPolicy() ? retryPolicy : command.getRetryPolicy(), command.getUrlTemplate());
+    }
+
+    /**
+     * Executes request command on calling thread without RxJava machinery: request is handed over to transport,
+     * calling thread is parked until response is received and then reads and deserializes body itself,
+     * so there is no hop to decode scheduler. Parking is cheap on virtual threads since they release their
+     * carriers while waiting. Retries, circuit breakers and rate limiter are applied in place; if endpoint has
+     * response cache, GET coalescing, hedging or concurrency limiter, request is executed by
+     * {@link #executeRequest(RestCommand)} and awaited
+     *
+     * @param command REST request representation
+     * @return REST response
+     * @throws RestEndpointIOException In case of error. Checked exceptions (e.g. timeout) are wrapped into
+     *                                 {@link RuntimeException} the same way {@link Maybe#blockingGet()} does
+     */
+    public final <RQ, RS> Response<RS> executeBlocking(RestCommand<RQ, RS> command) throws RestEndpointIOException {
+        if (caching.isEnabled() || !resilience.isBlockingSupported()) {
+            return executeRequest(command).blockingGet();
+        }
+
+        final TransportRequest rq = requests.prepare(requests.create(command));
+        final HttpEntityCallback<RS> callback = HttpEntityCallback.of(serializers, command.getResponseType());
+        final String urlTemplate = command.getUrlTemplate();
+        return resilience.execute(new ResilientExecution.Attempt<Response<RS>>() {
+            @Override
+            public Response<RS> execute() throws Exception {
+                return executeAttempt(rq, callback, urlTemplate);
+            }
+        }, rq.getUri(), command.isIdempotent(),
+                null == command.getRetryPolicy() ? retryPolicy : command.getRetryPolicy());
+    }
+
+    @Override
+    public final <RQ, RS> Flowable<Response<RS>> executeAll(Iterable<? extends RestCommand<RQ, RS>> commands,
+            int maxConcurrency) {
+        int concurrency = boundConcurrency(maxConcurrency);
+        return Flowable.fromIterable(commands).concatMapEager(new CommandExecutor<RQ, RS>(), concurrency, 1);
+    }
+
+    @Override
+    public final <RQ, RS> Flowable<Response<RS>> executeAllUnordered(
+            Iterable<? extends RestCommand<RQ, RS>> commands, int maxConcurrency) {
+        int concurrency = boundConcurrency(maxConcurrency);
+        return Flowable.fromIterable(commands).flatMap(new CommandExecutor<RQ, RS>(), concurrency);
+    }
+
+    /**
+     * Bounds number of simultaneous requests with size of connection pool (if managed by endpoint),
+     * since requests exceeding it would wait for free connection in pool anyway
+     *
+     * @param maxConcurrency Requested max number of simultaneous requests
+     * @return Number of simultaneous requests
+     */
+    private int boundConcurrency(int maxConcurrency) {
+        Preconditions.checkArgument(maxConcurrency > 0, "Max concurrency should be positive");
+        return null == connectionPool ? maxConcurrency : Math.min(maxConcurrency, connectionPool.getMaxTotal());
+    }
+
+    /**
+     * Splice base URL and URL of resource
+     *
+     * @param resource   REST Resource Path
+     * @param parameters Map of query parameters
+     * @return Absolute URL to the REST Resource including server and port
+     * @throws RestEndpointIOException In case of incorrect URL format
+     */
+    final URI spliceUrl(String resource, Map<String, String> parameters) throws RestEndpointIOException {
+        return requests.spliceUrl(resource, parameters);
+    }
+
+    /**
+     * Executes {@link TransportRequest} with default retry policy
+     *
+     * @param rq       - Request
+     * @param callback - Callback to be applied on response
+     * @param <RS>     type of response
+     * @return - Serialized Response Body
+     */
+    private <RS> Maybe<Response<RS>> executeInternal(TransportRequest rq, HttpEntityCallback<RS> callback) {
+        return executeInternal(rq, callback, rq.getMethod().isIdempotent(), retryPolicy, null);
+    }
+
+    /**
+     * Executes {@link TransportRequest}: request is served by cache if possible, otherwise
+     * it's sent over transport with resilience policies applied
+     *
+     * @param rq          - Request
+     * @param callback    - Callback to be applied on response
+     * @param idempotent  - Whether request may be safely repeated
+     * @param retryPolicy - Retry policy. NULL if request shouldn't be retried
+     * @param urlTemplate - Template request URL is built of. NULL if request isn't built of template
+     * @param <RS>        type of response
+     * @return - Serialized Response Body
+     */
+    private <RS> Maybe<Response<RS>> executeInternal(TransportRequest rq, HttpEntityCallback<RS> callback,
+            final boolean idempotent, @Nullable final RetryPolicy retryPolicy, @Nullable final String urlTemplate) {
+        return caching.execute(rq, callback, new CachingExecution.Exchange() {
+            @Override
+            public <T> Maybe<Response<T>> execute(TransportRequest request, HttpEntityCallback<T> callback,
+                    @Nullable String cacheKey, @Nullable CachedResponse cached) {
+                return send(request, callback, cacheKey, cached, idempotent, retryPolicy, urlTemplate);
+            }
+        });
+    }
+
+    /**
+     * Sends {@link TransportRequest} over transport. Response is handled on endpoint's decode executor
+     *
+     * @param request     - Request
+     * @param callback    - Callback to be applied on response
+     * @param cacheKey    - Key response should be cached with. NULL if response shouldn't be cached
+     * @param cached      - Stale cached response request revalidates. NULL if request isn't conditional
+     * @param idempotent  - Whether request may be safely repeated
+     * @param retryPolicy - Retry policy. NULL if request shouldn't be retried
+     * @param urlTemplate - Template request URL is built of. NULL if request isn't built of template
+     * @param <RS>        type of response
+     * @return - Serialized Response Body
+     */
+    private <RS> Maybe<Response<RS>> send(TransportRequest request, final HttpEntityCallback<RS> callback,
+            @Nullable final String cacheKey, @Nullable final CachedResponse cached, boolean idempotent,
+            @Nullable RetryPolicy retryPolicy, @Nullable final String urlTemplate) {
+        final TransportRequest rq = requests.prepare(request);
+        return resilience.apply(new ConcurrencyLimiter.SampledRequest<Response<RS>>() {
+            @Override
+            public Maybe<Response<RS>> create(@Nullable ConcurrencyLimiter.Sample sample) {
+                return Maybe.create(new TransportExchange<RS>(transport, decodeExecutor, responseHandler,
+                        requestListener, sample, rq, callback, cacheKey, cached, urlTemplate));
+            }
+        }, rq, idempotent, retryPolicy).cache();
+    }
+
+    /**
+     * Executes single attempt of request on calling thread. Counterpart of {@link TransportExchange}
+     * with the same metrics semantics
+     *
+     * @param rq          - Request with endpoint-wide headers
+     * @param callback    - Callback to be applied on response
+     * @param urlTemplate - Template request URL is built of. NULL if request isn't built of template
+     * @param <RS>        type of response
+     * @return - Serialized Response Body
+     * @throws Exception Failure of attempt
+     */
+    private <RS> Response<RS> executeAttempt(TransportRequest rq, HttpEntityCallback<RS> callback,
+            @Nullable String urlTemplate) throws Exception {
+        RequestTimer timer = null == requestListener ? null : new RequestTimer(requestListener,
+                rq.getMethod(), null == urlTemplate ? RequestMetrics.NO_TEMPLATE : urlTemplate);
+        Exception failure = null;
+        try {
+            BlockingCallback transportCallback = new BlockingCallback(timer);
+            TransportResponse response;
+            try {
+                response = transportCallback.await(transport.send(rq, transportCallback));
+            } catch (Exception e) {
+                throw ResponseHandler.toFailure(e);
+            }
+            return responseHandler.handle(rq, response, callback, null, null, timer);
+        } catch (Exception e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (null != timer) {
+                timer.complete(failure);
+            }
+        }
+    }
+
+    /**
+     * Circuit breakers of routes requested so far
+     *
+     * @return Circuit breakers by route (e.g. 'http://localhost:8080') or empty map if circuit breakers are disabled
+     */
+    public final Map<String, CircuitBreaker> getCircuitBreakers() {
+        return resilience.getCircuitBreakers();
+    }
+
+    /**
+     * Statistics of hedged requests
+     *
+     * @return Hedging statistics or absent if hedging is disabled
+     */
+    public final Optional<HedgeStats> getHedgeStats() {
+        return resilience.getHedgeStats();
+    }
+
+    /**
+     * Statistics of connection pool: leased, pending and available connections.
+     * Useful to find out whether pool is saturated
+     *
+     * @return Total statistics of connection pool or absent if pool is not managed by this endpoint
+     */
+    public final Optional<PoolStats> getPoolStats() {
+        return null == connectionPool ? Optional.<PoolStats>absent() : Optional.of(connectionPool.getTotalStats());
+    }
+
+    /**
+     * Statistics of connection pool by route
+     *
+     * @return Statistics of each route known by connection pool or empty map if pool is not managed by this endpoint
+     */
+    public final Map<HttpRoute, PoolStats> getRoutePoolStats() {
+        if (null == connectionPool) {
+            return Collections.emptyMap();
+        }
+        ImmutableMap.Builder<HttpRoute, PoolStats> stats = ImmutableMap.builder();
+        for (HttpRoute route : connectionPool.getRoutes()) {
+            stats.put(route, connectionPool.getStats(route));
+        }
+        return stats.build();
+    }
+
+    @Override
+    public final void close() throws IOException {
+        try {
+            transport.close();
+        } finally {
+            if (null != defaultDecodeExecutor) {
+                defaultDecodeExecutor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Creates default decode executor: fixed number of daemon threads and bounded queue, so burst of responses
+     * doesn't spawn unbounded number of threads. Responses exceeding the queue are rejected and their requests
+     * fail with {@link java.util.concurrent.RejectedExecutionException}. Idle threads are stopped
+     *
+     * @return Decode executor
+     */
+    private static ExecutorService newDecodeExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(DEFAULT_DECODE_THREADS, DEFAULT_DECODE_THREADS,
+                DECODE_THREAD_KEEP_ALIVE, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(DEFAULT_DECODE_QUEUE_SIZE),
+                new ThreadFactoryBuilder().setNameFormat("rest-endpoint-decode-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Transforms response object to Body
+     *
+     * @param <T> Type of body
+     */
+    public static final class BodyTransformer<T> implements Function<Response<T>, Maybe<T>> {
+
+        @Nonnull
+        @Override
+        public Maybe<T> apply(@Nonnull Response<T> input) {
+            final T body = input.getBody();
+            return (null == body ? Maybe.<T>empty() : Maybe.just(body));
+        }
+    }
+
+    /**
+     * Executes command. Used to flatten stream of commands
+     *
+     * @param <RQ> Type of Request Body
+     * @param <RS> Type of Response Body
+     */
+    private final class CommandExecutor<RQ, RS>
+            implements Function<RestCommand<RQ, RS>, Publisher<Response<RS>>> {
+
+        @Override
+        public Publisher<Response<RS>> apply(@Nonnull RestCommand<RQ, RS> command) {
+            return executeRequest(command).toFlowable();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.github.avarabyeu.restendpoint.serializer.Serializer;
+import com.github.avarabyeu.restendpoint.serializer.StreamingSerializer;
+import com.google.common.io.ByteStreams;
+import com.google.common.net.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Converts response body to type expected by caller
+ *
+ * @param <RS> Type of response body
+ * @author Andrei Varabyeu
+ */
+abstract class HttpEntityCallback<RS> {
+
+    final SerializerResolver serializers;
+
+    /**
+     * Type response body is converted to
+     */
+    final Type resultType;
+
+    /**
+     * Response callback
+     *
+     * @param serializers Serializers resolver
+     * @param resultType  Type response body is converted to
+     */
+    HttpEntityCallback(SerializerResolver serializers, Type resultType) {
+        this.serializers = serializers;
+        this.resultType = resultType;
+    }
+
+    /**
+     * Creates callback converting body to provided type
+     *
+     * @param serializers Serializers resolver
+     * @param type        Type of object
+     * @param <RS>        Type of response body
+     * @return Callback
+     */
+    static <RS> HttpEntityCallback<RS> of(SerializerResolver serializers, Type type) {
+        return new TypeConverterCallback<RS>(serializers, type);
+    }
+
+    /**
+     * Creates callback converting body to provided class
+     *
+     * @param serializers Serializers resolver
+     * @param clazz       Type of object
+     * @param <RS>        Type of response body
+     * @return Callback
+     */
+    static <RS> HttpEntityCallback<RS> of(SerializerResolver serializers, Class<RS> clazz) {
+        return new ClassConverterCallback<RS>(serializers, clazz);
+    }
+
+    /**
+     * Performs callback on http entity
+     *
+     * @param contentType Response content type
+     * @param body        Response body stream
+     * @return Serialized RS body
+     * @throws IOException In case of IO error
+     */
+    abstract public RS callback(MediaType contentType, InputStream body) throws IOException;
+
+    /**
+     * Deserializes body right from the stream if serializer supports it, reads body into memory otherwise
+     */
+    private static <T> T deserialize(Serializer serializer, InputStream body, Type type) throws IOException {
+        if (serializer instanceof StreamingSerializer) {
+            return ((StreamingSerializer) serializer).deserialize(body, type);
+        }
+        return serializer.deserialize(ByteStreams.toByteArray(body), type);
+    }
+
+    private static <T> T deserialize(Serializer serializer, InputStream body, Class<T> clazz) throws IOException {
+        if (serializer instanceof StreamingSerializer) {
+            return ((StreamingSerializer) serializer).deserialize(body, clazz);
+        }
+        return serializer.deserialize(ByteStreams.toByteArray(body), clazz);
+    }
+
+    private static class TypeConverterCallback<RS> extends HttpEntityCallback<RS> {
+
+        private final Type type;
+
+        /**
+         * Callback based on Type
+         *
+         * @param serializers Serializers resolver
+         * @param type        Type of object
+         */
+        TypeConverterCallback(SerializerResolver serializers, Type type) {
+            super(serializers, type);
+            this.type = type;
+        }
+
+        @Override
+        public RS callback(MediaType contentType, InputStream body) throws IOException {
+            return deserialize(serializers.getReader(contentType, type), body, type);
+        }
+
+    }
+
+    private static class ClassConverterCallback<RS> extends HttpEntityCallback<RS> {
+
+        private final Class<RS> clazz;
+
+        /**
+         * Callback based on Type
+         *
+         * @param serializers Serializers resolver
+         * @param clazz       Type of object
+         */
+        ClassConverterCallback(SerializerResolver serializers, Class<RS> clazz) {
+            super(serializers, clazz);
+            this.clazz = clazz;
+        }
+
+        @Override
+        public RS callback(MediaType contentType, InputStream body) throws IOException {
+            return deserialize(serializers.getReader(contentType, clazz), body, clazz);
+        }
+
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+/**
+ * HTTP Methods Representation
+ *
+ * @author Andrei Varabyeu
+ */
+public enum HttpMethod {
+    GET(false, true),
+    POST(true, false),
+    PUT(true, true),
+    PATCH(true, false),
+    DELETE(false, true);
+
+    private final boolean hasBody;
+    private final boolean idempotent;
+
+    /**
+     * @param hasBody    Whether method contains body
+     * @param idempotent Whether repeated request has the same effect as single one
+     */
+    HttpMethod(boolean hasBody, boolean idempotent) {
+        this.hasBody = hasBody;
+        this.idempotent = idempotent;
+    }
+
+    /**
+     * @return TRUE if method contains body
+     */
+    boolean hasBody() {
+        return hasBody;
+    }
+
+    /**
+     * @return TRUE if method is idempotent, so request may be safely repeated
+     */
+    public boolean isIdempotent() {
+        return idempotent;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * In-memory {@link ResponseCache} bounded by size of cached bodies.
+ * Least recently used responses are evicted first
+ *
+ * @author Andrei Varabyeu
+ */
+public class InMemoryResponseCache implements ResponseCache {
+
+    /* approximate size of response metadata, e.g. headers and validators */
+    private static final int ENTRY_OVERHEAD = 512;
+
+    /* each segment of cache is bounded by its share of max size */
+    private static final int CONCURRENCY_LEVEL = 4;
+
+    private final Cache<String, CachedResponse> cache;
+    private final int maxBodySize;
+
+    /**
+     * @param maxSize Max size of cached responses in bytes
+     */
+    public InMemoryResponseCache(long maxSize) {
+        Preconditions.checkArgument(maxSize > 0, "Cache size should be positive");
+        this.maxBodySize = (int) Math.max(0, Math.min(Integer.MAX_VALUE, maxSize / CONCURRENCY_LEVEL - ENTRY_OVERHEAD));
+        this.cache = CacheBuilder.newBuilder().concurrencyLevel(CONCURRENCY_LEVEL).maximumWeight(maxSize).weigher(new Weigher<String, CachedResponse>() {
+            @Override
+            public int weigh(@Nonnull String url, @Nonnull CachedResponse response) {
+                return url.length() + response.getSize() + ENTRY_OVERHEAD;
+            }
+        }).build();
+    }
+
+    /**
+     * Larger responses would be evicted right after they're cached
+     *
+     * @return Max size of body cache is able to keep
+     */
+    public int getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    @Nullable
+    @Override
+    public CachedResponse get(String url) {
+        return cache.getIfPresent(url);
+    }
+
+    @Override
+    public void put(String url, CachedResponse response) {
+        cache.put(url, response);
+    }
+
+    @Override
+    public void invalidate(String url) {
+        cache.invalidate(url);
+    }
+}
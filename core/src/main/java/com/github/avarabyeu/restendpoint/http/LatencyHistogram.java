@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with fixed memory footprint, similar to HdrHistogram.
+ * Values are recorded in microseconds into log-linear buckets: each power of two is split
+ * into 64 sub-buckets, so relative error of reported values doesn't exceed ~1.6%.
+ * Values up to ~1 hour are tracked, greater values are recorded as max trackable one
+ *
+ * @author Andrei Varabyeu
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /* values below are recorded precisely */
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+
+    /* 2^32 microseconds is more than an hour */
+    private static final long MAX_VALUE = (1L << 32) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(index(MAX_VALUE) + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records value
+     *
+     * @param value Value
+     * @param unit  Time unit of value
+     */
+    public void record(long value, TimeUnit unit) {
+        long micros = Math.min(MAX_VALUE, Math.max(0, unit.toMicros(value)));
+        counts.incrementAndGet(index(micros));
+        count.incrementAndGet();
+        sum.addAndGet(micros);
+        long currentMax;
+        do {
+            currentMax = max.get();
+        } while (micros > currentMax && !max.compareAndSet(currentMax, micros));
+    }
+
+    /**
+     * @return Number of recorded values
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @param unit Time unit
+     * @return Max recorded value
+     */
+    public long getMax(TimeUnit unit) {
+        return unit.convert(max.get(), TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * @param unit Time unit
+     * @return Mean of recorded values. Zero if there are no values
+     */
+    public double getMean(TimeUnit unit) {
+        long recorded = count.get();
+        return 0 == recorded ? 0 : (double) unit.convert(sum.get(), TimeUnit.MICROSECONDS) / recorded;
+    }
+
+    /**
+     * Calculates percentile. Histogram may be updated concurrently, so result is approximate
+     *
+     * @param percentile Percentile, e.g. 99.9
+     * @param unit       Time unit
+     * @return Value recorded values at given percentile don't exceed. Zero if there are no values
+     */
+    public long getPercentile(double percentile, TimeUnit unit) {
+        Preconditions.checkArgument(percentile >= 0 && percentile <= 100, "Percentile should be between 0 and 100");
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        if (0 == total) {
+            return 0;
+        }
+        long threshold = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long accumulated = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            accumulated += counts.get(i);
+            if (accumulated >= threshold) {
+                return unit.convert(Math.min(highestEquivalentValue(i), max.get()), TimeUnit.MICROSECONDS);
+            }
+        }
+        return getMax(unit);
+    }
+
+    /**
+     * Values below {@link #LINEAR_LIMIT} have own buckets. Greater values are bucketed by
+     * power of two and then by {@link #SUB_BUCKET_BITS} most significant bits after the highest one
+     */
+    static int index(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * @return The greatest value recorded into bucket with provided index
+     */
+    static long highestEquivalentValue(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
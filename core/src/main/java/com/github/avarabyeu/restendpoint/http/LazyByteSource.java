@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.github.avarabyeu.restendpoint.http.exception.RestEndpointIOException;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Response body as {@link ByteSource}. Reads body stream into memory only once
+ * body is requested via {@link ByteSource} API (e.g. by {@link ErrorHandler})
+ *
+ * @author Andrei Varabyeu
+ */
+final class LazyByteSource extends ByteSource {
+
+    private final InputStream content;
+    private final Supplier<byte[]> supplier;
+    private volatile boolean read;
+
+    LazyByteSource(final InputStream content) {
+        this.content = content;
+        this.supplier = Suppliers.memoize(new Supplier<byte[]>() {
+            @Override
+            public byte[] get() {
+                return readContent(content);
+            }
+        });
+    }
+
+    @Override
+    public InputStream openStream() throws IOException {
+        return new ByteArrayInputStream(supplier.get());
+    }
+
+    /**
+     * Body stream to be deserialized. Stream from the wire is returned
+     * if body hasn't been read into memory yet
+     *
+     * @return Body stream
+     * @throws IOException In case of IO error
+     */
+    InputStream content() throws IOException {
+        return read ? openStream() : content;
+    }
+
+    /**
+     * Body read into memory. Array is not copied, so it shouldn't be modified
+     *
+     * @return Body as byte array
+     */
+    byte[] bytes() {
+        return supplier.get();
+    }
+
+    /**
+     * Reads body stream
+     *
+     * @param content Body stream
+     * @return Body as byte array
+     * @throws RestEndpointIOException In case of request error
+     */
+    private byte[] readContent(InputStream content) {
+        try {
+            read = true;
+            return ByteStreams.toByteArray(content);
+        } catch (IOException e) {
+            throw new RestEndpointIOException("Unable to read body from error", e);
+        }
+    }
+}
@@ -18,8 +18,11 @@ package com.github.avarabyeu.restendpoint.http;
 
 import com.google.common.base.Preconditions;
 import com.google.common.io.ByteSource;
+import com.google.common.io.Files;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -94,18 +97,36 @@ public class MultiPartRequest {
         private final String filename;
         private final String contentType;
         private final ByteSource data;
+        private final File file;
 
         public MultiPartBinary(String partName, String filename, String contentType, ByteSource data) {
             this.partName = partName;
             this.filename = filename;
             this.data = data;
             this.contentType = contentType;
+            this.file = null;
+        }
+
+        public MultiPartBinary(String partName, String filename, String contentType, File file) {
+            this.partName = partName;
+            this.filename = filename;
+            this.data = Files.asByteSource(file);
+            this.contentType = contentType;
+            this.file = file;
         }
 
         public final ByteSource getData() {
             return data;
         }
 
+        /**
+         * @return File part data is backed by or NULL if part is not file-backed
+         */
+        @Nullable
+        public final File getFile() {
+            return file;
+        }
+
         public final String getFilename() {
             return filename;
         }
@@ -163,6 +184,22 @@ public class MultiPartRequest {
             return this;
         }
 
+        /**
+         * Adds file-backed part which is NOT going to be serialized.
+         * File content is sent without copying into memory
+         *
+         * @param partName    Part Name
+         * @param filename    Name of file in multipart request
+         * @param contentType Content Type of this part
+         * @param file        File to be sent
+         * @return This instance
+         */
+        public Builder addBinaryPart(String partName, String filename, String contentType, @Nonnull File file) {
+            Preconditions.checkNotNull(file, "Provided file shouldn't be null");
+            binaryRQs.add(new MultiPartBinary(partName, filename, contentType, file));
+            return this;
+        }
+
         /**
          * Builds {@link com.github.avarabyeu.restendpoint.http.MultiPartRequest}
          *
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.google.common.base.Preconditions;
+import io.reactivex.Maybe;
+import io.reactivex.MaybeSource;
+import io.reactivex.functions.Function;
+import io.reactivex.schedulers.Schedulers;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket rate limiter. Permits are reserved rather than awaited: each request gets time slot
+ * it may be sent at and is delayed with timer until then, so no thread is blocked while request waits
+ * for permit. Up to <b>burst</b> requests may be sent at once after idle period
+ *
+ * @author Andrei Varabyeu
+ * @see com.github.avarabyeu.restendpoint.http.annotation.RateLimit
+ */
+public final class RateLimiter {
+
+    /* interval between permits in nanoseconds */
+    private final long interval;
+
+    /* how far free time may lag behind current time, i.e. size of burst */
+    private final long burstInterval;
+
+    /* time next permit is available at */
+    private final AtomicLong nextFree;
+
+    /**
+     * @param permitsPerSecond Number of requests allowed per second
+     * @param burst            Max number of requests sent at once
+     */
+    public RateLimiter(double permitsPerSecond, int burst) {
+        Preconditions.checkArgument(permitsPerSecond > 0, "Rate should be positive");
+        Preconditions.checkArgument(burst > 0, "Burst should be positive");
+        this.interval = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstInterval = (burst - 1) * interval;
+        this.nextFree = new AtomicLong(System.nanoTime() - burstInterval);
+    }
+
+    /**
+     * Reserves permit
+     *
+     * @return Delay in nanoseconds request should wait for before being sent
+     */
+    public long reserve() {
+        while (true) {
+            long now = System.nanoTime();
+            long current = nextFree.get();
+            long slot = Math.max(current, now - burstInterval);
+            if (nextFree.compareAndSet(current, slot + interval)) {
+                return Math.max(0, slot - now);
+            }
+        }
+    }
+
+    /**
+     * Delays subscription to request until permit is available. Permit is reserved once
+     * returned {@link Maybe} is subscribed
+     *
+     * @param request Request to be limited. Should be sent on subscription
+     * @param <T>     Type of response
+     * @return Rate limited request
+     */
+    public <T> Maybe<T> limit(final Maybe<T> request) {
+        return Maybe.defer(new Callable<MaybeSource<T>>() {
+            @Override
+            public MaybeSource<T> call() {
+                long delay = reserve();
+                if (0 == delay) {
+                    return request;
+                }
+                return Maybe.timer(delay, TimeUnit.NANOSECONDS, Schedulers.computation())
+                        .flatMap(new Function<Long, MaybeSource<T>>() {
+                            @Override
+                            public MaybeSource<T> apply(@Nonnull Long tick) {
+                                return request;
+                            }
+                        });
+            }
+        });
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.github.avarabyeu.restendpoint.serializer.StreamingSerializer;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Body of request passed to {@link Transport}. Body might be written more than once
+ * (e.g. once request is retried or hedged), so implementations should be repeatable
+ *
+ * @author Andrei Varabyeu
+ */
+public abstract class RequestBody {
+
+    /**
+     * @return Value of Content-Type header
+     */
+    public abstract String getContentType();
+
+    /**
+     * @return Value of Content-Encoding header. NULL if body isn't encoded
+     */
+    @Nullable
+    public String getContentEncoding() {
+        return null;
+    }
+
+    /**
+     * @return Length of body in bytes. -1 if length is unknown until body is written
+     */
+    public long getContentLength() {
+        return -1;
+    }
+
+    /**
+     * Writes body into provided stream. Blocks, so transports are expected to call it out of I/O threads
+     *
+     * @param out Stream to write to
+     * @throws IOException in case of I/O error
+     */
+    public abstract void writeTo(OutputStream out) throws IOException;
+
+    /**
+     * Body as stream. Default implementation writes whole body into memory
+     *
+     * @return Body stream
+     * @throws IOException in case of I/O error
+     */
+    public InputStream openStream() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeTo(out);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    /**
+     * Object serialized directly into the output once body is written
+     */
+    static final class Serialized extends RequestBody {
+
+        private final StreamingSerializer serializer;
+        private final Object request;
+
+        Serialized(StreamingSerializer serializer, Object request) {
+            this.serializer = serializer;
+            this.request = request;
+        }
+
+        @Override
+        public String getContentType() {
+            return serializer.getMimeType();
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            serializer.serialize(request, out);
+        }
+
+        @Override
+        public InputStream openStream() throws IOException {
+            return new ByteArrayInputStream(serializer.serialize(request));
+        }
+    }
+
+    /**
+     * Body prepared in memory, e.g. compressed one
+     */
+    static final class Bytes extends RequestBody {
+
+        private final byte[] content;
+        private final String contentType;
+        private final String contentEncoding;
+
+        Bytes(byte[] content, String contentType, @Nullable String contentEncoding) {
+            this.content = content;
+            this.contentType = contentType;
+            this.contentEncoding = contentEncoding;
+        }
+
+        /**
+         * @return Body. Array is not copied, so it shouldn't be modified
+         */
+        byte[] getContent() {
+            return content;
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Nullable
+        @Override
+        public String getContentEncoding() {
+            return contentEncoding;
+        }
+
+        @Override
+        public long getContentLength() {
+            return content.length;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(content);
+        }
+
+        @Override
+        public InputStream openStream() {
+            return new ByteArrayInputStream(content);
+        }
+    }
+
+    /**
+     * Multipart body. Parts are pulled from their sources once body is written
+     */
+    static final class Multipart extends RequestBody {
+
+        private final StreamingMultipartEntity entity;
+
+        Multipart(StreamingMultipartEntity entity) {
+            this.entity = entity;
+        }
+
+        StreamingMultipartEntity getEntity() {
+            return entity;
+        }
+
+        @Override
+        public String getContentType() {
+            return entity.getContentType().getValue();
+        }
+
+        @Override
+        public long getContentLength() {
+            return entity.getContentLength();
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            entity.writeTo(out);
+        }
+
+        @Override
+        public InputStream openStream() throws IOException {
+            return entity.getContent();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.github.avarabyeu.restendpoint.http.exception.SerializerException;
+import io.reactivex.Scheduler;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.ContentOutputStream;
+import org.apache.http.nio.entity.HttpAsyncContentProducer;
+import org.apache.http.nio.util.HeapByteBufferAllocator;
+import org.apache.http.nio.util.SharedOutputBuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Request entity which writes {@link RequestBody} (e.g. serializes request object) right into the connection.
+ * Body is written on provided scheduler to bounded buffer which is drained by I/O reactor
+ * once connection is ready to accept data, so there is no intermediate byte array of whole body
+ *
+ * @author Andrei Varabyeu
+ */
+class RequestBodyEntity extends AbstractHttpEntity implements HttpAsyncContentProducer {
+
+    private final RequestBody body;
+    private final Scheduler scheduler;
+    private final int bufferSize;
+
+    /* buffer of current content production. Re-created if content is requested once again */
+    private volatile SharedOutputBuffer buffer;
+
+    private volatile IOControl ioControl;
+
+    private volatile SerializerException failure;
+
+    /**
+     * @param body       Request body
+     * @param scheduler  Scheduler body is written on
+     * @param bufferSize Size of content buffer
+     */
+    RequestBodyEntity(RequestBody body, Scheduler scheduler, int bufferSize) {
+        this.body = body;
+        this.scheduler = scheduler;
+        this.bufferSize = bufferSize;
+        setContentType(body.getContentType());
+        setContentEncoding(body.getContentEncoding());
+        setChunked(body.getContentLength() < 0);
+    }
+
+    @Override
+    public void produceContent(ContentEncoder encoder, IOControl ioctrl) throws IOException {
+        this.ioControl = ioctrl;
+        SharedOutputBuffer currentBuffer = this.buffer;
+        if (null == currentBuffer) {
+            currentBuffer = new SharedOutputBuffer(bufferSize, HeapByteBufferAllocator.INSTANCE);
+            this.failure = null;
+            this.buffer = currentBuffer;
+            startWriting(currentBuffer);
+        }
+        if (null != failure) {
+            throw new IOException("Unable to serialize request", failure);
+        }
+        currentBuffer.produceContent(encoder, ioctrl);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return body.getContentLength();
+    }
+
+    /**
+     * Blocking API fallback
+     */
+    @Override
+    public InputStream getContent() throws IOException {
+        return body.openStream();
+    }
+
+    /**
+     * Blocking API fallback. Writes body directly into provided stream
+     */
+    @Override
+    public void writeTo(OutputStream outstream) throws IOException {
+        body.writeTo(outstream);
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    /**
+     * Releases content buffer. Writing of body in progress (if any) gets aborted
+     */
+    @Override
+    public void close() {
+        SharedOutputBuffer currentBuffer = this.buffer;
+        this.buffer = null;
+        if (null != currentBuffer) {
+            currentBuffer.shutdown();
+        }
+    }
+
+    private void startWriting(final SharedOutputBuffer target) {
+        scheduler.scheduleDirect(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    body.writeTo(new ContentOutputStream(target));
+                    target.writeCompleted();
+                } catch (SerializerException e) {
+                    fail(target, e);
+                } catch (Exception e) {
+                    fail(target, new SerializerException("Unable to serialize request", e));
+                }
+            }
+        });
+    }
+
+    /**
+     * Remembers failure of body writing and asks reactor for output to make
+     * sure failure is reported even if connection is suspended
+     *
+     * @param target Buffer writing has been failed for
+     * @param e      Failure
+     */
+    private void fail(SharedOutputBuffer target, SerializerException e) {
+        /* production has been already aborted, nobody is interested in result */
+        if (target != this.buffer) {
+            return;
+        }
+        this.failure = e;
+        IOControl io = ioControl;
+        if (null != io) {
+            io.requestOutput();
+        }
+    }
+}
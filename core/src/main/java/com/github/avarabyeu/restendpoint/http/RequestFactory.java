@@ -0,0 +1,353 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.github.avarabyeu.restendpoint.http.exception.RestEndpointIOException;
+import com.github.avarabyeu.restendpoint.http.exception.SerializerException;
+import com.github.avarabyeu.restendpoint.serializer.Serializer;
+import com.github.avarabyeu.restendpoint.serializer.StreamingSerializer;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.net.HttpHeaders;
+import io.reactivex.Scheduler;
+import org.apache.http.client.utils.URIBuilder;
+
+import javax.annotation.Nullable;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.UUID;
+
+/**
+ * Builds transport requests: splices URLs, serializes and compresses bodies
+ * and adds endpoint-wide headers
+ *
+ * @author Andrei Varabyeu
+ */
+final class RequestFactory {
+
+    /**
+     * Size of buffers multipart bodies are streamed through
+     */
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Serializer for converting HTTP messages
+     */
+    private final SerializerResolver serializers;
+
+    /**
+     * Base Endpoint URL
+     */
+    private final String baseUrl;
+
+    /**
+     * Min size of request body to be gzip-compressed. {@link RestCommand#NO_COMPRESSION} if bodies aren't compressed
+     */
+    private final int compressionThreshold;
+
+    /**
+     * Whether request bodies are serialized into memory to be sent with Content-Length
+     */
+    private final boolean bufferRequestBodies;
+
+    /**
+     * Whether compressed responses are accepted
+     */
+    private final boolean acceptCompressed;
+
+    /**
+     * Value of Authorization header added to each request. NULL if requests aren't authorized by endpoint
+     */
+    private final String authorization;
+
+    /**
+     * Scheduler binary parts of multipart bodies are read on
+     */
+    private final Scheduler scheduler;
+
+    /**
+     * @param serializers          Serializers of request bodies
+     * @param baseUrl              Base URL. NULL if resource URLs are absolute
+     * @param compressionThreshold Min size of request body to be gzip-compressed
+     * @param bufferRequestBodies  Whether request bodies are sent with Content-Length
+     * @param acceptCompressed     Whether compressed responses are accepted
+     * @param authorization        Value of Authorization header. NULL if requests aren't authorized by endpoint
+     * @param scheduler            Scheduler binary parts of multipart bodies are read on
+     */
+    RequestFactory(SerializerResolver serializers, @Nullable String baseUrl, int compressionThreshold,
+            boolean bufferRequestBodies, boolean acceptCompressed, @Nullable String authorization,
+            Scheduler scheduler) {
+        this.serializers = serializers;
+        this.baseUrl = baseUrl;
+        this.compressionThreshold = compressionThreshold;
+        this.bufferRequestBodies = bufferRequestBodies;
+        this.acceptCompressed = acceptCompressed;
+        this.authorization = authorization;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Builds request without body
+     *
+     * @param method   HTTP method
+     * @param resource REST Resource Path
+     * @return Request without endpoint-wide headers
+     * @throws RestEndpointIOException if URL is malformed
+     */
+    TransportRequest create(HttpMethod method, String resource) throws RestEndpointIOException {
+        return request(method, spliceUrl(resource), null);
+    }
+
+    /**
+     * Builds request with body
+     *
+     * @param method   HTTP method
+     * @param resource REST Resource Path
+     * @param rq       Request object
+     * @return Request without endpoint-wide headers
+     * @throws RestEndpointIOException if URL is malformed or body cannot be serialized
+     */
+    TransportRequest create(HttpMethod method, String resource, Object rq) throws RestEndpointIOException {
+        return request(method, spliceUrl(resource), serialize(rq, compressionThreshold));
+    }
+
+    /**
+     * Builds GET request of resource and query parameters
+     *
+     * @param resource   REST Resource Path
+     * @param parameters Map of query parameters
+     * @return Request without endpoint-wide headers
+     * @throws RestEndpointIOException if URL is malformed
+     */
+    TransportRequest get(String resource, Map<String, String> parameters) throws RestEndpointIOException {
+        return request(HttpMethod.GET, spliceUrl(resource, parameters), null);
+    }
+
+    /**
+     * Builds multipart POST request
+     *
+     * @param resource REST Resource Path
+     * @param request  Multipart request
+     * @return Request without endpoint-wide headers
+     * @throws RestEndpointIOException if URL is malformed or entity cannot be built
+     */
+    TransportRequest multipart(String resource, MultiPartRequest request) throws RestEndpointIOException {
+        return multipart(spliceUrl(resource), request);
+    }
+
+    /**
+     * Builds transport request of command
+     *
+     * @param command REST request representation
+     * @return Request without endpoint-wide headers
+     * @throws RestEndpointIOException if URL is malformed or body cannot be serialized
+     */
+    TransportRequest create(RestCommand<?, ?> command) throws RestEndpointIOException {
+        URI uri = spliceUrl(command.getUri());
+        int threshold = RestCommand.DEFAULT_COMPRESSION_THRESHOLD == command.getCompressionThreshold() ?
+                compressionThreshold :
+                command.getCompressionThreshold();
+        TransportRequest rq;
+        switch (command.getHttpMethod()) {
+        case GET:
+        case DELETE:
+            rq = request(command.getHttpMethod(), uri, null);
+            break;
+        case POST:
+            if (command.isMultipart()) {
+                MultiPartRequest rqData = (MultiPartRequest) command.getRequest();
+                rq = multipart(uri, rqData);
+            } else {
+                rq = request(HttpMethod.POST, uri, serialize(command.getRequest(), threshold));
+            }
+            break;
+        case PUT:
+        case PATCH:
+            rq = request(command.getHttpMethod(), uri, serialize(command.getRequest(), threshold));
+            break;
+        default:
+            throw new IllegalArgumentException("Method '" + command.getHttpMethod() + "' is unsupported");
+        }
+        return rq;
+    }
+
+    /**
+     * Adds endpoint-wide headers unless request has them already
+     *
+     * @param request Request
+     * @return Request with Accept-Encoding and Authorization headers if enabled
+     */
+    TransportRequest prepare(TransportRequest request) {
+        TransportRequest prepared = request;
+        if (acceptCompressed && !prepared.containsHeader(HttpHeaders.ACCEPT_ENCODING)) {
+            prepared = prepared.withHeader(HttpHeaders.ACCEPT_ENCODING, ContentCoding.ACCEPT_ENCODING);
+        }
+        if (null != authorization && !prepared.containsHeader(HttpHeaders.AUTHORIZATION)) {
+            prepared = prepared.withHeader(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        return prepared;
+    }
+
+    /**
+     * Splice base URL and URL of resource
+     *
+     * @param resource REST Resource Path
+     * @return Absolute URL to the REST Resource including server and port
+     * @throws RestEndpointIOException If URL is incorrect
+     */
+    URI spliceUrl(String resource) throws RestEndpointIOException {
+        return spliceUrl(baseUrl, resource);
+    }
+
+    /**
+     * Splice base URL and URL of resource
+     *
+     * @param resource   REST Resource Path
+     * @param parameters Map of query parameters
+     * @return Absolute URL to the REST Resource including server and port
+     * @throws RestEndpointIOException In case of incorrect URL format
+     */
+    URI spliceUrl(String resource, Map<String, String> parameters) throws RestEndpointIOException {
+        return spliceUrl(baseUrl, resource, parameters);
+    }
+
+    /**
+     * Splice base URL and URL of resource
+     *
+     * @param baseUrl  Base URL. NULL if resource URL is absolute
+     * @param resource REST Resource Path
+     * @return Absolute URL to the REST Resource including server and port
+     * @throws RestEndpointIOException If URL is incorrect
+     */
+    static URI spliceUrl(@Nullable String baseUrl, String resource) throws RestEndpointIOException {
+        try {
+            return Strings.isNullOrEmpty(baseUrl) ? new URI(resource) : new URI(baseUrl.concat(resource));
+        } catch (URISyntaxException e) {
+            throw new RestEndpointIOException(
+                    "Unable to builder URL with base url '" + baseUrl + "' and resouce '" + resource + "'", e);
+        }
+    }
+
+    /**
+     * Splice base URL and URL of resource
+     *
+     * @param baseUrl    Base URL. NULL if resource URL is absolute
+     * @param resource   REST Resource Path
+     * @param parameters Map of query parameters
+     * @return Absolute URL to the REST Resource including server and port
+     * @throws RestEndpointIOException In case of incorrect URL format
+     */
+    static URI spliceUrl(@Nullable String baseUrl, String resource, Map<String, String> parameters)
+            throws RestEndpointIOException {
+        try {
+            URIBuilder builder;
+            if (!Strings.isNullOrEmpty(baseUrl)) {
+                builder = new URIBuilder(baseUrl);
+                builder.setPath(builder.getPath() + resource);
+            } else {
+                builder = new URIBuilder(resource);
+            }
+            for (Entry<String, String> parameter : parameters.entrySet()) {
+                builder.addParameter(parameter.getKey(), parameter.getValue());
+            }
+            return builder.build();
+        } catch (URISyntaxException e) {
+            throw new RestEndpointIOException(
+                    "Unable to builder URL with base url '" + baseUrl + "' and resouce '" + resource + "'", e);
+        }
+    }
+
+    /**
+     * Builds multipart entity. Parts are not copied into memory. Entity generates boundaries and part headers
+     * on the fly and pulls binary parts chunk by chunk once connection is ready to accept data
+     *
+     * @param serializers Serializers of parts
+     * @param request     Multipart request
+     * @param scheduler   Scheduler binary parts are read on
+     * @return Multipart entity
+     * @throws RestEndpointIOException if entity cannot be built
+     */
+    static StreamingMultipartEntity buildMultipartEntity(SerializerResolver serializers, MultiPartRequest request,
+            Scheduler scheduler) throws RestEndpointIOException {
+        try {
+            String boundary = "-------------" + UUID.randomUUID().toString();
+            StreamingMultipartEntity.Builder builder =
+                    new StreamingMultipartEntity.Builder(boundary, BUFFER_SIZE, scheduler);
+
+            for (MultiPartRequest.MultiPartSerialized<?> serializedPart : request.getSerializedRQs()) {
+                Serializer serializer = serializers.getWriter(serializedPart.getRequest());
+                builder.addPart(serializedPart.getPartName(), serializer.getMimeType(),
+                        serializer.serialize(serializedPart.getRequest()));
+            }
+
+            for (MultiPartRequest.MultiPartBinary partBinary : request.getBinaryRQs()) {
+                if (null == partBinary.getFile()) {
+                    builder.addPart(partBinary.getPartName(), partBinary.getFilename(), partBinary.getContentType(),
+                            partBinary.getData());
+                } else {
+                    builder.addPart(partBinary.getPartName(), partBinary.getFilename(), partBinary.getContentType(),
+                            partBinary.getFile());
+                }
+            }
+
+            return builder.build();
+
+        } catch (Exception e) {
+            throw new RestEndpointIOException("Unable to build post multipart request", e);
+        }
+    }
+
+    private TransportRequest multipart(URI uri, MultiPartRequest request) throws RestEndpointIOException {
+        return request(HttpMethod.POST, uri, new RequestBody.Multipart(buildMultipartEntity(serializers, request, scheduler)));
+    }
+
+    /**
+     * Creates request without headers
+     *
+     * @param method HTTP method
+     * @param uri    Request URI
+     * @param body   Request body. NULL if request has no body
+     * @return Request
+     */
+    private static TransportRequest request(HttpMethod method, URI uri, @Nullable RequestBody body) {
+        return new TransportRequest(method, uri, ImmutableListMultimap.<String, String>of(), body);
+    }
+
+    /**
+     * Creates request body. If body might be compressed or should be sent with Content-Length, it's serialized
+     * into memory since size of body should be known before headers are sent. Otherwise body is serialized
+     * directly into the connection
+     *
+     * @param rq        Request object
+     * @param threshold Min size of body to be gzip-compressed
+     * @return Request body
+     * @throws SerializerException if serializer not found
+     */
+    private RequestBody serialize(Object rq, int threshold) throws SerializerException {
+        Serializer serializer = serializers.getWriter(rq);
+        if (RestCommand.NO_COMPRESSION == threshold && !bufferRequestBodies
+                && serializer instanceof StreamingSerializer) {
+            return new RequestBody.Serialized((StreamingSerializer) serializer, rq);
+        }
+        byte[] body = serializer.serialize(rq);
+        return body.length >= threshold ?
+                new RequestBody.Bytes(ContentCoding.gzip(body), serializer.getMimeType(), ContentCoding.GZIP) :
+                new RequestBody.Bytes(body, serializer.getMimeType(), null);
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+/**
+ * Listener of requests sent by endpoint. Notified once per network attempt, so retries and hedged
+ * requests are reported separately, while responses served from cache are not reported at all.
+ * Attempts cancelled by subscriber (e.g. lost hedging race) are not reported either.
+ * Listener is invoked on I/O reactor or decode scheduler threads, so it should be fast and non-blocking
+ *
+ * @author Andrei Varabyeu
+ * @see HistogramRequestListener
+ */
+public interface RequestListener {
+
+    /**
+     * Called once request is completed
+     *
+     * @param metrics Metrics of request
+     */
+    void onRequestCompleted(RequestMetrics metrics);
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.github.avarabyeu.restendpoint.serializer.Serializer;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Metrics of single request: timings of request phases, status, payload sizes and serializer used.
+ * Timings are in nanoseconds, phase which hasn't been reached (e.g. response body of failed request)
+ * is reported as -1
+ *
+ * @author Andrei Varabyeu
+ * @see RequestListener
+ */
+@Immutable
+public final class RequestMetrics {
+
+    /**
+     * Value of phase which hasn't been reached
+     */
+    public static final long NONE = -1;
+
+    /**
+     * URL template of requests not built of template, e.g. sent via {@link RestEndpoint#get(String, Class)}.
+     * Raw paths are not used as tags since number of distinct ones is unbounded
+     */
+    public static final String NO_TEMPLATE = "*";
+
+    private final HttpMethod method;
+    private final String urlTemplate;
+    private final int status;
+    private final Throwable error;
+    private final long requestBytes;
+    private final long responseBytes;
+    private final Class<? extends Serializer> serializer;
+    private final long connectionTime;
+    private final long timeToFirstByte;
+    private final long bodyReadTime;
+    private final long deserializationTime;
+    private final long totalTime;
+
+    RequestMetrics(HttpMethod method, String urlTemplate, int status, @Nullable Throwable error,
+            long requestBytes, long responseBytes, @Nullable Class<? extends Serializer> serializer,
+            long connectionTime, long timeToFirstByte, long bodyReadTime, long deserializationTime, long totalTime) {
+        this.method = method;
+        this.urlTemplate = urlTemplate;
+        this.status = status;
+        this.error = error;
+        this.requestBytes = requestBytes;
+        this.responseBytes = responseBytes;
+        this.serializer = serializer;
+        this.connectionTime = connectionTime;
+        this.timeToFirstByte = timeToFirstByte;
+        this.bodyReadTime = bodyReadTime;
+        this.deserializationTime = deserializationTime;
+        this.totalTime = totalTime;
+    }
+
+    public HttpMethod getMethod() {
+        return method;
+    }
+
+    /**
+     * @return URL template of interface method (e.g. <b>/users/{id}</b>) or {@link #NO_TEMPLATE}
+     * if request isn't built of template. Template keeps number of distinct tags low
+     */
+    public String getUrlTemplate() {
+        return urlTemplate;
+    }
+
+    /**
+     * @return HTTP status of response or 0 if response hasn't been received
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return Failure of request or NULL if request succeeded
+     */
+    @Nullable
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * @return Number of request body bytes sent
+     */
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    /**
+     * @return Number of response body bytes received
+     */
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    /**
+     * @return Serializer response body has been deserialized with. NULL if body hasn't been deserialized
+     */
+    @Nullable
+    public Class<? extends Serializer> getSerializer() {
+        return serializer;
+    }
+
+    /**
+     * Time since request submission until request is completely sent. Includes waiting for
+     * connection lease from pool, connect and TLS handshake of new connection and writing request
+     *
+     * @return Time in nanoseconds
+     */
+    public long getConnectionTime() {
+        return connectionTime;
+    }
+
+    /**
+     * @return Time since request is sent until response head is received in nanoseconds
+     */
+    public long getTimeToFirstByte() {
+        return timeToFirstByte;
+    }
+
+    /**
+     * @return Time since response head is received until the last byte of body is received in nanoseconds
+     */
+    public long getBodyReadTime() {
+        return bodyReadTime;
+    }
+
+    /**
+     * Deserialization time. Body is deserialized right from the wire, so deserialization overlaps with body read
+     *
+     * @return Time in nanoseconds
+     */
+    public long getDeserializationTime() {
+        return deserializationTime;
+    }
+
+    /**
+     * @return Time since request submission until response is handled in nanoseconds
+     */
+    public long getTotalTime() {
+        return totalTime;
+    }
+}
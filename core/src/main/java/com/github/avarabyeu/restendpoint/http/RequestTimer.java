@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.github.avarabyeu.restendpoint.serializer.Serializer;
+
+import javax.annotation.Nullable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Collects metrics of single request attempt and reports them to {@link RequestListener}
+ * once attempt is completed. Phases are marked by transport and decode scheduler threads
+ * one after another, so volatile fields are enough
+ *
+ * @author Andrei Varabyeu
+ */
+final class RequestTimer {
+
+    private final RequestListener listener;
+    private final HttpMethod method;
+    private final String urlTemplate;
+    private final long started;
+
+    private volatile long requestSent = RequestMetrics.NONE;
+    private volatile long responseReceived = RequestMetrics.NONE;
+    private volatile long bodyReceived = RequestMetrics.NONE;
+    private volatile long deserializationTime = RequestMetrics.NONE;
+    private volatile int status;
+    private volatile long requestBytes;
+    private volatile long responseBytes;
+    private volatile Class<? extends Serializer> serializer;
+
+    RequestTimer(RequestListener listener, HttpMethod method, String urlTemplate) {
+        this.listener = listener;
+        this.method = method;
+        this.urlTemplate = urlTemplate;
+        this.started = System.nanoTime();
+    }
+
+    void onRequestSent(long bytes) {
+        this.requestBytes = bytes;
+        this.requestSent = System.nanoTime();
+    }
+
+    /**
+     * Wraps response body to track number of bytes received and the moment body is completely received
+     *
+     * @param body Raw response body
+     * @return Instrumented response body
+     */
+    InputStream instrument(InputStream body) {
+        return new CountingInputStream(body);
+    }
+
+    void onResponseReceived(int status) {
+        this.status = status;
+        this.responseReceived = System.nanoTime();
+    }
+
+    void onDeserialized(long time, Serializer serializer) {
+        this.deserializationTime = time;
+        this.serializer = serializer.getClass();
+    }
+
+    /**
+     * Reports metrics of completed attempt
+     *
+     * @param error Failure of attempt. NULL if attempt succeeded
+     */
+    void complete(@Nullable Throwable error) {
+        long completed = System.nanoTime();
+        RequestMetrics metrics = new RequestMetrics(method, urlTemplate, status, error, requestBytes, responseBytes,
+                serializer,
+                between(started, requestSent),
+                between(requestSent, responseReceived),
+                between(responseReceived, bodyReceived),
+                deserializationTime,
+                completed - started);
+        try {
+            listener.onRequestCompleted(metrics);
+        } catch (RuntimeException e) {
+            //failure of listener shouldn't affect request
+        }
+    }
+
+    private static long between(long from, long to) {
+        return RequestMetrics.NONE == from || RequestMetrics.NONE == to ? RequestMetrics.NONE : to - from;
+    }
+
+    /**
+     * Body stream counting bytes read. Read by single thread, so counter isn't updated concurrently
+     */
+    private final class CountingInputStream extends FilterInputStream {
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (-1 == read) {
+                onEndOfStream();
+            } else {
+                responseBytes++;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (-1 == read) {
+                onEndOfStream();
+            } else {
+                responseBytes += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            responseBytes += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void onEndOfStream() {
+            if (RequestMetrics.NONE == bodyReceived) {
+                bodyReceived = System.nanoTime();
+            }
+        }
+    }
+}
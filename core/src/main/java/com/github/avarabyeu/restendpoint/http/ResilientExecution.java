@@ -0,0 +1,321 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.github.avarabyeu.restendpoint.http.exception.CircuitBreakerOpenException;
+import com.github.avarabyeu.restendpoint.http.exception.RestEndpointIOException;
+import com.google.common.base.Optional;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.functions.Function;
+import io.reactivex.schedulers.Schedulers;
+import org.reactivestreams.Publisher;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chain of resilience policies applied to request attempts: circuit breaker of request's route,
+ * concurrency and rate limiters, hedging and retries. Limiters are applied to each attempt,
+ * so retries and hedges are limited as well
+ *
+ * @author Andrei Varabyeu
+ */
+final class ResilientExecution {
+
+    /**
+     * Budget shared by retries of all requests
+     */
+    private final RetryBudget retryBudget;
+
+    /**
+     * Hedges idempotent requests. NULL if hedging is disabled
+     */
+    private final Hedger hedger;
+
+    /**
+     * Settings of circuit breakers. NULL if circuit breakers are disabled
+     */
+    private final CircuitBreakerConfig circuitBreakerConfig;
+
+    /**
+     * Circuit breakers by route
+     */
+    private final ConcurrentMap<String, CircuitBreaker> circuitBreakers;
+
+    /**
+     * Limits rate of requests. NULL if rate isn't limited
+     */
+    private final RateLimiter rateLimiter;
+
+    /**
+     * Limits number of requests in flight. NULL if concurrency isn't limited
+     */
+    private final ConcurrencyLimiter concurrencyLimiter;
+
+    /**
+     * @param retryBudget          Budget shared by retries of all requests
+     * @param hedgePolicy          Hedging policy. NULL if hedging is disabled
+     * @param circuitBreakerConfig Settings of circuit breakers. NULL if circuit breakers are disabled
+     * @param rateLimiter          Rate limiter. NULL if rate isn't limited
+     * @param concurrencyLimiter   Concurrency limiter. NULL if concurrency isn't limited
+     */
+    ResilientExecution(RetryBudget retryBudget, @Nullable HedgePolicy hedgePolicy,
+            @Nullable CircuitBreakerConfig circuitBreakerConfig, @Nullable RateLimiter rateLimiter,
+            @Nullable ConcurrencyLimiter concurrencyLimiter) {
+        this.retryBudget = retryBudget;
+        this.hedger = null == hedgePolicy ? null : new Hedger(hedgePolicy);
+        this.circuitBreakerConfig = circuitBreakerConfig;
+        this.circuitBreakers = new ConcurrentHashMap<String, CircuitBreaker>();
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    /**
+     * Applies policies to request. Attempt should be cold, i.e. each subscription should send new request
+     *
+     * @param attempt     Single attempt of request. Reports the moment response is received
+     *                    to concurrency limiter, if any
+     * @param rq          Request
+     * @param idempotent  Whether request may be safely repeated
+     * @param retryPolicy Retry policy. NULL if request shouldn't be retried
+     * @param <T>         Type of response
+     * @return Request protected with policies
+     */
+    <T> Maybe<T> apply(final ConcurrencyLimiter.SampledRequest<T> attempt, final TransportRequest rq,
+            boolean idempotent, @Nullable RetryPolicy retryPolicy) {
+        Maybe<T> result;
+        if (null != concurrencyLimiter) {
+            result = concurrencyLimiter.limit(new ConcurrencyLimiter.SampledRequest<T>() {
+                @Override
+                public Maybe<T> create(@Nullable ConcurrencyLimiter.Sample sample) {
+                    return protect(attempt.create(sample), rq);
+                }
+            });
+        } else {
+            result = protect(attempt.create(null), rq);
+        }
+        if (null != rateLimiter) {
+            result = rateLimiter.limit(result);
+        }
+
+        /* multipart body is produced by single stateful entity, so it cannot be sent by two copies at once */
+        if (null != hedger && idempotent && !(rq.getBody() instanceof RequestBody.Multipart)) {
+            result = hedger.hedge(result);
+        }
+        if (null != retryPolicy) {
+            result = result.retryWhen(new RetryHandler(retryPolicy, retryBudget, idempotent));
+        }
+        return result;
+    }
+
+    private <T> Maybe<T> protect(Maybe<T> attempt, TransportRequest rq) {
+        return null == circuitBreakerConfig ? attempt : getCircuitBreaker(rq.getUri()).protect(attempt);
+    }
+
+    /**
+     * Whether policies can be applied on calling thread. Hedging and concurrency limiting
+     * are implemented on top of Rx only
+     *
+     * @return TRUE if {@link #execute(Attempt, URI, boolean, RetryPolicy)} can be used
+     */
+    boolean isBlockingSupported() {
+        return null == hedger && null == concurrencyLimiter;
+    }
+
+    /**
+     * Executes request on calling thread with the same circuit breaker, rate limiter and retry semantics
+     * as {@link #apply(ConcurrencyLimiter.SampledRequest, TransportRequest, boolean, RetryPolicy)}.
+     * Calling thread is parked for backoff delays
+     *
+     * @param attempt     Single attempt of request
+     * @param uri         Request URI
+     * @param idempotent  Whether request may be safely repeated
+     * @param retryPolicy Retry policy. NULL if request shouldn't be retried
+     * @param <T>         Type of response
+     * @return Result of successful attempt
+     * @throws RestEndpointIOException In case of error. Checked exceptions (e.g. timeout) are wrapped into
+     *                                 {@link RuntimeException} the same way {@link Maybe#blockingGet()} does
+     */
+    <T> T execute(Attempt<T> attempt, URI uri, boolean idempotent, @Nullable RetryPolicy retryPolicy)
+            throws RestEndpointIOException {
+        if (null != retryPolicy) {
+            retryBudget.deposit();
+        }
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            try {
+                return executeAttempt(attempt, uri);
+            } catch (Exception e) {
+                if (null == retryPolicy || !retryPolicy.shouldRetry(idempotent, e, attemptNumber)
+                        || !retryBudget.tryWithdraw()) {
+                    throw propagate(e);
+                }
+                sleep(retryPolicy.getBackoff(attemptNumber), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private <T> T executeAttempt(Attempt<T> attempt, URI uri) throws Exception {
+        if (null != rateLimiter) {
+            sleep(rateLimiter.reserve(), TimeUnit.NANOSECONDS);
+        }
+        CircuitBreaker breaker = null == circuitBreakerConfig ? null : getCircuitBreaker(uri);
+        CircuitBreaker.State acquired = null == breaker ? null : breaker.tryAcquire();
+        if (null != breaker && null == acquired) {
+            throw new CircuitBreakerOpenException(breaker.getRoute());
+        }
+
+        long started = System.nanoTime();
+        Exception failure = null;
+        try {
+            return attempt.execute();
+        } catch (Exception e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (null != breaker) {
+                breaker.onResult(acquired, CircuitBreaker.isFailure(failure),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            }
+        }
+    }
+
+    /**
+     * Circuit breakers of routes requested so far
+     *
+     * @return Circuit breakers by route or empty map if circuit breakers are disabled
+     */
+    Map<String, CircuitBreaker> getCircuitBreakers() {
+        return Collections.unmodifiableMap(circuitBreakers);
+    }
+
+    /**
+     * Statistics of hedged requests
+     *
+     * @return Hedging statistics or absent if hedging is disabled
+     */
+    Optional<HedgeStats> getHedgeStats() {
+        return null == hedger ? Optional.<HedgeStats>absent() : Optional.of(hedger.getStats());
+    }
+
+    /**
+     * Finds circuit breaker of request's route
+     *
+     * @param uri Request URI
+     * @return Circuit breaker
+     */
+    private CircuitBreaker getCircuitBreaker(URI uri) {
+        int port = uri.getPort();
+        if (-1 == port) {
+            port = "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        }
+        String route = uri.getScheme() + "://" + uri.getHost() + ":" + port;
+        CircuitBreaker breaker = circuitBreakers.get(route);
+        if (null == breaker) {
+            breaker = new CircuitBreaker(route, circuitBreakerConfig);
+            CircuitBreaker existing = circuitBreakers.putIfAbsent(route, breaker);
+            if (null != existing) {
+                breaker = existing;
+            }
+        }
+        return breaker;
+    }
+
+    /**
+     * Rethrows failure of blocking execution the same way {@link Maybe#blockingGet()} does:
+     * unchecked exceptions as is, checked ones wrapped into {@link RuntimeException}
+     *
+     * @param e Failure
+     * @return Never returns, declared to be thrown by caller
+     */
+    private static RuntimeException propagate(Exception e) {
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        throw new RuntimeException(e);
+    }
+
+    /**
+     * Parks calling thread for provided delay. Interruption is reported as I/O failure
+     *
+     * @param delay Delay
+     * @param unit  Time unit
+     */
+    private static void sleep(long delay, TimeUnit unit) throws RestEndpointIOException {
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            unit.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RestEndpointIOException("Interrupted while waiting for request to be sent", e);
+        }
+    }
+
+    /**
+     * Single attempt of request executed on calling thread
+     *
+     * @param <T> Type of result
+     */
+    interface Attempt<T> {
+
+        T execute() throws Exception;
+    }
+
+    /**
+     * Resubscribes to failed request after backoff delay while retry policy and budget allow it.
+     * Delays are scheduled on shared computation scheduler, so no thread is blocked while waiting
+     */
+    private static final class RetryHandler implements Function<Flowable<Throwable>, Publisher<Long>> {
+
+        private final RetryPolicy policy;
+        private final RetryBudget budget;
+        private final boolean idempotent;
+
+        private RetryHandler(RetryPolicy policy, RetryBudget budget, boolean idempotent) {
+            this.policy = policy;
+            this.budget = budget;
+            this.idempotent = idempotent;
+        }
+
+        @Override
+        public Publisher<Long> apply(@Nonnull Flowable<Throwable> errors) {
+            /* called once per request execution */
+            budget.deposit();
+            final AtomicInteger attempts = new AtomicInteger();
+            return errors.flatMap(new Function<Throwable, Publisher<Long>>() {
+                @Override
+                public Publisher<Long> apply(@Nonnull Throwable error) {
+                    int attempt = attempts.incrementAndGet();
+                    if (policy.shouldRetry(idempotent, error, attempt) && budget.tryWithdraw()) {
+                        return Flowable.timer(policy.getBackoff(attempt), TimeUnit.MILLISECONDS,
+                                Schedulers.computation());
+                    }
+                    return Flowable.error(error);
+                }
+            });
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.github.avarabyeu.restendpoint.http;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Multimap;
 
@@ -19,11 +21,25 @@ public class Response<T> {
     private final HttpMethod httpMethod;
     private final int status;
     private final String reason;
-    private final Multimap<String, String> headers;
+    private final Supplier<? extends Multimap<String, String>> headers;
     private final T body;
+    private final boolean fromCache;
 
     public Response(URI uri, HttpMethod httpMethod, int status, String reason,
             Multimap<String, String> headers, T body) {
+        this(uri, httpMethod, status, reason,
+                Suppliers.ofInstance(ImmutableMultimap.copyOf(
+                        Preconditions.checkNotNull(headers, "Headers shouldn't be null"))),
+                body, false);
+    }
+
+    /**
+     * @param headers Headers supplier. Headers are obtained once requested, so supplier
+     *                should be thread-safe and return the same immutable instance each time
+     * @param fromCache Whether response is served from {@link ResponseCache}
+     */
+    Response(URI uri, HttpMethod httpMethod, int status, String reason,
+            Supplier<? extends Multimap<String, String>> headers, T body, boolean fromCache) {
         Preconditions.checkArgument(null != uri, "URL shouldn't be null or empty");
         Preconditions.checkArgument(null != httpMethod, "HttpMethod shouldn't be null or empty");
         Preconditions.checkArgument(status > 0, "Incorrect status code: %s", status);
@@ -33,8 +49,20 @@ public class Response<T> {
         this.httpMethod = httpMethod;
         this.status = status;
         this.reason = reason;
-        this.headers = ImmutableMultimap.copyOf(headers);
+        this.headers = headers;
         this.body = body;
+        this.fromCache = fromCache;
+    }
+
+    /**
+     * Creates response with the same attributes, but different body. Nothing is copied
+     *
+     * @param body Body of new response
+     * @param <R>  Type of new body
+     * @return New response
+     */
+    <R> Response<R> withBody(R body) {
+        return new Response<R>(uri, httpMethod, status, reason, headers, body, fromCache);
     }
 
     public URI getUri() {
@@ -50,7 +78,7 @@ public class Response<T> {
     }
 
     public final Multimap<String, String> getHeaders() {
-        return headers;
+        return headers.get();
     }
 
     public final T getBody() {
@@ -60,4 +88,12 @@ public class Response<T> {
     public HttpMethod getHttpMethod() {
         return httpMethod;
     }
+
+    /**
+     * @return TRUE if response is served from {@link ResponseCache}, either fresh
+     * or revalidated by server with 304 Not Modified
+     */
+    public boolean isFromCache() {
+        return fromCache;
+    }
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import javax.annotation.Nullable;
+
+/**
+ * Storage of cached GET responses. Freshness and revalidation are handled by
+ * {@link HttpClientRestEndpoint}, storage just keeps responses by request URL.
+ * Implementations should be thread-safe
+ *
+ * @author Andrei Varabyeu
+ * @see InMemoryResponseCache
+ */
+public interface ResponseCache {
+
+    /**
+     * Max size of cached body used unless provided explicitly. Larger bodies are streamed and not cached
+     */
+    int DEFAULT_MAX_BODY_SIZE = 1024 * 1024;
+
+    /**
+     * @param url Request URL
+     * @return Cached response or NULL if there is no response cached for provided URL
+     */
+    @Nullable
+    CachedResponse get(String url);
+
+    /**
+     * Stores response
+     *
+     * @param url      Request URL
+     * @param response Response to be cached
+     */
+    void put(String url, CachedResponse response);
+
+    /**
+     * Removes cached response, e.g. once resource is modified
+     *
+     * @param url Request URL
+     */
+    void invalidate(String url);
+}
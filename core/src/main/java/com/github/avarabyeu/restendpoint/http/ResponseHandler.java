@@ -0,0 +1,280 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.github.avarabyeu.restendpoint.http.exception.RestEndpointIOException;
+import com.github.avarabyeu.restendpoint.http.exception.SerializerException;
+import com.github.avarabyeu.restendpoint.serializer.MediaTypes;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Closer;
+import com.google.common.net.HttpHeaders;
+import com.google.common.net.MediaType;
+import com.google.common.primitives.Longs;
+import org.apache.http.HttpStatus;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Handles responses received by transport: checks them for errors, decodes compressed bodies,
+ * updates response cache and deserializes bodies. Bodies are read in blocking manner,
+ * so handler shouldn't be called on transport's threads
+ *
+ * @author Andrei Varabyeu
+ */
+final class ResponseHandler {
+
+    /**
+     * Error Handler for HttpResponses
+     */
+    private final ErrorHandler errorHandler;
+
+    /**
+     * Cache of GET responses. NULL if caching is disabled
+     */
+    private final ResponseCache responseCache;
+
+    /**
+     * Max size of response body to be cached. Larger bodies are streamed
+     */
+    private final int maxCachedBodySize;
+
+    /**
+     * Whether gzip and deflate compressed responses are decoded transparently
+     */
+    private final boolean decompressResponses;
+
+    /**
+     * @param errorHandler        Error handler for HTTP messages
+     * @param responseCache       Cache of GET responses. NULL if caching is disabled
+     * @param maxCachedBodySize   Max size of response body to be cached
+     * @param decompressResponses Whether compressed responses are decoded
+     */
+    ResponseHandler(ErrorHandler errorHandler, @Nullable ResponseCache responseCache, int maxCachedBodySize,
+            boolean decompressResponses) {
+        this.errorHandler = errorHandler;
+        this.responseCache = responseCache;
+        this.maxCachedBodySize = maxCachedBodySize;
+        this.decompressResponses = decompressResponses;
+    }
+
+    /**
+     * Handles response of request attempt
+     *
+     * @param rq       - Request
+     * @param response - Response received by transport
+     * @param callback - Callback to be applied on response
+     * @param cacheKey - Key response should be cached with. NULL if response shouldn't be cached
+     * @param cached   - Stale cached response request revalidates. NULL if request isn't conditional
+     * @param timer    - Timer of request attempt. NULL if metrics are disabled
+     * @param <RS>     type of response
+     * @return - Serialized Response Body
+     * @throws Exception Error found in response or failure of reading it
+     */
+    <RS> Response<RS> handle(TransportRequest rq, TransportResponse response,
+            HttpEntityCallback<RS> callback, @Nullable String cacheKey, @Nullable CachedResponse cached,
+            @Nullable RequestTimer timer) throws Exception {
+        Closer closer = Closer.create();
+        try {
+            InputStream content = closer.register(
+                    null == timer ? response.getBody() : timer.instrument(response.getBody()));
+
+            /* cached response is still valid */
+            if (null != cached && HttpStatus.SC_NOT_MODIFIED == response.getStatus()) {
+                ByteStreams.exhaust(content);
+                CachedResponse revalidated = cached.revalidate(response, System.currentTimeMillis());
+                responseCache.put(cacheKey, revalidated);
+                return fromCache(rq, revalidated, callback);
+            }
+
+            InputStream decoded = decode(response, content);
+            if (decoded != content) {
+                closer.register(decoded);
+            }
+            LazyByteSource bodySupplier = new LazyByteSource(decoded);
+
+            /* convert entire response. Headers are converted to multimap only once requested */
+            Response<ByteSource> rs = new Response<ByteSource>(rq.getUri(),
+                    rq.getMethod(),
+                    response.getStatus(),
+                    response.getReason(),
+                    Suppliers.memoize(new HeadersConverter(response, decoded != content)),
+                    bodySupplier, false);
+
+            /* check whether there is error in the response.
+             * Error body outlives response stream, so it's read into memory */
+            if (errorHandler.hasError(rs)) {
+                bodySupplier.bytes();
+                errorHandler.handle(rs);
+            }
+
+            /* parse Content-Type header to be able to find appropriate serializer */
+            String contentTypeHeader = response.getHeader(HttpHeaders.CONTENT_TYPE);
+            MediaType contentType = null == contentTypeHeader ?
+                    MediaType.ANY_TYPE :
+                    MediaTypes.parse(contentTypeHeader);
+
+            /* cacheable body is read into memory unless it exceeds cache limit,
+             * otherwise it's deserialized right from the wire */
+            InputStream body = bodySupplier.content();
+            boolean cacheable = null != cacheKey && CachedResponse.isCacheable(response)
+                    && getContentLength(response) <= maxCachedBodySize;
+            if (cacheable) {
+                byte[] bytes = ByteStreams.toByteArray(ByteStreams.limit(body, maxCachedBodySize + 1L));
+                if (bytes.length <= maxCachedBodySize) {
+                    responseCache.put(cacheKey, CachedResponse.of(response, rs.getHeaders(), bytes,
+                            System.currentTimeMillis()));
+                    body = new ByteArrayInputStream(bytes);
+                } else {
+                    /* limit is passed, the rest of body is streamed */
+                    cacheable = false;
+                    body = new SequenceInputStream(new ByteArrayInputStream(bytes), body);
+                }
+            }
+            if (!cacheable && null != cached) {
+                responseCache.invalidate(cacheKey);
+            }
+
+            /* build response with converted instance */
+            long deserializationStart = System.nanoTime();
+            Response<RS> converterRS = rs.withBody(callback.callback(contentType, body));
+            if (null != timer) {
+                timer.onDeserialized(System.nanoTime() - deserializationStart,
+                        callback.serializers.getReader(contentType, callback.resultType));
+            }
+
+            /* consume the rest of body to keep connection reusable */
+            ByteStreams.exhaust(content);
+            return converterRS;
+        } catch (IOException e) {
+            throw new RestEndpointIOException("Unable to execute request", e);
+        } finally {
+            IOUtils.closeQuietly(closer);
+        }
+    }
+
+    /**
+     * Builds response of cached one
+     *
+     * @param rq       Request
+     * @param cached   Cached response
+     * @param callback Callback to be applied on response body
+     * @param <RS>     type of response
+     * @return Response marked as served from cache
+     * @throws IOException In case of IO error
+     */
+    static <RS> Response<RS> fromCache(TransportRequest rq, CachedResponse cached,
+            HttpEntityCallback<RS> callback) throws IOException {
+        MediaType contentType = null == cached.getContentType() ?
+                MediaType.ANY_TYPE :
+                MediaTypes.parse(cached.getContentType());
+        return new Response<RS>(rq.getUri(), HttpMethod.GET, cached.getStatus(), cached.getReason(),
+                Suppliers.ofInstance(cached.getHeaders()),
+                callback.callback(contentType, cached.getBody().openStream()), true);
+    }
+
+    /**
+     * Converts failure reported by transport. Timeouts and request body serialization failures
+     * are reported as is, other failures are wrapped into {@link RestEndpointIOException}
+     *
+     * @param e Failure reported by transport
+     * @return Failure request completes with
+     */
+    static Exception toFailure(Exception e) {
+        if (e instanceof TimeoutException) {
+            return e;
+        }
+        for (Throwable cause : Throwables.getCausalChain(e)) {
+            if (cause instanceof SerializerException) {
+                return (SerializerException) cause;
+            }
+        }
+        return new RestEndpointIOException("Unable to execute request", e);
+    }
+
+    /**
+     * Wraps response body with decoder if body is compressed with supported encoding
+     *
+     * @param response HTTP response
+     * @param content  Raw response body
+     * @return Decoded body or raw one if it isn't compressed
+     * @throws IOException in case of I/O error
+     */
+    private InputStream decode(TransportResponse response, InputStream content) throws IOException {
+        if (!decompressResponses) {
+            return content;
+        }
+        String encoding = response.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (null == encoding || !ContentCoding.isSupported(encoding)) {
+            return content;
+        }
+        return ContentCoding.decode(content, encoding);
+    }
+
+    /**
+     * @param response Response
+     * @return Value of Content-Length header or zero if length isn't known in advance
+     */
+    private static long getContentLength(TransportResponse response) {
+        String contentLength = response.getHeader(HttpHeaders.CONTENT_LENGTH);
+        Long length = null == contentLength ? null : Longs.tryParse(contentLength.trim());
+        return null == length ? 0 : length;
+    }
+
+    /**
+     * Converts response headers to multimap. Each header occurrence is a separate value.
+     * Headers describing encoded body are skipped once body is decoded since they don't match decoded one
+     */
+    private static class HeadersConverter implements Supplier<Multimap<String, String>> {
+
+        private final TransportResponse response;
+        private final boolean decoded;
+
+        private HeadersConverter(TransportResponse response, boolean decoded) {
+            this.response = response;
+            this.decoded = decoded;
+        }
+
+        @Override
+        public Multimap<String, String> get() {
+            if (!decoded) {
+                return response.getHeaders();
+            }
+            ImmutableMultimap.Builder<String, String> headersBuilder = ImmutableMultimap.builder();
+            for (Entry<String, String> header : response.getHeaders().entries()) {
+                if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(header.getKey())
+                        || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header.getKey())
+                        || HttpHeaders.CONTENT_MD5.equalsIgnoreCase(header.getKey())) {
+                    continue;
+                }
+                headersBuilder.put(header);
+            }
+            return headersBuilder.build();
+        }
+    }
+}
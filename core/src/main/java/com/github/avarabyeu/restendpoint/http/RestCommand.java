@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.google.common.base.Preconditions;
+import com.google.common.reflect.TypeToken;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Type;
+
+/**
+ * Base Rest request representation
+ *
+ * @param <RQ> - type of request
+ * @param <RS> - type of response
+ * @author Andrei Varabyeu
+ */
+public class RestCommand<RQ, RS> {
+
+    /**
+     * Request body is compressed according to settings of endpoint
+     */
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = -1;
+
+    /**
+     * Request body is never compressed
+     */
+    public static final int NO_COMPRESSION = Integer.MAX_VALUE;
+
+    private final HttpMethod httpMethod;
+    private final RQ request;
+    private final String uri;
+    private final Type responseType;
+    private final boolean multipart;
+    private final RetryPolicy retryPolicy;
+    private final String urlTemplate;
+    private final int compressionThreshold;
+    private final boolean idempotent;
+
+    public RestCommand(@Nonnull String uri, @Nonnull HttpMethod method, @Nullable RQ request,
+            @Nonnull Class<RS> responseClass) {
+        this(uri, method, request, TypeToken.of(responseClass).getType(), false);
+    }
+
+    public RestCommand(@Nonnull String uri, @Nonnull HttpMethod method, @Nullable RQ request,
+            @Nonnull Class<RS> responseClass, boolean multipart) {
+        this(uri, method, request, TypeToken.of(responseClass).getType(), multipart);
+    }
+
+    public RestCommand(@Nonnull String uri, @Nonnull HttpMethod method, @Nullable RQ request,
+            @Nonnull Type responseType, boolean multipart) {
+        this(uri, method, request, responseType, multipart, null);
+    }
+
+    /**
+     * @param retryPolicy Retry policy of command. Overrides policy of endpoint if not NULL
+     */
+    public RestCommand(@Nonnull String uri, @Nonnull HttpMethod method, @Nullable RQ request,
+            @Nonnull Type responseType, boolean multipart, @Nullable RetryPolicy retryPolicy) {
+        this(uri, method, request, responseType, multipart, retryPolicy, null);
+    }
+
+    /**
+     * @param retryPolicy Retry policy of command. Overrides policy of endpoint if not NULL
+     * @param urlTemplate Template URI is built of. Used to tag request metrics
+     */
+    public RestCommand(@Nonnull String uri, @Nonnull HttpMethod method, @Nullable RQ request,
+            @Nonnull Type responseType, boolean multipart, @Nullable RetryPolicy retryPolicy,
+            @Nullable String urlTemplate) {
+        this(uri, method, request, responseType, multipart, retryPolicy, urlTemplate, DEFAULT_COMPRESSION_THRESHOLD);
+    }
+
+    /**
+     * @param retryPolicy          Retry policy of command. Overrides policy of endpoint if not NULL
+     * @param urlTemplate          Template URI is built of. Used to tag request metrics
+     * @param compressionThreshold Min size of request body in bytes to be gzip-compressed.
+     *                             See {@link #DEFAULT_COMPRESSION_THRESHOLD} and {@link #NO_COMPRESSION}
+     */
+    public RestCommand(@Nonnull String uri, @Nonnull HttpMethod method, @Nullable RQ request,
+            @Nonnull Type responseType, boolean multipart, @Nullable RetryPolicy retryPolicy,
+            @Nullable String urlTemplate, int compressionThreshold) {
+        this(uri, method, request, responseType, multipart, retryPolicy, urlTemplate, compressionThreshold,
+                method.isIdempotent());
+    }
+
+    /**
+     * @param retryPolicy          Retry policy of command. Overrides policy of endpoint if not NULL
+     * @param urlTemplate          Template URI is built of. Used to tag request metrics
+     * @param compressionThreshold Min size of request body in bytes to be gzip-compressed.
+     *                             See {@link #DEFAULT_COMPRESSION_THRESHOLD} and {@link #NO_COMPRESSION}
+     * @param idempotent           Whether request may be safely repeated (hedged or retried).
+     *                             Requests of idempotent HTTP methods are idempotent anyway
+     */
+    public RestCommand(@Nonnull String uri, @Nonnull HttpMethod method, @Nullable RQ request,
+            @Nonnull Type responseType, boolean multipart, @Nullable RetryPolicy retryPolicy,
+            @Nullable String urlTemplate, int compressionThreshold, boolean idempotent) {
+        this.httpMethod = method;
+        this.request = request;
+        this.uri = uri;
+        this.responseType = responseType;
+        this.multipart = multipart;
+        this.retryPolicy = retryPolicy;
+        this.urlTemplate = urlTemplate;
+        this.compressionThreshold = compressionThreshold;
+        this.idempotent = idempotent || method.isIdempotent();
+
+        validate();
+    }
+
+    public final HttpMethod getHttpMethod() {
+        return httpMethod;
+    }
+
+    public final boolean isMultipart() {
+        return multipart;
+    }
+
+    public final RQ getRequest() {
+        return request;
+    }
+
+    public final String getUri() {
+        return uri;
+    }
+
+    public final Type getResponseType() {
+        return responseType;
+    }
+
+    @Nullable
+    public final RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    @Nullable
+    public final String getUrlTemplate() {
+        return urlTemplate;
+    }
+
+    public final int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * @return TRUE if request may be safely repeated, i.e. hedged or retried
+     */
+    public final boolean isIdempotent() {
+        return idempotent;
+    }
+
+    private void validate() {
+
+        /* Requests with no body should pass body parameter as NULL */
+        if (!this.httpMethod.hasBody()) {
+            Preconditions.checkState(null == this.request, "'%s' shouldn't contain body", this.httpMethod);
+            Preconditions.checkState(!multipart, "Incorrect request type for multipart: '%s'", this.httpMethod);
+        }
+        Preconditions.checkArgument(compressionThreshold >= DEFAULT_COMPRESSION_THRESHOLD,
+                "Incorrect compression threshold: %s", compressionThreshold);
+    }
+}
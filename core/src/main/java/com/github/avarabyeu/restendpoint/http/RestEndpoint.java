@@ -17,6 +17,7 @@
 package com.github.avarabyeu.restendpoint.http;
 
 import com.github.avarabyeu.restendpoint.http.exception.RestEndpointIOException;
+import io.reactivex.Flowable;
 import io.reactivex.Maybe;
 
 import java.lang.reflect.Type;
@@ -287,4 +288,32 @@ public interface RestEndpoint {
      * @throws RestEndpointIOException In case of error
      */
     <RQ, RS> Maybe<Response<RS>> executeRequest(RestCommand<RQ, RS> command) throws RestEndpointIOException;
+
+    /**
+     * Executes bunch of HTTP requests keeping at most <b>maxConcurrency</b> of them in flight.
+     * Commands are pulled from iterable lazily, according to downstream demand. Responses are emitted
+     * in order of commands, so responses of completed requests are buffered until preceding ones complete.
+     * Stream fails once any of requests fails
+     *
+     * @param commands       HTTP requests
+     * @param maxConcurrency Max number of requests executed simultaneously
+     * @param <RQ>           Type of Request Body
+     * @param <RS>           Type of Response Body
+     * @return Responses in order of commands
+     */
+    <RQ, RS> Flowable<Response<RS>> executeAll(Iterable<? extends RestCommand<RQ, RS>> commands, int maxConcurrency);
+
+    /**
+     * Executes bunch of HTTP requests keeping at most <b>maxConcurrency</b> of them in flight.
+     * Responses are emitted as soon as requests complete, so order of commands is not preserved
+     *
+     * @param commands       HTTP requests
+     * @param maxConcurrency Max number of requests executed simultaneously
+     * @param <RQ>           Type of Request Body
+     * @param <RS>           Type of Response Body
+     * @return Responses in order of completion
+     * @see #executeAll(Iterable, int)
+     */
+    <RQ, RS> Flowable<Response<RS>> executeAllUnordered(Iterable<? extends RestCommand<RQ, RS>> commands,
+            int maxConcurrency);
 }
@@ -0,0 +1,677 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.github.avarabyeu.restendpoint.http.proxy.AbstractRestClient;
+import com.github.avarabyeu.restendpoint.http.proxy.RestEndpointInvocationHandler;
+import com.github.avarabyeu.restendpoint.serializer.ByteArraySerializer;
+import com.github.avarabyeu.restendpoint.serializer.Serializer;
+import com.github.avarabyeu.restendpoint.serializer.TextSerializer;
+import com.github.avarabyeu.restendpoint.serializer.json.GsonSerializer;
+import com.google.common.base.Charsets;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.io.BaseEncoding;
+import com.google.common.reflect.Reflection;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+import org.apache.http.HttpHost;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.ssl.DefaultHostnameVerifier;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.ConnectingIOReactor;
+import org.apache.http.nio.reactor.IOReactorException;
+
+import javax.annotation.Nonnull;
+import javax.net.ssl.SSLContext;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Builders for {@link com.github.avarabyeu.restendpoint.http.RestEndpoint}
+ *
+ * @author avarabyeu
+ */
+public final class RestEndpoints {
+
+    /**
+     * No need to create instance
+     */
+    private RestEndpoints() {
+    }
+
+    /**
+     * Creates default {@link com.github.avarabyeu.restendpoint.http.RestEndpoint} for provided endpoint URL.
+     * Adds {@link com.github.avarabyeu.restendpoint.http.DefaultErrorHandler} and all possible serializers
+     *
+     * @return created RestEndpoint
+     */
+    public static RestEndpoint createDefault() {
+        return new HttpClientRestEndpoint(HttpAsyncClients.createDefault(),
+                Lists.<Serializer>newArrayList(
+                        new TextSerializer(),
+                        new ByteArraySerializer(), new GsonSerializer()),
+                new DefaultErrorHandler());
+    }
+
+    /**
+     * Creates default {@link com.github.avarabyeu.restendpoint.http.RestEndpoint} for provided endpoint URL.
+     * Adds {@link com.github.avarabyeu.restendpoint.http.DefaultErrorHandler} and all possible serializers
+     *
+     * @param endpointUrl Base endpoint URL
+     * @return created RestEndpoint
+     */
+    public static RestEndpoint createDefault(String endpointUrl) {
+        return new HttpClientRestEndpoint(HttpAsyncClients.createDefault(),
+                Lists.<Serializer>newArrayList(
+                        new TextSerializer(),
+                        new ByteArraySerializer(), new GsonSerializer()),
+                new DefaultErrorHandler(),
+                endpointUrl);
+    }
+
+    /**
+     * Creates interface implementation of provided class using RestEndpoint as rest client.
+     * Client generated at compile time by restendpoint-processor is used if present on classpath,
+     * proxy is created otherwise.
+     * <b>Only interfaces are supported!</b>
+     *
+     * @param clazz    - interface to be proxied
+     * @param endpoint - RestEndpoint to be used as rest client
+     * @param <T>      - Type of interface to be proxied
+     * @return interface implementation (e.g.) just proxy
+     */
+    public static <T> T forInterface(@Nonnull Class<T> clazz, RestEndpoint endpoint) {
+        Optional<T> generated = AbstractRestClient.newGenerated(clazz, endpoint);
+        if (generated.isPresent()) {
+            return generated.get();
+        }
+        return Reflection.newProxy(clazz, new RestEndpointInvocationHandler(clazz, endpoint));
+    }
+
+    /**
+     * Creates default builder which uses Apache Http Commons Async client as endpoint implementation
+     *
+     * @return New Builder instance
+     */
+    public static Builder create() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link com.github.avarabyeu.restendpoint.http.RestEndpoint}
+     */
+    public static class Builder {
+
+        private final List<Serializer> serializers;
+
+        private final HttpAsyncClientBuilder httpClientBuilder;
+
+        private CloseableHttpAsyncClient httpClient;
+
+        private Transport transport;
+
+        private String authorization;
+
+        private ErrorHandler errorHandler;
+
+        private String endpointUrl;
+
+        private final IOReactorConfig.Builder ioReactorConfig;
+
+        private final Map<HttpHost, Integer> maxConnectionsPerHost;
+
+        private Integer maxConnections;
+
+        private Integer maxConnectionsPerRoute;
+
+        private SSLIOSessionStrategy sslSessionStrategy;
+
+        private final EndpointOptions options;
+
+        /**
+         * Default RestEndpoints builder
+         */
+        Builder() {
+            this.serializers = Lists.newArrayList();
+            this.httpClientBuilder = HttpAsyncClientBuilder.create();
+            this.ioReactorConfig = IOReactorConfig.custom();
+            this.maxConnectionsPerHost = new LinkedHashMap<HttpHost, Integer>();
+            this.options = new EndpointOptions();
+        }
+
+        /**
+         * Build {@link RestEndpoint}
+         *
+         * @return Built RestEndpoint
+         */
+        public final RestEndpoint build() {
+            Transport endpointTransport;
+            if (null != transport) {
+                Preconditions.checkState(null == httpClient && !options.http2,
+                        "Custom transport cannot be combined with HTTP client or HTTP/2");
+                endpointTransport = transport;
+                options.connectionPool = null;
+            } else if (options.http2) {
+                Preconditions.checkState(null == httpClient, "HTTP/2 transport isn't based on HttpAsyncClient");
+                endpointTransport = Http2Transports.create(options);
+                options.connectionPool = null;
+            } else {
+                CloseableHttpAsyncClient closeableHttpAsyncClient;
+                if (null == httpClient) {
+                    PoolingNHttpClientConnectionManager connectionPool = buildConnectionPool();
+                    closeableHttpAsyncClient = httpClientBuilder.setConnectionManager(connectionPool).build();
+                    options.connectionPool = connectionPool;
+                } else {
+                    closeableHttpAsyncClient = httpClient;
+                    options.connectionPool = null;
+                }
+                endpointTransport = new HttpAsyncClientTransport(closeableHttpAsyncClient,
+                        null == options.scheduler ? Schedulers.io() : options.scheduler);
+            }
+
+            /* HttpAsyncClient authorizes requests itself, so endpoint adds Authorization header for other transports */
+            options.authorization = endpointTransport instanceof HttpAsyncClientTransport ? null : authorization;
+
+            return new HttpClientRestEndpoint(endpointTransport,
+                    serializers,
+                    errorHandler,
+                    endpointUrl,
+                    options);
+        }
+
+        public final Builder withBaseUrl(String url) {
+            this.endpointUrl = url;
+            return this;
+        }
+
+        public final Builder withErrorHandler(ErrorHandler errorHandler) {
+            this.errorHandler = errorHandler;
+            return this;
+        }
+
+        public final Builder withSerializer(Serializer serializer) {
+            this.serializers.add(serializer);
+            return this;
+        }
+
+        /**
+         * Scheduler request serialization and response handling (error handling, deserialization) are executed on.
+         * Request bodies are serialized (and binary multipart parts are read) on
+         * {@link io.reactivex.schedulers.Schedulers#io()} by default, responses
+         * are handled on endpoint's bounded pool (see {@link #withDecodeExecutor(Executor)}). Unbounded
+         * {@link io.reactivex.schedulers.Schedulers#io()} might be opted in for response handling explicitly.
+         * Bounded scheduler limits number of threads busy with serialization, but requests exceeding this number
+         * wait for free thread. Response handling may be moved to separate executor via
+         * {@link #withDecodeExecutor(Executor)}.
+         * <b>Scheduler should never execute tasks on the calling thread</b> (e.g.
+         * {@link io.reactivex.schedulers.Schedulers#trampoline()}) since body is streamed from/to I/O reactor
+         *
+         * @param scheduler Scheduler
+         * @return This builder
+         */
+        public final Builder withScheduler(@Nonnull Scheduler scheduler) {
+            options.scheduler = Preconditions.checkNotNull(scheduler, "Scheduler shouldn't be null");
+            return this;
+        }
+
+        /**
+         * Executor response handling (error handling, deserialization) is executed on. Scheduler provided via
+         * {@link #withScheduler(Scheduler)} is used by default. If there is no scheduler, endpoint handles responses
+         * on its own pool of two daemon threads per available processor with queue of 1024 responses, which is
+         * shut down once endpoint is closed. I/O reactor threads never decode bodies, so bounded
+         * executor limits number of threads busy with decoding without stalling network I/O. Responses waiting for
+         * free thread are not read from network further than small per-connection buffer, since I/O reactor
+         * suspends reading of connection once its buffer is full. Requests whose response handling is rejected by
+         * executor fail with {@link java.util.concurrent.RejectedExecutionException}, response is discarded then.
+         * <b>Executor is not shut down by endpoint and should never execute tasks on the calling thread</b>
+         *
+         * @param decodeExecutor Executor for response handling, e.g. fixed thread pool
+         * @return This builder
+         */
+        public final Builder withDecodeExecutor(@Nonnull Executor decodeExecutor) {
+            options.decodeExecutor = Preconditions.checkNotNull(decodeExecutor, "Decode executor shouldn't be null");
+            return this;
+        }
+
+        /**
+         * Caches GET responses in memory. Responses are cached according to Cache-Control header
+         * and revalidated with If-None-Match/If-Modified-Since once stale. Least recently used responses
+         * are evicted once total size exceeds provided one. Bodies too large to fit the cache are streamed
+         * and not cached
+         *
+         * @param maxSize Max size of cached responses in bytes
+         * @return This builder
+         * @see Response#isFromCache()
+         */
+        public final Builder withResponseCache(long maxSize) {
+            return withResponseCache(new InMemoryResponseCache(maxSize));
+        }
+
+        /**
+         * Caches GET responses in provided storage, e.g. backed by disk or shared between endpoints.
+         * Bodies larger than {@link ResponseCache#DEFAULT_MAX_BODY_SIZE} (or than
+         * {@link InMemoryResponseCache#getMaxBodySize()}) are streamed and not cached
+         *
+         * @param responseCache Response cache
+         * @return This builder
+         * @see #withResponseCache(long)
+         */
+        public final Builder withResponseCache(@Nonnull ResponseCache responseCache) {
+            return withResponseCache(responseCache, responseCache instanceof InMemoryResponseCache ?
+                    ((InMemoryResponseCache) responseCache).getMaxBodySize() :
+                    ResponseCache.DEFAULT_MAX_BODY_SIZE);
+        }
+
+        /**
+         * Caches GET responses in provided storage. Body is read into memory until provided size is exceeded,
+         * the rest is streamed and response is not cached
+         *
+         * @param responseCache Response cache
+         * @param maxBodySize   Max size of response body to be cached in bytes
+         * @return This builder
+         */
+        public final Builder withResponseCache(@Nonnull ResponseCache responseCache, int maxBodySize) {
+            Preconditions.checkArgument(maxBodySize >= 0, "Max body size shouldn't be negative");
+            options.responseCache = Preconditions.checkNotNull(responseCache, "Response cache shouldn't be null");
+            options.maxCachedBodySize = maxBodySize;
+            return this;
+        }
+
+        /**
+         * Concurrent GET requests with the same URI, headers and response type share single in-flight
+         * request (single-flight). Result is delivered to all subscribers, so <b>they share the same
+         * response body instance</b> which shouldn't be modified. Request issued once in-flight one completed
+         * goes to the network (or {@link #withResponseCache(long)} cache) again
+         *
+         * @return This builder
+         */
+        public final Builder withGetCoalescing() {
+            options.coalesceGets = true;
+            return this;
+        }
+
+        /**
+         * Retries failed requests according to provided policy. Policy of
+         * {@link com.github.avarabyeu.restendpoint.http.annotation.Retry} annotated method
+         * or {@link RestCommand} overrides this one
+         *
+         * @param retryPolicy Default retry policy
+         * @return This builder
+         */
+        public final Builder withRetry(@Nonnull RetryPolicy retryPolicy) {
+            options.retryPolicy = Preconditions.checkNotNull(retryPolicy, "Retry policy shouldn't be null");
+            return this;
+        }
+
+        /**
+         * Budget shared by retries of all requests. By default retries may add up to 10% of requests
+         * (but not more than 100 in a burst), so retries can't amplify outage
+         *
+         * @param retryBudget Retry budget
+         * @return This builder
+         */
+        public final Builder withRetryBudget(@Nonnull RetryBudget retryBudget) {
+            options.retryBudget = Preconditions.checkNotNull(retryBudget, "Retry budget shouldn't be null");
+            return this;
+        }
+
+        /**
+         * Hedges idempotent requests (GET, PUT, DELETE and methods marked with
+         * {@link com.github.avarabyeu.restendpoint.http.annotation.Idempotent}): once request isn't completed
+         * within policy's delay, duplicate request is sent and whichever succeeds first wins. Loser is cancelled.
+         * Request fails only once both copies fail. Multipart requests are not hedged.
+         * Statistics are exposed via {@link HttpClientRestEndpoint#getHedgeStats()}
+         *
+         * @param hedgePolicy Hedging policy
+         * @return This builder
+         */
+        public final Builder withHedging(@Nonnull HedgePolicy hedgePolicy) {
+            options.hedgePolicy = Preconditions.checkNotNull(hedgePolicy, "Hedge policy shouldn't be null");
+            return this;
+        }
+
+        /**
+         * Protects each route (scheme, host and port) with circuit breaker. Requests to route
+         * with open circuit fail fast with
+         * {@link com.github.avarabyeu.restendpoint.http.exception.CircuitBreakerOpenException}
+         * instead of waiting for timeouts and occupying pool connections
+         *
+         * @param config Circuit breaker settings
+         * @return This builder
+         * @see HttpClientRestEndpoint#getCircuitBreakers()
+         */
+        public final Builder withCircuitBreaker(@Nonnull CircuitBreakerConfig config) {
+            options.circuitBreaker = Preconditions.checkNotNull(config, "Circuit breaker config shouldn't be null");
+            return this;
+        }
+
+        /**
+         * Limits rate of requests sent by endpoint. Requests exceeding rate are delayed
+         * without blocking caller thread. Each attempt (retry, hedge) takes own permit
+         *
+         * @param rateLimiter Rate limiter. May be shared between endpoints
+         * @return This builder
+         */
+        public final Builder withRateLimiter(@Nonnull RateLimiter rateLimiter) {
+            options.rateLimiter = Preconditions.checkNotNull(rateLimiter, "Rate limiter shouldn't be null");
+            return this;
+        }
+
+        /**
+         * Limits number of requests in flight. Requests exceeding limit are queued
+         * without blocking caller thread and sent once in-flight ones complete
+         *
+         * @param concurrencyLimiter Concurrency limiter. May be shared between endpoints
+         * @return This builder
+         * @see ConcurrencyLimiter#aimd(int, int, int)
+         */
+        public final Builder withConcurrencyLimiter(@Nonnull ConcurrencyLimiter concurrencyLimiter) {
+            options.concurrencyLimiter = Preconditions
+                    .checkNotNull(concurrencyLimiter, "Concurrency limiter shouldn't be null");
+            return this;
+        }
+
+        /**
+         * Reports metrics of each request (timings of request phases, status, payload sizes) to provided listener
+         *
+         * @param listener Request listener
+         * @return This builder
+         * @see HistogramRequestListener
+         */
+        public final Builder withRequestListener(@Nonnull RequestListener listener) {
+            options.requestListener = Preconditions.checkNotNull(listener, "Request listener shouldn't be null");
+            return this;
+        }
+
+        /**
+         * Sends requests over JDK HTTP client which speaks HTTP/2 once server supports it.
+         * Requests to the same host are multiplexed over single connection instead of waiting
+         * for free connection in pool. Secure connections negotiate protocol via ALPN, plain connections
+         * are upgraded to h2c by the first request without body. Requires Java 11 or later.
+         * <b>Settings of HttpAsyncClient and its connection pool do not apply</b>
+         *
+         * @return This builder
+         */
+        public final Builder withHttp2() {
+            options.http2 = true;
+            return this;
+        }
+
+        /**
+         * Sends requests over provided transport instead of Apache HttpAsyncClient.
+         * Transport is closed once endpoint is closed.
+         * <b>Settings of HttpAsyncClient and its connection pool do not apply</b>
+         *
+         * @param transport Transport requests are sent over
+         * @return This builder
+         */
+        public final Builder withTransport(@Nonnull Transport transport) {
+            this.transport = Preconditions.checkNotNull(transport, "Transport shouldn't be null");
+            return this;
+        }
+
+        /**
+         * Compresses request bodies with gzip once they exceed provided size. Might be overridden
+         * per interface method with {@link com.github.avarabyeu.restendpoint.http.annotation.Request#compressAbove()}.
+         * <b>Size of body should be known before request is sent, so bodies which might be compressed are
+         * serialized into memory rather than streamed</b>
+         *
+         * @param minSize Min size of request body in bytes to be compressed
+         * @return This builder
+         */
+        public final Builder withRequestCompression(int minSize) {
+            Preconditions.checkArgument(minSize >= 0, "Min size shouldn't be negative");
+            options.compressionThreshold = minSize;
+            return this;
+        }
+
+        /**
+         * Serializes request bodies into memory and sends them with Content-Length header. By default bodies
+         * are serialized right into the connection and sent with chunked transfer encoding, which is not accepted
+         * by some servers and proxies (e.g. ones replying with <b>411 Length Required</b>)
+         *
+         * @return This builder
+         */
+        public final Builder withBufferedRequestBodies() {
+            options.bufferRequestBodies = true;
+            return this;
+        }
+
+        /**
+         * Disables transparent decompression of responses. By default endpoint asks for gzip or deflate
+         * compressed responses and decompresses them on the fly
+         *
+         * @return This builder
+         */
+        public final Builder withoutResponseDecompression() {
+            options.disableDecompression = true;
+            return this;
+        }
+
+        /**
+         * Uses provided {@link org.apache.http.impl.nio.client.CloseableHttpAsyncClient}
+         * <b>May override some configuration methods like {@link #withBasicAuth(String, String)}</b>
+         *
+         * @param httpClient Apache HTTP client
+         * @return this Builder
+         */
+        public final Builder withHttpClient(CloseableHttpAsyncClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+
+        /**
+         * Adds Preemptive Basic authentication to the client
+         *
+         * @param username Username
+         * @param password Password
+         * @return this Builder
+         */
+        public final Builder withBasicAuth(String username, String password) {
+            CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+            credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(username, password));
+            httpClientBuilder.setDefaultCredentialsProvider(credentialsProvider);
+            httpClientBuilder.addInterceptorFirst(new PreemptiveAuthInterceptor());
+            this.authorization = "Basic " + BaseEncoding.base64()
+                    .encode((username + ':' + password).getBytes(Charsets.ISO_8859_1));
+            return this;
+        }
+
+        /**
+         * Adds Keystore for SSL
+         *
+         * @param keyStore     KeyStore input stream
+         * @param keyStorePass KeyStore password
+         * @return This builder
+         */
+        public final Builder withSsl(InputStream keyStore, String keyStorePass) {
+            SSLContext sslcontext;
+            try {
+                sslcontext = org.apache.http.ssl.SSLContexts.custom().loadTrustMaterial(IOUtils.loadKeyStore(keyStore, keyStorePass), null)
+                        .build();
+            } catch (Exception e) {
+                throw new IllegalArgumentException("Unable to load trust store", e);
+            }
+
+            /*
+             * Unreal magic, but we can't use
+			 * org.apache.http.conn.ssl.SSLConnectionSocketFactory
+			 * .BROWSER_COMPATIBLE_HOSTNAME_VERIFIER here due to some problems
+			 * related to classloaders. Initialize host name verifier explicitly
+			 */
+            SSLIOSessionStrategy sslSessionStrategy = new SSLIOSessionStrategy(
+                    sslcontext,
+                    new DefaultHostnameVerifier());
+            this.sslSessionStrategy = sslSessionStrategy;
+            options.sslContext = sslcontext;
+
+            return this;
+        }
+
+        /**
+         * Max number of connections in the pool. 20 by default
+         *
+         * @param maxConnections Max number of connections
+         * @return This builder
+         */
+        public final Builder withMaxConnections(int maxConnections) {
+            Preconditions.checkArgument(maxConnections > 0, "Max connections should be positive");
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        /**
+         * Max number of connections per route (e.g. host). 2 by default
+         *
+         * @param maxConnectionsPerRoute Max number of connections per route
+         * @return This builder
+         */
+        public final Builder withMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+            Preconditions.checkArgument(maxConnectionsPerRoute > 0, "Max connections per route should be positive");
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+            return this;
+        }
+
+        /**
+         * Overrides max number of connections for provided host
+         *
+         * @param host           Host. Default port of host's scheme is used if port is not specified
+         * @param maxConnections Max number of connections to provided host
+         * @return This builder
+         */
+        public final Builder withMaxConnectionsPerHost(@Nonnull HttpHost host, int maxConnections) {
+            Preconditions.checkArgument(maxConnections > 0, "Max connections per host should be positive");
+            this.maxConnectionsPerHost.put(host, maxConnections);
+            return this;
+        }
+
+        /**
+         * Number of I/O dispatcher threads. Number of available processors by default
+         *
+         * @param ioThreads Number of I/O threads
+         * @return This builder
+         */
+        public final Builder withIoThreads(int ioThreads) {
+            this.ioReactorConfig.setIoThreadCount(ioThreads);
+            return this;
+        }
+
+        /**
+         * Sizes of socket buffers (SO_RCVBUF and SO_SNDBUF). System defaults are used by default
+         *
+         * @param receiveBufferSize Receive buffer size in bytes
+         * @param sendBufferSize    Send buffer size in bytes
+         * @return This builder
+         */
+        public final Builder withSocketBufferSizes(int receiveBufferSize, int sendBufferSize) {
+            this.ioReactorConfig.setRcvBufSize(receiveBufferSize).setSndBufSize(sendBufferSize);
+            return this;
+        }
+
+        /**
+         * Enables/disables Nagle's algorithm (TCP_NODELAY). Enabled by default
+         *
+         * @param tcpNoDelay TCP_NODELAY
+         * @return This builder
+         */
+        public final Builder withTcpNoDelay(boolean tcpNoDelay) {
+            this.ioReactorConfig.setTcpNoDelay(tcpNoDelay);
+            return this;
+        }
+
+        /**
+         * Strategy which defines how long idle connections are kept alive in the pool
+         *
+         * @param keepAliveStrategy Keep-alive strategy
+         * @return This builder
+         */
+        public final Builder withKeepAliveStrategy(@Nonnull ConnectionKeepAliveStrategy keepAliveStrategy) {
+            this.httpClientBuilder.setKeepAliveStrategy(keepAliveStrategy);
+            return this;
+        }
+
+        /**
+         * Builds RestEndpoints and created proxy implementation for provided class
+         * <b>Only interfaces are supported!</b>
+         *
+         * @param clazz - interface to be proxied
+         * @param <T>   - type of interface to be proxied
+         * @return - interface implementation based on proxy
+         */
+        public final <T> T forInterface(@Nonnull Class<T> clazz) {
+            return RestEndpoints.forInterface(clazz, build());
+        }
+
+        private PoolingNHttpClientConnectionManager buildConnectionPool() {
+            ConnectingIOReactor ioReactor;
+            try {
+                ioReactor = new DefaultConnectingIOReactor(ioReactorConfig.build());
+            } catch (IOReactorException e) {
+                throw new IllegalStateException("Unable to create I/O reactor", e);
+            }
+
+            Registry<SchemeIOSessionStrategy> sessionStrategies = RegistryBuilder.<SchemeIOSessionStrategy>create()
+                    .register("http", NoopIOSessionStrategy.INSTANCE)
+                    .register("https", null == sslSessionStrategy ?
+                            SSLIOSessionStrategy.getDefaultStrategy() :
+                            sslSessionStrategy)
+                    .build();
+
+            PoolingNHttpClientConnectionManager connectionPool = new PoolingNHttpClientConnectionManager(ioReactor,
+                    sessionStrategies);
+            if (null != maxConnections) {
+                connectionPool.setMaxTotal(maxConnections);
+            }
+            if (null != maxConnectionsPerRoute) {
+                connectionPool.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+            }
+            for (Map.Entry<HttpHost, Integer> hostMax : maxConnectionsPerHost.entrySet()) {
+                HttpHost host = hostMax.getKey();
+                boolean secure = "https".equalsIgnoreCase(host.getSchemeName());
+
+                /* route planner resolves default port of scheme, so route should have it as well */
+                if (host.getPort() <= 0) {
+                    host = new HttpHost(host.getHostName(), secure ? 443 : 80, host.getSchemeName());
+                }
+                connectionPool.setMaxPerRoute(new HttpRoute(host, null, secure), hostMax.getValue());
+            }
+            return connectionPool;
+        }
+
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket limiting share of retries. Each request deposits fraction of token,
+ * each retry withdraws whole token. Once bucket is empty retries are not performed,
+ * so retries cannot amplify load on failing server more than by provided ratio
+ *
+ * @author Andrei Varabyeu
+ */
+public final class RetryBudget {
+
+    /* tokens are stored as thousandths to avoid floating point arithmetic */
+    private static final long TOKEN = 1000;
+
+    private final long depositAmount;
+    private final long maxBalance;
+    private final AtomicLong balance;
+
+    /**
+     * @param retryRatio Max number of retries per request, e.g. 0.1 allows one retry per ten requests
+     * @param maxRetries Bucket capacity: max number of retries allowed in a burst
+     */
+    public RetryBudget(double retryRatio, int maxRetries) {
+        Preconditions.checkArgument(retryRatio >= 0, "Retry ratio shouldn't be negative");
+        Preconditions.checkArgument(maxRetries > 0, "Max retries should be positive");
+        this.depositAmount = (long) (retryRatio * TOKEN);
+        this.maxBalance = maxRetries * TOKEN;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    /**
+     * Deposits fraction of token. Should be called once per request (not attempt)
+     */
+    public void deposit() {
+        long current;
+        do {
+            current = balance.get();
+            if (current >= maxBalance) {
+                return;
+            }
+        } while (!balance.compareAndSet(current, Math.min(maxBalance, current + depositAmount)));
+    }
+
+    /**
+     * Withdraws token for retry
+     *
+     * @return TRUE if retry is allowed
+     */
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    /**
+     * @return Number of retries currently allowed
+     */
+    public int getAvailableRetries() {
+        return (int) (balance.get() / TOKEN);
+    }
+}
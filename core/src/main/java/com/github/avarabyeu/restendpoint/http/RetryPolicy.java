@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.github.avarabyeu.restendpoint.http.exception.CircuitBreakerOpenException;
+import com.github.avarabyeu.restendpoint.http.exception.RestEndpointException;
+import com.github.avarabyeu.restendpoint.http.exception.RestEndpointIOException;
+import com.github.avarabyeu.restendpoint.http.exception.SerializerException;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Ints;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retry policy: which failures are retried and how long to wait before next attempt.
+ * Network errors and responses with configured status codes are retried with exponential
+ * backoff and full jitter, i.e. delay is random between zero and exponentially growing ceiling.
+ * Non-idempotent requests (POST, PATCH) are not retried unless explicitly allowed.
+ * Requests rejected by open circuit breaker are never retried
+ *
+ * @author Andrei Varabyeu
+ * @see RetryBudget
+ * @see com.github.avarabyeu.restendpoint.http.annotation.Retry
+ */
+@Immutable
+public final class RetryPolicy {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final long DEFAULT_INITIAL_BACKOFF = 100;
+    public static final long DEFAULT_MAX_BACKOFF = 10000;
+
+    private static final int[] DEFAULT_RETRY_STATUSES = { 502, 503, 504 };
+
+    private static final Random RANDOM = new Random();
+
+    private final int maxAttempts;
+    private final long initialBackoff;
+    private final long maxBackoff;
+    private final Set<Integer> retryStatuses;
+    private final boolean retryNonIdempotent;
+
+    private RetryPolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoff = builder.initialBackoff;
+        this.maxBackoff = builder.maxBackoff;
+        this.retryStatuses = ImmutableSet.copyOf(builder.retryStatuses);
+        this.retryNonIdempotent = builder.retryNonIdempotent;
+    }
+
+    public static Builder create() {
+        return new Builder();
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public Set<Integer> getRetryStatuses() {
+        return retryStatuses;
+    }
+
+    public boolean isRetryNonIdempotent() {
+        return retryNonIdempotent;
+    }
+
+    /**
+     * Checks whether failed attempt should be retried
+     *
+     * @param method  HTTP method of request
+     * @param error   Failure of attempt
+     * @param attempt Number of failed attempt, starting from 1
+     * @return TRUE if request should be retried
+     */
+    public boolean shouldRetry(HttpMethod method, Throwable error, int attempt) {
+        return shouldRetry(method.isIdempotent(), error, attempt);
+    }
+
+    /**
+     * Checks whether failed attempt should be retried
+     *
+     * @param idempotent Whether request may be safely repeated
+     * @param error      Failure of attempt
+     * @param attempt    Number of failed attempt, starting from 1
+     * @return TRUE if request should be retried
+     */
+    public boolean shouldRetry(boolean idempotent, Throwable error, int attempt) {
+        if (attempt >= maxAttempts || !(idempotent || retryNonIdempotent)) {
+            return false;
+        }
+        if (error instanceof RestEndpointException) {
+            return retryStatuses.contains(((RestEndpointException) error).getStatusCode());
+        }
+        return error instanceof RestEndpointIOException && !(error instanceof SerializerException)
+                && !(error instanceof CircuitBreakerOpenException);
+    }
+
+    /**
+     * Delay before retry with full jitter
+     *
+     * @param attempt Number of failed attempt, starting from 1
+     * @return Delay in milliseconds
+     */
+    public long getBackoff(int attempt) {
+        long ceiling = initialBackoff;
+        for (int i = 1; i < attempt && ceiling < maxBackoff; i++) {
+            ceiling *= 2;
+        }
+        ceiling = Math.min(ceiling, maxBackoff);
+        return 0 == ceiling ? 0 : (long) (RANDOM.nextDouble() * (ceiling + 1));
+    }
+
+    /**
+     * Builder for {@link RetryPolicy}
+     */
+    public static final class Builder {
+
+        private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+        private long initialBackoff = DEFAULT_INITIAL_BACKOFF;
+        private long maxBackoff = DEFAULT_MAX_BACKOFF;
+        private Set<Integer> retryStatuses = ImmutableSet.copyOf(Ints.asList(DEFAULT_RETRY_STATUSES));
+        private boolean retryNonIdempotent;
+
+        private Builder() {
+        }
+
+        /**
+         * @param maxAttempts Max number of attempts including the first one
+         * @return This builder
+         */
+        public Builder withMaxAttempts(int maxAttempts) {
+            Preconditions.checkArgument(maxAttempts > 0, "Max attempts should be positive");
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * @param initialBackoff Ceiling of delay before the first retry. Doubled for each next retry
+         * @param maxBackoff     Max ceiling of delay
+         * @param unit           Time unit
+         * @return This builder
+         */
+        public Builder withBackoff(long initialBackoff, long maxBackoff, TimeUnit unit) {
+            Preconditions.checkArgument(initialBackoff >= 0, "Initial backoff shouldn't be negative");
+            Preconditions.checkArgument(maxBackoff >= initialBackoff, "Max backoff should be at least initial one");
+            this.initialBackoff = unit.toMillis(initialBackoff);
+            this.maxBackoff = unit.toMillis(maxBackoff);
+            return this;
+        }
+
+        /**
+         * @param statuses HTTP statuses to be retried. 502, 503 and 504 by default
+         * @return This builder
+         */
+        public Builder withRetryStatuses(int... statuses) {
+            this.retryStatuses = ImmutableSet.copyOf(Ints.asList(statuses));
+            return this;
+        }
+
+        /**
+         * Allows retries of non-idempotent requests (POST, PATCH). Use only if server
+         * is able to deduplicate requests
+         *
+         * @return This builder
+         */
+        public Builder retryNonIdempotent() {
+            this.retryNonIdempotent = true;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.github.avarabyeu.restendpoint.http.exception.SerializerException;
+import com.github.avarabyeu.restendpoint.serializer.Serializer;
+import com.google.common.base.Objects;
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.net.MediaType;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Resolves serializers for request objects and response bodies. Resolution results
+ * (including absence of appropriate serializer) are cached, so serializers list is scanned
+ * only once per request class and once per content type / response type pair.
+ * Serializers are expected to decide whether they can write an object based on its class
+ *
+ * @author Andrei Varabyeu
+ */
+class SerializerResolver {
+
+    private final List<Serializer> serializers;
+
+    private final Cache<Class<?>, Optional<Serializer>> writers;
+
+    private final Cache<ReadKey, Optional<Serializer>> readers;
+
+    /**
+     * @param serializers Serializers ordered by priority
+     * @param cacheSize   Max number of resolution results to be cached
+     */
+    SerializerResolver(List<Serializer> serializers, long cacheSize) {
+        this.serializers = serializers;
+        this.writers = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+        this.readers = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+    }
+
+    /**
+     * Finds serializer which is able to write provided object
+     *
+     * @param o Object to be serialized
+     * @return Serializer
+     * @throws SerializerException if serializer not found
+     */
+    Serializer getWriter(final Object o) throws SerializerException {
+        Class<?> key = o.getClass();
+        Optional<Serializer> serializer = writers.getIfPresent(key);
+        if (null == serializer) {
+            serializer = resolve(writers, key, new Callable<Optional<Serializer>>() {
+                @Override
+                public Optional<Serializer> call() {
+                    for (Serializer s : serializers) {
+                        if (s.canWrite(o)) {
+                            return Optional.of(s);
+                        }
+                    }
+                    return Optional.absent();
+                }
+            });
+        }
+        if (!serializer.isPresent()) {
+            throw new SerializerException("Unable to find serializer for object with type '" + key + "'");
+        }
+        return serializer.get();
+    }
+
+    /**
+     * Finds serializer which is able to read provided content type into provided type
+     *
+     * @param contentType Content Type
+     * @param resultType  Result object Type
+     * @return Serializer
+     * @throws SerializerException if serializer not found
+     */
+    Serializer getReader(final MediaType contentType, final Type resultType) throws SerializerException {
+        ReadKey key = new ReadKey(contentType, resultType);
+        Optional<Serializer> serializer = readers.getIfPresent(key);
+        if (null == serializer) {
+            serializer = resolve(readers, key, new Callable<Optional<Serializer>>() {
+                @Override
+                public Optional<Serializer> call() {
+                    for (Serializer s : serializers) {
+                        if (canRead(s, contentType, resultType)) {
+                            return Optional.of(s);
+                        }
+                    }
+                    return Optional.absent();
+                }
+            });
+        }
+        if (!serializer.isPresent()) {
+            throw new SerializerException(
+                    "Conversion media type '" + contentType + "' to type '" + resultType + "' is not supported");
+        }
+        return serializer.get();
+    }
+
+    private static boolean canRead(Serializer serializer, MediaType contentType, Type resultType) {
+        return resultType instanceof Class ?
+                serializer.canRead(contentType, (Class<?>) resultType) :
+                serializer.canRead(contentType, resultType);
+    }
+
+    private static <K> Optional<Serializer> resolve(Cache<K, Optional<Serializer>> cache, K key,
+            Callable<Optional<Serializer>> loader) throws SerializerException {
+        try {
+            return cache.get(key, loader);
+        } catch (ExecutionException e) {
+            throw new SerializerException("Unable to resolve serializer", e.getCause());
+        } catch (UncheckedExecutionException e) {
+            throw new SerializerException("Unable to resolve serializer", e.getCause());
+        }
+    }
+
+    /**
+     * Key of response body serializer
+     */
+    private static final class ReadKey {
+
+        private final MediaType contentType;
+        private final Type resultType;
+        private final int hashCode;
+
+        ReadKey(MediaType contentType, Type resultType) {
+            this.contentType = contentType;
+            this.resultType = resultType;
+            this.hashCode = Objects.hashCode(contentType, resultType);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ReadKey)) {
+                return false;
+            }
+            ReadKey that = (ReadKey) o;
+            return contentType.equals(that.contentType) && resultType.equals(that.resultType);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
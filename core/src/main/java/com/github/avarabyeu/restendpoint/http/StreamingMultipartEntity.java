@@ -0,0 +1,525 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteSource;
+import com.google.common.io.Files;
+import io.reactivex.Scheduler;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.FileContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.ContentOutputStream;
+import org.apache.http.nio.entity.HttpAsyncContentProducer;
+import org.apache.http.nio.util.HeapByteBufferAllocator;
+import org.apache.http.nio.util.SharedOutputBuffer;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Non-blocking multipart/form-data entity. Boundaries and part headers are generated on the fly,
+ * binary parts are pulled from their sources chunk by chunk once connection is ready to accept data,
+ * so memory consumption doesn't depend on size of parts. {@link ByteSource} parts may block on reading,
+ * so they are read on provided scheduler into bounded buffer drained by I/O reactor. File-backed parts
+ * are read by I/O reactor itself and transferred with
+ * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)} if
+ * content length is known and connection allows that
+ *
+ * @author Andrei Varabyeu
+ * @see <a href="https://tools.ietf.org/html/rfc7578">RFC 7578</a>
+ */
+class StreamingMultipartEntity extends AbstractHttpEntity implements HttpAsyncContentProducer {
+
+    private static final byte[] CRLF = "\r\n".getBytes(Charsets.US_ASCII);
+
+    private final List<Segment> segments;
+    private final long contentLength;
+
+    /* index of segment being written */
+    private int current;
+
+    private StreamingMultipartEntity(String boundary, List<Segment> segments) {
+        this.segments = segments;
+
+        long length = 0;
+        for (Segment segment : segments) {
+            long segmentLength = segment.length();
+            if (segmentLength < 0) {
+                length = -1;
+                break;
+            }
+            length += segmentLength;
+        }
+        this.contentLength = length;
+
+        setContentType("multipart/form-data; boundary=" + boundary);
+        setChunked(length < 0);
+    }
+
+    @Override
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    @Override
+    public synchronized void produceContent(ContentEncoder encoder, IOControl ioctrl) throws IOException {
+        while (current < segments.size()) {
+            Segment segment = segments.get(current);
+            if (!segment.write(encoder, ioctrl)) {
+                /* connection cannot accept more data at the moment */
+                return;
+            }
+            segment.close();
+            current++;
+        }
+        encoder.complete();
+    }
+
+    /**
+     * Blocking API fallback. Writes all parts into provided stream
+     */
+    @Override
+    public void writeTo(OutputStream outstream) throws IOException {
+        for (Segment segment : segments) {
+            segment.source().copyTo(outstream);
+        }
+    }
+
+    /**
+     * Blocking API fallback. Exposes all parts as single stream
+     */
+    @Override
+    public InputStream getContent() throws IOException {
+        List<ByteSource> sources = new ArrayList<ByteSource>(segments.size());
+        for (Segment segment : segments) {
+            sources.add(segment.source());
+        }
+        return ByteSource.concat(sources).openStream();
+    }
+
+    /**
+     * Releases resources of content being produced. Content may be produced once again after that
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+        current = 0;
+    }
+
+    /**
+     * Builder for {@link StreamingMultipartEntity}
+     */
+    static class Builder {
+
+        private final String boundary;
+        private final int chunkSize;
+        private final Scheduler scheduler;
+        private final List<Segment> segments;
+
+        /**
+         * @param boundary  Parts boundary
+         * @param chunkSize Size of chunks binary parts are read by
+         * @param scheduler Scheduler {@link ByteSource} parts are read on. Shouldn't execute tasks
+         *                  on the calling thread since parts are streamed in blocking manner to I/O reactor
+         */
+        Builder(String boundary, int chunkSize, Scheduler scheduler) {
+            this.boundary = boundary;
+            this.chunkSize = chunkSize;
+            this.scheduler = scheduler;
+            this.segments = new ArrayList<Segment>();
+        }
+
+        Builder addPart(String name, String contentType, byte[] content) {
+            segments.add(new BytesSegment(partHeader(name, null, contentType)));
+            segments.add(new BytesSegment(content));
+            segments.add(new BytesSegment(CRLF));
+            return this;
+        }
+
+        Builder addPart(String name, String filename, String contentType, ByteSource content) {
+            segments.add(new BytesSegment(partHeader(name, filename, contentType)));
+            segments.add(new SourceSegment(content, scheduler, chunkSize));
+            segments.add(new BytesSegment(CRLF));
+            return this;
+        }
+
+        Builder addPart(String name, String filename, String contentType, File content) {
+            segments.add(new BytesSegment(partHeader(name, filename, contentType)));
+            segments.add(new FileSegment(content, chunkSize));
+            segments.add(new BytesSegment(CRLF));
+            return this;
+        }
+
+        StreamingMultipartEntity build() {
+            List<Segment> all = new ArrayList<Segment>(segments);
+            all.add(new BytesSegment(("--" + boundary + "--\r\n").getBytes(Charsets.US_ASCII)));
+            return new StreamingMultipartEntity(boundary, all);
+        }
+
+        /**
+         * Builds part header. Non-ASCII names are sent as UTF-8 as RFC 7578 recommends,
+         * <b>filename*</b> parameter isn't used since RFC 7578 prohibits it
+         *
+         * @throws IllegalArgumentException if any of values contains line break
+         */
+        private byte[] partHeader(String name, @Nullable String filename, @Nullable String contentType) {
+            StringBuilder header = new StringBuilder()
+                    .append("--").append(boundary).append("\r\n")
+                    .append("Content-Disposition: form-data; name=").append(quote(name));
+            if (null != filename) {
+                header.append("; filename=").append(quote(filename));
+            }
+            header.append("\r\n");
+            if (null != contentType) {
+                header.append("Content-Type: ").append(checkLineBreaks(contentType)).append("\r\n");
+            }
+            header.append("\r\n");
+            return header.toString().getBytes(Charsets.UTF_8);
+        }
+
+        /**
+         * Builds quoted string of header parameter. Quotes and backslashes are escaped
+         */
+        private static String quote(String value) {
+            checkLineBreaks(value);
+            StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if ('"' == c || '\\' == c) {
+                    quoted.append('\\');
+                }
+                quoted.append(c);
+            }
+            return quoted.append('"').toString();
+        }
+
+        /**
+         * Line breaks would let value inject headers or end part header
+         */
+        private static String checkLineBreaks(String value) {
+            Preconditions.checkArgument(value.indexOf('\r') < 0 && value.indexOf('\n') < 0,
+                    "Multipart header value shouldn't contain line breaks: '%s'", value);
+            return value;
+        }
+    }
+
+    /**
+     * Part of multipart body
+     */
+    private interface Segment {
+
+        /**
+         * @return Length of segment or -1 if unknown
+         */
+        long length();
+
+        /**
+         * Writes as much of segment as connection accepts
+         *
+         * @param encoder Content encoder
+         * @param ioctrl  I/O control of connection
+         * @return TRUE if segment is completely written
+         * @throws IOException In case of IO error
+         */
+        boolean write(ContentEncoder encoder, IOControl ioctrl) throws IOException;
+
+        /**
+         * @return Segment content for blocking API
+         */
+        ByteSource source();
+
+        /**
+         * Releases resources and resets segment state
+         */
+        void close();
+    }
+
+    /**
+     * In-memory segment, e.g. boundary, part headers or serialized part
+     */
+    private static class BytesSegment implements Segment {
+
+        private final byte[] content;
+        private ByteBuffer buffer;
+
+        BytesSegment(byte[] content) {
+            this.content = content;
+        }
+
+        @Override
+        public long length() {
+            return content.length;
+        }
+
+        @Override
+        public boolean write(ContentEncoder encoder, IOControl ioctrl) throws IOException {
+            if (null == buffer) {
+                buffer = ByteBuffer.wrap(content);
+            }
+            encoder.write(buffer);
+            return !buffer.hasRemaining();
+        }
+
+        @Override
+        public ByteSource source() {
+            return ByteSource.wrap(content);
+        }
+
+        @Override
+        public void close() {
+            buffer = null;
+        }
+    }
+
+    /**
+     * Segment backed by {@link ByteSource}. Source may block on reading (e.g. it's backed by remote resource),
+     * so it's read on scheduler into bounded buffer drained by I/O reactor once connection is ready to accept data
+     */
+    private static class SourceSegment implements Segment {
+
+        private final ByteSource content;
+        private final Scheduler scheduler;
+        private final int bufferSize;
+
+        /* buffer of current content production. Re-created once segment is written again */
+        private volatile SharedOutputBuffer buffer;
+
+        private volatile IOControl ioControl;
+
+        private volatile IOException failure;
+
+        SourceSegment(ByteSource content, Scheduler scheduler, int bufferSize) {
+            this.content = content;
+            this.scheduler = scheduler;
+            this.bufferSize = bufferSize;
+        }
+
+        @Override
+        public long length() {
+            Optional<Long> size = content.sizeIfKnown();
+            return size.isPresent() ? size.get() : -1;
+        }
+
+        @Override
+        public boolean write(ContentEncoder encoder, IOControl ioctrl) throws IOException {
+            this.ioControl = ioctrl;
+            SharedOutputBuffer currentBuffer = this.buffer;
+            if (null == currentBuffer) {
+                currentBuffer = new SharedOutputBuffer(bufferSize, HeapByteBufferAllocator.INSTANCE);
+                this.failure = null;
+                this.buffer = currentBuffer;
+                startReading(currentBuffer);
+            }
+            if (null != failure) {
+                throw new IOException("Unable to read multipart part", failure);
+            }
+
+            /* buffer completes encoder once drained, while entity has more segments to write */
+            SegmentEncoder segmentEncoder = new SegmentEncoder(encoder);
+            currentBuffer.produceContent(segmentEncoder, ioctrl);
+            return segmentEncoder.isCompleted();
+        }
+
+        @Override
+        public ByteSource source() {
+            return content;
+        }
+
+        /**
+         * Releases content buffer. Reading of source in progress (if any) gets aborted
+         */
+        @Override
+        public void close() {
+            SharedOutputBuffer currentBuffer = this.buffer;
+            this.buffer = null;
+            if (null != currentBuffer) {
+                currentBuffer.shutdown();
+            }
+        }
+
+        private void startReading(final SharedOutputBuffer target) {
+            scheduler.scheduleDirect(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        content.copyTo(new ContentOutputStream(target));
+                        target.writeCompleted();
+                    } catch (IOException e) {
+                        fail(target, e);
+                    } catch (Exception e) {
+                        fail(target, new IOException(e));
+                    }
+                }
+            });
+        }
+
+        /**
+         * Remembers failure of source reading and asks reactor for output to make
+         * sure failure is reported even if connection is suspended
+         *
+         * @param target Buffer reading has been failed for
+         * @param e      Failure
+         */
+        private void fail(SharedOutputBuffer target, IOException e) {
+            /* production has been already aborted, nobody is interested in result */
+            if (target != this.buffer) {
+                return;
+            }
+            this.failure = e;
+            IOControl io = ioControl;
+            if (null != io) {
+                io.requestOutput();
+            }
+        }
+    }
+
+    /**
+     * Encoder of single segment. Completion of segment doesn't complete entity
+     */
+    private static class SegmentEncoder implements ContentEncoder {
+
+        private final ContentEncoder encoder;
+        private boolean completed;
+
+        SegmentEncoder(ContentEncoder encoder) {
+            this.encoder = encoder;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return encoder.write(src);
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        @Override
+        public boolean isCompleted() {
+            return completed;
+        }
+    }
+
+    /**
+     * File-backed segment. Transferred directly from file channel to the socket
+     * when encoder supports that
+     */
+    private static class FileSegment implements Segment {
+
+        private final File file;
+        private final int chunkSize;
+
+        private RandomAccessFile randomAccessFile;
+        private FileChannel channel;
+        private ByteBuffer chunk;
+        private long position;
+
+        FileSegment(File file, int chunkSize) {
+            this.file = file;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public long length() {
+            return file.length();
+        }
+
+        @Override
+        public boolean write(ContentEncoder encoder, IOControl ioctrl) throws IOException {
+            if (null == channel) {
+                randomAccessFile = new RandomAccessFile(file, "r");
+                channel = randomAccessFile.getChannel();
+                position = 0;
+            }
+            long size = channel.size();
+            if (encoder instanceof FileContentEncoder) {
+                /* zero-copy transfer */
+                while (position < size) {
+                    long transferred = ((FileContentEncoder) encoder).transfer(channel, position, size - position);
+                    if (transferred <= 0) {
+                        return false;
+                    }
+                    position += transferred;
+                }
+                return true;
+            }
+
+            if (null == chunk) {
+                chunk = ByteBuffer.allocate(chunkSize);
+                chunk.flip();
+            }
+            while (true) {
+                if (!chunk.hasRemaining()) {
+                    if (position >= size) {
+                        return true;
+                    }
+                    chunk.clear();
+                    int read = channel.read(chunk, position);
+                    chunk.flip();
+                    if (read > 0) {
+                        position += read;
+                    } else {
+                        position = size;
+                    }
+                }
+                encoder.write(chunk);
+                if (chunk.hasRemaining()) {
+                    return false;
+                }
+            }
+        }
+
+        @Override
+        public ByteSource source() {
+            return Files.asByteSource(file);
+        }
+
+        @Override
+        public void close() {
+            IOUtils.closeQuietly(randomAccessFile);
+            randomAccessFile = null;
+            channel = null;
+            chunk = null;
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.ContentInputStream;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.nio.util.HeapByteBufferAllocator;
+import org.apache.http.nio.util.SharedInputBuffer;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Response consumer which doesn't accumulate response body in memory.
+ * Once response head is received, body is exposed as {@link InputStream} backed
+ * by bounded buffer. I/O reactor suspends reading
+ * once buffer is full and resumes once handler drains it, so memory consumption per request
+ * is bounded by buffer size rather than by payload size
+ *
+ * @author Andrei Varabyeu
+ */
+abstract class StreamingResponseConsumer extends AbstractAsyncResponseConsumer<Void> {
+
+    private final SharedInputBuffer buffer;
+
+    private volatile IOControl ioControl;
+
+    /* whether response body has been completely received */
+    private volatile boolean bodyCompleted;
+
+    /* whether response has been handed over to handler */
+    private volatile boolean dispatched;
+
+    /* whether body buffer has been shut down before the end of body */
+    private volatile boolean aborted;
+
+    /**
+     * @param bufferSize Size of body buffer
+     */
+    StreamingResponseConsumer(int bufferSize) {
+        this.buffer = new SharedInputBuffer(bufferSize, HeapByteBufferAllocator.INSTANCE);
+    }
+
+    /**
+     * Handles response. Executed on I/O reactor thread, so body should be read on another thread
+     *
+     * @param response Response head
+     * @param content  Response body. Should be closed by handler. Closing stream
+     *                 before its end discards the rest of body and underlying connection
+     */
+    protected abstract void onResponse(HttpResponse response, InputStream content);
+
+    /**
+     * Handles request failure occurred before response is received
+     *
+     * @param e Cause of failure
+     */
+    protected abstract void onFailure(Exception e);
+
+    /**
+     * Handles request cancellation occurred before response is received
+     */
+    protected abstract void onCancel();
+
+    @Override
+    protected void onResponseReceived(HttpResponse response) {
+        if (null == response.getEntity()) {
+            this.bodyCompleted = true;
+            buffer.close();
+        }
+        this.dispatched = true;
+        onResponse(response, new BodyInputStream());
+    }
+
+    @Override
+    protected void onEntityEnclosed(HttpEntity entity, ContentType contentType) {
+        //nothing to do, body is consumed in #onContentReceived
+    }
+
+    @Override
+    protected void onContentReceived(ContentDecoder decoder, IOControl ioctrl) throws IOException {
+        this.ioControl = ioctrl;
+        buffer.consumeContent(decoder, ioctrl);
+    }
+
+    @Override
+    protected Void buildResult(HttpContext context) {
+        this.bodyCompleted = true;
+        buffer.close();
+        return null;
+    }
+
+    @Override
+    protected void releaseResources() {
+        if (bodyCompleted) {
+            return;
+        }
+        this.aborted = true;
+        buffer.shutdown();
+        if (!dispatched) {
+            Exception e = getException();
+            if (null == e) {
+                onCancel();
+            } else {
+                onFailure(e);
+            }
+        }
+    }
+
+    /**
+     * Discards the rest of response. I/O reactor is asked for input to make sure
+     * suspended connection gets closed rather than stuck. Does nothing if response is already received
+     */
+    void abort() {
+        if (cancel()) {
+            IOControl io = ioControl;
+            if (null != io) {
+                io.requestInput();
+            }
+        }
+    }
+
+    /**
+     * Body stream. Reports truncated body as an error and closes connection
+     * if closed before end of body
+     */
+    private class BodyInputStream extends ContentInputStream {
+
+        private boolean endOfStream;
+
+        BodyInputStream() {
+            super(buffer);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return checkEndOfStream(super.read());
+        }
+
+        @Override
+        public int read(byte[] b) throws IOException {
+            return read(b, 0, b.length);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return checkEndOfStream(super.read(b, off, len));
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!endOfStream) {
+                abort();
+            }
+        }
+
+        private int checkEndOfStream(int read) throws IOException {
+            if (-1 == read) {
+                if (aborted) {
+                    throw new IOException("Response body is truncated", getException());
+                }
+                endOfStream = true;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http;
+
+import io.reactivex.functions.Cancellable;
+
+import java.io.Closeable;
+
+/**
+ * Transport {@link HttpClientRestEndpoint} sends requests over. Endpoint builds requests, handles
+ * responses and applies caching, retries, limits and so on, while transport is only responsible
+ * for putting request on the wire and exposing response head and body stream.
+ * {@link HttpAsyncClientTransport} is used by default
+ *
+ * @author Andrei Varabyeu
+ * @see RestEndpoints.Builder#withTransport(Transport)
+ */
+public interface Transport extends Closeable {
+
+    /**
+     * Sends request asynchronously. Shouldn't block since it's called on subscribing thread
+     *
+     * @param request  Request to be sent
+     * @param callback Callback to be notified about request progress. Exactly one of
+     *                 {@link TransportCallback#onResponse(TransportResponse)} and
+     *                 {@link TransportCallback#onFailure(Exception)} should be called unless request is cancelled
+     * @return Cancels request and discards the rest of response body if it's already received
+     */
+    Cancellable send(TransportRequest request, TransportCallback callback);
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http;
+
+/**
+ * Callback of request sent by {@link Transport}. Might be called on transport's I/O threads,
+ * so implementations shouldn't block
+ *
+ * @author Andrei Varabyeu
+ */
+public interface TransportCallback {
+
+    /**
+     * Called once request is completely written
+     *
+     * @param bytes Number of request body bytes sent
+     */
+    void onRequestSent(long bytes);
+
+    /**
+     * Called once response head is received. Body might still be on the way,
+     * so reading it may block
+     *
+     * @param response Response
+     */
+    void onResponse(TransportResponse response);
+
+    /**
+     * Called if request fails before response is received
+     *
+     * @param e Cause of failure. {@link java.util.concurrent.TimeoutException} if request has been timed out
+     */
+    void onFailure(Exception e);
+}
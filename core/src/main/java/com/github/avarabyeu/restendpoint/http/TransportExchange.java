@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import io.reactivex.MaybeEmitter;
+import io.reactivex.MaybeOnSubscribe;
+import io.reactivex.functions.Cancellable;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Single attempt of request. Each subscription hands request over to transport right from subscribing thread
+ * since sending doesn't block. Response is handled on decode executor since body is read in blocking manner.
+ * Disposing subscription cancels request
+ *
+ * @param <RS> Type of response body
+ * @author Andrei Varabyeu
+ */
+final class TransportExchange<RS> implements MaybeOnSubscribe<Response<RS>> {
+
+    private final Transport transport;
+    private final Executor decodeExecutor;
+    private final ResponseHandler responseHandler;
+    private final RequestListener requestListener;
+    private final ConcurrencyLimiter.Sample sample;
+
+    private final TransportRequest rq;
+    private final HttpEntityCallback<RS> callback;
+    private final String cacheKey;
+    private final CachedResponse cached;
+    private final String urlTemplate;
+
+    /**
+     * @param transport       Transport request is sent over
+     * @param decodeExecutor  Executor response is handled on
+     * @param responseHandler Handler of response
+     * @param requestListener Listener of request metrics. NULL if requests aren't instrumented
+     * @param sample          Receives the moment response is received. NULL if latency isn't sampled
+     * @param rq              Request with endpoint-wide headers
+     * @param callback        Callback to be applied on response
+     * @param cacheKey        Key response should be cached with. NULL if response shouldn't be cached
+     * @param cached          Stale cached response request revalidates. NULL if request isn't conditional
+     * @param urlTemplate     Template request URL is built of. NULL if request isn't built of template
+     */
+    TransportExchange(Transport transport, Executor decodeExecutor, ResponseHandler responseHandler,
+            @Nullable RequestListener requestListener, @Nullable ConcurrencyLimiter.Sample sample,
+            TransportRequest rq, HttpEntityCallback<RS> callback, @Nullable String cacheKey,
+            @Nullable CachedResponse cached, @Nullable String urlTemplate) {
+        this.transport = transport;
+        this.decodeExecutor = decodeExecutor;
+        this.responseHandler = responseHandler;
+        this.requestListener = requestListener;
+        this.sample = sample;
+        this.rq = rq;
+        this.callback = callback;
+        this.cacheKey = cacheKey;
+        this.cached = cached;
+        this.urlTemplate = urlTemplate;
+    }
+
+    @Override
+    public void subscribe(final MaybeEmitter<Response<RS>> maybeEmitter) throws Exception {
+
+        /* each attempt is timed separately */
+        final RequestTimer timer = null == requestListener ? null : new RequestTimer(requestListener,
+                rq.getMethod(), null == urlTemplate ? RequestMetrics.NO_TEMPLATE : urlTemplate);
+
+        Cancellable cancellable = transport.send(rq, new TransportCallback() {
+            @Override
+            public void onRequestSent(long bytes) {
+                if (null != timer) {
+                    timer.onRequestSent(bytes);
+                }
+            }
+
+            @Override
+            public void onResponse(final TransportResponse response) {
+                if (null != sample) {
+                    sample.onResponseReceived();
+                }
+                if (null != timer) {
+                    timer.onResponseReceived(response.getStatus());
+                }
+                /* body is read in blocking manner, so it's handled out of transport's threads */
+                try {
+                    decodeExecutor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            handle(response);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    /* response is never going to be read, so connection is released right away */
+                    IOUtils.closeQuietly(response.getBody());
+                    emitError(e);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception ex) {
+                emitError(ResponseHandler.toFailure(ex));
+            }
+
+            private void handle(TransportResponse response) {
+                try {
+                    emitSuccess(responseHandler.handle(rq, response, callback, cacheKey, cached, timer));
+                } catch (Exception e) {
+                    emitError(e);
+                }
+            }
+
+            private void emitSuccess(Response<RS> rs) {
+                if (null != timer) {
+                    timer.complete(null);
+                }
+                maybeEmitter.onSuccess(rs);
+            }
+
+            /* request disposed by subscriber (e.g. lost hedging race) fails silently */
+            private void emitError(Throwable e) {
+                if (!maybeEmitter.isDisposed()) {
+                    if (null != timer) {
+                        timer.complete(e);
+                    }
+                    maybeEmitter.onError(e);
+                }
+            }
+        });
+        maybeEmitter.setCancellable(cancellable);
+    }
+}
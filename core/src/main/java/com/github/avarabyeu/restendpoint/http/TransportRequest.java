@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableListMultimap;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.net.URI;
+
+/**
+ * Request passed to {@link Transport}: method, absolute URI, headers and optional body.
+ * Content-Type and Content-Encoding of body are described by {@link RequestBody}
+ * rather than headers
+ *
+ * @author Andrei Varabyeu
+ */
+@Immutable
+public final class TransportRequest {
+
+    private final HttpMethod method;
+    private final URI uri;
+    private final ImmutableListMultimap<String, String> headers;
+    private final RequestBody body;
+
+    TransportRequest(HttpMethod method, URI uri, ImmutableListMultimap<String, String> headers,
+            @Nullable RequestBody body) {
+        this.method = Preconditions.checkNotNull(method, "Method shouldn't be null");
+        this.uri = Preconditions.checkNotNull(uri, "URI shouldn't be null");
+        this.headers = headers;
+        this.body = body;
+    }
+
+    public HttpMethod getMethod() {
+        return method;
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    /**
+     * @return Request headers in order they should be sent
+     */
+    public ImmutableListMultimap<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @param name Header name, case-insensitive
+     * @return TRUE if request has header with provided name
+     */
+    public boolean containsHeader(String name) {
+        for (String header : headers.keySet()) {
+            if (header.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Request body. NULL if request has no body
+     */
+    @Nullable
+    public RequestBody getBody() {
+        return body;
+    }
+
+    /**
+     * @param name  Header name
+     * @param value Header value
+     * @return Copy of this request with provided header added
+     */
+    TransportRequest withHeader(String name, String value) {
+        return new TransportRequest(method, uri,
+                ImmutableListMultimap.<String, String>builder().putAll(headers).put(name, value).build(), body);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.google.common.collect.Multimap;
+
+import javax.annotation.Nullable;
+import java.io.InputStream;
+
+/**
+ * Response received by {@link Transport}
+ *
+ * @author Andrei Varabyeu
+ */
+public interface TransportResponse {
+
+    int getStatus();
+
+    /**
+     * @return Reason phrase. Empty if protocol has no reason phrases (e.g. HTTP/2)
+     */
+    String getReason();
+
+    /**
+     * @return All response headers. Each header occurrence is a separate value
+     */
+    Multimap<String, String> getHeaders();
+
+    /**
+     * @param name Header name, case-insensitive
+     * @return Value of the first header with provided name. NULL if there is no such header
+     */
+    @Nullable
+    String getHeader(String name);
+
+    /**
+     * @return Response body. Should be closed by consumer. Closing stream before its end discards
+     * the rest of body and underlying connection. Empty stream if response has no body
+     */
+    InputStream getBody();
+}
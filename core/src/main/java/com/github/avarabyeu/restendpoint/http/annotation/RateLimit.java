@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http.annotation;
+
+import com.github.avarabyeu.restendpoint.http.RateLimiter;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Limits rate of REST method calls. Applied in addition to limiters of endpoint.
+ * Each call takes single permit regardless of number of attempts
+ *
+ * @author Andrei Varabyeu
+ * @see RateLimiter
+ */
+@Documented
+@Target(METHOD)
+@Retention(RUNTIME)
+public @interface RateLimit {
+
+    /**
+     * Number of calls allowed per second
+     */
+    double permitsPerSecond();
+
+    /**
+     * Max number of calls sent at once
+     */
+    int burst() default 1;
+}
@@ -17,6 +17,7 @@
 package com.github.avarabyeu.restendpoint.http.annotation;
 
 import com.github.avarabyeu.restendpoint.http.HttpMethod;
+import com.github.avarabyeu.restendpoint.http.RestCommand;
 
 import java.lang.annotation.Documented;
 import java.lang.annotation.Retention;
@@ -45,4 +46,10 @@ public @interface Request {
      * So, placeholders in form '{}' are acceptable
      */
     String url();
+
+    /**
+     * Min size of request body in bytes to be gzip-compressed. Settings of endpoint are used by default,
+     * {@link RestCommand#NO_COMPRESSION} disables compression
+     */
+    int compressAbove() default RestCommand.DEFAULT_COMPRESSION_THRESHOLD;
 }
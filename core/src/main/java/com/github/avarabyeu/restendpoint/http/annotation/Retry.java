@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http.annotation;
+
+import com.github.avarabyeu.restendpoint.http.RetryPolicy;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Retry policy of REST method. Overrides policy of endpoint
+ *
+ * @author Andrei Varabyeu
+ * @see RetryPolicy
+ */
+@Documented
+@Target(METHOD)
+@Retention(RUNTIME)
+public @interface Retry {
+
+    /**
+     * Max number of attempts including the first one
+     */
+    int maxAttempts() default RetryPolicy.DEFAULT_MAX_ATTEMPTS;
+
+    /**
+     * Ceiling of delay before the first retry in milliseconds
+     */
+    long initialBackoff() default RetryPolicy.DEFAULT_INITIAL_BACKOFF;
+
+    /**
+     * Max ceiling of delay in milliseconds
+     */
+    long maxBackoff() default RetryPolicy.DEFAULT_MAX_BACKOFF;
+
+    /**
+     * HTTP statuses to be retried
+     */
+    int[] statuses() default { 502, 503, 504 };
+
+    /**
+     * Whether non-idempotent requests (POST, PATCH) should be retried
+     */
+    boolean nonIdempotent() default false;
+}
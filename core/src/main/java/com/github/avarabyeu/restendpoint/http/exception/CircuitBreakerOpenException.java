@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http.exception;
+
+/**
+ * Request is rejected without being sent since circuit breaker of its route is open
+ *
+ * @author Andrei Varabyeu
+ */
+public class CircuitBreakerOpenException extends RestEndpointIOException {
+
+    private static final long serialVersionUID = 2319645011530937624L;
+
+    private final String route;
+
+    public CircuitBreakerOpenException(String route) {
+        super("Circuit breaker of route '" + route + "' is open");
+        this.route = route;
+    }
+
+    /**
+     * @return Route circuit breaker is opened for
+     */
+    public String getRoute() {
+        return route;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http.proxy;
+
+import com.github.avarabyeu.restendpoint.http.RestEndpoint;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Base class of REST clients generated at compile time by restendpoint-processor. Generated client
+ * implements REST interface directly, so there is neither proxy nor reflective method lookup
+ * on the call path. Method information is described by generated code through {@link RestMethodInfo.Builder}
+ *
+ * @author Andrei Varabyeu
+ */
+public abstract class AbstractRestClient {
+
+    /**
+     * Suffix of generated client class name
+     */
+    public static final String SUFFIX = "RestClient";
+
+    /**
+     * Arguments of methods without parameters
+     */
+    protected static final Object[] NO_ARGS = new Object[0];
+
+    private final RestEndpoint endpoint;
+
+    protected AbstractRestClient(@Nonnull RestEndpoint endpoint) {
+        this.endpoint = Preconditions.checkNotNull(endpoint, "Endpoint shouldn't be null");
+    }
+
+    /**
+     * Executes REST method
+     *
+     * @param method Method information
+     * @param args   Method arguments
+     * @return {@link io.reactivex.Maybe} for asynchronous methods, response or body otherwise
+     */
+    protected final Object execute(RestMethodInfo method, Object[] args) {
+        return RestEndpointInvocationHandler.execute(endpoint, method, args);
+    }
+
+    /**
+     * Name of client generated for interface. E.g. com.example.Outer$Api is implemented
+     * by com.example.Outer_ApiRestClient
+     *
+     * @param interfaceName Binary name of REST interface
+     * @return Binary name of generated client
+     */
+    @Nonnull
+    public static String getClientName(@Nonnull String interfaceName) {
+        int packageEnd = interfaceName.lastIndexOf('.') + 1;
+        return interfaceName.substring(0, packageEnd) + interfaceName.substring(packageEnd).replace('$', '_') + SUFFIX;
+    }
+
+    /**
+     * Instantiates client generated for interface
+     *
+     * @param clazz    REST interface
+     * @param endpoint Endpoint to be used by client
+     * @param <T>      Type of interface
+     * @return Generated client or absent if there is no client generated for interface
+     */
+    @Nonnull
+    public static <T> Optional<T> newGenerated(@Nonnull Class<T> clazz, @Nonnull RestEndpoint endpoint) {
+        Class<?> client;
+        try {
+            client = Class.forName(getClientName(clazz.getName()), true,
+                    null == clazz.getClassLoader() ? AbstractRestClient.class.getClassLoader() : clazz.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return Optional.absent();
+        }
+        if (!clazz.isAssignableFrom(client) || !AbstractRestClient.class.isAssignableFrom(client)) {
+            return Optional.absent();
+        }
+        try {
+            return Optional.of(clazz.cast(client.getConstructor(RestEndpoint.class).newInstance(endpoint)));
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Unable to create client of " + clazz.getName(), e.getCause());
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to create client of " + clazz.getName(), e);
+        }
+    }
+}
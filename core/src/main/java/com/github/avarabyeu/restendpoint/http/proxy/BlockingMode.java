@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http.proxy;
+
+/**
+ * Decides how synchronous proxy methods wait for response. Blocking of platform thread costs the same
+ * either way, so baseline keeps Rx-based execution. Overridden in multi-release jar by implementation
+ * for Java 21 and later which executes calls of virtual threads directly
+ *
+ * @author Andrei Varabyeu
+ */
+final class BlockingMode {
+
+    private BlockingMode() {
+    }
+
+    /**
+     * @return TRUE if call should be executed directly on calling thread
+     * @see com.github.avarabyeu.restendpoint.http.HttpClientRestEndpoint#executeBlocking
+     */
+    static boolean isDirect() {
+        return false;
+    }
+}
@@ -2,8 +2,8 @@ package com.github.avarabyeu.restendpoint.http.proxy;
 
 import com.github.avarabyeu.restendpoint.http.HttpClientRestEndpoint;
 import com.github.avarabyeu.restendpoint.http.Response;
+import com.github.avarabyeu.restendpoint.http.RestCommand;
 import com.github.avarabyeu.restendpoint.http.RestEndpoint;
-import com.google.common.base.Preconditions;
 import io.reactivex.Maybe;
 
 import java.lang.reflect.InvocationHandler;
@@ -37,14 +37,37 @@ public class RestEndpointInvocationHandler implements InvocationHandler {
 
     private Object executeRestMethod(Method method, Object[] args) throws Throwable {
 
-        Preconditions
-                .checkState(restMethods.containsKey(method), "Method with name [%s] is not mapped", method.getName());
-
-        /* find appropriate method information*/
+        /* find appropriate method information. Single lookup and no message formatting on the hot path */
         RestMethodInfo methodInfo = restMethods.get(method);
+        if (null == methodInfo) {
+            throw new IllegalStateException(String.format("Method with name [%s] is not mapped", method.getName()));
+        }
+        return execute(delegate, methodInfo, args);
+    }
+
+    /**
+     * Executes REST method. Shared by proxies and generated clients
+     *
+     * @param delegate   Endpoint request is executed by
+     * @param methodInfo Method information
+     * @param args       Method arguments
+     * @return {@link Maybe} for asynchronous methods, response or body otherwise
+     */
+    static Object execute(RestEndpoint delegate, RestMethodInfo methodInfo, Object[] args) {
+        RestCommand<Object, Object> command = methodInfo.createRestCommand(args);
+
+        /* synchronous call of virtual thread bypasses Rx machinery. Rate limited calls wait for permit with timer */
+        if (!methodInfo.isAsynchronous() && null == methodInfo.getRateLimiter()
+                && delegate instanceof HttpClientRestEndpoint && BlockingMode.isDirect()) {
+            return executeBlocking((HttpClientRestEndpoint) delegate, methodInfo, command);
+        }
 
         /* delegate request execution to RestEndpoint */
-        Maybe<Response<Object>> response = delegate.executeRequest(methodInfo.createRestCommand(args));
+        Maybe<Response<Object>> response = delegate.executeRequest(command);
+        if (null != methodInfo.getRateLimiter()) {
+            /* single call costs single permit however many times it's subscribed */
+            response = methodInfo.getRateLimiter().limit(response).cache();
+        }
 
         Maybe<?> result = methodInfo.isBodyOnly() ?
                 response.flatMap(BODY_TRANSFORMER) :
@@ -59,4 +82,10 @@ public class RestEndpointInvocationHandler implements InvocationHandler {
         }
     }
 
+    private static Object executeBlocking(HttpClientRestEndpoint endpoint, RestMethodInfo methodInfo,
+            RestCommand<Object, Object> command) {
+        Response<Object> response = endpoint.executeBlocking(command);
+        return methodInfo.isBodyOnly() ? response.getBody() : response;
+    }
+
 }
@@ -0,0 +1,399 @@
+package com.github.avarabyeu.restendpoint.http.proxy;
+
+import com.github.avarabyeu.restendpoint.http.HttpMethod;
+import com.github.avarabyeu.restendpoint.http.MultiPartRequest;
+import com.github.avarabyeu.restendpoint.http.RateLimiter;
+import com.github.avarabyeu.restendpoint.http.Response;
+import com.github.avarabyeu.restendpoint.http.RestCommand;
+import com.github.avarabyeu.restendpoint.http.RetryPolicy;
+import com.github.avarabyeu.restendpoint.http.annotation.Body;
+import com.github.avarabyeu.restendpoint.http.annotation.Idempotent;
+import com.github.avarabyeu.restendpoint.http.annotation.Multipart;
+import com.github.avarabyeu.restendpoint.http.annotation.Path;
+import com.github.avarabyeu.restendpoint.http.annotation.Query;
+import com.github.avarabyeu.restendpoint.http.annotation.RateLimit;
+import com.github.avarabyeu.restendpoint.http.annotation.Request;
+import com.github.avarabyeu.restendpoint.http.annotation.Retry;
+import com.github.avarabyeu.restendpoint.http.uri.UrlTemplate;
+import com.google.common.base.Joiner;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+import com.google.common.reflect.Invokable;
+import com.google.common.reflect.Parameter;
+import com.google.common.reflect.TypeToken;
+import io.reactivex.Maybe;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST interface methods parser.
+ * Parses all needed meta information from annotations and builds {@link com.github.avarabyeu.restendpoint.http.RestCommand} based on it.
+ * Clients generated at compile time describe their methods through {@link #builder(Class, String, HttpMethod, String)}
+ * instead of reflection
+ *
+ * @author Andrei Varabyeu
+ */
+public class RestMethodInfo {
+
+    /* map: method argument index -> path variable */
+    private final Map<Integer, String> pathArguments = new LinkedHashMap<Integer, String>();
+
+    /* HTTP method */
+    private HttpMethod method;
+
+    /* method return type is actually type of HTTP response */
+    private Type responseType;
+
+    /* whether REST method asynchronous */
+    private boolean asynchronous;
+
+    private UrlTemplate urlTemplate;
+
+    /* method argument index for each path variable of URL template */
+    private int[] pathArgumentIndexes;
+
+    /* body is absent by default */
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    private Optional<Integer> bodyArgument = Optional.absent();
+
+    /* Query parameter index */
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    private Optional<Integer> queryParameter = Optional.absent();
+
+    /* Whether method returns body or Response wrapper */
+    private boolean returnBodyOnly;
+
+    /* Whether request is multipart */
+    private boolean multiPart;
+
+    /* Retry policy of method. NULL if policy of endpoint is used */
+    private RetryPolicy retryPolicy;
+
+    /* Min size of request body to be compressed */
+    private int compressionThreshold;
+
+    /* Rate limiter of method. NULL if calls are not limited */
+    private RateLimiter rateLimiter;
+
+    /* Whether method is marked idempotent explicitly */
+    private boolean idempotent;
+
+    @Nonnull
+    public static Map<Method, RestMethodInfo> mapMethods(@Nonnull Class<?> clazz) {
+        ImmutableMap.Builder<Method, RestMethodInfo> methodInfo = ImmutableMap.builder();
+        for (Method method : clazz.getMethods()) {
+            if (RestMethodInfo.isRestMethodDefinition(method)) {
+                methodInfo.put(method, new RestMethodInfo(method));
+            }
+        }
+        return methodInfo.build();
+
+    }
+
+    static boolean isRestMethodDefinition(Method m) {
+        return m.isAnnotationPresent(Request.class);
+    }
+
+    static boolean isAsynchronous(Invokable<?, ?> method) {
+        return Maybe.class.isAssignableFrom(method.getReturnType().getRawType());
+    }
+
+    static boolean bodyOnly(Invokable<?, ?> method) {
+        return !Response.class.equals(method.getReturnType().getRawType());
+    }
+
+    static Type getResponseType(Invokable<?, ?> method) {
+        Type returnType;
+        if (isAsynchronous(method)) {
+            final Type[] genericArgs = getGenericTypeArguments(method.getReturnType());
+            if (Response.class.equals(genericArgs[0])) {
+                returnType = genericArgs[1];
+            } else {
+                returnType = genericArgs[0];
+            }
+
+        } else if (!bodyOnly(method)) {
+            final Type[] genericArgs = getGenericTypeArguments(method.getReturnType());
+            returnType = genericArgs[0];
+        } else {
+            returnType = method.getReturnType().getType();
+        }
+        return returnType;
+    }
+
+    public RestMethodInfo(Method m) {
+        parseMethod(Invokable.from(m));
+    }
+
+    private RestMethodInfo() {
+    }
+
+    /**
+     * Creates builder of method information. Used by generated clients
+     *
+     * @param declaringClass REST interface
+     * @param methodName     Name of interface method
+     * @param method         HTTP method
+     * @param url            URL template
+     * @return Builder
+     */
+    public static Builder builder(Class<?> declaringClass, String methodName, HttpMethod method, String url) {
+        return new Builder(declaringClass, methodName, method, url);
+    }
+
+    public boolean isAsynchronous() {
+        return asynchronous;
+    }
+
+    public boolean isBodyOnly() {
+        return returnBodyOnly;
+    }
+
+    @Nullable
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    private void parseMethod(Invokable<?, ?> method) {
+        Request request = method.getAnnotation(Request.class);
+
+        this.urlTemplate = UrlTemplate.create(request.url());
+        this.asynchronous = isAsynchronous(method);
+        this.method = request.method();
+        this.compressionThreshold = request.compressAbove();
+
+        /* If instance wrapped with Observable, we should extract generic type parameter */
+        this.responseType = getResponseType(method);
+        this.returnBodyOnly = bodyOnly(method);
+        this.retryPolicy = parseRetryPolicy(method);
+        this.idempotent = method.isAnnotationPresent(Idempotent.class);
+        RateLimit rateLimit = method.getAnnotation(RateLimit.class);
+        this.rateLimiter = null == rateLimit ? null : new RateLimiter(rateLimit.permitsPerSecond(), rateLimit.burst());
+
+        /* walk through method parameters and find marked with internal annotations */
+        ImmutableList<Parameter> methodParameters = method.getParameters();
+        for (int i = 0; i < methodParameters.size(); i++) {
+            Parameter parameter = methodParameters.get(i);
+            if (parameter.isAnnotationPresent(Path.class)) {
+                Path path = parameter.getAnnotation(Path.class);
+
+                assert path != null;
+                Preconditions.checkState(urlTemplate.hasPathVariable(path.value()),
+                        "There is no path parameter with name '%s' declared in url template", path.value());
+                pathArguments.put(i, path.value());
+            } else if (parameter.isAnnotationPresent(Body.class)) {
+                this.bodyArgument = Optional.of(i);
+                if (parameter.isAnnotationPresent(Multipart.class)) {
+                    Preconditions.checkArgument(TypeToken.of(MultiPartRequest.class).isSupertypeOf(parameter.getType()),
+                            "@Multipart parameters are expected to be MultiPartRequest. '%s' is not a MultiPartRequest",
+                            parameter.getType());
+                    multiPart = true;
+                }
+
+            } else if (parameter.isAnnotationPresent(Query.class)) {
+                Preconditions.checkArgument(TypeToken.of(Map.class).isSupertypeOf(parameter.getType()),
+                        "@Query parameters are expected to be maps. '%s' is not a Map", parameter.getType());
+                this.queryParameter = Optional.of(i);
+            }
+        }
+
+        validationPathArguments(method.getDeclaringClass(), method.getName());
+        this.pathArgumentIndexes = mapPathArguments();
+    }
+
+    @Nullable
+    private static RetryPolicy parseRetryPolicy(Invokable<?, ?> method) {
+        Retry retry = method.getAnnotation(Retry.class);
+        if (null == retry) {
+            return null;
+        }
+        RetryPolicy.Builder policy = RetryPolicy.create()
+                .withMaxAttempts(retry.maxAttempts())
+                .withBackoff(retry.initialBackoff(), retry.maxBackoff(), TimeUnit.MILLISECONDS)
+                .withRetryStatuses(retry.statuses());
+        if (retry.nonIdempotent()) {
+            policy.retryNonIdempotent();
+        }
+        return policy.build();
+    }
+
+    private void validationPathArguments(Class<?> declaringClass, String methodName) {
+        Sets.SetView<String> difference = Sets.difference(Sets.newHashSet(urlTemplate.getPathVariables()),
+                Sets.newHashSet(pathArguments.values()));
+        Preconditions.checkState(difference.isEmpty(),
+                "The following path arguments found in URL template, but not found in method signature: [%s]. "
+                        + "Class: [%s]. Method [%s]. Did you forget @Path annotation?",
+                Joiner.on(",").join(difference),
+                declaringClass.getSimpleName(),
+                methodName);
+    }
+
+    /**
+     * Re-maps method arguments. We have argIndex -> argName map, we need to know
+     * argument index of each path variable in URL template
+     *
+     * @return Argument indexes in order of path variables in URL template
+     */
+    private int[] mapPathArguments() {
+        List<String> pathVariables = urlTemplate.getPathVariables();
+        int[] indexes = new int[pathVariables.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            for (Map.Entry<Integer, String> pathArgument : pathArguments.entrySet()) {
+                if (pathArgument.getValue().equals(pathVariables.get(i))) {
+                    indexes[i] = pathArgument.getKey();
+                }
+            }
+        }
+        return indexes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private String createUrl(Object... args) {
+        if (!queryParameter.isPresent()) {
+            return urlTemplate.expand(args, pathArgumentIndexes);
+        }
+
+        /* class is possible here, because we already verified arguments types before  */
+        return urlTemplate.merge(args, pathArgumentIndexes)
+                .appendQueryParameters((Map<String, ?>) args[queryParameter.get()])
+                .build();
+    }
+
+    @Nullable
+    private Object createBody(Object... args) {
+        return bodyArgument.isPresent() ? args[bodyArgument.get()] : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <RQ, RS> RestCommand<RQ, RS> createRestCommand(Object... args) {
+        return new RestCommand(createUrl(args), this.method, createBody(args), responseType, multiPart, retryPolicy,
+                urlTemplate.getTemplate(), compressionThreshold, idempotent);
+    }
+
+    private static Type[] getGenericTypeArguments(TypeToken<?> typeToken) {
+        Type rawType = typeToken.getType();
+        Preconditions.checkArgument(rawType instanceof ParameterizedType,
+                "Incorrect configuration. {} should be parameterized", rawType);
+        return ((ParameterizedType) rawType).getActualTypeArguments();
+    }
+
+    /**
+     * Builder of method information. Values are expected to be validated at compile time already,
+     * so only consistency of path arguments and URL template is checked
+     */
+    public static final class Builder {
+
+        private final RestMethodInfo info = new RestMethodInfo();
+        private final Class<?> declaringClass;
+        private final String methodName;
+
+        private Builder(Class<?> declaringClass, String methodName, HttpMethod method, String url) {
+            this.declaringClass = Preconditions.checkNotNull(declaringClass, "Declaring class shouldn't be null");
+            this.methodName = Preconditions.checkNotNull(methodName, "Method name shouldn't be null");
+            info.method = Preconditions.checkNotNull(method, "HTTP method shouldn't be null");
+            info.urlTemplate = UrlTemplate.create(url);
+            info.compressionThreshold = RestCommand.DEFAULT_COMPRESSION_THRESHOLD;
+        }
+
+        /**
+         * @param responseType Type of response body
+         * @param asynchronous Whether method returns {@link Maybe}
+         * @param bodyOnly     Whether method returns body rather than {@link Response}
+         * @return this builder
+         */
+        public Builder returning(Type responseType, boolean asynchronous, boolean bodyOnly) {
+            info.responseType = Preconditions.checkNotNull(responseType, "Response type shouldn't be null");
+            info.asynchronous = asynchronous;
+            info.returnBodyOnly = bodyOnly;
+            return this;
+        }
+
+        /**
+         * @param index Index of argument marked with {@link Path}
+         * @param name  Path variable
+         * @return this builder
+         */
+        public Builder pathArgument(int index, String name) {
+            Preconditions.checkState(info.urlTemplate.hasPathVariable(name),
+                    "There is no path parameter with name '%s' declared in url template", name);
+            info.pathArguments.put(index, name);
+            return this;
+        }
+
+        /**
+         * @param index     Index of argument marked with {@link Body}
+         * @param multipart Whether argument is marked with {@link Multipart} as well
+         * @return this builder
+         */
+        public Builder bodyArgument(int index, boolean multipart) {
+            info.bodyArgument = Optional.of(index);
+            info.multiPart = multipart;
+            return this;
+        }
+
+        /**
+         * @param index Index of argument marked with {@link Query}
+         * @return this builder
+         */
+        public Builder queryArgument(int index) {
+            info.queryParameter = Optional.of(index);
+            return this;
+        }
+
+        /**
+         * @param retryPolicy Retry policy of method
+         * @return this builder
+         */
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            info.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * @param threshold Min size of request body to be compressed
+         * @return this builder
+         */
+        public Builder compressAbove(int threshold) {
+            info.compressionThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * @param rateLimiter Rate limiter of method
+         * @return this builder
+         */
+        public Builder rateLimiter(RateLimiter rateLimiter) {
+            info.rateLimiter = rateLimiter;
+            return this;
+        }
+
+        /**
+         * Marks method as {@link Idempotent}
+         *
+         * @return this builder
+         */
+        public Builder idempotent() {
+            info.idempotent = true;
+            return this;
+        }
+
+        public RestMethodInfo build() {
+            Preconditions.checkState(null != info.responseType, "Response type isn't specified");
+            info.validationPathArguments(declaringClass, methodName);
+            info.pathArgumentIndexes = info.mapPathArguments();
+            return info;
+        }
+    }
+
+}
@@ -0,0 +1,216 @@
+package com.github.avarabyeu.restendpoint.http.uri;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+import com.google.common.net.UrlEscapers;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Template of http URL abstraction and builder. In charge of path variables parsing and replacement<br>
+ * Template is parsed once into literal and path variable segments, so expansion is plain concatenation<br>
+ * Implementation of UrlTemplate is immutable and might be used by several threads
+ *
+ * @author Andrey Vorobyov
+ */
+public class UrlTemplate {
+
+    /* builders bigger than this are not reused to avoid holding too much memory per thread */
+    private static final int MAX_REUSED_BUILDER_CAPACITY = 4 * 1024;
+
+    /* per-thread builder for URL expansion */
+    private static final ThreadLocal<StringBuilder> BUILDER = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(256);
+        }
+    };
+
+    /* URL template */
+    private final String template;
+
+    /* List of names of found path variables */
+    private final List<String> pathVariables;
+
+    /* literal parts of template. Path variable i is located between literals i and i+1 */
+    private final String[] literals;
+
+    private UrlTemplate(String template) {
+
+        this.template = template;
+
+        List<String> variables = new ArrayList<String>();
+        List<String> parts = new ArrayList<String>();
+        int position = 0;
+        int start;
+        while ((start = template.indexOf('{', position)) != -1) {
+            int end = template.indexOf('}', start + 1);
+            if (end == -1) {
+                break;
+            }
+            parts.add(template.substring(position, start));
+            variables.add(template.substring(start + 1, end));
+            position = end + 1;
+        }
+        parts.add(template.substring(position));
+
+        this.pathVariables = Collections.unmodifiableList(variables);
+        this.literals = parts.toArray(new String[parts.size()]);
+
+    }
+
+    /**
+     * Creates new instance of template
+     *
+     * @param template URL Template String
+     * @return URLTemplate instance
+     */
+    public static UrlTemplate create(String template) {
+        return new UrlTemplate(template);
+    }
+
+    /**
+     * @return Template URL is built of
+     */
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * @param name name of path variable
+     * @return TRUE in case if provided variable is defined in template
+     */
+    public boolean hasPathVariable(String name) {
+        return pathVariables.contains(name);
+    }
+
+    /**
+     * Returns all found path variables in order of their appearance in the template.
+     * Variable used several times is returned several times
+     *
+     * @return all found path variables
+     */
+    public List<String> getPathVariables() {
+        return pathVariables;
+    }
+
+    /**
+     * Creates new merger. Leaves template instance immutable
+     *
+     * @return New Merger
+     */
+    public Merger merge() {
+        return new Merger(this.template);
+    }
+
+    /**
+     * Creates new merger with path variables expanded. Leaves template instance immutable
+     *
+     * @param args       Path variable values
+     * @param argIndexes Index in args array for each path variable. See {@link #expand(Object[], int[])}
+     * @return New Merger
+     */
+    public Merger merge(Object[] args, int[] argIndexes) {
+        return new Merger(expand(args, argIndexes));
+    }
+
+    /**
+     * Expands path variables
+     *
+     * @param args       Path variable values
+     * @param argIndexes Index in args array for each path variable, in order of
+     *                   {@link #getPathVariables()}. E.g. value of variable #1 is args[argIndexes[1]]
+     * @return Expanded URL
+     */
+    public String expand(Object[] args, int[] argIndexes) {
+        Preconditions.checkArgument(argIndexes.length == pathVariables.size(),
+                "Expected %s path variable indexes, but %s provided", pathVariables.size(), argIndexes.length);
+        if (0 == argIndexes.length) {
+            return template;
+        }
+
+        StringBuilder url = BUILDER.get();
+        url.setLength(0);
+
+        url.append(literals[0]);
+        for (int i = 0; i < argIndexes.length; i++) {
+            Object replacement = args[argIndexes[i]];
+            Preconditions.checkState(null != replacement, "Path variable '%s' is null", pathVariables.get(i));
+            //noinspection ConstantConditions
+            url.append(escape(replacement)).append(literals[i + 1]);
+        }
+
+        String result = url.toString();
+        if (url.capacity() > MAX_REUSED_BUILDER_CAPACITY) {
+            BUILDER.remove();
+        }
+        return result;
+    }
+
+    private static String escape(Object replacement) {
+        return UrlEscapers.urlPathSegmentEscaper().escape(replacement.toString());
+    }
+
+    /**
+     * Merges template. Merger is mutable and cannot be used by several threads
+     */
+    public static class Merger {
+
+        private StringBuilder template;
+
+        private Merger(String template) {
+            this.template = new StringBuilder(template);
+        }
+
+        public Merger expand(Map<String, Object> pathParameters) {
+            StringBuilder sb = new StringBuilder(template.length());
+            int position = 0;
+            int start;
+            while ((start = template.indexOf("{", position)) != -1) {
+                int end = template.indexOf("}", start + 1);
+                if (end == -1) {
+                    break;
+                }
+                String name = template.substring(start + 1, end);
+                Object replacement = pathParameters.get(name);
+                Preconditions.checkState(null != replacement, "Unknown path variable: %s", name);
+
+                //noinspection ConstantConditions
+                sb.append(template, position, start).append(escape(replacement));
+                position = end + 1;
+            }
+            sb.append(template, position, template.length());
+
+            this.template = sb;
+            return this;
+        }
+
+        public Merger appendQueryParameters(@Nullable Map<String, ?> parameters) {
+            if (null == parameters || parameters.isEmpty()) {
+                return this;
+            }
+
+            /* remove last '/' if exists */
+            int lastCharIndex = template.length() - 1;
+            if ('/' == template.charAt(lastCharIndex)) {
+                template.deleteCharAt(lastCharIndex);
+            }
+
+            /* add '?' if doesn't exist */
+            if (template.indexOf("?") == -1) {
+                template.append("?");
+            }
+            Joiner.on('&').withKeyValueSeparator("=").appendTo(template, parameters);
+            return this;
+        }
+
+        public String build() {
+            return this.template.toString();
+        }
+    }
+
+}
@@ -17,9 +17,13 @@
 package com.github.avarabyeu.restendpoint.serializer;
 
 import com.github.avarabyeu.restendpoint.http.exception.SerializerException;
+import com.google.common.io.ByteStreams;
 import com.google.common.net.MediaType;
 import com.google.common.reflect.TypeToken;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
 
 /**
@@ -28,7 +32,7 @@ import java.lang.reflect.Type;
  *
  * @author Andrei Varabyeu
  */
-public class ByteArraySerializer implements Serializer {
+public class ByteArraySerializer implements StreamingSerializer {
 
     /*
      * (non-Javadoc)
@@ -41,6 +45,22 @@ public class ByteArraySerializer implements Serializer {
         return (byte[]) t;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * StreamingSerializer#serialize(java.lang.Object, java.io.OutputStream)
+     */
+    @Override
+    public final <T> void serialize(T t, OutputStream out) throws SerializerException {
+        try {
+            out.write((byte[]) t);
+            out.flush();
+        } catch (IOException e) {
+            throw new SerializerException("Unable to write content", e);
+        }
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -71,6 +91,36 @@ public class ByteArraySerializer implements Serializer {
         throw new SerializerException("Unable to deserialize to type '" + type + "'");
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see StreamingSerializer#deserialize(java.io.InputStream,
+     * java.lang.Class)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public final <T> T deserialize(InputStream content, Class<T> clazz) throws SerializerException {
+        if (byte[].class.equals(clazz)) {
+            return (T) readAll(content);
+        }
+        throw new SerializerException("Unable to deserialize to type '" + clazz.getName() + "'");
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see StreamingSerializer#deserialize(java.io.InputStream,
+     * java.lang.reflect.Type)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public final <T> T deserialize(InputStream content, Type type) throws SerializerException {
+        if (byte[].class.equals(type)) {
+            return (T) readAll(content);
+        }
+        throw new SerializerException("Unable to deserialize to type '" + type + "'");
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -108,4 +158,19 @@ public class ByteArraySerializer implements Serializer {
         return byte[].class.equals(o.getClass());
     }
 
+    /**
+     * Byte array is the result itself, so there is nothing to stream here
+     *
+     * @param content Stream to be read
+     * @return Stream content
+     * @throws SerializerException In case of IO error
+     */
+    private byte[] readAll(InputStream content) throws SerializerException {
+        try {
+            return ByteStreams.toByteArray(content);
+        } catch (IOException e) {
+            throw new SerializerException("Unable to read content", e);
+        }
+    }
+
 }
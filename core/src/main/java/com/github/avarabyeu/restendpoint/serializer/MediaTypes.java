@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.serializer;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.net.MediaType;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Cached {@link MediaType} operations. Number of distinct content types
+ * an application deals with is usually small, so each of them is parsed
+ * and stripped of parameters only once
+ *
+ * @author Andrei Varabyeu
+ */
+public final class MediaTypes {
+
+    /* max number of cached media types */
+    private static final long CACHE_SIZE = 256;
+
+    public static final MediaType JSON = MediaType.JSON_UTF_8.withoutParameters();
+
+    public static final MediaType XML = MediaType.APPLICATION_XML_UTF_8.withoutParameters();
+
+    private static final LoadingCache<String, MediaType> PARSED = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_SIZE).build(new CacheLoader<String, MediaType>() {
+                @Override
+                public MediaType load(@Nonnull String mediaType) {
+                    return MediaType.parse(mediaType);
+                }
+            });
+
+    private static final LoadingCache<MediaType, MediaType> BASE_TYPES = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_SIZE).build(new CacheLoader<MediaType, MediaType>() {
+                @Override
+                public MediaType load(@Nonnull MediaType mediaType) {
+                    return mediaType.withoutParameters();
+                }
+            });
+
+    private MediaTypes() {
+        //statics only
+    }
+
+    /**
+     * Parses media type. Same instance is returned for the same string
+     *
+     * @param mediaType Media type string, e.g. value of Content-Type header
+     * @return Parsed media type
+     * @throws IllegalArgumentException if media type cannot be parsed
+     * @see MediaType#parse(String)
+     */
+    public static MediaType parse(String mediaType) {
+        try {
+            return PARSED.getUnchecked(mediaType);
+        } catch (UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Strips parameters (e.g. charset) of media type
+     *
+     * @param mediaType Media type
+     * @return Media type without parameters
+     * @see MediaType#withoutParameters()
+     */
+    public static MediaType withoutParameters(MediaType mediaType) {
+        if (mediaType.parameters().isEmpty()) {
+            return mediaType;
+        }
+        return BASE_TYPES.getUnchecked(mediaType);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.serializer;
+
+import com.github.avarabyeu.restendpoint.http.exception.SerializerException;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * {@link Serializer} able to convert messages to/from stream without building whole message in memory.
+ * Endpoint streams request and response bodies through such serializers, other serializers
+ * are given bodies as byte arrays
+ *
+ * @author Andrei Varabyeu
+ */
+public interface StreamingSerializer extends Serializer {
+
+    /**
+     * Serializes Message into provided stream. Implementations are expected to write
+     * content incrementally instead of building whole message in memory.
+     * Stream is owned by caller and should be flushed but not closed by serializer
+     *
+     * @param t   Object to be serialized
+     * @param out Stream to write serialized object to
+     * @param <T> Type of object to be serialized
+     * @throws SerializerException In case of some exception
+     */
+    <T> void serialize(T t, OutputStream out) throws SerializerException;
+
+    /**
+     * Deserializes message from stream. Implementations are expected to parse
+     * content incrementally instead of reading whole stream into memory.
+     * Stream is owned by caller and should not be closed by serializer
+     *
+     * @param content Stream to be deserialized
+     * @param clazz   Result Type
+     * @param <T>     Type of deserialization result
+     * @return Deserialized Object
+     * @throws SerializerException In case of some exception
+     */
+    <T> T deserialize(InputStream content, Class<T> clazz) throws SerializerException;
+
+    /**
+     * Deserializes message from stream. Implementations are expected to parse
+     * content incrementally instead of reading whole stream into memory.
+     * Stream is owned by caller and should not be closed by serializer
+     *
+     * @param content Stream to be deserialized
+     * @param type    - Representation of type of response. For generic types (e.g.
+     *                collections) {@link java.lang.reflect.ParameterizedType} may
+     *                be used
+     * @param <T>     Type of result object
+     * @return Deserialized Object
+     * @throws SerializerException In case of some exception
+     */
+    <T> T deserialize(InputStream content, Type type) throws SerializerException;
+}
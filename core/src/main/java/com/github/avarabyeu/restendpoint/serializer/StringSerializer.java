@@ -18,10 +18,15 @@ package com.github.avarabyeu.restendpoint.serializer;
 
 import com.github.avarabyeu.restendpoint.http.exception.SerializerException;
 import com.google.common.base.Charsets;
+import com.google.common.io.CharStreams;
 import com.google.common.net.MediaType;
 import com.google.common.reflect.TypeToken;
 
 import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
 
 /**
@@ -31,7 +36,7 @@ import java.lang.reflect.Type;
  * @deprecated In favor of {@link com.github.avarabyeu.restendpoint.serializer.TextSerializer}
  */
 @Deprecated
-public class StringSerializer implements Serializer {
+public class StringSerializer implements StreamingSerializer {
 
     /*
      * (non-Javadoc)
@@ -44,6 +49,16 @@ public class StringSerializer implements Serializer {
         return t.toString().getBytes();
     }
 
+    @Override
+    public <T> void serialize(T t, OutputStream out) throws SerializerException {
+        try {
+            out.write(serialize(t));
+            out.flush();
+        } catch (IOException e) {
+            throw new SerializerException("Unable to write content", e);
+        }
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -63,6 +78,20 @@ public class StringSerializer implements Serializer {
         return (T) new String(content, Charsets.UTF_8);
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T deserialize(InputStream content, Class<T> clazz) throws SerializerException {
+        validateString(clazz);
+        return (T) readString(content);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T deserialize(InputStream content, Type type) throws SerializerException {
+        validateString(type);
+        return (T) readString(content);
+    }
+
     /**
      * Returns default MIME type
      */
@@ -76,9 +105,7 @@ public class StringSerializer implements Serializer {
      */
     @Override
     public boolean canRead(@Nonnull MediaType mimeType, Class<?> resultType) {
-        MediaType type = mimeType.withoutParameters();
-        return (type.is(MediaType.ANY_TEXT_TYPE) || MediaType.APPLICATION_XML_UTF_8.withoutParameters().is(type)
-                || MediaType.JSON_UTF_8.withoutParameters().is(type)) && String.class.equals(resultType);
+        return isText(mimeType) && String.class.equals(resultType);
     }
 
     /**
@@ -86,9 +113,7 @@ public class StringSerializer implements Serializer {
      */
     @Override
     public boolean canRead(@Nonnull MediaType mimeType, Type resultType) {
-        MediaType type = mimeType.withoutParameters();
-        return (type.is(MediaType.ANY_TEXT_TYPE) || MediaType.APPLICATION_XML_UTF_8.withoutParameters().is(type)
-                || MediaType.JSON_UTF_8.withoutParameters().is(type)) && String.class.equals(TypeToken.of(resultType).getRawType());
+        return isText(mimeType) && String.class.equals(TypeToken.of(resultType).getRawType());
     }
 
     @Override
@@ -96,6 +121,11 @@ public class StringSerializer implements Serializer {
         return String.class.isAssignableFrom(o.getClass());
     }
 
+    private boolean isText(MediaType mimeType) {
+        MediaType type = MediaTypes.withoutParameters(mimeType);
+        return type.is(MediaType.ANY_TEXT_TYPE) || MediaTypes.XML.is(type) || MediaTypes.JSON.is(type);
+    }
+
     /**
      * Validates that provided class is assignable from java.lang.String
      *
@@ -120,4 +150,19 @@ public class StringSerializer implements Serializer {
         }
     }
 
+    /**
+     * Reads stream content as UTF-8 string
+     *
+     * @param content Stream to be read
+     * @return Stream content as string
+     * @throws SerializerException In case of IO error
+     */
+    private String readString(InputStream content) throws SerializerException {
+        try {
+            return CharStreams.toString(new InputStreamReader(content, Charsets.UTF_8));
+        } catch (IOException e) {
+            throw new SerializerException("Unable to read content", e);
+        }
+    }
+
 }
@@ -2,12 +2,17 @@ package com.github.avarabyeu.restendpoint.serializer;
 
 import com.github.avarabyeu.restendpoint.http.exception.SerializerException;
 import com.google.common.base.Charsets;
+import com.google.common.io.CharStreams;
 import com.google.common.net.MediaType;
 import com.google.common.reflect.TypeToken;
 import org.apache.commons.beanutils.ConversionException;
 import org.apache.commons.beanutils.ConvertUtilsBean;
 import org.apache.commons.beanutils.Converter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
 import java.util.Map;
 
@@ -17,7 +22,7 @@ import java.util.Map;
  * @author Andrei Varabyeu
  * @see <a href="http://commons.apache.org/proper/commons-beanutils/">Apache BeanUtils</a>
  */
-public class TextSerializer implements Serializer {
+public class TextSerializer implements StreamingSerializer {
 
     private final ConvertUtilsBean converter;
 
@@ -81,14 +86,18 @@ public class TextSerializer implements Serializer {
     }
 
     @Override
-    public <T> T deserialize(byte[] content, Class<T> clazz) throws SerializerException {
-        String stringContent = new String(content, Charsets.UTF_8);
+    public <T> void serialize(T t, OutputStream out) throws SerializerException {
         try {
-            return converter.lookup(clazz).convert(clazz, stringContent);
-        } catch (ConversionException e) {
-            throw new SerializerException("Cannot convert content '" + stringContent + "' to type [" + clazz + "]", e.getCause());
+            out.write(serialize(t));
+            out.flush();
+        } catch (IOException e) {
+            throw new SerializerException("Unable to write content", e);
         }
+    }
 
+    @Override
+    public <T> T deserialize(byte[] content, Class<T> clazz) throws SerializerException {
+        return convert(new String(content, Charsets.UTF_8), clazz);
     }
 
     @Override
@@ -97,6 +106,30 @@ public class TextSerializer implements Serializer {
         return deserialize(content, (Class<T>) TypeToken.of(type).getRawType());
     }
 
+    @Override
+    public <T> T deserialize(InputStream content, Class<T> clazz) throws SerializerException {
+        try {
+            return convert(CharStreams.toString(new InputStreamReader(content, Charsets.UTF_8)), clazz);
+        } catch (IOException e) {
+            throw new SerializerException("Unable to read content", e);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(InputStream content, Type type) throws SerializerException {
+        //noinspection unchecked
+        return deserialize(content, (Class<T>) TypeToken.of(type).getRawType());
+    }
+
+    private <T> T convert(String stringContent, Class<T> clazz) throws SerializerException {
+        try {
+            return converter.lookup(clazz).convert(clazz, stringContent);
+        } catch (ConversionException e) {
+            throw new SerializerException("Cannot convert content '" + stringContent + "' to type [" + clazz + "]", e.getCause());
+        }
+
+    }
+
     @Override
     public String getMimeType() {
         return MediaType.PLAIN_TEXT_UTF_8.toString();
@@ -104,7 +137,7 @@ public class TextSerializer implements Serializer {
 
     @Override
     public boolean canRead(MediaType mimeType, Class<?> resultType) {
-        return mimeType.withoutParameters().is(MediaType.ANY_TEXT_TYPE) && null != converter.lookup(resultType, String.class);
+        return MediaTypes.withoutParameters(mimeType).is(MediaType.ANY_TEXT_TYPE) && null != converter.lookup(resultType, String.class);
     }
 
     @Override
@@ -4,18 +4,25 @@ import com.github.avarabyeu.restendpoint.http.exception.SerializerException;
 import com.google.common.net.MediaType;
 import com.google.common.reflect.TypeToken;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
 
 /**
  * @author Andrei Varabyeu
  */
-public class VoidSerializer implements Serializer {
+public class VoidSerializer implements StreamingSerializer {
 
     @Override
     public final <T> byte[] serialize(T t) throws SerializerException {
         throw new UnsupportedOperationException("Serialization is not permitted for Void types");
     }
 
+    @Override
+    public final <T> void serialize(T t, OutputStream out) throws SerializerException {
+        throw new UnsupportedOperationException("Serialization is not permitted for Void types");
+    }
+
     @Override
     public final <T> T deserialize(byte[] content, Class<T> clazz) throws SerializerException {
         return null;
@@ -26,6 +33,16 @@ public class VoidSerializer implements Serializer {
         return null;
     }
 
+    @Override
+    public final <T> T deserialize(InputStream content, Class<T> clazz) throws SerializerException {
+        return null;
+    }
+
+    @Override
+    public final <T> T deserialize(InputStream content, Type type) throws SerializerException {
+        return null;
+    }
+
     @Override
     public final String getMimeType() {
         throw new UnsupportedOperationException("Void type doesn't have mime type");
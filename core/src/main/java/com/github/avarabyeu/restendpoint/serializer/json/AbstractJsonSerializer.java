@@ -1,6 +1,7 @@
 package com.github.avarabyeu.restendpoint.serializer.json;
 
-import com.github.avarabyeu.restendpoint.serializer.Serializer;
+import com.github.avarabyeu.restendpoint.serializer.MediaTypes;
+import com.github.avarabyeu.restendpoint.serializer.StreamingSerializer;
 import com.google.common.net.MediaType;
 import com.google.common.reflect.TypeToken;
 
@@ -11,7 +12,7 @@ import java.lang.reflect.Type;
  *
  * @author Andrei Varabyeu
  */
-abstract class AbstractJsonSerializer implements Serializer {
+abstract class AbstractJsonSerializer implements StreamingSerializer {
 
     @Override
     public String getMimeType() {
@@ -20,7 +21,7 @@ abstract class AbstractJsonSerializer implements Serializer {
 
     @Override
     public boolean canRead(MediaType mimeType, Class<?> resultType) {
-        return MediaType.JSON_UTF_8.withoutParameters().is(mimeType.withoutParameters());
+        return MediaTypes.JSON.is(MediaTypes.withoutParameters(mimeType));
     }
 
     @Override
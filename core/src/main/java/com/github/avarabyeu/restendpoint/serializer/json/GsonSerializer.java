@@ -21,9 +21,16 @@ import com.github.avarabyeu.restendpoint.http.exception.SerializerException;
 import com.google.common.base.Charsets;
 import com.google.common.io.ByteSource;
 import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Type;
 
@@ -62,6 +69,19 @@ public class GsonSerializer extends AbstractJsonSerializer {
         }
     }
 
+    @Override
+    public <T> void serialize(T t, OutputStream out) throws SerializerException {
+        try {
+            Writer writer = new OutputStreamWriter(out, Charsets.UTF_8);
+            gson.toJson(t, writer);
+            writer.flush();
+        } catch (IOException e) {
+            throw new SerializerException("Unable to serialize content", e);
+        } catch (JsonIOException e) {
+            throw new SerializerException("Unable to serialize content", e);
+        }
+    }
+
     @Override
     public <T> T deserialize(byte[] content, Class<T> clazz) throws SerializerException {
         BufferedReader is = null;
@@ -86,4 +106,26 @@ public class GsonSerializer extends AbstractJsonSerializer {
         }
     }
 
+    @Override
+    public <T> T deserialize(InputStream content, Class<T> clazz) throws SerializerException {
+        try {
+            return gson.fromJson(new InputStreamReader(content, Charsets.UTF_8), clazz);
+        } catch (JsonParseException e) {
+            throw new SerializerException("Unable to deserialize content", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T deserialize(InputStream content, Type type) throws SerializerException {
+        try {
+            return (T) gson.getAdapter(com.google.gson.reflect.TypeToken.<T>get(type))
+                    .fromJson(new InputStreamReader(content, Charsets.UTF_8));
+        } catch (IOException e) {
+            throw new SerializerException("Unable to deserialize content", e);
+        } catch (JsonParseException e) {
+            throw new SerializerException("Unable to deserialize content", e);
+        }
+    }
+
 }
@@ -0,0 +1,107 @@
+package com.github.avarabyeu.restendpoint.serializer.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.avarabyeu.restendpoint.http.exception.SerializerException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * JSON serializer using Jackson library
+ *
+ * @author Andrei Varabyeu
+ * @see <a href="http://wiki.fasterxml.com/JacksonHome/">Jackson Wiki</a>
+ */
+public class JacksonSerializer extends AbstractJsonSerializer {
+
+    private final ObjectMapper objectMapper;
+
+    public JacksonSerializer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public JacksonSerializer() {
+        this(new ObjectMapper());
+    }
+
+    @Override
+    public <T> byte[] serialize(T t) throws SerializerException {
+        try {
+            return objectMapper.writeValueAsBytes(t);
+        } catch (JsonProcessingException e) {
+            throw new SerializerException("Unable to serialize content", e);
+        }
+    }
+
+    @Override
+    public <T> void serialize(T t, OutputStream out) throws SerializerException {
+        try {
+            /* do not let Jackson close stream since it's owned by caller */
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            objectMapper.writeValue(generator, t);
+            generator.close();
+        } catch (IOException e) {
+            throw new SerializerException("Unable to serialize content", e);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(byte[] content, Class<T> clazz) throws SerializerException {
+        try {
+            return objectMapper.readValue(content, clazz);
+        } catch (IOException e) {
+            throw new SerializerException("Unable to deserialize content", e);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(byte[] content, Type type) throws SerializerException {
+        try {
+            return objectMapper.readValue(content, objectMapper.getTypeFactory().constructType(type));
+        } catch (IOException e) {
+            throw new SerializerException("Unable to deserialize content", e);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(InputStream content, Class<T> clazz) throws SerializerException {
+        try {
+            JsonParser parser = createParser(content);
+            try {
+                return objectMapper.readValue(parser, clazz);
+            } finally {
+                parser.close();
+            }
+        } catch (IOException e) {
+            throw new SerializerException("Unable to deserialize content", e);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(InputStream content, Type type) throws SerializerException {
+        try {
+            JsonParser parser = createParser(content);
+            try {
+                return objectMapper.readValue(parser, objectMapper.getTypeFactory().constructType(type));
+            } finally {
+                parser.close();
+            }
+        } catch (IOException e) {
+            throw new SerializerException("Unable to deserialize content", e);
+        }
+    }
+
+    /* do not let Jackson close stream since it's owned by caller */
+    private JsonParser createParser(InputStream content) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(content);
+        parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        return parser;
+    }
+
+}
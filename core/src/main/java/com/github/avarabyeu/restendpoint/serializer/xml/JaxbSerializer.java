@@ -18,7 +18,8 @@ package com.github.avarabyeu.restendpoint.serializer.xml;
 
 import com.github.avarabyeu.restendpoint.http.IOUtils;
 import com.github.avarabyeu.restendpoint.http.exception.SerializerException;
-import com.github.avarabyeu.restendpoint.serializer.Serializer;
+import com.github.avarabyeu.restendpoint.serializer.MediaTypes;
+import com.github.avarabyeu.restendpoint.serializer.StreamingSerializer;
 import com.google.common.net.MediaType;
 import com.google.common.reflect.TypeToken;
 
@@ -30,7 +31,9 @@ import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
 
 /**
@@ -41,7 +44,7 @@ import java.lang.reflect.Type;
  *
  * @author Andrey Vorobyov
  */
-public class JaxbSerializer implements Serializer {
+public class JaxbSerializer implements StreamingSerializer {
 
     private final JAXBContext jaxbContext;
 
@@ -80,6 +83,18 @@ public class JaxbSerializer implements Serializer {
 
     }
 
+    @Override
+    public <T> void serialize(T t, OutputStream out) throws SerializerException {
+        try {
+            jaxbContext.createMarshaller().marshal(t, new StreamResult(out));
+            out.flush();
+        } catch (JAXBException e) {
+            throw new SerializerException("Unable to serialize xml", e);
+        } catch (IOException e) {
+            throw new SerializerException("Unable to serialize xml", e);
+        }
+    }
+
     @Override
     public <T> T deserialize(byte[] content, Class<T> clazz) throws SerializerException {
         InputStream is;
@@ -99,6 +114,22 @@ public class JaxbSerializer implements Serializer {
         return (T) deserialize(content, TypeToken.of(type).getRawType());
     }
 
+    @Override
+    public <T> T deserialize(InputStream content, Class<T> clazz) throws SerializerException {
+        try {
+            JAXBElement<T> result = jaxbContext.createUnmarshaller().unmarshal(new StreamSource(content), clazz);
+            return result.getValue();
+        } catch (JAXBException e) {
+            throw new SerializerException("Unable to deserialize xml", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T deserialize(InputStream content, Type type) throws SerializerException {
+        return (T) deserialize(content, TypeToken.of(type).getRawType());
+    }
+
     @Override
     public String getMimeType() {
         return MediaType.APPLICATION_XML_UTF_8.toString();
@@ -111,7 +142,7 @@ public class JaxbSerializer implements Serializer {
 
     @Override
     public boolean canRead(MediaType mimeType, Type resultType) {
-        return mimeType.withoutParameters().is(MediaType.APPLICATION_XML_UTF_8.withoutParameters());
+        return MediaTypes.withoutParameters(mimeType).is(MediaTypes.XML);
     }
 
     @Override
@@ -14,33 +14,24 @@
  * limitations under the License.
  */
 
+
 package com.github.avarabyeu.restendpoint.http;
 
 /**
- * HTTP Methods Representation
+ * Factory of HTTP/2 {@link Transport}. Overrides baseline factory in multi-release jar
  *
  * @author Andrei Varabyeu
  */
-public enum HttpMethod {
-    GET(false),
-    POST(true),
-    PUT(true),
-    PATCH(true),
-    DELETE(false);
-
-    private final boolean hasBody;
+final class Http2Transports {
 
-    /**
-     * @param hasBody Whether method contains body
-     */
-    HttpMethod(boolean hasBody) {
-        this.hasBody = hasBody;
+    private Http2Transports() {
     }
 
     /**
-     * @return TRUE if method contains body
+     * @param options Optional settings. SSL context is taken into account
+     * @return HTTP/2 transport
      */
-    boolean hasBody() {
-        return hasBody;
+    static Transport create(EndpointOptions options) {
+        return new JdkHttpTransport(options.sslContext);
     }
 }
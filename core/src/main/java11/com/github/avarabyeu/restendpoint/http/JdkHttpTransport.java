@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.net.HttpHeaders;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.reactivex.functions.Cancellable;
+
+import javax.annotation.Nullable;
+import javax.net.ssl.SSLContext;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link Transport} based on JDK {@link HttpClient}. Protocol is negotiated with server, so requests
+ * to host supporting HTTP/2 are multiplexed as streams over single connection rather than wait
+ * for free connection in pool. Plain connections are upgraded to h2c by the first request without body.
+ * Request bodies are pulled by client as a stream, so serialized bodies are prepared in memory
+ *
+ * @author Andrei Varabyeu
+ */
+final class JdkHttpTransport implements Transport {
+
+    /**
+     * Executes client's I/O callbacks. Owned by transport, so it's shut down once transport is closed
+     */
+    private final ExecutorService executor;
+
+    private final HttpClient httpClient;
+
+    /**
+     * @param sslContext SSL context. NULL if default one should be used
+     */
+    JdkHttpTransport(@Nullable SSLContext sslContext) {
+        this.executor = Executors.newCachedThreadPool(
+                new ThreadFactoryBuilder().setNameFormat("rest-endpoint-h2-%d").setDaemon(true).build());
+        HttpClient.Builder client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .executor(executor);
+        if (null != sslContext) {
+            client.sslContext(sslContext);
+        }
+        this.httpClient = client.build();
+    }
+
+    @Override
+    public Cancellable send(TransportRequest request, TransportCallback callback) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.getUri());
+        for (Map.Entry<String, String> header : request.getHeaders().entries()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+
+        RequestBody body = request.getBody();
+        if (null == body) {
+            builder.method(request.getMethod().name(), HttpRequest.BodyPublishers.noBody());
+        } else {
+            builder.method(request.getMethod().name(), publisher(body, callback));
+            builder.header(HttpHeaders.CONTENT_TYPE, body.getContentType());
+            if (null != body.getContentEncoding()) {
+                builder.header(HttpHeaders.CONTENT_ENCODING, body.getContentEncoding());
+            }
+        }
+
+        AtomicReference<InputStream> responseBody = new AtomicReference<>();
+        CompletableFuture<HttpResponse<InputStream>> future = httpClient
+                .sendAsync(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        if (null == body) {
+            /* there is no hook on request written, so bodiless request is considered to be sent once submitted */
+            callback.onRequestSent(0);
+        }
+        future.whenComplete((response, error) -> {
+            if (null == error) {
+                responseBody.set(response.body());
+                callback.onResponse(new JdkResponse(response));
+            } else {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                callback.onFailure(cause instanceof Exception ? (Exception) cause : new ExecutionException(cause));
+            }
+        });
+        return () -> {
+            future.cancel(true);
+            InputStream stream = responseBody.get();
+            if (null != stream) {
+                stream.close();
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Body is pulled as a stream. Request is considered to be sent once the stream is completely read
+     */
+    private static HttpRequest.BodyPublisher publisher(RequestBody body, TransportCallback callback) {
+        HttpRequest.BodyPublisher publisher = HttpRequest.BodyPublishers.ofInputStream(() -> {
+            try {
+                return new CountingInputStream(body.openStream(), callback);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return body.getContentLength() < 0 ?
+                publisher :
+                HttpRequest.BodyPublishers.fromPublisher(publisher, body.getContentLength());
+    }
+
+    /**
+     * Exposes JDK response as {@link TransportResponse}
+     */
+    private static final class JdkResponse implements TransportResponse {
+
+        private final HttpResponse<InputStream> response;
+
+        private JdkResponse(HttpResponse<InputStream> response) {
+            this.response = response;
+        }
+
+        @Override
+        public int getStatus() {
+            return response.statusCode();
+        }
+
+        /**
+         * JDK client doesn't expose reason phrase, there are no reason phrases in HTTP/2 anyway
+         */
+        @Override
+        public String getReason() {
+            return "";
+        }
+
+        @Override
+        public Multimap<String, String> getHeaders() {
+            ImmutableListMultimap.Builder<String, String> headers = ImmutableListMultimap.builder();
+            for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+                headers.putAll(header.getKey(), header.getValue());
+            }
+            return headers.build();
+        }
+
+        @Nullable
+        @Override
+        public String getHeader(String name) {
+            return response.headers().firstValue(name).orElse(null);
+        }
+
+        @Override
+        public InputStream getBody() {
+            return response.body();
+        }
+    }
+
+    /**
+     * Request body stream reporting number of bytes read once it's completely read
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final TransportCallback callback;
+        private long bytesRead;
+        private boolean reported;
+
+        private CountingInputStream(InputStream in, TransportCallback callback) {
+            super(in);
+            this.callback = callback;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            count(-1 == read ? -1 : 1);
+            return read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            count(read);
+            return read;
+        }
+
+        private void count(int read) {
+            if (-1 != read) {
+                bytesRead += read;
+            } else if (!reported) {
+                reported = true;
+                callback.onRequestSent(bytesRead);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http.proxy;
+
+/**
+ * Decides how synchronous proxy methods wait for response. Overrides baseline implementation
+ * in multi-release jar: virtual threads execute calls directly since parking them is cheap
+ *
+ * @author Andrei Varabyeu
+ */
+final class BlockingMode {
+
+    private BlockingMode() {
+    }
+
+    /**
+     * @return TRUE if calling thread is virtual
+     * @see com.github.avarabyeu.restendpoint.http.HttpClientRestEndpoint#executeBlocking
+     */
+    static boolean isDirect() {
+        return Thread.currentThread().isVirtual();
+    }
+}
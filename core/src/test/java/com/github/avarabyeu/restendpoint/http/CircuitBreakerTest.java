@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.smarttested.qa.smartassert.SmartAssert;
+import com.smarttested.qa.smartassert.junit.SoftAssertVerifier;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+
+/**
+ * {@link CircuitBreaker} tests
+ *
+ * @author Andrei Varabyeu
+ */
+public class CircuitBreakerTest {
+
+    @Rule
+    public SoftAssertVerifier verifier = SoftAssertVerifier.instance();
+
+    @Test
+    public void testOpen() {
+        CircuitBreaker breaker = new CircuitBreaker("http://localhost:80", CircuitBreakerConfig.create()
+                .withWindow(10, 4).withFailureRateThreshold(0.5).withOpenDuration(1, TimeUnit.HOURS).build());
+
+        breaker.onResult(breaker.tryAcquire(), true, 1);
+        breaker.onResult(breaker.tryAcquire(), true, 1);
+        breaker.onResult(breaker.tryAcquire(), false, 1);
+        SmartAssert.assertSoft(breaker.getState(), is(CircuitBreaker.State.CLOSED),
+                "Circuit is opened before min number of calls");
+
+        breaker.onResult(breaker.tryAcquire(), false, 1);
+        SmartAssert.assertSoft(breaker.getState(), is(CircuitBreaker.State.OPEN), "Circuit isn't opened");
+        SmartAssert.assertSoft(breaker.tryAcquire(), nullValue(), "Call isn't rejected by open circuit");
+    }
+
+    @Test
+    public void testSlowCalls() {
+        CircuitBreaker breaker = new CircuitBreaker("http://localhost:80", CircuitBreakerConfig.create()
+                .withWindow(4, 4).withSlowCallThreshold(100, TimeUnit.MILLISECONDS, 0.75).build());
+        for (int i = 0; i < 3; i++) {
+            breaker.onResult(breaker.tryAcquire(), false, 200);
+        }
+        breaker.onResult(breaker.tryAcquire(), false, 1);
+        SmartAssert.assertSoft(breaker.getState(), is(CircuitBreaker.State.OPEN), "Circuit isn't opened");
+    }
+
+    @Test
+    public void testHalfOpen() {
+        CircuitBreaker breaker = new CircuitBreaker("http://localhost:80", CircuitBreakerConfig.create()
+                .withWindow(2, 2).withOpenDuration(0, TimeUnit.MILLISECONDS).withHalfOpenProbes(2).build());
+        breaker.onResult(breaker.tryAcquire(), true, 1);
+        breaker.onResult(breaker.tryAcquire(), true, 1);
+        SmartAssert.assertSoft(breaker.getState(), is(CircuitBreaker.State.OPEN), "Circuit isn't opened");
+
+        /* failed probe opens circuit again */
+        CircuitBreaker.State probe = breaker.tryAcquire();
+        SmartAssert.assertSoft(probe, is(CircuitBreaker.State.HALF_OPEN), "Probe isn't allowed");
+        breaker.onResult(probe, true, 1);
+        SmartAssert.assertSoft(breaker.getState(), is(CircuitBreaker.State.OPEN), "Circuit isn't opened again");
+
+        /* number of probes is limited */
+        CircuitBreaker.State first = breaker.tryAcquire();
+        CircuitBreaker.State second = breaker.tryAcquire();
+        SmartAssert.assertSoft(second, notNullValue(), "Probe isn't allowed");
+        SmartAssert.assertSoft(breaker.tryAcquire(), nullValue(), "Number of probes isn't limited");
+
+        breaker.onResult(first, false, 1);
+        SmartAssert.assertSoft(breaker.getState(), is(CircuitBreaker.State.HALF_OPEN), "Circuit is closed too early");
+        breaker.onResult(second, false, 1);
+        SmartAssert.assertSoft(breaker.getState(), is(CircuitBreaker.State.CLOSED), "Circuit isn't closed");
+        SmartAssert.assertSoft(breaker.getFailureRate(), is(0.0), "Window isn't reset");
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
+import com.google.common.io.ByteStreams;
+import com.smarttested.qa.smartassert.SmartAssert;
+import com.smarttested.qa.smartassert.junit.SoftAssertVerifier;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * {@link ContentCoding} tests
+ *
+ * @author Andrei Varabyeu
+ */
+public class ContentCodingTest {
+
+    private static final byte[] CONTENT = Strings.repeat("compressible content ", 500).getBytes(Charsets.UTF_8);
+
+    @Rule
+    public SoftAssertVerifier verifier = SoftAssertVerifier.instance();
+
+    @Test
+    public void testGzip() throws IOException {
+        byte[] compressed = ContentCoding.gzip(CONTENT);
+        SmartAssert.assertSoft(compressed.length < CONTENT.length, is(true), "Content isn't compressed");
+        SmartAssert.assertSoft(ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(compressed))),
+                is(CONTENT), "Incorrect gzip stream");
+        SmartAssert.assertSoft(decode(compressed, "gzip"), is(CONTENT), "Incorrect decoded content");
+    }
+
+    @Test
+    public void testGzipOfJdk() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GZIPOutputStream gzip = new GZIPOutputStream(out);
+        gzip.write(CONTENT);
+        gzip.close();
+        SmartAssert.assertSoft(decode(out.toByteArray(), "x-gzip"), is(CONTENT), "Incorrect decoded content");
+    }
+
+    @Test
+    public void testDeflate() throws IOException {
+        SmartAssert.assertSoft(decode(deflate(false), "deflate"), is(CONTENT), "Incorrect zlib content");
+        SmartAssert.assertSoft(decode(deflate(true), "deflate"), is(CONTENT), "Incorrect raw deflate content");
+    }
+
+    @Test
+    public void testEmptyBody() throws IOException {
+        SmartAssert.assertSoft(decode(new byte[0], "gzip").length, is(0), "Incorrect empty gzip body");
+        SmartAssert.assertSoft(decode(new byte[0], "deflate").length, is(0), "Incorrect empty deflate body");
+    }
+
+    @Test(expected = IOException.class)
+    public void testCorruptedTrailer() throws IOException {
+        byte[] compressed = ContentCoding.gzip(CONTENT);
+        compressed[compressed.length - 5]++;
+        decode(compressed, "gzip");
+    }
+
+    @Test
+    public void testSupported() {
+        SmartAssert.assertSoft(ContentCoding.isSupported("GZIP"), is(true), "Gzip isn't supported");
+        SmartAssert.assertSoft(ContentCoding.isSupported("deflate"), is(true), "Deflate isn't supported");
+        SmartAssert.assertSoft(ContentCoding.isSupported("br"), is(false), "Brotli is supported");
+        SmartAssert.assertSoft(ContentCoding.isSupported("identity"), is(false), "Identity is decoded");
+    }
+
+    private static byte[] decode(byte[] content, String encoding) throws IOException {
+        InputStream decoded = ContentCoding.decode(new ByteArrayInputStream(content), encoding);
+        try {
+            return ByteStreams.toByteArray(decoded);
+        } finally {
+            decoded.close();
+        }
+    }
+
+    private static byte[] deflate(boolean raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, raw);
+        DeflaterOutputStream deflate = new DeflaterOutputStream(out, deflater);
+        deflate.write(CONTENT);
+        deflate.close();
+        deflater.end();
+        return out.toByteArray();
+    }
+}
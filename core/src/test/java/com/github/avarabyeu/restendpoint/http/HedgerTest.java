@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.smarttested.qa.smartassert.SmartAssert;
+import com.smarttested.qa.smartassert.junit.SoftAssertVerifier;
+import io.reactivex.Maybe;
+import io.reactivex.MaybeSource;
+import io.reactivex.functions.Function;
+import io.reactivex.schedulers.Schedulers;
+import org.junit.Rule;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * {@link Hedger} tests
+ *
+ * @author Andrei Varabyeu
+ */
+public class HedgerTest {
+
+    @Rule
+    public SoftAssertVerifier verifier = SoftAssertVerifier.instance();
+
+    @Test
+    public void testPrimaryFailsAfterHedge() {
+        Hedger hedger = new Hedger(HedgePolicy.fixedDelay(20, TimeUnit.MILLISECONDS));
+        /* primary fails fast once hedge is sent, hedge succeeds later */
+        String result = hedger.hedge(copies(failure(100), success("hedge", 300))).blockingGet();
+
+        SmartAssert.assertSoft(result, is("hedge"), "Failure of primary request isn't masked by hedge");
+        SmartAssert.assertSoft(hedger.getStats().getHedges(), is(1L), "Incorrect number of hedges");
+        SmartAssert.assertSoft(hedger.getStats().getHedgeWins(), is(1L), "Incorrect number of hedge wins");
+    }
+
+    @Test
+    public void testHedgeFails() {
+        Hedger hedger = new Hedger(HedgePolicy.fixedDelay(20, TimeUnit.MILLISECONDS));
+        String result = hedger.hedge(copies(success("primary", 200), failure(50))).blockingGet();
+
+        SmartAssert.assertSoft(result, is("primary"), "Failure of hedge isn't masked by primary request");
+        SmartAssert.assertSoft(hedger.getStats().getHedgeWins(), is(0L), "Incorrect number of hedge wins");
+    }
+
+    @Test
+    public void testBothFail() {
+        Hedger hedger = new Hedger(HedgePolicy.fixedDelay(20, TimeUnit.MILLISECONDS));
+        Throwable error = hedger.hedge(copies(failure(100), failure(100))).ignoreElement().blockingGet();
+
+        SmartAssert.assertSoft(error, instanceOf(IOException.class), "Request doesn't fail once both copies fail");
+        SmartAssert.assertSoft(hedger.getStats().getHedges(), is(1L), "Incorrect number of hedges");
+    }
+
+    @Test
+    public void testPrimaryFailsBeforeHedge() {
+        Hedger hedger = new Hedger(HedgePolicy.fixedDelay(200, TimeUnit.MILLISECONDS));
+        Throwable error = hedger.hedge(copies(failure(10), success("hedge", 10))).ignoreElement().blockingGet();
+
+        SmartAssert.assertSoft(error, instanceOf(IOException.class), "Failure before hedge isn't propagated");
+        SmartAssert.assertSoft(hedger.getStats().getHedges(), is(0L), "Hedge is sent after request is failed");
+    }
+
+    /**
+     * @return Request emitting provided copies one by one per subscription
+     */
+    private static Maybe<String> copies(final Maybe<String> primary, final Maybe<String> hedge) {
+        final AtomicInteger subscriptions = new AtomicInteger();
+        return Maybe.defer(new Callable<MaybeSource<String>>() {
+            @Override
+            public MaybeSource<String> call() {
+                return 0 == subscriptions.getAndIncrement() ? primary : hedge;
+            }
+        });
+    }
+
+    private static Maybe<String> success(String response, long delay) {
+        return Maybe.just(response).delay(delay, TimeUnit.MILLISECONDS, Schedulers.computation());
+    }
+
+    private static Maybe<String> failure(long delay) {
+        return Maybe.timer(delay, TimeUnit.MILLISECONDS, Schedulers.computation())
+                .flatMap(new Function<Long, MaybeSource<String>>() {
+                    @Override
+                    public MaybeSource<String> apply(@Nonnull Long tick) {
+                        return Maybe.error(new IOException("Connection reset"));
+                    }
+                });
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.smarttested.qa.smartassert.SmartAssert;
+import com.smarttested.qa.smartassert.junit.SoftAssertVerifier;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * {@link HistogramRequestListener} tests
+ *
+ * @author Andrei Varabyeu
+ */
+public class HistogramRequestListenerTest {
+
+    @Rule
+    public SoftAssertVerifier verifier = SoftAssertVerifier.instance();
+
+    @Test
+    public void testGroupsAreBounded() {
+        HistogramRequestListener listener = new HistogramRequestListener(2);
+        for (int i = 0; i < 10; i++) {
+            listener.onRequestCompleted(metrics("/users/" + i));
+        }
+        SmartAssert.assertSoft(listener.getStats().size(), is(3), "Incorrect number of groups");
+        SmartAssert.assertSoft(listener.getStats().get(HistogramRequestListener.OTHER).getTotal().getCount(), is(8L),
+                "Incorrect number of requests beyond limit");
+    }
+
+    private static RequestMetrics metrics(String urlTemplate) {
+        return new RequestMetrics(HttpMethod.GET, urlTemplate, 200, null, 0, 0, null,
+                1, 1, 1, 1, 4);
+    }
+}
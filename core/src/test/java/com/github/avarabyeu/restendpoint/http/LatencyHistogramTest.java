@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.smarttested.qa.smartassert.SmartAssert;
+import com.smarttested.qa.smartassert.junit.SoftAssertVerifier;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * {@link LatencyHistogram} tests
+ *
+ * @author Andrei Varabyeu
+ */
+public class LatencyHistogramTest {
+
+    @Rule
+    public SoftAssertVerifier verifier = SoftAssertVerifier.instance();
+
+    @Test
+    public void testBuckets() {
+        long previous = -1;
+        for (long value = 0; value < 1000000; value += 7) {
+            int index = LatencyHistogram.index(value);
+            long highest = LatencyHistogram.highestEquivalentValue(index);
+            if (value >= highest + 1 || highest - value > value / 64) {
+                SmartAssert.assertSoft(highest, is(value), "Incorrect bucket of value");
+            }
+            if (index < previous) {
+                SmartAssert.assertSoft(index >= previous, is(true), "Buckets are not monotonic");
+            }
+            previous = index;
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i, TimeUnit.MILLISECONDS);
+        }
+        SmartAssert.assertSoft(histogram.getCount(), is(1000L), "Incorrect count");
+        SmartAssert.assertSoft(histogram.getMax(TimeUnit.MILLISECONDS), is(1000L), "Incorrect max");
+        SmartAssert.assertSoft(histogram.getMean(TimeUnit.MILLISECONDS), is(500.5), "Incorrect mean");
+        SmartAssert.assertSoft(Math.abs(histogram.getPercentile(50, TimeUnit.MILLISECONDS) - 500) <= 8, is(true),
+                "Incorrect median");
+        SmartAssert.assertSoft(Math.abs(histogram.getPercentile(99, TimeUnit.MILLISECONDS) - 990) <= 16, is(true),
+                "Incorrect 99th percentile");
+        SmartAssert.assertSoft(histogram.getPercentile(100, TimeUnit.MILLISECONDS), is(1000L),
+                "Incorrect 100th percentile");
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.github.avarabyeu.restendpoint.http.exception.RestEndpointIOException;
+import com.smarttested.qa.smartassert.SmartAssert;
+import com.smarttested.qa.smartassert.junit.SoftAssertVerifier;
+import io.reactivex.Maybe;
+import io.reactivex.MaybeEmitter;
+import io.reactivex.MaybeOnSubscribe;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.observers.TestObserver;
+import org.junit.Rule;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * {@link RateLimiter} and {@link ConcurrencyLimiter} tests
+ *
+ * @author Andrei Varabyeu
+ */
+public class LimiterTest {
+
+    @Rule
+    public SoftAssertVerifier verifier = SoftAssertVerifier.instance();
+
+    @Test
+    public void testRateLimiter() {
+        RateLimiter limiter = new RateLimiter(1, 2);
+        SmartAssert.assertSoft(limiter.reserve(), is(0L), "Burst permit is delayed");
+        SmartAssert.assertSoft(limiter.reserve(), is(0L), "Burst permit is delayed");
+        SmartAssert.assertSoft(limiter.reserve() > 0, is(true), "Permit exceeding burst isn't delayed");
+    }
+
+    @Test
+    public void testConcurrencyLimiter() {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.aimd(1, 1, 10);
+        List<MaybeEmitter<String>> sent = new ArrayList<MaybeEmitter<String>>();
+
+        TestObserver<String> first = limiter.limit(request(sent)).test();
+        TestObserver<String> second = limiter.limit(request(sent)).test();
+        SmartAssert.assertSoft(sent.size(), is(1), "Limit isn't respected");
+        SmartAssert.assertSoft(limiter.getQueued(), is(1), "Request isn't queued");
+
+        sent.get(0).onSuccess("first");
+        first.assertValue("first");
+        SmartAssert.assertSoft(sent.size(), is(2), "Queued request isn't sent");
+
+        sent.get(1).onError(new RestEndpointIOException("Connection reset"));
+        second.assertError(RestEndpointIOException.class);
+        SmartAssert.assertSoft(limiter.getInFlight(), is(0), "Slot isn't released");
+    }
+
+    @Test
+    public void testConcurrencyLimiterDisposal() {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.aimd(1, 1, 1);
+        List<MaybeEmitter<String>> sent = new ArrayList<MaybeEmitter<String>>();
+
+        Disposable first = limiter.limit(request(sent)).subscribe();
+        Disposable queued = limiter.limit(request(sent)).subscribe();
+        limiter.limit(request(sent)).test();
+
+        queued.dispose();
+        first.dispose();
+        SmartAssert.assertSoft(sent.get(0).isDisposed(), is(true), "Request isn't cancelled");
+        SmartAssert.assertSoft(sent.size(), is(2), "Disposed request is sent");
+        SmartAssert.assertSoft(limiter.getInFlight(), is(1), "Slot isn't released");
+    }
+
+    @Test
+    public void testConcurrencyLimiterQueuedDisposal() {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.aimd(1, 1, 1);
+        List<MaybeEmitter<String>> sent = new ArrayList<MaybeEmitter<String>>();
+
+        limiter.limit(request(sent)).test();
+        Disposable queued = limiter.limit(request(sent)).subscribe();
+        queued.dispose();
+        SmartAssert.assertSoft(limiter.getQueued(), is(0), "Disposed request is still queued");
+
+        sent.get(0).onSuccess("first");
+        SmartAssert.assertSoft(sent.size(), is(1), "Disposed request is sent");
+        SmartAssert.assertSoft(limiter.getInFlight(), is(0), "Slot isn't released");
+    }
+
+    @Test
+    public void testConcurrencyLimiterLatencyTillResponse() {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.aimd(10, 1, 10);
+        for (int i = 0; i < 10; i++) {
+            execute(limiter, 5, 0, true);
+        }
+        /* slow response handling isn't a sign of congestion */
+        for (int i = 0; i < 10; i++) {
+            execute(limiter, 5, 30, true);
+        }
+        SmartAssert.assertSoft(limiter.getLimit(), is(10), "Response handling time is treated as latency");
+
+        /* requests not reporting response are measured till completion */
+        for (int i = 0; i < 10; i++) {
+            execute(limiter, 5, 30, false);
+        }
+        SmartAssert.assertSoft(limiter.getLimit() < 10, is(true), "Limit isn't decreased on latency growth");
+    }
+
+    @Test
+    public void testConcurrencyLimiterLatencySmoothing() {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.aimd(10, 1, 10);
+        for (int i = 0; i < 10; i++) {
+            execute(limiter, 10, 0, true);
+        }
+        execute(limiter, 25, 0, true);
+        SmartAssert.assertSoft(limiter.getLimit(), is(10), "Limit is decreased on single slow response");
+
+        for (int i = 0; i < 10; i++) {
+            execute(limiter, 25, 0, true);
+        }
+        SmartAssert.assertSoft(limiter.getLimit() < 10, is(true), "Limit isn't decreased on latency growth");
+    }
+
+    /**
+     * Executes request on calling thread
+     *
+     * @param limiter      Limiter
+     * @param responseTime Time till response is received, millis
+     * @param handlingTime Time of response handling, millis
+     * @param sampled      Whether request reports the moment response is received
+     */
+    private static void execute(ConcurrencyLimiter limiter, final long responseTime, final long handlingTime,
+            final boolean sampled) {
+        limiter.limit(new ConcurrencyLimiter.SampledRequest<String>() {
+            @Override
+            public Maybe<String> create(@Nullable final ConcurrencyLimiter.Sample sample) {
+                return Maybe.fromCallable(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        Thread.sleep(responseTime);
+                        if (sampled) {
+                            sample.onResponseReceived();
+                        }
+                        Thread.sleep(handlingTime);
+                        return "response";
+                    }
+                });
+            }
+        }).blockingGet();
+    }
+
+    private static Maybe<String> request(final List<MaybeEmitter<String>> sent) {
+        return Maybe.create(new MaybeOnSubscribe<String>() {
+            @Override
+            public void subscribe(MaybeEmitter<String> emitter) {
+                sent.add(emitter);
+            }
+        });
+    }
+}
@@ -18,8 +18,10 @@ package com.github.avarabyeu.restendpoint.http;
 
 import com.google.common.base.Charsets;
 import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
 import com.google.common.net.MediaType;
 import com.smarttested.qa.smartassert.junit.SoftAssertVerifier;
+import io.reactivex.schedulers.Schedulers;
 import org.junit.Rule;
 import org.junit.Test;
 
@@ -63,4 +65,23 @@ public class MultipartRequestTest {
         assertSoft((String) serializedPart.getRequest(), is("this part will be serialized using serializer"), "Incorrect serialized part body ");
     }
 
+    @Test
+    public void testPartHeaderEscaping() throws IOException {
+        StreamingMultipartEntity entity = new StreamingMultipartEntity.Builder("boundary", 16, Schedulers.io())
+                .addPart("quoted \"name\"", "dir\\файл.txt", "text/plain",
+                        ByteSource.wrap("body".getBytes(Charsets.UTF_8)))
+                .build();
+
+        String body = ByteSource.wrap(ByteStreams.toByteArray(entity.getContent())).asCharSource(Charsets.UTF_8).read();
+        assertSoft(body, containsString(
+                "Content-Disposition: form-data; name=\"quoted \\\"name\\\"\"; filename=\"dir\\\\файл.txt\"\r\n"),
+                "Incorrect part header");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPartHeaderLineBreak() {
+        new StreamingMultipartEntity.Builder("boundary", 16, Schedulers.io())
+                .addPart("name", "file.txt\r\nX-Injected: true", "text/plain", ByteSource.empty());
+    }
+
 }
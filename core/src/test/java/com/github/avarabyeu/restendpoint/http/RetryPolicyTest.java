@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.github.avarabyeu.restendpoint.http.exception.RestEndpointException;
+import com.github.avarabyeu.restendpoint.http.exception.RestEndpointIOException;
+import com.github.avarabyeu.restendpoint.http.exception.SerializerException;
+import com.google.common.io.ByteSource;
+import com.smarttested.qa.smartassert.SmartAssert;
+import com.smarttested.qa.smartassert.junit.SoftAssertVerifier;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * {@link RetryPolicy} and {@link RetryBudget} tests
+ *
+ * @author Andrei Varabyeu
+ */
+public class RetryPolicyTest {
+
+    @Rule
+    public SoftAssertVerifier verifier = SoftAssertVerifier.instance();
+
+    @Test
+    public void testShouldRetry() {
+        RetryPolicy policy = RetryPolicy.create().withMaxAttempts(3).build();
+        RestEndpointIOException ioError = new RestEndpointIOException("Connection refused");
+
+        SmartAssert.assertSoft(policy.shouldRetry(HttpMethod.GET, ioError, 1), is(true), "IO error isn't retried");
+        SmartAssert.assertSoft(policy.shouldRetry(HttpMethod.GET, ioError, 3), is(false),
+                "Max attempts isn't respected");
+        SmartAssert.assertSoft(policy.shouldRetry(HttpMethod.POST, ioError, 1), is(false),
+                "Non-idempotent request is retried");
+        SmartAssert.assertSoft(policy.shouldRetry(true, ioError, 1), is(true),
+                "Request marked idempotent isn't retried");
+        SmartAssert.assertSoft(policy.shouldRetry(HttpMethod.GET, httpError(503), 1), is(true),
+                "Retry status isn't retried");
+        SmartAssert.assertSoft(policy.shouldRetry(HttpMethod.GET, httpError(404), 1), is(false),
+                "Client error is retried");
+        SmartAssert.assertSoft(policy.shouldRetry(HttpMethod.GET, new SerializerException("Unable to read"), 1),
+                is(false), "Serialization error is retried");
+
+        RetryPolicy nonIdempotent = RetryPolicy.create().retryNonIdempotent().withRetryStatuses(500).build();
+        SmartAssert.assertSoft(nonIdempotent.shouldRetry(HttpMethod.POST, httpError(500), 1), is(true),
+                "Non-idempotent request isn't retried");
+    }
+
+    @Test
+    public void testBackoff() {
+        RetryPolicy policy = RetryPolicy.create().withBackoff(100, 1000, TimeUnit.MILLISECONDS).build();
+        for (int i = 0; i < 100; i++) {
+            SmartAssert.assertSoft(policy.getBackoff(1) <= 100, is(true), "Incorrect first backoff");
+            SmartAssert.assertSoft(policy.getBackoff(3) <= 400, is(true), "Incorrect third backoff");
+            SmartAssert.assertSoft(policy.getBackoff(30) <= 1000, is(true), "Max backoff isn't respected");
+        }
+    }
+
+    @Test
+    public void testBudget() {
+        RetryBudget budget = new RetryBudget(0.5, 2);
+        SmartAssert.assertSoft(budget.tryWithdraw(), is(true), "Budget should be full initially");
+        SmartAssert.assertSoft(budget.tryWithdraw(), is(true), "Budget should be full initially");
+        SmartAssert.assertSoft(budget.tryWithdraw(), is(false), "Budget isn't exhausted");
+
+        budget.deposit();
+        SmartAssert.assertSoft(budget.tryWithdraw(), is(false), "Half of token allows retry");
+        budget.deposit();
+        SmartAssert.assertSoft(budget.tryWithdraw(), is(true), "Deposited token doesn't allow retry");
+
+        for (int i = 0; i < 10; i++) {
+            budget.deposit();
+        }
+        SmartAssert.assertSoft(budget.getAvailableRetries(), is(2), "Budget capacity isn't respected");
+    }
+
+    private static RestEndpointException httpError(int status) {
+        return new RestEndpointException(URI.create("http://localhost"), HttpMethod.GET, status, "Error",
+                ByteSource.empty());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.github.avarabyeu.restendpoint.http.exception.SerializerException;
+import com.github.avarabyeu.restendpoint.serializer.ByteArraySerializer;
+import com.github.avarabyeu.restendpoint.serializer.Serializer;
+import com.github.avarabyeu.restendpoint.serializer.StringSerializer;
+import com.google.common.collect.ImmutableList;
+import com.google.common.net.MediaType;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Type;
+
+import static com.smarttested.qa.smartassert.SmartAssert.assertHard;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+
+/**
+ * Unit tests for {@link SerializerResolver}
+ *
+ * @author Andrei Varabyeu
+ */
+public class SerializerResolverTest {
+
+    @Test
+    public void testWriterIsCached() throws SerializerException {
+        CountingSerializer string = new CountingSerializer();
+        SerializerResolver resolver = new SerializerResolver(
+                ImmutableList.<Serializer>of(new ByteArraySerializer(), string), 10);
+
+        assertHard(resolver.getWriter("first"), sameInstance((Serializer) string), "Incorrect serializer resolved");
+        assertHard(resolver.getWriter("second"), sameInstance((Serializer) string), "Incorrect serializer resolved");
+        assertHard(string.writeChecks, is(1), "Serializer resolution isn't cached");
+    }
+
+    @Test
+    public void testReaderIsCached() throws SerializerException {
+        CountingSerializer string = new CountingSerializer();
+        SerializerResolver resolver = new SerializerResolver(
+                ImmutableList.<Serializer>of(new ByteArraySerializer(), string), 10);
+
+        assertHard(resolver.getReader(MediaType.PLAIN_TEXT_UTF_8, String.class), sameInstance((Serializer) string),
+                "Incorrect serializer resolved");
+        assertHard(resolver.getReader(MediaType.PLAIN_TEXT_UTF_8, String.class), sameInstance((Serializer) string),
+                "Incorrect serializer resolved");
+        assertHard(resolver.getReader(MediaType.JSON_UTF_8, String.class), sameInstance((Serializer) string),
+                "Incorrect serializer resolved");
+        assertHard(string.readChecks, is(2), "Serializer resolution isn't cached");
+    }
+
+    @Test
+    public void testNegativeResultIsCached() {
+        CountingSerializer string = new CountingSerializer();
+        SerializerResolver resolver = new SerializerResolver(ImmutableList.<Serializer>of(string), 10);
+
+        int failures = 0;
+        for (int i = 0; i < 2; i++) {
+            try {
+                resolver.getReader(MediaType.JSON_UTF_8, Integer.class);
+            } catch (SerializerException e) {
+                failures++;
+            }
+        }
+        assertHard(failures, is(2), "Serializer shouldn't be resolved");
+        assertHard(string.readChecks, is(1), "Serializer resolution isn't cached");
+    }
+
+    private static class CountingSerializer extends StringSerializer {
+
+        private int readChecks;
+        private int writeChecks;
+
+        @Override
+        public boolean canRead(@Nonnull MediaType mimeType, Class<?> resultType) {
+            readChecks++;
+            return super.canRead(mimeType, resultType);
+        }
+
+        @Override
+        public boolean canRead(@Nonnull MediaType mimeType, Type resultType) {
+            readChecks++;
+            return super.canRead(mimeType, resultType);
+        }
+
+        @Override
+        public boolean canWrite(Object o) {
+            writeChecks++;
+            return super.canWrite(o);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http;
+
+import com.github.avarabyeu.restendpoint.http.exception.RestEndpointIOException;
+import com.github.avarabyeu.restendpoint.http.exception.SerializerException;
+import com.github.avarabyeu.restendpoint.serializer.Serializer;
+import com.github.avarabyeu.restendpoint.serializer.StringSerializer;
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.net.HttpHeaders;
+import com.google.common.net.MediaType;
+import com.smarttested.qa.smartassert.SmartAssert;
+import com.smarttested.qa.smartassert.junit.SoftAssertVerifier;
+import io.reactivex.functions.Cancellable;
+import org.junit.Rule;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * Tests of endpoint over custom {@link Transport}
+ *
+ * @author Andrei Varabyeu
+ */
+public class TransportTest {
+
+    private static final String URL = "http://localhost:8080";
+
+    @Rule
+    public SoftAssertVerifier verifier = SoftAssertVerifier.instance();
+
+    @Test
+    public void testRequest() throws IOException {
+        StubTransport transport = new StubTransport();
+        transport.respond(new StubResponse(200, "response"));
+        final AtomicReference<RequestMetrics> metrics = new AtomicReference<RequestMetrics>();
+        RestEndpoint endpoint = RestEndpoints.create().withBaseUrl(URL)
+                .withSerializer(new StringSerializer())
+                .withBasicAuth("user", "password")
+                .withRequestListener(new RequestListener() {
+                    @Override
+                    public void onRequestCompleted(RequestMetrics requestMetrics) {
+                        metrics.set(requestMetrics);
+                    }
+                })
+                .withTransport(transport)
+                .build();
+
+        Response<String> rs = endpoint.post("/resource", "request", String.class).blockingGet();
+        SmartAssert.assertSoft(rs.getBody(), is("response"), "Incorrect response body");
+        SmartAssert.assertSoft(rs.getHeaders().containsKey(HttpHeaders.CONTENT_TYPE), is(true),
+                "Response headers are lost");
+
+        TransportRequest rq = transport.requests.get(0);
+        SmartAssert.assertSoft(rq.getMethod(), is(HttpMethod.POST), "Incorrect method");
+        SmartAssert.assertSoft(rq.getUri().toString(), is(URL + "/resource"), "Incorrect URI");
+        SmartAssert.assertSoft(rq.containsHeader(HttpHeaders.AUTHORIZATION), is(true),
+                "Request isn't authorized");
+        SmartAssert.assertSoft(rq.containsHeader(HttpHeaders.ACCEPT_ENCODING), is(true),
+                "Compressed response isn't accepted");
+        SmartAssert.assertSoft(rq.getBody().getContentType(), is(MediaType.PLAIN_TEXT_UTF_8.toString()),
+                "Incorrect content type");
+        SmartAssert.assertSoft(transport.bodies.get(0), is("request"), "Incorrect request body");
+
+        SmartAssert.assertSoft(metrics.get().getRequestBytes(), is((long) "request".length()),
+                "Incorrect number of request bytes");
+        SmartAssert.assertSoft(metrics.get().getResponseBytes(), is((long) "response".length()),
+                "Incorrect number of response bytes");
+        SmartAssert.assertSoft(metrics.get().getBodyReadTime() >= 0, is(true), "Body read time isn't tracked");
+
+        ((HttpClientRestEndpoint) endpoint).close();
+        SmartAssert.assertSoft(transport.closed, is(true), "Transport isn't closed");
+    }
+
+    @Test
+    public void testRetry() {
+        StubTransport transport = new StubTransport();
+        transport.respond(new StubResponse(503, "unavailable"));
+        transport.fail(new IOException("Connection reset"));
+        transport.respond(new StubResponse(200, "response"));
+        RestEndpoint endpoint = RestEndpoints.create().withBaseUrl(URL)
+                .withSerializer(new StringSerializer())
+                .withRetry(RetryPolicy.create().withBackoff(0, 0, TimeUnit.MILLISECONDS).build())
+                .withTransport(transport)
+                .build();
+
+        SmartAssert.assertSoft(endpoint.getFor("/", String.class).blockingGet(), is("response"),
+                "Request isn't retried");
+        SmartAssert.assertSoft(transport.requests.size(), is(3), "Incorrect number of attempts");
+    }
+
+    @Test
+    public void testFailure() {
+        StubTransport transport = new StubTransport();
+        transport.fail(new IOException("Connection refused"));
+        transport.fail(new TimeoutException());
+        RestEndpoint endpoint = RestEndpoints.create().withBaseUrl(URL)
+                .withSerializer(new StringSerializer())
+                .withTransport(transport)
+                .build();
+
+        SmartAssert.assertSoft(endpoint.getFor("/", String.class).test().errors().get(0),
+                instanceOf(RestEndpointIOException.class), "I/O error isn't wrapped");
+        SmartAssert.assertSoft(endpoint.getFor("/", String.class).test().errors().get(0),
+                instanceOf(TimeoutException.class), "Timeout is wrapped");
+    }
+
+    @Test
+    public void testNonStreamingSerializer() {
+        StubTransport transport = new StubTransport();
+        transport.respond(new StubResponse(200, "response"));
+        RestEndpoint endpoint = RestEndpoints.create().withBaseUrl(URL)
+                .withSerializer(new BytesOnlySerializer())
+                .withTransport(transport)
+                .build();
+
+        SmartAssert.assertSoft(endpoint.postFor("/resource", "request", String.class).blockingGet(), is("response"),
+                "Response isn't deserialized from byte array");
+        SmartAssert.assertSoft(transport.bodies.get(0), is("request"), "Request isn't serialized into byte array");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testTransportWithHttp2() {
+        RestEndpoints.create().withBaseUrl(URL)
+                .withSerializer(new StringSerializer())
+                .withTransport(new StubTransport())
+                .withHttp2()
+                .build();
+    }
+
+    /**
+     * Serializer implementing byte array API only
+     */
+    private static class BytesOnlySerializer implements Serializer {
+
+        private final Serializer delegate = new StringSerializer();
+
+        @Override
+        public <T> byte[] serialize(T t) throws SerializerException {
+            return delegate.serialize(t);
+        }
+
+        @Override
+        public <T> T deserialize(byte[] content, Class<T> clazz) throws SerializerException {
+            return delegate.deserialize(content, clazz);
+        }
+
+        @Override
+        public <T> T deserialize(byte[] content, Type type) throws SerializerException {
+            return delegate.deserialize(content, type);
+        }
+
+        @Override
+        public String getMimeType() {
+            return delegate.getMimeType();
+        }
+
+        @Override
+        public boolean canRead(MediaType mimeType, Class<?> resultType) {
+            return delegate.canRead(mimeType, resultType);
+        }
+
+        @Override
+        public boolean canRead(MediaType mimeType, Type resultType) {
+            return delegate.canRead(mimeType, resultType);
+        }
+
+        @Override
+        public boolean canWrite(Object o) {
+            return delegate.canWrite(o);
+        }
+    }
+
+    /**
+     * Replies with queued responses or failures and records requests
+     */
+    private static class StubTransport implements Transport {
+
+        private final Queue<Object> replies = new ConcurrentLinkedQueue<Object>();
+        private final List<TransportRequest> requests = new CopyOnWriteArrayList<TransportRequest>();
+        private final List<String> bodies = new CopyOnWriteArrayList<String>();
+        private volatile boolean closed;
+
+        void respond(TransportResponse response) {
+            replies.add(response);
+        }
+
+        void fail(Exception e) {
+            replies.add(e);
+        }
+
+        @Override
+        public Cancellable send(TransportRequest request, TransportCallback callback) {
+            requests.add(request);
+            try {
+                ByteArrayOutputStream body = new ByteArrayOutputStream();
+                if (null != request.getBody()) {
+                    request.getBody().writeTo(body);
+                    bodies.add(new String(body.toByteArray(), Charsets.UTF_8));
+                }
+                callback.onRequestSent(body.size());
+            } catch (IOException e) {
+                callback.onFailure(e);
+            }
+
+            Object reply = replies.poll();
+            if (reply instanceof Exception) {
+                callback.onFailure((Exception) reply);
+            } else {
+                callback.onResponse((TransportResponse) reply);
+            }
+            return new Cancellable() {
+                @Override
+                public void cancel() {
+                    //nothing to cancel
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static class StubResponse implements TransportResponse {
+
+        private final int status;
+        private final byte[] body;
+
+        StubResponse(int status, String body) {
+            this.status = status;
+            this.body = body.getBytes(Charsets.UTF_8);
+        }
+
+        @Override
+        public int getStatus() {
+            return status;
+        }
+
+        @Override
+        public String getReason() {
+            return "";
+        }
+
+        @Override
+        public Multimap<String, String> getHeaders() {
+            return ImmutableListMultimap.of(HttpHeaders.CONTENT_TYPE, MediaType.PLAIN_TEXT_UTF_8.toString());
+        }
+
+        @Nullable
+        @Override
+        public String getHeader(String name) {
+            return HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name) ? MediaType.PLAIN_TEXT_UTF_8.toString() : null;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+    }
+}
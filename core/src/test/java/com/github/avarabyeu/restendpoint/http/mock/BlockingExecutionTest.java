@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http.mock;
+
+import com.github.avarabyeu.restendpoint.http.BaseRestEndointTest;
+import com.github.avarabyeu.restendpoint.http.CircuitBreakerConfig;
+import com.github.avarabyeu.restendpoint.http.HttpClientRestEndpoint;
+import com.github.avarabyeu.restendpoint.http.HttpMethod;
+import com.github.avarabyeu.restendpoint.http.Injector;
+import com.github.avarabyeu.restendpoint.http.Response;
+import com.github.avarabyeu.restendpoint.http.RestCommand;
+import com.github.avarabyeu.restendpoint.http.RestEndpoints;
+import com.github.avarabyeu.restendpoint.http.RetryPolicy;
+import com.github.avarabyeu.restendpoint.http.exception.CircuitBreakerOpenException;
+import com.github.avarabyeu.restendpoint.http.exception.RestEndpointException;
+import com.github.avarabyeu.restendpoint.serializer.StringSerializer;
+import com.google.common.net.HttpHeaders;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * Tests of blocking execution of requests bypassing RxJava
+ *
+ * @author Andrei Varabyeu
+ */
+public class BlockingExecutionTest extends BaseRestEndointTest {
+
+    private static final String ECHO_STRING = "Hello world!";
+
+    private static MockWebServer server = Injector.getInstance().getBean(MockWebServer.class);
+
+    private static HttpClientRestEndpoint endpoint;
+
+    @BeforeClass
+    public static void before() throws IOException {
+        server.start();
+        endpoint = (HttpClientRestEndpoint) RestEndpoints.create().withBaseUrl("http://localhost:" + server.getPort())
+                .withSerializer(new StringSerializer())
+                .withBasicAuth("user", "password")
+                .build();
+    }
+
+    @AfterClass
+    public static void after() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void testGet() throws InterruptedException {
+        server.enqueue(prepareResponse(ECHO_STRING).setHeader("X-Test", "value"));
+        Response<String> rs = endpoint.executeBlocking(
+                new RestCommand<Void, String>("/?q=1", HttpMethod.GET, null, String.class));
+        Assert.assertThat(rs.getBody(), is(ECHO_STRING));
+        Assert.assertThat(rs.getStatus(), is(200));
+        Assert.assertThat(rs.getHeaders().get("X-Test").iterator().next(), is("value"));
+
+        RecordedRequest request = server.takeRequest();
+        Assert.assertThat(request.getPath(), is("/?q=1"));
+        Assert.assertThat(request.getHeader(HttpHeaders.AUTHORIZATION), is("Basic dXNlcjpwYXNzd29yZA=="));
+    }
+
+    @Test
+    public void testPost() throws InterruptedException {
+        server.enqueue(prepareResponse(ECHO_STRING));
+        Response<String> rs = endpoint.executeBlocking(
+                new RestCommand<String, String>("/", HttpMethod.POST, "request", String.class));
+        Assert.assertThat(rs.getBody(), is(ECHO_STRING));
+
+        RecordedRequest request = server.takeRequest();
+        Assert.assertThat(request.getMethod(), is("POST"));
+        Assert.assertThat(request.getBody().readUtf8(), is("request"));
+        validateHeader(request);
+    }
+
+    @Test
+    public void testError() throws InterruptedException {
+        server.enqueue(prepareResponse("not found").setResponseCode(404));
+        try {
+            endpoint.executeBlocking(new RestCommand<Void, String>("/", HttpMethod.GET, null, String.class));
+            Assert.fail("Error is expected");
+        } catch (RestEndpointException e) {
+            Assert.assertThat(e.getStatusCode(), is(404));
+        }
+        server.takeRequest();
+    }
+
+    @Test
+    public void testRetry() throws InterruptedException {
+        HttpClientRestEndpoint retrying = (HttpClientRestEndpoint) RestEndpoints.create()
+                .withBaseUrl("http://localhost:" + server.getPort())
+                .withSerializer(new StringSerializer())
+                .withRetry(RetryPolicy.create().withBackoff(0, 0, TimeUnit.MILLISECONDS).build())
+                .build();
+        server.enqueue(prepareResponse("failure").setResponseCode(503));
+        server.enqueue(prepareResponse(ECHO_STRING));
+        Response<String> rs = retrying.executeBlocking(
+                new RestCommand<Void, String>("/", HttpMethod.GET, null, String.class));
+        Assert.assertThat(rs.getBody(), is(ECHO_STRING));
+        server.takeRequest();
+        server.takeRequest();
+    }
+
+    @Test
+    public void testCircuitBreaker() throws InterruptedException {
+        HttpClientRestEndpoint protectedEndpoint = (HttpClientRestEndpoint) RestEndpoints.create()
+                .withBaseUrl("http://localhost:" + server.getPort())
+                .withSerializer(new StringSerializer())
+                .withCircuitBreaker(CircuitBreakerConfig.create().withWindow(2, 2)
+                        .withOpenDuration(1, TimeUnit.HOURS).build())
+                .build();
+        RestCommand<Void, String> command = new RestCommand<Void, String>("/", HttpMethod.GET, null, String.class);
+        for (int i = 0; i < 2; i++) {
+            server.enqueue(prepareResponse("failure").setResponseCode(500));
+            try {
+                protectedEndpoint.executeBlocking(command);
+                Assert.fail("Error is expected");
+            } catch (RestEndpointException e) {
+                server.takeRequest();
+            }
+        }
+
+        int requests = server.getRequestCount();
+        try {
+            protectedEndpoint.executeBlocking(command);
+            Assert.fail("Request isn't rejected");
+        } catch (CircuitBreakerOpenException e) {
+            Assert.assertThat(server.getRequestCount(), is(requests));
+        }
+    }
+
+    @Test
+    public void testFallbackToRx() throws InterruptedException {
+        HttpClientRestEndpoint caching = (HttpClientRestEndpoint) RestEndpoints.create()
+                .withBaseUrl("http://localhost:" + server.getPort())
+                .withSerializer(new StringSerializer())
+                .withResponseCache(1024 * 1024)
+                .build();
+        server.enqueue(prepareResponse(ECHO_STRING).setHeader(HttpHeaders.CACHE_CONTROL, "max-age=60"));
+        RestCommand<Void, String> command = new RestCommand<Void, String>("/cached", HttpMethod.GET, null,
+                String.class);
+        Assert.assertThat(caching.executeBlocking(command).isFromCache(), is(false));
+        Assert.assertThat(caching.executeBlocking(command).isFromCache(), is(true));
+        server.takeRequest();
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http.mock;
+
+import com.github.avarabyeu.restendpoint.http.*;
+import com.github.avarabyeu.restendpoint.serializer.ByteArraySerializer;
+import com.github.avarabyeu.restendpoint.serializer.StringSerializer;
+import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
+import com.google.common.io.ByteSource;
+import com.google.common.io.Files;
+import com.google.common.net.HttpHeaders;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link com.github.avarabyeu.restendpoint.http.RestEndpoint}
+ *
+ * @author Andrei Varabyeu
+ */
+public class RestEndointTest extends BaseRestEndointTest {
+
+    private static RestEndpoint endpoint;
+
+    private static MockWebServer server = Injector.getInstance().getBean(MockWebServer.class);
+
+    @BeforeClass
+    public static void before() throws IOException {
+        server.start();
+        endpoint = RestEndpoints.create().withBaseUrl("http://localhost:" + server.getPort())
+                .withSerializer(new StringSerializer()).withSerializer(new ByteArraySerializer()).build();
+    }
+
+    @AfterClass
+    public static void after() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void testGet() throws IOException, InterruptedException, ExecutionException {
+        server.enqueue(prepareResponse(SERIALIZED_STRING));
+        String to = endpoint.getFor("/", String.class).blockingGet();
+        Assert.assertNotNull("Received Object is null", to);
+        RecordedRequest request = server.takeRequest();
+        Assert.assertEquals("Incorrect Request Line", "GET / HTTP/1.1", request.getRequestLine());
+
+    }
+
+    @Test
+    public void testGetResponse() throws IOException, InterruptedException, ExecutionException {
+        server.enqueue(prepareResponse(SERIALIZED_STRING));
+        Response<String> to = endpoint.get("/", String.class).blockingGet();
+        Assert.assertNotNull("Received Object is null", to);
+        Assert.assertNotNull("Received Body is null", to);
+        RecordedRequest request = server.takeRequest();
+        Assert.assertEquals("Incorrect Request Line", "GET / HTTP/1.1", request.getRequestLine());
+
+    }
+
+    @Test
+    public void testResponseHeaders() throws IOException, InterruptedException, ExecutionException {
+        server.enqueue(prepareResponse(SERIALIZED_STRING).addHeader("X-Test", "first").addHeader("X-Test", "second"));
+        Response<String> to = endpoint.get("/", String.class).blockingGet();
+        server.takeRequest();
+        Assert.assertEquals("Incorrect headers", Arrays.asList("first", "second"), to.getHeaders().get("X-Test"));
+        Assert.assertSame("Headers should be converted once", to.getHeaders(), to.getHeaders());
+    }
+
+    @Test
+    public void testPost() throws IOException, InterruptedException, ExecutionException {
+        server.enqueue(prepareResponse(SERIALIZED_STRING));
+        String to = endpoint.postFor("/", String.format(SERIALIZED_STRING_PATTERN, 100, "test string"), String.class)
+                .blockingGet();
+        Assert.assertNotNull("Received Object is null", to);
+
+        RecordedRequest request = server.takeRequest();
+        Assert.assertEquals("Incorrect Request Line", "POST / HTTP/1.1", request.getRequestLine());
+        validateHeader(request);
+        Assert.assertEquals("Incorrect body", SERIALIZED_STRING, request.getBody().readUtf8());
+
+    }
+
+    @Test
+    public void testPut() throws IOException, InterruptedException, ExecutionException {
+        server.enqueue(prepareResponse(SERIALIZED_STRING));
+        String to = endpoint.putFor("/", String.format(SERIALIZED_STRING_PATTERN, 100, "test string"), String.class).blockingGet();
+        Assert.assertNotNull("Received Object is null", to);
+
+        RecordedRequest request = server.takeRequest();
+        Assert.assertEquals("Incorrect Request Line", "PUT / HTTP/1.1", request.getRequestLine());
+        validateHeader(request);
+        Assert.assertEquals("Incorrect body", SERIALIZED_STRING, request.getBody().readUtf8());
+
+    }
+
+    @Test
+    public void testDelete() throws IOException, InterruptedException, ExecutionException {
+        server.enqueue(prepareResponse(SERIALIZED_STRING));
+        String to = endpoint.deleteFor("/", String.class).blockingGet();
+        Assert.assertNotNull("Received Object is null", to);
+
+        RecordedRequest request = server.takeRequest();
+        Assert.assertEquals("Incorrect Request Line", "DELETE / HTTP/1.1", request.getRequestLine());
+    }
+
+    @Test
+    public void testVoid() throws IOException, InterruptedException, ExecutionException {
+        server.enqueue(prepareResponse(""));
+        endpoint.post("/", String.format(SERIALIZED_STRING_PATTERN, 100, "test string"), Void.class).blockingGet();
+
+
+        RecordedRequest request = server.takeRequest();
+        Assert.assertEquals("Incorrect Request Line", "POST / HTTP/1.1", request.getRequestLine());
+        validateHeader(request);
+        Assert.assertEquals("Incorrect body", SERIALIZED_STRING, request.getBody().readUtf8());
+
+    }
+
+    @Test
+    public void testGetLargeBody() throws IOException, InterruptedException, ExecutionException {
+        /* body is much bigger than response buffer, so it should be streamed */
+        String body = Strings.repeat(SERIALIZED_STRING, 10000);
+        server.enqueue(prepareResponse(body));
+        String to = endpoint.getFor("/", String.class).blockingGet();
+        Assert.assertEquals("Incorrect body", body, to);
+        server.takeRequest();
+    }
+
+    @Test
+    public void testPostLargeBody() throws IOException, InterruptedException, ExecutionException {
+        /* body is much bigger than request buffer, so it should be streamed */
+        String body = Strings.repeat(SERIALIZED_STRING, 10000);
+        server.enqueue(prepareResponse(SERIALIZED_STRING));
+        endpoint.postFor("/", body, String.class).blockingGet();
+
+        RecordedRequest request = server.takeRequest();
+        Assert.assertEquals("Incorrect body", body, request.getBody().readUtf8());
+    }
+
+    @Test
+    public void testPostMultipart() throws IOException, InterruptedException, ExecutionException {
+        String fileBody = Strings.repeat(SERIALIZED_STRING, 10000);
+        File file = File.createTempFile("restendpoint", ".txt");
+        file.deleteOnExit();
+        Files.write(fileBody, file, Charsets.UTF_8);
+
+        MultiPartRequest multiPartRequest = new MultiPartRequest.Builder()
+                .addSerializedPart("serialized", SERIALIZED_STRING)
+                .addBinaryPart("binary", "binary.txt", "text/plain", ByteSource.wrap("binary body".getBytes(Charsets.UTF_8)))
+                .addBinaryPart("file", "file.txt", "text/plain", file)
+                .build();
+
+        server.enqueue(prepareResponse(SERIALIZED_STRING));
+        endpoint.postFor("/", multiPartRequest, String.class).blockingGet();
+
+        RecordedRequest request = server.takeRequest();
+        String contentType = request.getHeader("Content-Type");
+        Assert.assertTrue("Incorrect content type", contentType.startsWith("multipart/form-data; boundary="));
+        String boundary = contentType.substring(contentType.indexOf('=') + 1);
+
+        String body = request.getBody().readUtf8();
+        Assert.assertEquals("Incorrect content length", String.valueOf(request.getBodySize()),
+                request.getHeader("Content-Length"));
+        Assert.assertTrue("Serialized part is not found", body.contains(
+                "Content-Disposition: form-data; name=\"serialized\"\r\nContent-Type: text/plain; charset=utf-8\r\n\r\n"
+                        + SERIALIZED_STRING + "\r\n"));
+        Assert.assertTrue("Binary part is not found", body.contains(
+                "Content-Disposition: form-data; name=\"binary\"; filename=\"binary.txt\"\r\n"
+                        + "Content-Type: text/plain\r\n\r\nbinary body\r\n"));
+        Assert.assertTrue("File part is not found", body.contains(
+                "Content-Disposition: form-data; name=\"file\"; filename=\"file.txt\"\r\n"
+                        + "Content-Type: text/plain\r\n\r\n" + fileBody + "\r\n"));
+        Assert.assertTrue("Closing boundary is not found", body.endsWith("--" + boundary + "--\r\n"));
+    }
+
+    @Test
+    public void testPostMultipartSourceOffReactor() throws InterruptedException {
+        final String partBody = Strings.repeat(SERIALIZED_STRING, 10000);
+        final List<String> readers = new CopyOnWriteArrayList<String>();
+        ByteSource source = new ByteSource() {
+            @Override
+            public InputStream openStream() {
+                readers.add(Thread.currentThread().getName());
+                return new ByteArrayInputStream(partBody.getBytes(Charsets.UTF_8));
+            }
+        };
+        MultiPartRequest multiPartRequest = new MultiPartRequest.Builder()
+                .addBinaryPart("binary", "binary.txt", "text/plain", source)
+                .build();
+
+        server.enqueue(prepareResponse(SERIALIZED_STRING));
+        endpoint.postFor("/", multiPartRequest, String.class).blockingGet();
+
+        String body = server.takeRequest().getBody().readUtf8();
+        Assert.assertTrue("Binary part is not found", body.contains("\r\n\r\n" + partBody + "\r\n"));
+        Assert.assertEquals("Source isn't read once", 1, readers.size());
+        Assert.assertFalse("Source is read by I/O reactor", readers.get(0).startsWith("I/O dispatcher"));
+    }
+
+    @Test
+    public void testCommand() throws IOException, InterruptedException, ExecutionException {
+        server.enqueue(prepareResponse(SERIALIZED_STRING));
+
+        RestCommand<String, String> command = new RestCommand<String, String>("/", HttpMethod.POST, SERIALIZED_STRING, String.class);
+
+        Response<String> to = endpoint.executeRequest(command).blockingGet();
+
+        Assert.assertNotNull("Received Object is null", to.getBody());
+
+        RecordedRequest request = server.takeRequest();
+        Assert.assertEquals("Incorrect Request Line", "POST / HTTP/1.1", request.getRequestLine());
+    }
+
+    @Test
+    public void testExecuteAll() throws IOException {
+        MockWebServer echoServer = new MockWebServer();
+        echoServer.setDispatcher(new PathEchoDispatcher());
+        echoServer.start();
+        try {
+            RestEndpoint echoEndpoint = RestEndpoints.create().withBaseUrl("http://localhost:" + echoServer.getPort())
+                    .withSerializer(new StringSerializer()).build();
+
+            List<RestCommand<String, String>> commands = new ArrayList<RestCommand<String, String>>();
+            List<String> paths = new ArrayList<String>();
+            for (int i = 0; i < 10; i++) {
+                commands.add(new RestCommand<String, String>("/" + i, HttpMethod.GET, null, String.class));
+                paths.add("/" + i);
+            }
+
+            List<Response<String>> ordered = echoEndpoint.executeAll(commands, 4).toList().blockingGet();
+            List<String> orderedBodies = new ArrayList<String>();
+            for (Response<String> rs : ordered) {
+                orderedBodies.add(rs.getBody());
+            }
+            Assert.assertEquals("Incorrect order of responses", paths, orderedBodies);
+
+            List<Response<String>> unordered = echoEndpoint.executeAllUnordered(commands, 4).toList().blockingGet();
+            Set<String> unorderedBodies = new HashSet<String>();
+            for (Response<String> rs : unordered) {
+                unorderedBodies.add(rs.getBody());
+            }
+            Assert.assertEquals("Incorrect responses", new HashSet<String>(paths), unorderedBodies);
+        } finally {
+            echoServer.shutdown();
+        }
+    }
+
+    /**
+     * Responds with request path. Response of the first request is the slowest one
+     */
+    private static class PathEchoDispatcher extends Dispatcher {
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            MockResponse response = new MockResponse().setBody(request.getPath())
+                    .setHeader(HttpHeaders.CONTENT_TYPE, "text/plain");
+            return "/0".equals(request.getPath()) ? response.throttleBody(1, 100, TimeUnit.MILLISECONDS) : response;
+        }
+    }
+
+}
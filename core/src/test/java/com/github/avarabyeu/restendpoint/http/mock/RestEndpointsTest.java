@@ -0,0 +1,626 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.http.mock;
+
+import com.github.avarabyeu.restendpoint.http.BaseRestEndointTest;
+import com.github.avarabyeu.restendpoint.http.CircuitBreaker;
+import com.github.avarabyeu.restendpoint.http.CircuitBreakerConfig;
+import com.github.avarabyeu.restendpoint.http.HedgePolicy;
+import com.github.avarabyeu.restendpoint.http.HedgeStats;
+import com.github.avarabyeu.restendpoint.http.HistogramRequestListener;
+import com.github.avarabyeu.restendpoint.http.HttpMethod;
+import com.github.avarabyeu.restendpoint.http.HttpClientRestEndpoint;
+import com.github.avarabyeu.restendpoint.http.InMemoryResponseCache;
+import com.github.avarabyeu.restendpoint.http.Injector;
+import com.github.avarabyeu.restendpoint.http.RequestMetrics;
+import com.github.avarabyeu.restendpoint.http.Response;
+import com.github.avarabyeu.restendpoint.http.RestCommand;
+import com.github.avarabyeu.restendpoint.http.RestEndpoint;
+import com.github.avarabyeu.restendpoint.http.RestEndpoints;
+import com.github.avarabyeu.restendpoint.http.RetryPolicy;
+import com.github.avarabyeu.restendpoint.http.StatusType;
+import com.github.avarabyeu.restendpoint.http.exception.CircuitBreakerOpenException;
+import com.github.avarabyeu.restendpoint.http.exception.RestEndpointException;
+import com.github.avarabyeu.restendpoint.http.exception.RestEndpointIOException;
+import com.github.avarabyeu.restendpoint.http.exception.SerializerException;
+import com.github.avarabyeu.restendpoint.serializer.ByteArraySerializer;
+import com.github.avarabyeu.restendpoint.serializer.StringSerializer;
+import com.google.common.base.Charsets;
+import com.google.common.io.ByteStreams;
+import com.google.common.net.HttpHeaders;
+import com.google.common.net.MediaType;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+import io.reactivex.Maybe;
+import io.reactivex.functions.Function;
+import io.reactivex.schedulers.Schedulers;
+import okio.Buffer;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.pool.PoolStats;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.startsWith;
+
+/**
+ * {@link com.github.avarabyeu.restendpoint.http.RestEndpoints} tests
+ *
+ * @author avarabyeu
+ */
+public class RestEndpointsTest extends BaseRestEndointTest {
+
+    public static final String HTTP_TEST_URK = "http://localhost:";
+    public static final String ECHO_STRING = "Hello world!";
+    public static final String RESOURCE = "/";
+
+    private static MockWebServer server = Injector.getInstance().getBean(MockWebServer.class);
+
+    @BeforeClass
+    public static void before() throws IOException {
+        server.start();
+    }
+
+    @AfterClass
+    public static void after() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void testDefault() throws RestEndpointIOException, ExecutionException, InterruptedException {
+        RestEndpoint endpoint = RestEndpoints.createDefault(HTTP_TEST_URK + server.getPort());
+        Assert.assertThat(endpoint, notNullValue());
+
+        server.enqueue(prepareResponse(ECHO_STRING).setHeader(CONTENT_TYPE_HEADER, MediaType.PLAIN_TEXT_UTF_8));
+        Maybe<String> helloRS = endpoint.postFor(RESOURCE, ECHO_STRING, String.class);
+        Assert.assertThat(helloRS.blockingGet(), is(ECHO_STRING));
+
+    }
+
+    /**
+     * Put wrong serializer into non-default configuration
+     *
+     * @throws RestEndpointIOException
+     */
+    @Test(expected = SerializerException.class)
+    public void testNoSerializer() throws RestEndpointIOException, ExecutionException, InterruptedException {
+        RestEndpoint endpoint = RestEndpoints.create().withBaseUrl(HTTP_TEST_URK + server.getPort())
+                .withSerializer(new ByteArraySerializer())
+                .build();
+        Assert.assertThat(endpoint, notNullValue());
+
+        server.enqueue(prepareResponse(ECHO_STRING));
+        Maybe<String> helloRS = endpoint.postFor(RESOURCE, ECHO_STRING, String.class);
+        Assert.assertThat(helloRS.blockingGet(), is(ECHO_STRING));
+    }
+
+    @Test
+    public void testBuilderHappy() throws RestEndpointIOException, ExecutionException, InterruptedException {
+        RestEndpoint endpoint = RestEndpoints.create().withBaseUrl(HTTP_TEST_URK + server.getPort())
+                .withSerializer(new StringSerializer())
+                .build();
+        Assert.assertThat(endpoint, notNullValue());
+
+        server.enqueue(prepareResponse(ECHO_STRING));
+        Maybe<String> helloRS = endpoint.postFor(RESOURCE, ECHO_STRING, String.class);
+        Assert.assertThat(helloRS.blockingGet(), is(ECHO_STRING));
+    }
+
+    @Test
+    public void testBuilderBasicAuth() throws RestEndpointIOException, InterruptedException, ExecutionException {
+        RestEndpoint endpoint = RestEndpoints.create().withBaseUrl(HTTP_TEST_URK + server.getPort())
+                .withSerializer(new StringSerializer()).withBasicAuth("login", "password")
+                .build();
+        Assert.assertThat(endpoint, notNullValue());
+
+        server.enqueue(prepareResponse(ECHO_STRING));
+        endpoint.post(RESOURCE, ECHO_STRING, String.class).blockingGet();
+
+        String basicAuthHeader = server.takeRequest().getHeader(HttpHeaders.AUTHORIZATION);
+        Assert.assertThat(basicAuthHeader, is("Basic " + Base64.encodeBase64String("login:password".getBytes())));
+    }
+
+    @Test
+    public void testConnectionPool() throws RestEndpointIOException, InterruptedException {
+        HttpClientRestEndpoint endpoint = (HttpClientRestEndpoint) RestEndpoints.create()
+                .withBaseUrl(HTTP_TEST_URK + server.getPort())
+                .withSerializer(new StringSerializer())
+                .withMaxConnections(50)
+                .withMaxConnectionsPerRoute(10)
+                .withMaxConnectionsPerHost(new HttpHost("localhost", server.getPort()), 20)
+                .withIoThreads(1)
+                .withTcpNoDelay(true)
+                .build();
+
+        server.enqueue(prepareResponse(ECHO_STRING));
+        endpoint.postFor(RESOURCE, ECHO_STRING, String.class).blockingGet();
+        server.takeRequest();
+
+        /* connection is released to the pool by I/O thread once response is completed */
+        PoolStats totalStats = endpoint.getPoolStats().get();
+        for (int i = 0; i < 50 && 0 != totalStats.getLeased(); i++) {
+            Thread.sleep(100);
+            totalStats = endpoint.getPoolStats().get();
+        }
+        Assert.assertThat(totalStats.getMax(), is(50));
+        Assert.assertThat(totalStats.getLeased(), is(0));
+        Assert.assertThat(totalStats.getAvailable(), is(1));
+
+        PoolStats routeStats = endpoint.getRoutePoolStats()
+                .get(new HttpRoute(new HttpHost("localhost", server.getPort())));
+        Assert.assertThat(routeStats.getMax(), is(20));
+        Assert.assertThat(routeStats.getAvailable(), is(1));
+    }
+
+    @Test
+    public void testNoConnectionPoolStats() {
+        HttpClientRestEndpoint endpoint = (HttpClientRestEndpoint) RestEndpoints.create()
+                .withSerializer(new StringSerializer())
+                .withHttpClient(HttpAsyncClients.createDefault())
+                .build();
+        Assert.assertThat(endpoint.getPoolStats().isPresent(), is(false));
+        Assert.assertThat(endpoint.getRoutePoolStats().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testScheduler() throws RestEndpointIOException, InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(@Nonnull Runnable r) {
+                return new Thread(r, "response-handler");
+            }
+        });
+        try {
+            RestEndpoint endpoint = RestEndpoints.create().withBaseUrl(HTTP_TEST_URK + server.getPort())
+                    .withSerializer(new StringSerializer())
+                    .withScheduler(Schedulers.from(executor))
+                    .build();
+
+            server.enqueue(prepareResponse(ECHO_STRING));
+            String thread = endpoint.postFor(RESOURCE, ECHO_STRING, String.class)
+                    .map(new Function<String, String>() {
+                        @Override
+                        public String apply(@Nonnull String s) {
+                            return Thread.currentThread().getName();
+                        }
+                    }).blockingGet();
+            server.takeRequest();
+            Assert.assertThat(thread, is("response-handler"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testBufferedRequestBodies() throws IOException, InterruptedException {
+        /* separate server since requests of other tests might be left in the shared one */
+        MockWebServer lengthServer = new MockWebServer();
+        lengthServer.start();
+        try {
+            RestEndpoint endpoint = RestEndpoints.create().withBaseUrl(HTTP_TEST_URK + lengthServer.getPort())
+                    .withSerializer(new StringSerializer())
+                    .withBufferedRequestBodies()
+                    .build();
+
+            lengthServer.enqueue(prepareResponse(ECHO_STRING));
+            endpoint.postFor(RESOURCE, ECHO_STRING, String.class).blockingGet();
+            RecordedRequest request = lengthServer.takeRequest();
+            Assert.assertThat(request.getHeader(HttpHeaders.CONTENT_LENGTH),
+                    is(String.valueOf(ECHO_STRING.length())));
+            Assert.assertThat(request.getHeader(HttpHeaders.TRANSFER_ENCODING), nullValue());
+            Assert.assertThat(request.getBody().readUtf8(), is(ECHO_STRING));
+        } finally {
+            lengthServer.shutdown();
+        }
+    }
+
+    @Test
+    public void testDefaultDecodeExecutor() throws IOException, InterruptedException {
+        RestEndpoint endpoint = RestEndpoints.create().withBaseUrl(HTTP_TEST_URK + server.getPort())
+                .withSerializer(new StringSerializer())
+                .build();
+        try {
+            server.enqueue(prepareResponse(ECHO_STRING));
+            String thread = endpoint.postFor(RESOURCE, ECHO_STRING, String.class)
+                    .map(new Function<String, String>() {
+                        @Override
+                        public String apply(@Nonnull String s) {
+                            return Thread.currentThread().getName();
+                        }
+                    }).blockingGet();
+            server.takeRequest();
+            Assert.assertThat(thread, startsWith("rest-endpoint-decode-"));
+        } finally {
+            ((Closeable) endpoint).close();
+        }
+    }
+
+    @Test
+    public void testDecodeExecutor() throws RestEndpointIOException, InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(2, new ThreadFactory() {
+            @Override
+            public Thread newThread(@Nonnull Runnable r) {
+                return new Thread(r, "decoder");
+            }
+        });
+        try {
+            RestEndpoint endpoint = RestEndpoints.create().withBaseUrl(HTTP_TEST_URK + server.getPort())
+                    .withSerializer(new StringSerializer())
+                    .withScheduler(Schedulers.io())
+                    .withDecodeExecutor(executor)
+                    .build();
+
+            server.enqueue(prepareResponse(ECHO_STRING));
+            String thread = endpoint.postFor(RESOURCE, ECHO_STRING, String.class)
+                    .map(new Function<String, String>() {
+                        @Override
+                        public String apply(@Nonnull String s) {
+                            return Thread.currentThread().getName();
+                        }
+                    }).blockingGet();
+            server.takeRequest();
+            Assert.assertThat(thread, is("decoder"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDecodeExecutorRejects() throws RestEndpointIOException, InterruptedException {
+        final CountDownLatch busy = new CountDownLatch(1);
+        ExecutorService executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>());
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                Uninterruptibles.awaitUninterruptibly(busy);
+            }
+        });
+        try {
+            RestEndpoint endpoint = RestEndpoints.create().withBaseUrl(HTTP_TEST_URK + server.getPort())
+                    .withSerializer(new StringSerializer())
+                    .withDecodeExecutor(executor)
+                    .build();
+
+            server.enqueue(prepareResponse(ECHO_STRING));
+            try {
+                endpoint.getFor(RESOURCE, String.class).timeout(5, TimeUnit.SECONDS).blockingGet();
+                Assert.fail("Rejected response handling is expected");
+            } catch (RejectedExecutionException e) {
+                /* expected */
+            }
+            server.takeRequest();
+        } finally {
+            busy.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testResponseCache() throws RestEndpointIOException, InterruptedException {
+        RestEndpoint endpoint = RestEndpoints.create().withBaseUrl(HTTP_TEST_URK + server.getPort())
+                .withSerializer(new StringSerializer())
+                .withResponseCache(1024 * 1024)
+                .build();
+
+        server.enqueue(prepareResponse(ECHO_STRING).setHeader(HttpHeaders.CACHE_CONTROL, "max-age=60"));
+        int requestCount = server.getRequestCount();
+
+        Response<String> first = endpoint.get(RESOURCE, String.class).blockingGet();
+        Response<String> second = endpoint.get(RESOURCE, String.class).blockingGet();
+        server.takeRequest();
+
+        Assert.assertThat(server.getRequestCount() - requestCount, is(1));
+        Assert.assertThat(first.isFromCache(), is(false));
+        Assert.assertThat(second.isFromCache(), is(true));
+        Assert.assertThat(second.getBody(), is(ECHO_STRING));
+        Assert.assertThat(second.getHeaders().get(HttpHeaders.CACHE_CONTROL).iterator().next(), is("max-age=60"));
+    }
+
+    @Test
+    public void testResponseCacheBodySizeLimit() throws RestEndpointIOException, InterruptedException {
+        RestEndpoint endpoint = RestEndpoints.create().withBaseUrl(HTTP_TEST_URK + server.getPort())
+                .withSerializer(new StringSerializer())
+                .withResponseCache(new InMemoryResponseCache(1024 * 1024), ECHO_STRING.length() - 1)
+                .build();
+
+        /* both known in advance and streamed bodies exceeding limit aren't cached */
+        server.enqueue(prepareResponse(ECHO_STRING).setHeader(HttpHeaders.CACHE_CONTROL, "max-age=60"));
+        server.enqueue(prepareResponse("").setChunkedBody(ECHO_STRING, 4)
+                .setHeader(HttpHeaders.CACHE_CONTROL, "max-age=60"));
+        server.enqueue(prepareResponse(ECHO_STRING).setHeader(HttpHeaders.CACHE_CONTROL, "max-age=60"));
+        int requestCount = server.getRequestCount();
+
+        Response<String> first = endpoint.get(RESOURCE, String.class).blockingGet();
+        Response<String> second = endpoint.get(RESOURCE, String.class).blockingGet();
+        Response<String> third = endpoint.get(RESOURCE, String.class).blockingGet();
+        server.takeRequest();
+        server.takeRequest();
+        server.takeRequest();
+
+        Assert.assertThat(server.getRequestCount() - requestCount, is(3));
+        Assert.assertThat(first.getBody(), is(ECHO_STRING));
+        Assert.assertThat(second.getBody(), is(ECHO_STRING));
+        Assert.assertThat(third.getBody(), is(ECHO_STRING));
+        Assert.assertThat(third.isFromCache(), is(false));
+    }
+
+    @Test
+    public void testResponseCacheRevalidation() throws RestEndpointIOException, InterruptedException {
+        RestEndpoint endpoint = RestEndpoints.create().withBaseUrl(HTTP_TEST_URK + server.getPort())
+                .withSerializer(new StringSerializer())
+                .withResponseCache(1024 * 1024)
+                .build();
+
+        server.enqueue(prepareResponse(ECHO_STRING).setHeader(HttpHeaders.ETAG, "\"v1\"")
+                .setHeader(HttpHeaders.CACHE_CONTROL, "no-cache"));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader(HttpHeaders.ETAG, "\"v1\""));
+
+        Response<String> first = endpoint.get(RESOURCE, String.class).blockingGet();
+        Response<String> second = endpoint.get(RESOURCE, String.class).blockingGet();
+        server.takeRequest();
+        RecordedRequest conditional = server.takeRequest();
+
+        Assert.assertThat(conditional.getHeader(HttpHeaders.IF_NONE_MATCH), is("\"v1\""));
+        Assert.assertThat(first.isFromCache(), is(false));
+        Assert.assertThat(second.isFromCache(), is(true));
+        Assert.assertThat(second.getStatus(), is(200));
+        Assert.assertThat(second.getBody(), is(ECHO_STRING));
+    }
+
+    @Test
+    public void testGetCoalescing() throws RestEndpointIOException, InterruptedException {
+        RestEndpoint endpoint = RestEndpoints.create().withBaseUrl(HTTP_TEST_URK + server.getPort())
+                .withSerializer(new StringSerializer())
+                .withGetCoalescing()
+                .build();
+
+        /* slow response keeps the first request in flight */
+        server.enqueue(prepareResponse(ECHO_STRING).throttleBody(4, 200, TimeUnit.MILLISECONDS));
+        server.enqueue(prepareResponse(ECHO_STRING));
+        int requestCount = server.getRequestCount();
+
+        Maybe<String> first = endpoint.getFor(RESOURCE, String.class);
+        Maybe<String> second = endpoint.getFor(RESOURCE, String.class);
+        first.subscribe();
+        second.subscribe();
+
+        Assert.assertThat(first.blockingGet(), is(ECHO_STRING));
+        Assert.assertThat(second.blockingGet(), is(ECHO_STRING));
+        server.takeRequest();
+        Assert.assertThat(server.getRequestCount() - requestCount, is(1));
+
+        /* completed request isn't shared anymore */
+        Assert.assertThat(endpoint.getFor(RESOURCE, String.class).blockingGet(), is(ECHO_STRING));
+        server.takeRequest();
+        Assert.assertThat(server.getRequestCount() - requestCount, is(2));
+    }
+
+    @Test
+    public void testRetry() throws RestEndpointIOException, InterruptedException {
+        RestEndpoint endpoint = RestEndpoints.create().withBaseUrl(HTTP_TEST_URK + server.getPort())
+                .withSerializer(new StringSerializer())
+                .withRetry(RetryPolicy.create().withBackoff(1, 10, TimeUnit.MILLISECONDS).build())
+                .build();
+
+        server.enqueue(prepareResponse("").setResponseCode(503));
+        server.enqueue(prepareResponse("").setResponseCode(503));
+        server.enqueue(prepareResponse(ECHO_STRING));
+        Assert.assertThat(endpoint.getFor(RESOURCE, String.class).blockingGet(), is(ECHO_STRING));
+        for (int i = 0; i < 3; i++) {
+            Assert.assertThat(server.takeRequest().getMethod(), is("GET"));
+        }
+
+        /* non-idempotent requests are not retried */
+        server.enqueue(prepareResponse("").setResponseCode(503));
+        try {
+            endpoint.postFor(RESOURCE, ECHO_STRING, String.class).blockingGet();
+            Assert.fail("Error is expected");
+        } catch (RestEndpointException e) {
+            Assert.assertThat(e.getStatusCode(), is(503));
+        }
+        Assert.assertThat(server.takeRequest().getMethod(), is("POST"));
+    }
+
+    @Test
+    public void testHedging() throws RestEndpointIOException, InterruptedException {
+        HttpClientRestEndpoint endpoint = (HttpClientRestEndpoint) RestEndpoints.create()
+                .withBaseUrl(HTTP_TEST_URK + server.getPort())
+                .withSerializer(new StringSerializer())
+                .withHedging(HedgePolicy.fixedDelay(50, TimeUnit.MILLISECONDS))
+                .build();
+
+        /* primary request is too slow, so hedged one wins */
+        server.enqueue(prepareResponse(ECHO_STRING).throttleBody(1, 1, TimeUnit.SECONDS));
+        server.enqueue(prepareResponse(ECHO_STRING));
+
+        long started = System.currentTimeMillis();
+        Assert.assertThat(endpoint.getFor(RESOURCE, String.class).blockingGet(), is(ECHO_STRING));
+        Assert.assertThat(System.currentTimeMillis() - started < 5000, is(true));
+        server.takeRequest();
+        server.takeRequest();
+
+        HedgeStats stats = endpoint.getHedgeStats().get();
+        Assert.assertThat(stats.getRequests(), is(1L));
+        Assert.assertThat(stats.getHedges(), is(1L));
+        Assert.assertThat(stats.getHedgeWins(), is(1L));
+    }
+
+    @Test
+    public void testHedgingIdempotentPost() throws RestEndpointIOException, InterruptedException {
+        HttpClientRestEndpoint endpoint = (HttpClientRestEndpoint) RestEndpoints.create()
+                .withBaseUrl(HTTP_TEST_URK + server.getPort())
+                .withSerializer(new StringSerializer())
+                .withHedging(HedgePolicy.fixedDelay(50, TimeUnit.MILLISECONDS))
+                .build();
+
+        server.enqueue(prepareResponse(ECHO_STRING).throttleBody(1, 1, TimeUnit.SECONDS));
+        server.enqueue(prepareResponse(ECHO_STRING));
+
+        RestCommand<String, String> search = new RestCommand<String, String>(RESOURCE, HttpMethod.POST, ECHO_STRING,
+                String.class, false, null, null, RestCommand.DEFAULT_COMPRESSION_THRESHOLD, true);
+        Assert.assertThat(endpoint.executeRequest(search).blockingGet().getBody(), is(ECHO_STRING));
+
+        /* both copies carry the same body */
+        Assert.assertThat(server.takeRequest().getBody().readUtf8(), is(ECHO_STRING));
+        Assert.assertThat(server.takeRequest().getBody().readUtf8(), is(ECHO_STRING));
+        Assert.assertThat(endpoint.getHedgeStats().get().getHedges(), is(1L));
+    }
+
+    @Test
+    public void testCircuitBreaker() throws RestEndpointIOException, InterruptedException {
+        HttpClientRestEndpoint endpoint = (HttpClientRestEndpoint) RestEndpoints.create()
+                .withBaseUrl(HTTP_TEST_URK + server.getPort())
+                .withSerializer(new StringSerializer())
+                .withCircuitBreaker(CircuitBreakerConfig.create().withWindow(2, 2).build())
+                .build();
+
+        server.enqueue(prepareResponse("").setResponseCode(500));
+        server.enqueue(prepareResponse("").setResponseCode(500));
+        int requestCount = server.getRequestCount();
+        for (int i = 0; i < 3; i++) {
+            try {
+                endpoint.getFor(RESOURCE, String.class).blockingGet();
+                Assert.fail("Error is expected");
+            } catch (RestEndpointIOException e) {
+                Assert.assertThat(e, instanceOf(CircuitBreakerOpenException.class));
+                Assert.assertThat(i, is(2));
+            } catch (RestEndpointException e) {
+                Assert.assertThat(e.getStatusCode(), is(500));
+            }
+        }
+        server.takeRequest();
+        server.takeRequest();
+
+        /* rejected request isn't sent */
+        Assert.assertThat(server.getRequestCount() - requestCount, is(2));
+        Assert.assertThat(endpoint.getCircuitBreakers().get("http://localhost:" + server.getPort()).getState(),
+                is(CircuitBreaker.State.OPEN));
+    }
+
+    @Test
+    public void testRequestListener() throws RestEndpointIOException, InterruptedException {
+        HistogramRequestListener listener = new HistogramRequestListener();
+        RestEndpoint endpoint = RestEndpoints.create().withBaseUrl(HTTP_TEST_URK + server.getPort())
+                .withSerializer(new StringSerializer())
+                .withRequestListener(listener)
+                .build();
+
+        server.enqueue(prepareResponse(ECHO_STRING));
+        server.enqueue(prepareResponse("").setResponseCode(500));
+        endpoint.executeRequest(new RestCommand<String, String>("/users/1", HttpMethod.POST, ECHO_STRING,
+                String.class, false, null, "/users/{id}")).blockingGet();
+        try {
+            endpoint.getFor(RESOURCE, String.class).blockingGet();
+            Assert.fail("Error is expected");
+        } catch (RestEndpointException e) {
+            Assert.assertThat(e.getStatusCode(), is(500));
+        }
+        server.takeRequest();
+        server.takeRequest();
+
+        HistogramRequestListener.RequestStats post = listener.getStats().get("POST /users/{id}");
+        Assert.assertThat(post.getTotal().getCount(), is(1L));
+        Assert.assertThat(post.getConnection().getCount(), is(1L));
+        Assert.assertThat(post.getDeserialization().getCount(), is(1L));
+        Assert.assertThat(post.getResponses(StatusType.SUCCESSFUL), is(1L));
+        Assert.assertThat(post.getRequestBytes(), is((long) ECHO_STRING.length()));
+        Assert.assertThat(post.getResponseBytes(), is((long) ECHO_STRING.length()));
+
+        HistogramRequestListener.RequestStats get = listener.getStats().get("GET " + RequestMetrics.NO_TEMPLATE);
+        Assert.assertThat(get.getResponses(StatusType.SERVER_ERROR), is(1L));
+        Assert.assertThat(get.getErrors(), is(1L));
+        Assert.assertThat(get.getDeserialization().getCount(), is(0L));
+    }
+
+    @Test
+    public void testResponseDecompression() throws RestEndpointIOException, InterruptedException, IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        GZIPOutputStream gzip = new GZIPOutputStream(compressed);
+        gzip.write(ECHO_STRING.getBytes(Charsets.UTF_8));
+        gzip.close();
+
+        RestEndpoint endpoint = RestEndpoints.create().withBaseUrl(HTTP_TEST_URK + server.getPort())
+                .withSerializer(new StringSerializer())
+                .build();
+        server.enqueue(prepareResponse("").setBody(new Buffer().write(compressed.toByteArray()))
+                .setHeader(HttpHeaders.CONTENT_ENCODING, "gzip"));
+
+        Response<String> rs = endpoint.get(RESOURCE, String.class).blockingGet();
+        Assert.assertThat(rs.getBody(), is(ECHO_STRING));
+        Assert.assertThat(rs.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING), is(false));
+        Assert.assertThat(server.takeRequest().getHeader(HttpHeaders.ACCEPT_ENCODING), is("gzip, deflate"));
+    }
+
+    @Test
+    public void testRequestCompression() throws RestEndpointIOException, InterruptedException, IOException {
+        RestEndpoint endpoint = RestEndpoints.create().withBaseUrl(HTTP_TEST_URK + server.getPort())
+                .withSerializer(new StringSerializer())
+                .withRequestCompression(ECHO_STRING.length())
+                .build();
+        server.enqueue(prepareResponse(ECHO_STRING));
+        server.enqueue(prepareResponse(ECHO_STRING));
+
+        endpoint.post(RESOURCE, ECHO_STRING, String.class).blockingGet();
+        RecordedRequest compressed = server.takeRequest();
+        Assert.assertThat(compressed.getHeader(HttpHeaders.CONTENT_ENCODING), is("gzip"));
+        Assert.assertThat(new String(ByteStreams.toByteArray(new GZIPInputStream(compressed.getBody().inputStream())),
+                Charsets.UTF_8), is(ECHO_STRING));
+
+        endpoint.post(RESOURCE, "small", String.class).blockingGet();
+        RecordedRequest plain = server.takeRequest();
+        Assert.assertThat(plain.getHeader(HttpHeaders.CONTENT_ENCODING), is((String) null));
+        Assert.assertThat(plain.getBody().readUtf8(), is("small"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testHttp2WithHttpClient() {
+        RestEndpoints.create().withBaseUrl(HTTP_TEST_URK + server.getPort())
+                .withSerializer(new StringSerializer())
+                .withHttpClient(HttpAsyncClients.createDefault())
+                .withHttp2()
+                .build();
+    }
+
+    //TODO add test for SSL
+}
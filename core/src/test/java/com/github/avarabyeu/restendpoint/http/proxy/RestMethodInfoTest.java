@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.avarabyeu.restendpoint.http.proxy;
+
+import com.github.avarabyeu.restendpoint.http.HttpMethod;
+import com.github.avarabyeu.restendpoint.http.RateLimiter;
+import com.github.avarabyeu.restendpoint.http.Response;
+import com.github.avarabyeu.restendpoint.http.RestCommand;
+import com.github.avarabyeu.restendpoint.http.RestEndpoint;
+import com.github.avarabyeu.restendpoint.http.annotation.Body;
+import com.github.avarabyeu.restendpoint.http.annotation.Idempotent;
+import com.github.avarabyeu.restendpoint.http.annotation.RateLimit;
+import com.github.avarabyeu.restendpoint.http.annotation.Request;
+import com.github.avarabyeu.restendpoint.http.annotation.Retry;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.reflect.Invokable;
+import com.smarttested.qa.smartassert.SmartAssert;
+import com.smarttested.qa.smartassert.junit.SoftAssertVerifier;
+import io.reactivex.Maybe;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Set;
+
+import static com.github.avarabyeu.restendpoint.http.proxy.RestMethodInfo.isAsynchronous;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+
+/**
+ * @author Andrei Varabyeu
+ */
+public class RestMethodInfoTest {
+
+    @Rule
+    public SoftAssertVerifier verifier = SoftAssertVerifier.instance();
+
+    @Test
+    public void testSynchronousParser() throws NoSuchMethodException {
+        Invokable<?, Object> testSyncronousMethod = Invokable.from(this.getClass().getDeclaredMethod("testSyncronousMethod"));
+        Invokable<?, Object> testAsyncronousMethod = Invokable.from(this.getClass().getDeclaredMethod("testAsyncronousMethod"));
+        Invokable<?, Object> testVoidMethod = Invokable.from(this.getClass().getDeclaredMethod("testVoidMethod"));
+        System.out.println(isAsynchronous(testSyncronousMethod));
+
+        SmartAssert.assertSoft(isAsynchronous(testSyncronousMethod), is(false), "Incorrect synchronous method detection");
+        SmartAssert.assertSoft(isAsynchronous(testAsyncronousMethod), is(true), "Incorrect asynchronous method detection");
+        SmartAssert.assertSoft(isAsynchronous(testVoidMethod), is(false), "Incorrect void method detection");
+    }
+
+    @Test
+    public void testRetryPolicy() throws NoSuchMethodException {
+        RestCommand<Object, Object> retried = new RestMethodInfo(getClass().getDeclaredMethod("testRetriedMethod"))
+                .createRestCommand();
+        RestCommand<Object, Object> notRetried = new RestMethodInfo(getClass().getDeclaredMethod("testVoidMethod"))
+                .createRestCommand();
+
+        SmartAssert.assertSoft(retried.getRetryPolicy().getMaxAttempts(), is(5), "Incorrect max attempts");
+        SmartAssert.assertSoft(retried.getRetryPolicy().getRetryStatuses(), is((Set<Integer>) ImmutableSet.of(500)),
+                "Incorrect retry statuses");
+        SmartAssert.assertSoft(notRetried.getRetryPolicy(), nullValue(), "Unexpected retry policy");
+    }
+
+    @Test
+    public void testRateLimit() throws NoSuchMethodException {
+        RestMethodInfo limited = new RestMethodInfo(getClass().getDeclaredMethod("testRateLimitedMethod"));
+        RestMethodInfo notLimited = new RestMethodInfo(getClass().getDeclaredMethod("testVoidMethod"));
+
+        SmartAssert.assertSoft(limited.getRateLimiter().reserve(), is(0L), "Burst permit is delayed");
+        SmartAssert.assertSoft(limited.getRateLimiter().reserve(), is(0L), "Burst permit is delayed");
+        SmartAssert.assertSoft(limited.getRateLimiter().reserve() > 0, is(true), "Rate isn't limited");
+        SmartAssert.assertSoft(notLimited.getRateLimiter(), nullValue(), "Unexpected rate limiter");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRateLimitPerCall() {
+        RestEndpoint endpoint = Mockito.mock(RestEndpoint.class);
+        Mockito.when(endpoint.executeRequest(Mockito.any(RestCommand.class)))
+                .thenReturn(Maybe.<Response<Object>>empty());
+        RateLimiter limiter = new RateLimiter(0.5, 2);
+        RestMethodInfo info = RestMethodInfo.builder(getClass(), "get", HttpMethod.GET, "/")
+                .returning(String.class, true, true)
+                .rateLimiter(limiter)
+                .build();
+
+        Maybe<?> call = (Maybe<?>) RestEndpointInvocationHandler.execute(endpoint, info, new Object[0]);
+        call.test();
+        call.test();
+        SmartAssert.assertSoft(limiter.reserve(), is(0L), "Each subscription takes permit");
+    }
+
+    @Test
+    public void testIdempotent() throws NoSuchMethodException {
+        RestCommand<Object, Object> marked = new RestMethodInfo(
+                getClass().getDeclaredMethod("testIdempotentMethod", String.class)).createRestCommand("query");
+        RestCommand<Object, Object> get = new RestMethodInfo(getClass().getDeclaredMethod("testVoidMethod"))
+                .createRestCommand();
+        RestCommand<Object, Object> built = RestMethodInfo.builder(getClass(), "post", HttpMethod.POST, "/")
+                .returning(String.class, true, true)
+                .bodyArgument(0, false)
+                .build()
+                .createRestCommand("query");
+
+        SmartAssert.assertSoft(marked.isIdempotent(), is(true), "@Idempotent POST isn't idempotent");
+        SmartAssert.assertSoft(get.isIdempotent(), is(true), "GET isn't idempotent");
+        SmartAssert.assertSoft(built.isIdempotent(), is(false), "Unmarked POST is idempotent");
+    }
+
+    @Test
+    public void testBuilder() {
+        RestCommand<Object, Object> command = RestMethodInfo.builder(getClass(), "get", HttpMethod.GET, "/{a}/{b}")
+                .returning(String.class, false, true)
+                .pathArgument(1, "a")
+                .pathArgument(0, "b")
+                .build()
+                .createRestCommand("2", "1");
+
+        SmartAssert.assertSoft(command.getUri(), is("/1/2"), "Incorrect URL");
+        SmartAssert.assertSoft(command.getUrlTemplate(), is("/{a}/{b}"), "Incorrect URL template");
+        SmartAssert.assertSoft(command.getRetryPolicy(), nullValue(), "Unexpected retry policy");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testBuilderMissingPathArgument() {
+        RestMethodInfo.builder(getClass(), "get", HttpMethod.GET, "/{a}/{b}")
+                .returning(String.class, false, true)
+                .pathArgument(0, "a")
+                .build();
+    }
+
+    @Test
+    public void testClientName() {
+        SmartAssert.assertSoft(AbstractRestClient.getClientName("com.example.Api"), is("com.example.ApiRestClient"),
+                "Incorrect client name");
+        SmartAssert.assertSoft(AbstractRestClient.getClientName("com.example.Outer$Api"),
+                is("com.example.Outer_ApiRestClient"), "Incorrect nested client name");
+        SmartAssert.assertSoft(AbstractRestClient.getClientName("Api"), is("ApiRestClient"),
+                "Incorrect client name in default package");
+    }
+
+    @SuppressWarnings("UnusedDeclaration")
+    @Request(method = HttpMethod.GET, url = "/")
+    @RateLimit(permitsPerSecond = 0.5, burst = 2)
+    Maybe<String> testRateLimitedMethod() {
+        return null;
+    }
+
+    @SuppressWarnings("UnusedDeclaration")
+    @Request(method = HttpMethod.GET, url = "/")
+    @Retry(maxAttempts = 5, statuses = 500)
+    Maybe<String> testRetriedMethod() {
+        return null;
+    }
+
+    @SuppressWarnings("UnusedDeclaration")
+    @Request(method = HttpMethod.POST, url = "/search")
+    @Idempotent
+    Maybe<String> testIdempotentMethod(@Body String query) {
+        return null;
+    }
+
+    @SuppressWarnings("UnusedDeclaration")
+    String testSyncronousMethod() {
+        return null;
+    }
+
+    @SuppressWarnings("UnusedDeclaration")
+    Maybe<String> testAsyncronousMethod() {
+        return null;
+    }
+
+    @SuppressWarnings("UnusedDeclaration")
+    @Request(method = HttpMethod.GET, url = "/")
+    void testVoidMethod() {
+
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.avarabyeu.restendpoint.http.uri;
+
+import com.google.common.collect.ImmutableMap;
+import com.smarttested.qa.smartassert.junit.SoftAssertVerifier;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static com.smarttested.qa.smartassert.SmartAssert.assertSoft;
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * @author Andrei Varabyeu
+ */
+public class UrlTemplateTest {
+
+    @Rule
+    public SoftAssertVerifier verifier = SoftAssertVerifier.instance();
+
+    @Test
+    public void testPathVariables() {
+        UrlTemplate template = UrlTemplate.create("/{first}/path/{second}/{first}");
+        assertSoft(template.getPathVariables(), is(Arrays.asList("first", "second", "first")),
+                "Incorrect path variables");
+        assertSoft(template.hasPathVariable("second"), is(true), "Path variable isn't found");
+        assertSoft(template.hasPathVariable("third"), is(false), "Unknown path variable is found");
+    }
+
+    @Test
+    public void testExpand() {
+        UrlTemplate template = UrlTemplate.create("/{first}/path/{second}/{first}");
+        String url = template.expand(new Object[] { "a b", 10 }, new int[] { 0, 1, 0 });
+        assertSoft(url, is("/a%20b/path/10/a%20b"), "Incorrect URL");
+
+        assertSoft(UrlTemplate.create("/path").expand(new Object[0], new int[0]), is("/path"),
+                "Incorrect URL without path variables");
+    }
+
+    @Test
+    public void testMerger() {
+        UrlTemplate template = UrlTemplate.create("/{first}/path/{second}/");
+        String url = template.merge()
+                .expand(ImmutableMap.<String, Object>of("first", "a b", "second", 10))
+                .appendQueryParameters(ImmutableMap.of("name", "value"))
+                .build();
+        assertSoft(url, is("/a%20b/path/10?name=value"), "Incorrect URL");
+
+        String expanded = template.merge(new Object[] { "a b", 10 }, new int[] { 0, 1 })
+                .appendQueryParameters(ImmutableMap.of("name", "value"))
+                .build();
+        assertSoft(expanded, is(url), "Incorrect URL");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnknownVariable() {
+        UrlTemplate.create("/{first}").merge().expand(ImmutableMap.<String, Object>of("second", "value"));
+    }
+}
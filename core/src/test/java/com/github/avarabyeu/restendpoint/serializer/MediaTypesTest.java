@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.avarabyeu.restendpoint.serializer;
+
+import com.google.common.net.MediaType;
+import com.smarttested.qa.smartassert.SmartAssert;
+import org.hamcrest.CoreMatchers;
+import org.junit.Test;
+
+/**
+ * @author Andrei Varabyeu
+ */
+public class MediaTypesTest {
+
+    @Test
+    public void testParse() {
+        MediaType parsed = MediaTypes.parse("application/json; charset=utf-8");
+        SmartAssert.assertSoft(parsed, CoreMatchers.is(MediaType.JSON_UTF_8), "Incorrect media type");
+        SmartAssert.assertSoft(MediaTypes.parse("application/json; charset=utf-8"), CoreMatchers.sameInstance(parsed),
+                "Media type isn't cached");
+        SmartAssert.validateSoftAsserts();
+    }
+
+    @Test
+    public void testWithoutParameters() {
+        MediaType base = MediaTypes.withoutParameters(MediaType.JSON_UTF_8);
+        SmartAssert.assertSoft(base, CoreMatchers.is(MediaTypes.JSON), "Incorrect media type");
+        SmartAssert.assertSoft(MediaTypes.withoutParameters(MediaType.JSON_UTF_8), CoreMatchers.sameInstance(base),
+                "Media type isn't cached");
+        SmartAssert.assertSoft(MediaTypes.withoutParameters(base), CoreMatchers.sameInstance(base),
+                "Media type without parameters should be returned as is");
+        SmartAssert.validateSoftAsserts();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseIncorrect() {
+        MediaTypes.parse("incorrect media type");
+    }
+}
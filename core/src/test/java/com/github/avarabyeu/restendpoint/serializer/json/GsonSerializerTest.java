@@ -23,6 +23,9 @@ import com.smarttested.qa.smartassert.SmartAssert;
 import org.hamcrest.CoreMatchers;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
 /**
  * @author Andrey Vorobyov
  */
@@ -42,6 +45,16 @@ public class GsonSerializerTest {
                         .is(TEST_STRING.getBytes()), "Incorrect serialization result");
     }
 
+    @Test
+    public void testSerializeStream() throws SerializerException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        serializer.serialize(TEST_BEAN, result);
+        SmartAssert.assertHard(
+                result.toByteArray(),
+                CoreMatchers
+                        .is(TEST_STRING.getBytes()), "Incorrect serialization result");
+    }
+
     @Test
     public void testDeserialize() throws SerializerException {
         DemoBean result = serializer.deserialize(TEST_STRING.getBytes(), DemoBean.class);
@@ -51,6 +64,15 @@ public class GsonSerializerTest {
                         .is(TEST_BEAN), "Incorrect deserialization result");
     }
 
+    @Test
+    public void testDeserializeStream() throws SerializerException {
+        DemoBean result = serializer.deserialize(new ByteArrayInputStream(TEST_STRING.getBytes()), DemoBean.class);
+        SmartAssert.assertHard(
+                result,
+                CoreMatchers
+                        .is(TEST_BEAN), "Incorrect deserialization result");
+    }
+
     @Test
     public void testContentType() {
         SmartAssert.assertSoft(serializer.canRead(MediaType.OCTET_STREAM, Object.class),
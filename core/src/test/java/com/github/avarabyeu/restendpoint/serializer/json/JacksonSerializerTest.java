@@ -7,6 +7,12 @@ import com.smarttested.qa.smartassert.SmartAssert;
 import org.hamcrest.CoreMatchers;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * @author Andrei Varabyeu
  */
@@ -27,6 +33,16 @@ public class JacksonSerializerTest {
                         .is(TEST_STRING.getBytes()), "Incorrect serialization result");
     }
 
+    @Test
+    public void testSerializeStream() throws SerializerException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        serializer.serialize(TEST_BEAN, result);
+        SmartAssert.assertHard(
+                result.toByteArray(),
+                CoreMatchers
+                        .is(TEST_STRING.getBytes()), "Incorrect serialization result");
+    }
+
     @Test
     public void testDeserialize() throws SerializerException {
         DemoBean result = serializer.deserialize(TEST_STRING.getBytes(), DemoBean.class);
@@ -36,6 +52,31 @@ public class JacksonSerializerTest {
                         .is(TEST_BEAN), "Incorrect deserialization result");
     }
 
+    @Test
+    public void testDeserializeStream() throws SerializerException {
+        DemoBean result = serializer.deserialize(new ByteArrayInputStream(TEST_STRING.getBytes()), DemoBean.class);
+        SmartAssert.assertHard(
+                result,
+                CoreMatchers
+                        .is(TEST_BEAN), "Incorrect deserialization result");
+    }
+
+    @Test
+    public void testDeserializeStreamNotClosed() throws SerializerException {
+        final AtomicBoolean closed = new AtomicBoolean();
+        InputStream content = new ByteArrayInputStream((TEST_STRING + "\n\n").getBytes()) {
+            @Override
+            public void close() throws IOException {
+                closed.set(true);
+                super.close();
+            }
+        };
+        DemoBean result = serializer.deserialize(content, DemoBean.class);
+        SmartAssert.assertSoft(result, CoreMatchers.is(TEST_BEAN), "Incorrect deserialization result");
+        SmartAssert.assertSoft(closed.get(), CoreMatchers.is(false), "Stream owned by caller is closed by serializer");
+        SmartAssert.validateSoftAsserts();
+    }
+
     @Test
     public void testContentType() {
         SmartAssert.assertSoft(serializer.canRead(MediaType.OCTET_STREAM, byte[].class),
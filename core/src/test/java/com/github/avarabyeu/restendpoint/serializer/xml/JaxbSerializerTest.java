@@ -8,6 +8,9 @@ import org.hamcrest.CoreMatchers;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
 /**
  * @author Andrei Varabyeu
  */
@@ -37,6 +40,16 @@ public class JaxbSerializerTest {
         serializer.serialize("this is not a JAXB bean");
     }
 
+    @Test
+    public void testSerializeStream() throws SerializerException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        serializer.serialize(TEST_BEAN, result);
+        SmartAssert.assertHard(
+                new String(result.toByteArray()),
+                CoreMatchers
+                        .is(TEST_STRING), "Incorrect serialization result");
+    }
+
     @Test
     public void testDeserialize() throws SerializerException {
         DemoBean result = serializer.deserialize(TEST_STRING.getBytes(), DemoBean.class);
@@ -51,6 +64,15 @@ public class JaxbSerializerTest {
         serializer.deserialize("this is not xml".getBytes(), DemoBean.class);
     }
 
+    @Test
+    public void testDeserializeStream() throws SerializerException {
+        DemoBean result = serializer.deserialize(new ByteArrayInputStream(TEST_STRING.getBytes()), DemoBean.class);
+        SmartAssert.assertHard(
+                result,
+                CoreMatchers
+                        .is(TEST_BEAN), "Incorrect deserialization result");
+    }
+
     @Test
     public void testContentType() {
         SmartAssert.assertSoft(serializer.canRead(MediaType.OCTET_STREAM, Object.class),
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http.mock;
+
+import com.github.avarabyeu.restendpoint.http.BaseRestEndointTest;
+import com.github.avarabyeu.restendpoint.http.HttpMethod;
+import com.github.avarabyeu.restendpoint.http.Injector;
+import com.github.avarabyeu.restendpoint.http.MultiPartRequest;
+import com.github.avarabyeu.restendpoint.http.Response;
+import com.github.avarabyeu.restendpoint.http.RestCommand;
+import com.github.avarabyeu.restendpoint.http.RestEndpoint;
+import com.github.avarabyeu.restendpoint.http.RestEndpoints;
+import com.github.avarabyeu.restendpoint.http.RetryPolicy;
+import com.github.avarabyeu.restendpoint.http.exception.RestEndpointException;
+import com.github.avarabyeu.restendpoint.serializer.StringSerializer;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteSource;
+import com.google.common.net.HttpHeaders;
+import com.google.common.net.MediaType;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * HTTP/2 transport tests. Mock server doesn't speak HTTP/2, so protocol falls back to HTTP/1.1
+ *
+ * @author Andrei Varabyeu
+ */
+public class Http2RestEndpointTest extends BaseRestEndointTest {
+
+    private static final String ECHO_STRING = "Hello world!";
+
+    private static MockWebServer server = Injector.getInstance().getBean(MockWebServer.class);
+
+    private static RestEndpoint endpoint;
+
+    @BeforeClass
+    public static void before() throws IOException {
+        server.start();
+        endpoint = RestEndpoints.create().withBaseUrl("http://localhost:" + server.getPort())
+                .withSerializer(new StringSerializer())
+                .withBasicAuth("user", "password")
+                .withHttp2()
+                .build();
+    }
+
+    @AfterClass
+    public static void after() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void testGet() throws InterruptedException {
+        server.enqueue(prepareResponse(ECHO_STRING).setHeader("X-Test", "value"));
+        Response<String> rs = endpoint.get("/", ImmutableMap.of("q", "1"), String.class).blockingGet();
+        Assert.assertThat(rs.getBody(), is(ECHO_STRING));
+        Assert.assertThat(rs.getStatus(), is(200));
+        Assert.assertThat(rs.getHeaders().get("x-test").iterator().next(), is("value"));
+
+        RecordedRequest request = server.takeRequest();
+        Assert.assertThat(request.getPath(), is("/?q=1"));
+        Assert.assertThat(request.getHeader(HttpHeaders.AUTHORIZATION), is("Basic dXNlcjpwYXNzd29yZA=="));
+    }
+
+    @Test
+    public void testPost() throws InterruptedException {
+        server.enqueue(prepareResponse(ECHO_STRING));
+        Assert.assertThat(endpoint.postFor("/", "request", String.class).blockingGet(), is(ECHO_STRING));
+
+        RecordedRequest request = server.takeRequest();
+        Assert.assertThat(request.getMethod(), is("POST"));
+        Assert.assertThat(request.getBody().readUtf8(), is("request"));
+        validateHeader(request);
+    }
+
+    @Test
+    public void testMultipart() throws InterruptedException {
+        server.enqueue(prepareResponse(ECHO_STRING));
+        MultiPartRequest rq = new MultiPartRequest.Builder()
+                .addSerializedPart("part", "serialized")
+                .addBinaryPart("file", "file.txt", MediaType.PLAIN_TEXT_UTF_8.toString(),
+                        ByteSource.wrap("binary".getBytes(StandardCharsets.UTF_8)))
+                .build();
+        Assert.assertThat(endpoint.postFor("/", rq, String.class).blockingGet(), is(ECHO_STRING));
+
+        String body = server.takeRequest().getBody().readUtf8();
+        Assert.assertThat(body, containsString("serialized"));
+        Assert.assertThat(body, containsString("binary"));
+    }
+
+    @Test
+    public void testDecompression() throws IOException, InterruptedException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(ECHO_STRING.getBytes(StandardCharsets.UTF_8));
+        }
+        server.enqueue(prepareResponse("").setBody(new Buffer().write(compressed.toByteArray()))
+                .setHeader(HttpHeaders.CONTENT_ENCODING, "gzip"));
+
+        Response<String> rs = endpoint.get("/", String.class).blockingGet();
+        Assert.assertThat(rs.getBody(), is(ECHO_STRING));
+        Assert.assertThat(rs.getHeaders().containsKey("content-encoding"), is(false));
+        Assert.assertThat(server.takeRequest().getHeader(HttpHeaders.ACCEPT_ENCODING), is("gzip, deflate"));
+    }
+
+    @Test
+    public void testError() throws IOException, InterruptedException {
+        server.enqueue(prepareResponse("failure").setResponseCode(503));
+        try {
+            endpoint.getFor("/", String.class).blockingGet();
+            Assert.fail("Error is expected");
+        } catch (RestEndpointException e) {
+            Assert.assertThat(e.getStatusCode(), is(503));
+            Assert.assertThat(e.getContent().asCharSource(StandardCharsets.UTF_8).read(), is("failure"));
+        }
+        server.takeRequest();
+    }
+
+    @Test
+    public void testExecuteAll() throws InterruptedException {
+        int count = 50;
+        for (int i = 0; i < count; i++) {
+            server.enqueue(prepareResponse(ECHO_STRING));
+        }
+        List<RestCommand<String, String>> commands = Collections.nCopies(count,
+                new RestCommand<String, String>("/", HttpMethod.GET, null, String.class));
+        List<Response<String>> responses = endpoint.executeAll(commands, 10).toList().blockingGet();
+        Assert.assertThat(responses.size(), is(count));
+        for (int i = 0; i < count; i++) {
+            server.takeRequest();
+        }
+    }
+
+    @Test
+    public void testRetry() throws InterruptedException {
+        RestEndpoint retrying = RestEndpoints.create().withBaseUrl("http://localhost:" + server.getPort())
+                .withSerializer(new StringSerializer())
+                .withRetry(RetryPolicy.create().withBackoff(0, 0, TimeUnit.MILLISECONDS).build())
+                .withHttp2()
+                .build();
+        server.enqueue(prepareResponse("failure").setResponseCode(503));
+        server.enqueue(prepareResponse(ECHO_STRING));
+        Assert.assertThat(retrying.getFor("/", String.class).blockingGet(), is(ECHO_STRING));
+        server.takeRequest();
+        server.takeRequest();
+    }
+
+    @Test
+    public void testInterface() throws InterruptedException {
+        RestInterface restInterface = RestEndpoints.forInterface(RestInterface.class, endpoint);
+        server.enqueue(prepareResponse(ECHO_STRING));
+        Assert.assertThat(restInterface.put("request"), is(ECHO_STRING));
+        Assert.assertThat(server.takeRequest().getMethod(), is("PUT"));
+    }
+}
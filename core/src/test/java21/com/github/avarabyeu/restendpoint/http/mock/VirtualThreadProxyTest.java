@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http.mock;
+
+import com.github.avarabyeu.restendpoint.http.BaseRestEndointTest;
+import com.github.avarabyeu.restendpoint.http.RestEndpoint;
+import com.github.avarabyeu.restendpoint.http.RestEndpoints;
+import com.github.avarabyeu.restendpoint.http.exception.RestEndpointException;
+import com.github.avarabyeu.restendpoint.http.exception.SerializerException;
+import com.github.avarabyeu.restendpoint.serializer.StringSerializer;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * Synchronous proxy calls of virtual threads are executed directly on calling thread
+ *
+ * @author Andrei Varabyeu
+ */
+public class VirtualThreadProxyTest extends BaseRestEndointTest {
+
+    private static final String ECHO_STRING = "Hello world!";
+
+    /* Guice of test injector cannot generate classes on Java 21, so server is created directly */
+    private static MockWebServer server = new MockWebServer();
+
+    /**
+     * Whether the last response is deserialized on virtual thread
+     */
+    private static final AtomicBoolean DESERIALIZED_ON_VIRTUAL = new AtomicBoolean();
+
+    private static RestInterface restInterface;
+
+    @BeforeClass
+    public static void before() throws IOException {
+        server.start();
+        RestEndpoint endpoint = RestEndpoints.create().withBaseUrl("http://localhost:" + server.getPort())
+                .withSerializer(new StringSerializer() {
+                    @Override
+                    public <T> T deserialize(InputStream content, Type type) throws SerializerException {
+                        DESERIALIZED_ON_VIRTUAL.set(Thread.currentThread().isVirtual());
+                        return super.deserialize(content, type);
+                    }
+                })
+                .build();
+        restInterface = RestEndpoints.forInterface(RestInterface.class, endpoint);
+    }
+
+    @AfterClass
+    public static void after() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void testVirtualThread() throws Exception {
+        server.enqueue(prepareResponse(ECHO_STRING));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Assert.assertThat(executor.submit(() -> restInterface.get()).get(), is(ECHO_STRING));
+        }
+        Assert.assertThat("Response isn't handled on calling thread", DESERIALIZED_ON_VIRTUAL.get(), is(true));
+        server.takeRequest();
+    }
+
+    @Test
+    public void testPlatformThread() throws InterruptedException {
+        server.enqueue(prepareResponse(ECHO_STRING));
+        Assert.assertThat(restInterface.get(), is(ECHO_STRING));
+        Assert.assertThat("Response is handled on calling thread", DESERIALIZED_ON_VIRTUAL.get(), is(false));
+        server.takeRequest();
+    }
+
+    @Test
+    public void testError() throws InterruptedException {
+        server.enqueue(prepareResponse("failure").setResponseCode(404));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> restInterface.get()).get();
+            Assert.fail("Error is expected");
+        } catch (ExecutionException e) {
+            Assert.assertThat(e.getCause(), instanceOf(RestEndpointException.class));
+            Assert.assertThat(((RestEndpointException) e.getCause()).getStatusCode(), is(404));
+        }
+        server.takeRequest();
+    }
+
+    @Test
+    public void testConcurrentCalls() throws Exception {
+        int count = 200;
+        for (int i = 0; i < count; i++) {
+            server.enqueue(prepareResponse(ECHO_STRING));
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                results.add(executor.submit(() -> restInterface.get()));
+            }
+            for (Future<String> result : results) {
+                Assert.assertThat(result.get(), is(ECHO_STRING));
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            server.takeRequest();
+        }
+    }
+}
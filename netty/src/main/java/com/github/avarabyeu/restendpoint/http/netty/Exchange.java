@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http.netty;
+
+import com.github.avarabyeu.restendpoint.http.TransportCallback;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.ScheduledFuture;
+import io.reactivex.functions.Cancellable;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Single request-response exchange over pooled channel. Everything except {@link #cancel()} happens on
+ * channel's event loop. Channel is returned to the pool exactly once: as soon as the last chunk of body is
+ * received if connection may be reused, closed otherwise
+ *
+ * @author Andrei Varabyeu
+ */
+final class Exchange implements Cancellable {
+
+    /**
+     * Exchange in progress on channel
+     */
+    static final AttributeKey<Exchange> EXCHANGE = AttributeKey.valueOf("restendpoint.exchange");
+
+    /**
+     * Number of queued body bytes channel stops reading at
+     */
+    private static final int HIGH_WATERMARK = 64 * 1024;
+
+    private final FullHttpRequest request;
+    private final TransportCallback callback;
+    private final ChannelPool pool;
+    private final long responseTimeout;
+
+    private final AtomicBoolean released = new AtomicBoolean();
+    private volatile boolean cancelled;
+    private volatile Channel channel;
+
+    /* confined to event loop */
+    private ScheduledFuture<?> timeout;
+    private ResponseBodyStream body;
+    private boolean keepAlive;
+
+    /**
+     * @param request         Request to be sent. Released once written
+     * @param callback        Callback to be notified
+     * @param pool            Pool of channels to the request's route
+     * @param responseTimeout Max time in milliseconds between request is sent and response head is received.
+     *                        Zero means no timeout
+     */
+    Exchange(FullHttpRequest request, TransportCallback callback, ChannelPool pool, long responseTimeout) {
+        this.request = request;
+        this.callback = callback;
+        this.pool = pool;
+        this.responseTimeout = responseTimeout;
+    }
+
+    /**
+     * Acquires channel and writes request
+     */
+    void start() {
+        if (cancelled) {
+            request.release();
+            return;
+        }
+        pool.acquire().addListener(new FutureListener<Channel>() {
+            @Override
+            public void operationComplete(Future<Channel> future) {
+                if (!future.isSuccess()) {
+                    request.release();
+                    if (!cancelled) {
+                        callback.onFailure(toException(future.cause()));
+                    }
+                    return;
+                }
+                final Channel acquired = future.getNow();
+                channel = acquired;
+                if (acquired.eventLoop().inEventLoop()) {
+                    write(acquired);
+                } else {
+                    acquired.eventLoop().execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            write(acquired);
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    private void write(final Channel ch) {
+        if (cancelled) {
+            request.release();
+            finish(true);
+            return;
+        }
+        ch.attr(EXCHANGE).set(this);
+        final long bytes = request.content().readableBytes();
+        ch.writeAndFlush(request).addListener(new ChannelFutureListener() {
+            @Override
+            public void operationComplete(ChannelFuture future) {
+                if (future.isSuccess()) {
+                    callback.onRequestSent(bytes);
+                } else {
+                    fail(future.cause());
+                }
+            }
+        });
+        if (responseTimeout > 0) {
+            timeout = ch.eventLoop().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    fail(new TimeoutException());
+                }
+            }, responseTimeout, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Response head is received. Called by event loop
+     *
+     * @param response Response head
+     */
+    void onResponse(HttpResponse response) {
+        if (released.get()) {
+            return;
+        }
+        cancelTimeout();
+        keepAlive = HttpUtil.isKeepAlive(response);
+        body = new ResponseBodyStream(channel, HIGH_WATERMARK, new Runnable() {
+            @Override
+            public void run() {
+                cancel();
+            }
+        });
+        callback.onResponse(new NettyResponse(response, body));
+    }
+
+    /**
+     * Chunk of response body is received. Called by event loop
+     *
+     * @param content Chunk of body
+     */
+    void onContent(HttpContent content) {
+        if (released.get() || null == body) {
+            return;
+        }
+        body.offer(content.content().retain());
+        if (content instanceof LastHttpContent) {
+            body.complete();
+            finish(keepAlive);
+        }
+    }
+
+    /**
+     * Exchange failed. Failure before response head is reported to callback, failure afterwards truncates body
+     *
+     * @param cause Cause of failure
+     */
+    void fail(Throwable cause) {
+        if (released.get()) {
+            return;
+        }
+        cancelTimeout();
+        if (null == body) {
+            if (!cancelled) {
+                callback.onFailure(toException(cause));
+            }
+        } else {
+            body.fail(cause);
+        }
+        finish(false);
+    }
+
+    /**
+     * Cancels exchange discarding its channel. Callback is not notified
+     */
+    @Override
+    public void cancel() {
+        cancelled = true;
+        Channel ch = channel;
+        if (null != ch) {
+            ch.eventLoop().execute(new Runnable() {
+                @Override
+                public void run() {
+                    abort();
+                }
+            });
+        }
+    }
+
+    /**
+     * Discards exchange in progress. Called by event loop
+     */
+    private void abort() {
+        if (released.get()) {
+            return;
+        }
+        cancelTimeout();
+        if (null != body) {
+            body.fail(new IOException("Exchange is aborted"));
+        }
+        finish(false);
+    }
+
+    private void finish(boolean reuse) {
+        if (!released.compareAndSet(false, true)) {
+            return;
+        }
+        Channel ch = channel;
+        ch.attr(EXCHANGE).set(null);
+        if (!reuse) {
+            ch.close();
+        }
+        pool.release(ch);
+    }
+
+    private void cancelTimeout() {
+        if (null != timeout) {
+            timeout.cancel(false);
+            timeout = null;
+        }
+    }
+
+    private static Exception toException(Throwable cause) {
+        return cause instanceof Exception ? (Exception) cause : new IOException(cause);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http.netty;
+
+import com.github.avarabyeu.restendpoint.http.TransportResponse;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.Multimap;
+import io.netty.handler.codec.http.HttpResponse;
+
+import javax.annotation.Nullable;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Exposes Netty response head and body stream as {@link TransportResponse}
+ *
+ * @author Andrei Varabyeu
+ */
+final class NettyResponse implements TransportResponse {
+
+    private final HttpResponse response;
+    private final InputStream body;
+
+    NettyResponse(HttpResponse response, InputStream body) {
+        this.response = response;
+        this.body = body;
+    }
+
+    @Override
+    public int getStatus() {
+        return response.status().code();
+    }
+
+    @Override
+    public String getReason() {
+        return response.status().reasonPhrase();
+    }
+
+    @Override
+    public Multimap<String, String> getHeaders() {
+        ImmutableListMultimap.Builder<String, String> headers = ImmutableListMultimap.builder();
+        for (Map.Entry<String, String> header : response.headers()) {
+            headers.put(header.getKey(), header.getValue());
+        }
+        return headers.build();
+    }
+
+    @Nullable
+    @Override
+    public String getHeader(String name) {
+        return response.headers().get(name);
+    }
+
+    @Override
+    public InputStream getBody() {
+        return body;
+    }
+}
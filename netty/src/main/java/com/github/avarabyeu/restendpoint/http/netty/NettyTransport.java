@@ -0,0 +1,409 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http.netty;
+
+import com.github.avarabyeu.restendpoint.http.RequestBody;
+import com.github.avarabyeu.restendpoint.http.Transport;
+import com.github.avarabyeu.restendpoint.http.TransportCallback;
+import com.github.avarabyeu.restendpoint.http.TransportRequest;
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.pool.AbstractChannelPoolHandler;
+import io.netty.channel.pool.AbstractChannelPoolMap;
+import io.netty.channel.pool.ChannelPoolMap;
+import io.netty.channel.pool.FixedChannelPool;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Cancellable;
+import io.reactivex.schedulers.Schedulers;
+
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Transport} based on Netty. Requests are sent over pooled keep-alive channels, bodies are
+ * written into and read from pooled direct buffers, so payloads are not copied through heap arrays on the
+ * way to and from the socket. Native epoll transport is used if available, NIO otherwise.
+ * <p>
+ * Plugs into endpoint as any other transport:
+ * <pre>
+ * RestEndpoints.create()
+ *         .withBaseUrl("http://localhost")
+ *         .withTransport(NettyTransport.create().build())
+ *         ...
+ * </pre>
+ *
+ * @author Andrei Varabyeu
+ */
+public class NettyTransport implements Transport {
+
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 20;
+    public static final long DEFAULT_CONNECT_TIMEOUT = 10000;
+
+    private static final Cancellable NOOP = new Cancellable() {
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private final EventLoopGroup eventLoopGroup;
+    private final ChannelPoolMap<Route, FixedChannelPool> pools;
+    private final ByteBufAllocator allocator;
+    private final Scheduler scheduler;
+    private final long responseTimeout;
+
+    private NettyTransport(Builder builder) {
+        boolean epoll = builder.nativeTransport && Epoll.isAvailable();
+        DefaultThreadFactory threadFactory = new DefaultThreadFactory("rest-endpoint-netty", true);
+        this.eventLoopGroup = epoll ?
+                new EpollEventLoopGroup(builder.ioThreads, threadFactory) :
+                new NioEventLoopGroup(builder.ioThreads, threadFactory);
+        this.allocator = PooledByteBufAllocator.DEFAULT;
+        this.scheduler = builder.scheduler;
+        this.responseTimeout = builder.responseTimeout;
+
+        final Bootstrap bootstrap = new Bootstrap()
+                .group(eventLoopGroup)
+                .channel(epoll ? EpollSocketChannel.class : NioSocketChannel.class)
+                .option(ChannelOption.ALLOCATOR, allocator)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, builder.connectTimeout);
+        final SslContext sslContext = null == builder.sslContext ? defaultSslContext() : builder.sslContext;
+        final int maxConnections = builder.maxConnectionsPerRoute;
+
+        this.pools = new AbstractChannelPoolMap<Route, FixedChannelPool>() {
+            @Override
+            protected FixedChannelPool newPool(final Route route) {
+                return new FixedChannelPool(bootstrap.clone().remoteAddress(route.host, route.port),
+                        new AbstractChannelPoolHandler() {
+                            @Override
+                            public void channelCreated(Channel ch) {
+                                if (route.secure) {
+                                    ch.pipeline().addLast(sslContext.newHandler(ch.alloc(), route.host, route.port));
+                                }
+                                ch.pipeline().addLast(new HttpClientCodec(), ResponseHandler.INSTANCE);
+                            }
+                        }, maxConnections);
+            }
+        };
+    }
+
+    public static Builder create() {
+        return new Builder();
+    }
+
+    private static SslContext defaultSslContext() {
+        try {
+            return SslContextBuilder.forClient().build();
+        } catch (SSLException e) {
+            throw new IllegalStateException("Unable to initialize SSL context", e);
+        }
+    }
+
+    @Override
+    public Cancellable send(TransportRequest request, TransportCallback callback) {
+        final Route route;
+        try {
+            route = Route.of(request.getUri());
+        } catch (IllegalArgumentException e) {
+            callback.onFailure(e);
+            return NOOP;
+        }
+        if (null == request.getBody()) {
+            Exchange exchange = new Exchange(toHttpRequest(request, Unpooled.EMPTY_BUFFER, route), callback,
+                    pools.get(route), responseTimeout);
+            exchange.start();
+            return exchange;
+        }
+        return sendWithBody(request, callback, route);
+    }
+
+    /**
+     * Body may be serialized in blocking manner, so it's written on the scheduler rather than on calling thread
+     * or event loop. Cancellation might happen while body is being written, so exchange is started only if
+     * request hasn't been cancelled yet
+     */
+    private Cancellable sendWithBody(final TransportRequest request, final TransportCallback callback,
+            final Route route) {
+        final PendingExchange pending = new PendingExchange();
+        final Disposable writing = scheduler.scheduleDirect(new Runnable() {
+            @Override
+            public void run() {
+                ByteBuf content = allocator.directBuffer();
+                try {
+                    request.getBody().writeTo(new ByteBufOutputStream(content));
+                } catch (Exception e) {
+                    content.release();
+                    if (!pending.isCancelled()) {
+                        callback.onFailure(e);
+                    }
+                    return;
+                }
+                Exchange started = new Exchange(toHttpRequest(request, content, route), callback, pools.get(route),
+                        responseTimeout);
+                if (pending.attach(started)) {
+                    started.start();
+                } else {
+                    content.release();
+                }
+            }
+        });
+        return new Cancellable() {
+            @Override
+            public void cancel() {
+                writing.dispose();
+                pending.cancel();
+            }
+        };
+    }
+
+    private FullHttpRequest toHttpRequest(TransportRequest request, ByteBuf content, Route route) {
+        URI uri = request.getUri();
+        String target = null == uri.getRawPath() || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        if (null != uri.getRawQuery()) {
+            target = target + "?" + uri.getRawQuery();
+        }
+        FullHttpRequest httpRequest = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1,
+                HttpMethod.valueOf(request.getMethod().name()), target, content);
+        HttpHeaders headers = httpRequest.headers();
+        headers.set(HttpHeaderNames.HOST, route.isDefaultPort() ? route.host : route.host + ":" + route.port);
+        for (Map.Entry<String, String> header : request.getHeaders().entries()) {
+            headers.add(header.getKey(), header.getValue());
+        }
+        RequestBody body = request.getBody();
+        if (null != body) {
+            headers.set(HttpHeaderNames.CONTENT_TYPE, body.getContentType());
+            if (null != body.getContentEncoding()) {
+                headers.set(HttpHeaderNames.CONTENT_ENCODING, body.getContentEncoding());
+            }
+            headers.set(HttpHeaderNames.CONTENT_LENGTH, content.readableBytes());
+        }
+        return httpRequest;
+    }
+
+    /**
+     * Closes pooled connections and shuts event loops down
+     */
+    @Override
+    public void close() throws IOException {
+        eventLoopGroup.shutdownGracefully(0, 5, TimeUnit.SECONDS).syncUninterruptibly();
+    }
+
+    /**
+     * Exchange of request which body is being written. Guards against cancellation happening
+     * before exchange is started
+     */
+    private static final class PendingExchange {
+
+        /* guarded by this */
+        private Exchange exchange;
+        private boolean cancelled;
+
+        /**
+         * @param started Exchange to be started
+         * @return FALSE if request has been cancelled and exchange shouldn't be started
+         */
+        synchronized boolean attach(Exchange started) {
+            if (cancelled) {
+                return false;
+            }
+            exchange = started;
+            return true;
+        }
+
+        synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        void cancel() {
+            Exchange started;
+            synchronized (this) {
+                cancelled = true;
+                started = exchange;
+            }
+            if (null != started) {
+                started.cancel();
+            }
+        }
+    }
+
+    /**
+     * Scheme, host and port request is sent to. Each route has its own pool of channels
+     */
+    private static final class Route {
+
+        private final boolean secure;
+        private final String host;
+        private final int port;
+
+        private Route(boolean secure, String host, int port) {
+            this.secure = secure;
+            this.host = host;
+            this.port = port;
+        }
+
+        static Route of(URI uri) {
+            Preconditions.checkArgument(null != uri.getHost(), "URI '%s' has no host", uri);
+            boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+            Preconditions.checkArgument(secure || "http".equalsIgnoreCase(uri.getScheme()),
+                    "Scheme of URI '%s' isn't supported", uri);
+            return new Route(secure, uri.getHost(), -1 == uri.getPort() ? (secure ? 443 : 80) : uri.getPort());
+        }
+
+        boolean isDefaultPort() {
+            return port == (secure ? 443 : 80);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Route route = (Route) o;
+            return secure == route.secure && port == route.port && Objects.equal(host, route.host);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(secure, host, port);
+        }
+    }
+
+    /**
+     * Builder for {@link NettyTransport}
+     */
+    public static final class Builder {
+
+        private int ioThreads;
+        private int maxConnectionsPerRoute = DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+        private int connectTimeout = (int) DEFAULT_CONNECT_TIMEOUT;
+        private long responseTimeout;
+        private boolean nativeTransport = true;
+        private SslContext sslContext;
+        private Scheduler scheduler = Schedulers.io();
+
+        private Builder() {
+        }
+
+        /**
+         * @param ioThreads Number of event loop threads. Twice the number of cores by default
+         * @return This builder
+         */
+        public Builder withIoThreads(int ioThreads) {
+            Preconditions.checkArgument(ioThreads > 0, "Number of I/O threads should be positive");
+            this.ioThreads = ioThreads;
+            return this;
+        }
+
+        /**
+         * @param maxConnections Max number of connections per scheme/host/port. Further requests wait
+         *                       for released connection
+         * @return This builder
+         */
+        public Builder withMaxConnectionsPerRoute(int maxConnections) {
+            Preconditions.checkArgument(maxConnections > 0, "Max connections should be positive");
+            this.maxConnectionsPerRoute = maxConnections;
+            return this;
+        }
+
+        /**
+         * @param timeout Max time to establish connection
+         * @param unit    Time unit
+         * @return This builder
+         */
+        public Builder withConnectTimeout(long timeout, TimeUnit unit) {
+            Preconditions.checkArgument(timeout > 0, "Connect timeout should be positive");
+            this.connectTimeout = (int) Math.min(Integer.MAX_VALUE, unit.toMillis(timeout));
+            return this;
+        }
+
+        /**
+         * @param timeout Max time between request is sent and response head is received. No timeout by default
+         * @param unit    Time unit
+         * @return This builder
+         */
+        public Builder withResponseTimeout(long timeout, TimeUnit unit) {
+            Preconditions.checkArgument(timeout > 0, "Response timeout should be positive");
+            this.responseTimeout = unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * Uses NIO even if native epoll transport is available
+         *
+         * @return This builder
+         */
+        public Builder withoutNativeTransport() {
+            this.nativeTransport = false;
+            return this;
+        }
+
+        /**
+         * @param sslContext SSL context of HTTPS connections. JDK defaults are used if not provided
+         * @return This builder
+         */
+        public Builder withSslContext(SslContext sslContext) {
+            this.sslContext = Preconditions.checkNotNull(sslContext, "SSL context shouldn't be null");
+            return this;
+        }
+
+        /**
+         * @param scheduler Scheduler request bodies are serialized on. {@link Schedulers#io()} by default
+         * @return This builder
+         */
+        public Builder withScheduler(Scheduler scheduler) {
+            this.scheduler = Preconditions.checkNotNull(scheduler, "Scheduler shouldn't be null");
+            return this;
+        }
+
+        public NettyTransport build() {
+            return new NettyTransport(this);
+        }
+    }
+}
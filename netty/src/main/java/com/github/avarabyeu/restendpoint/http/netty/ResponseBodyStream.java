@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Response body backed by chunks received by event loop. Chunks are pooled buffers read by consumer
+ * right away, there is no aggregated copy of body. Once too many bytes are queued, channel stops reading
+ * from the socket and resumes once consumer drains the queue, so memory consumption per request
+ * is bounded regardless of payload size. Consumer waits on {@link ReentrantLock} rather than monitor,
+ * so virtual thread reading body doesn't pin its carrier
+ *
+ * @author Andrei Varabyeu
+ */
+final class ResponseBodyStream extends InputStream {
+
+    private final Channel channel;
+    private final int highWatermark;
+    private final int lowWatermark;
+
+    /**
+     * Called once stream is closed before the end of body
+     */
+    private final Runnable onAbort;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition readable = lock.newCondition();
+
+    private final Queue<ByteBuf> chunks = new ArrayDeque<ByteBuf>();
+    private int queuedBytes;
+    private boolean suspended;
+    private boolean completed;
+    private Throwable failure;
+    private boolean closed;
+
+    /**
+     * @param channel       Channel body is received over
+     * @param highWatermark Number of queued bytes channel stops reading at
+     * @param onAbort       Called once stream is closed before the end of body
+     */
+    ResponseBodyStream(Channel channel, int highWatermark, Runnable onAbort) {
+        this.channel = channel;
+        this.highWatermark = highWatermark;
+        this.lowWatermark = highWatermark / 4;
+        this.onAbort = onAbort;
+    }
+
+    /**
+     * Queues chunk of body. Called by event loop
+     *
+     * @param chunk Chunk retained for the stream
+     */
+    void offer(ByteBuf chunk) {
+        lock.lock();
+        try {
+            if (closed || !chunk.isReadable()) {
+                chunk.release();
+                return;
+            }
+            chunks.add(chunk);
+            queuedBytes += chunk.readableBytes();
+            if (!suspended && queuedBytes >= highWatermark) {
+                suspended = true;
+                channel.config().setAutoRead(false);
+            }
+            readable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks body as completely received. Called by event loop before channel is returned to pool,
+     * so reading is resumed to keep the channel usable
+     */
+    void complete() {
+        lock.lock();
+        try {
+            completed = true;
+            if (suspended) {
+                suspended = false;
+                channel.config().setAutoRead(true);
+            }
+            readable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks body as truncated. Chunks received so far are still readable
+     *
+     * @param cause Cause of failure
+     */
+    void fail(Throwable cause) {
+        lock.lock();
+        try {
+            failure = cause;
+            readable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return -1 == read(single, 0, 1) ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IOException("Stream is closed");
+            }
+            if (0 == len) {
+                return 0;
+            }
+            while (chunks.isEmpty()) {
+                if (null != failure) {
+                    throw new IOException("Response body is truncated", failure);
+                }
+                if (completed) {
+                    return -1;
+                }
+                try {
+                    readable.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for response body");
+                }
+            }
+
+            ByteBuf chunk = chunks.peek();
+            int read = Math.min(len, chunk.readableBytes());
+            chunk.readBytes(b, off, read);
+            if (!chunk.isReadable()) {
+                chunks.poll().release();
+            }
+            queuedBytes -= read;
+            if (suspended && queuedBytes <= lowWatermark) {
+                suspended = false;
+                channel.config().setAutoRead(true);
+            }
+            return read;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int available() {
+        lock.lock();
+        try {
+            return queuedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases queued chunks. Closing stream before the end of body discards the rest of body and the channel
+     */
+    @Override
+    public void close() {
+        boolean aborted;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            aborted = !completed;
+            ByteBuf chunk;
+            while (null != (chunk = chunks.poll())) {
+                chunk.release();
+            }
+            queuedBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+        if (aborted) {
+            onAbort.run();
+        }
+    }
+}
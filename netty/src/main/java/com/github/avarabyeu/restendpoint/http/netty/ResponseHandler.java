@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http.netty;
+
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.DecoderResult;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.util.ReferenceCountUtil;
+
+import java.io.IOException;
+
+/**
+ * Dispatches decoded response parts to {@link Exchange} in progress on the channel.
+ * Stateless, so single instance is shared by all channels
+ *
+ * @author Andrei Varabyeu
+ */
+@ChannelHandler.Sharable
+final class ResponseHandler extends ChannelInboundHandlerAdapter {
+
+    static final ResponseHandler INSTANCE = new ResponseHandler();
+
+    private ResponseHandler() {
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        try {
+            Exchange exchange = ctx.channel().attr(Exchange.EXCHANGE).get();
+            if (null == exchange || !(msg instanceof HttpObject)) {
+                return;
+            }
+            DecoderResult result = ((HttpObject) msg).decoderResult();
+            if (result.isFailure()) {
+                exchange.fail(result.cause());
+                return;
+            }
+            if (msg instanceof HttpResponse) {
+                exchange.onResponse((HttpResponse) msg);
+            }
+            if (msg instanceof HttpContent) {
+                exchange.onContent((HttpContent) msg);
+            }
+        } finally {
+            ReferenceCountUtil.release(msg);
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        Exchange exchange = ctx.channel().attr(Exchange.EXCHANGE).get();
+        if (null != exchange) {
+            exchange.fail(new IOException("Connection closed before response is completely received"));
+        }
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        Exchange exchange = ctx.channel().attr(Exchange.EXCHANGE).get();
+        if (null != exchange) {
+            exchange.fail(cause);
+        } else {
+            ctx.close();
+        }
+    }
+}
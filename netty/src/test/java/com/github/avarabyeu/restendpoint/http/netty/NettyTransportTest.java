@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.http.netty;
+
+import com.github.avarabyeu.restendpoint.http.Response;
+import com.github.avarabyeu.restendpoint.http.RestEndpoint;
+import com.github.avarabyeu.restendpoint.http.RestEndpoints;
+import com.github.avarabyeu.restendpoint.http.Transport;
+import com.github.avarabyeu.restendpoint.http.TransportCallback;
+import com.github.avarabyeu.restendpoint.http.TransportRequest;
+import com.github.avarabyeu.restendpoint.http.exception.RestEndpointException;
+import com.github.avarabyeu.restendpoint.http.exception.RestEndpointIOException;
+import com.github.avarabyeu.restendpoint.http.exception.SerializerException;
+import com.github.avarabyeu.restendpoint.serializer.StringSerializer;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.net.HttpHeaders;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+import com.squareup.okhttp.mockwebserver.SocketPolicy;
+import io.reactivex.functions.Cancellable;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * {@link NettyTransport} tests
+ *
+ * @author Andrei Varabyeu
+ */
+public class NettyTransportTest {
+
+    private static final String ECHO_STRING = "Hello world!";
+
+    private static MockWebServer server = new MockWebServer();
+
+    private static RestEndpoint endpoint;
+
+    @BeforeClass
+    public static void before() throws IOException {
+        server.start();
+        endpoint = RestEndpoints.create().withBaseUrl("http://localhost:" + server.getPort())
+                .withSerializer(new StringSerializer())
+                .withBasicAuth("user", "password")
+                .withTransport(NettyTransport.create().withMaxConnectionsPerRoute(2)
+                        .withResponseTimeout(1, TimeUnit.SECONDS).build())
+                .build();
+    }
+
+    @AfterClass
+    public static void after() throws IOException {
+        ((Closeable) endpoint).close();
+        server.shutdown();
+    }
+
+    @Test
+    public void testGet() throws InterruptedException {
+        server.enqueue(prepareResponse(ECHO_STRING).setHeader("X-Test", "value"));
+        Response<String> rs = endpoint.get("/", ImmutableMap.of("q", "1"), String.class).blockingGet();
+        Assert.assertThat(rs.getBody(), is(ECHO_STRING));
+        Assert.assertThat(rs.getStatus(), is(200));
+        Assert.assertThat(rs.getHeaders().get("X-Test").iterator().next(), is("value"));
+
+        RecordedRequest request = server.takeRequest();
+        Assert.assertThat(request.getPath(), is("/?q=1"));
+        Assert.assertThat(request.getHeader(HttpHeaders.HOST), is("localhost:" + server.getPort()));
+        Assert.assertThat(request.getHeader(HttpHeaders.AUTHORIZATION), is("Basic dXNlcjpwYXNzd29yZA=="));
+    }
+
+    @Test
+    public void testPost() throws InterruptedException {
+        server.enqueue(prepareResponse(ECHO_STRING));
+        Assert.assertThat(endpoint.postFor("/", "request", String.class).blockingGet(), is(ECHO_STRING));
+
+        RecordedRequest request = server.takeRequest();
+        Assert.assertThat(request.getMethod(), is("POST"));
+        Assert.assertThat(request.getBody().readUtf8(), is("request"));
+        Assert.assertThat(request.getHeader(HttpHeaders.CONTENT_LENGTH), is("7"));
+    }
+
+    @Test
+    public void testLargeBody() throws InterruptedException {
+        String body = Strings.repeat(ECHO_STRING, 100000);
+        server.enqueue(prepareResponse(body));
+        Assert.assertThat(endpoint.getFor("/", String.class).blockingGet(), is(body));
+        server.takeRequest();
+    }
+
+    @Test
+    public void testConnectionReuse() throws InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            server.enqueue(prepareResponse(ECHO_STRING));
+        }
+        for (int i = 0; i < 5; i++) {
+            Assert.assertThat(endpoint.getFor("/", String.class).blockingGet(), is(ECHO_STRING));
+        }
+        int reused = 0;
+        for (int i = 0; i < 5; i++) {
+            reused += server.takeRequest().getSequenceNumber() > 0 ? 1 : 0;
+        }
+        Assert.assertThat("Connections aren't reused", reused > 0, is(true));
+    }
+
+    @Test
+    public void testError() throws InterruptedException {
+        server.enqueue(prepareResponse("failure").setResponseCode(503));
+        try {
+            endpoint.getFor("/", String.class).blockingGet();
+            Assert.fail("Error is expected");
+        } catch (RestEndpointException e) {
+            Assert.assertThat(e.getStatusCode(), is(503));
+        }
+        server.takeRequest();
+    }
+
+    @Test
+    public void testDisconnect() throws InterruptedException {
+        /* pooled connection is reused, so it's closed once request is received rather than at start */
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST));
+        try {
+            endpoint.getFor("/", String.class).blockingGet();
+            Assert.fail("Error is expected");
+        } catch (RestEndpointIOException e) {
+            Assert.assertThat(e.getCause(), instanceOf(IOException.class));
+        }
+        server.takeRequest();
+    }
+
+    @Test
+    public void testCancelWhileBodyIsWritten() throws Exception {
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        final NettyTransport netty = NettyTransport.create().build();
+        final BlockingQueue<Cancellable> sent = new LinkedBlockingQueue<Cancellable>();
+        RestEndpoint blocking = RestEndpoints.create().withBaseUrl("http://localhost:" + server.getPort())
+                .withSerializer(new StringSerializer() {
+                    @Override
+                    public <T> void serialize(T t, OutputStream out) throws SerializerException {
+                        writing.countDown();
+                        Uninterruptibles.awaitUninterruptibly(cancelled);
+                        super.serialize(t, out);
+                    }
+                })
+                .withTransport(new Transport() {
+                    @Override
+                    public Cancellable send(TransportRequest request, TransportCallback callback) {
+                        Cancellable cancellable = netty.send(request, callback);
+                        sent.add(cancellable);
+                        return cancellable;
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        netty.close();
+                    }
+                })
+                .build();
+        try {
+            int requestCount = server.getRequestCount();
+            blocking.postFor("/", ECHO_STRING, String.class).subscribe();
+            writing.await();
+            sent.take().cancel();
+            cancelled.countDown();
+
+            /* cancelled request isn't sent once body is written */
+            Uninterruptibles.sleepUninterruptibly(200, TimeUnit.MILLISECONDS);
+            Assert.assertThat(server.getRequestCount() - requestCount, is(0));
+        } finally {
+            ((Closeable) blocking).close();
+        }
+    }
+
+    @Test
+    public void testTimeout() throws InterruptedException {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        Throwable error = endpoint.getFor("/", String.class).test().await().errors().get(0);
+        Assert.assertThat(error, instanceOf(TimeoutException.class));
+        server.takeRequest();
+    }
+
+    private static MockResponse prepareResponse(String body) {
+        return new MockResponse().setHeader(HttpHeaders.CONTENT_TYPE, "text/plain; charset=utf-8")
+                .setBody(body);
+    }
+}
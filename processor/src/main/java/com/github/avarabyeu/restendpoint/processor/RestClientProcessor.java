@@ -0,0 +1,415 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.avarabyeu.restendpoint.processor;
+
+import com.github.avarabyeu.restendpoint.http.MultiPartRequest;
+import com.github.avarabyeu.restendpoint.http.Response;
+import com.github.avarabyeu.restendpoint.http.RestCommand;
+import com.github.avarabyeu.restendpoint.http.annotation.Body;
+import com.github.avarabyeu.restendpoint.http.annotation.Idempotent;
+import com.github.avarabyeu.restendpoint.http.annotation.Multipart;
+import com.github.avarabyeu.restendpoint.http.annotation.Path;
+import com.github.avarabyeu.restendpoint.http.annotation.Query;
+import com.github.avarabyeu.restendpoint.http.annotation.RateLimit;
+import com.github.avarabyeu.restendpoint.http.annotation.Request;
+import com.github.avarabyeu.restendpoint.http.annotation.Retry;
+import com.github.avarabyeu.restendpoint.http.proxy.AbstractRestClient;
+import com.github.avarabyeu.restendpoint.http.uri.UrlTemplate;
+import com.google.common.base.Joiner;
+import com.google.common.collect.Sets;
+import io.reactivex.Maybe;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates implementation of each interface declaring methods marked with {@link Request}. Implementation
+ * of com.example.Api is com.example.ApiRestClient, it's picked up by
+ * {@link com.github.avarabyeu.restendpoint.http.RestEndpoints#forInterface(Class,
+ * com.github.avarabyeu.restendpoint.http.RestEndpoint)} instead of proxy.
+ * Mistakes which proxy reports once created are reported as compilation errors. Interfaces which cannot be
+ * implemented without reflection (generic ones, for instance) are skipped with warning, proxy is used for them
+ *
+ * @author Andrei Varabyeu
+ */
+@SupportedAnnotationTypes("com.github.avarabyeu.restendpoint.http.annotation.Request")
+public class RestClientProcessor extends AbstractProcessor {
+
+    private static final String INDENT = "    ";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> interfaces = new LinkedHashSet<TypeElement>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(Request.class)) {
+            Element type = element.getEnclosingElement();
+            if (ElementKind.METHOD == element.getKind() && ElementKind.INTERFACE == type.getKind()) {
+                interfaces.add((TypeElement) type);
+            }
+        }
+        for (TypeElement type : interfaces) {
+            try {
+                generate(type);
+            } catch (UnsupportedException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        e.getMessage() + ". Client isn't generated, proxy is used instead", e.element);
+            } catch (InvalidException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.element);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Unable to write client: " + e.getMessage(), type);
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        if (!type.getTypeParameters().isEmpty()) {
+            throw new UnsupportedException("Generic interfaces are not supported", type);
+        }
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new UnsupportedException("Private interfaces are not supported", type);
+            }
+        }
+
+        Elements elements = processingEnv.getElementUtils();
+        String interfaceName = type.getQualifiedName().toString();
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String clientName = AbstractRestClient.getClientName(elements.getBinaryName(type).toString());
+        String simpleName = clientName.substring(clientName.lastIndexOf('.') + 1);
+
+        StringBuilder fields = new StringBuilder();
+        StringBuilder methods = new StringBuilder();
+        Set<String> signatures = new HashSet<String>();
+        int index = 0;
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            if (ElementKind.INTERFACE != method.getEnclosingElement().getKind()
+                    || !method.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+            if (!method.getTypeParameters().isEmpty()) {
+                throw new UnsupportedException("Generic methods are not supported", method);
+            }
+            ExecutableType methodType = (ExecutableType) processingEnv.getTypeUtils()
+                    .asMemberOf((DeclaredType) type.asType(), method);
+            if (!signatures.add(method.getSimpleName() + erasure(methodType.getParameterTypes()))) {
+                continue;
+            }
+            if (null == method.getAnnotation(Request.class)) {
+                writeUnmapped(methods, method, methodType);
+            } else {
+                String field = "method" + index++;
+                writeMethodInfo(fields, field, interfaceName, method, methodType);
+                writeMethod(methods, field, method, methodType);
+            }
+        }
+
+        Writer writer = processingEnv.getFiler().createSourceFile(clientName, type).openWriter();
+        try {
+            if (!packageName.isEmpty()) {
+                writer.append("package ").append(packageName).append(";\n\n");
+            }
+            writer.append("/**\n")
+                    .append(" * Implementation of {@link ").append(interfaceName).append("}.\n")
+                    .append(" * Generated by ").append(getClass().getName()).append(", do not edit\n")
+                    .append(" */\n")
+                    .append("@SuppressWarnings(\"unchecked\")\n")
+                    .append("public final class ").append(simpleName)
+                    .append(" extends ").append(AbstractRestClient.class.getName())
+                    .append(" implements ").append(interfaceName).append(" {\n\n")
+                    .append(fields)
+                    .append(INDENT).append("public ").append(simpleName).append("(")
+                    .append("com.github.avarabyeu.restendpoint.http.RestEndpoint endpoint) {\n")
+                    .append(INDENT).append(INDENT).append("super(endpoint);\n")
+                    .append(INDENT).append("}\n")
+                    .append(methods)
+                    .append("}\n");
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void writeMethodInfo(StringBuilder out, String field, String interfaceName, ExecutableElement method,
+            ExecutableType methodType) {
+        Elements elements = processingEnv.getElementUtils();
+        Request request = method.getAnnotation(Request.class);
+        UrlTemplate template = UrlTemplate.create(request.url());
+
+        out.append(INDENT).append("private final com.github.avarabyeu.restendpoint.http.proxy.RestMethodInfo ")
+                .append(field).append(" =\n");
+        String indent = INDENT + INDENT + INDENT;
+        out.append(indent).append("com.github.avarabyeu.restendpoint.http.proxy.RestMethodInfo.builder(")
+                .append(interfaceName).append(".class, ")
+                .append(elements.getConstantExpression(method.getSimpleName().toString())).append(", ")
+                .append("com.github.avarabyeu.restendpoint.http.HttpMethod.").append(request.method().name())
+                .append(", ").append(elements.getConstantExpression(request.url())).append(")\n");
+
+        TypeMirror returnType = methodType.getReturnType();
+        boolean asynchronous = isAssignable(returnType, Maybe.class);
+        boolean bodyOnly = !isRaw(returnType, Response.class);
+        out.append(indent).append(INDENT).append(".returning(")
+                .append(typeLiteral(getResponseType(method, returnType, asynchronous, bodyOnly), method))
+                .append(", ").append(asynchronous).append(", ").append(bodyOnly).append(")\n");
+
+        /* the same checks proxy does once created */
+        Set<String> pathArguments = new LinkedHashSet<String>();
+        List<? extends VariableElement> parameters = method.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            VariableElement parameter = parameters.get(i);
+            TypeMirror parameterType = methodType.getParameterTypes().get(i);
+            if (null != parameter.getAnnotation(Path.class)) {
+                String name = parameter.getAnnotation(Path.class).value();
+                if (!template.hasPathVariable(name)) {
+                    throw new InvalidException(String.format(
+                            "There is no path parameter with name '%s' declared in url template", name), parameter);
+                }
+                pathArguments.add(name);
+                out.append(indent).append(INDENT).append(".pathArgument(").append(i).append(", ")
+                        .append(elements.getConstantExpression(name)).append(")\n");
+            } else if (null != parameter.getAnnotation(Body.class)) {
+                boolean multipart = null != parameter.getAnnotation(Multipart.class);
+                if (multipart && !isAssignable(parameterType, MultiPartRequest.class)) {
+                    throw new InvalidException(String.format(
+                            "@Multipart parameters are expected to be MultiPartRequest. '%s' is not a MultiPartRequest",
+                            parameterType), parameter);
+                }
+                out.append(indent).append(INDENT).append(".bodyArgument(").append(i).append(", ")
+                        .append(multipart).append(")\n");
+            } else if (null != parameter.getAnnotation(Query.class)) {
+                if (!isAssignable(parameterType, Map.class)) {
+                    throw new InvalidException(String.format(
+                            "@Query parameters are expected to be maps. '%s' is not a Map", parameterType), parameter);
+                }
+                out.append(indent).append(INDENT).append(".queryArgument(").append(i).append(")\n");
+            }
+        }
+        Set<String> missing = Sets.difference(new LinkedHashSet<String>(template.getPathVariables()), pathArguments);
+        if (!missing.isEmpty()) {
+            throw new InvalidException(String.format(
+                    "The following path arguments found in URL template, but not found in method signature: [%s]. "
+                            + "Did you forget @Path annotation?", Joiner.on(",").join(missing)), method);
+        }
+
+        Retry retry = method.getAnnotation(Retry.class);
+        if (null != retry) {
+            out.append(indent).append(INDENT).append(".retryPolicy(com.github.avarabyeu.restendpoint.http.RetryPolicy.create()")
+                    .append(".withMaxAttempts(").append(retry.maxAttempts()).append(")")
+                    .append(".withBackoff(").append(elements.getConstantExpression(retry.initialBackoff())).append(", ")
+                    .append(elements.getConstantExpression(retry.maxBackoff()))
+                    .append(", java.util.concurrent.TimeUnit.MILLISECONDS)")
+                    .append(".withRetryStatuses(new int[] {");
+            int[] statuses = retry.statuses();
+            for (int i = 0; i < statuses.length; i++) {
+                out.append(i > 0 ? ", " : "").append(statuses[i]);
+            }
+            out.append("})");
+            if (retry.nonIdempotent()) {
+                out.append(".retryNonIdempotent()");
+            }
+            out.append(".build())\n");
+        }
+        if (RestCommand.DEFAULT_COMPRESSION_THRESHOLD != request.compressAbove()) {
+            out.append(indent).append(INDENT).append(".compressAbove(").append(request.compressAbove()).append(")\n");
+        }
+        RateLimit rateLimit = method.getAnnotation(RateLimit.class);
+        if (null != rateLimit) {
+            out.append(indent).append(INDENT).append(".rateLimiter(new com.github.avarabyeu.restendpoint.http.RateLimiter(")
+                    .append(elements.getConstantExpression(rateLimit.permitsPerSecond())).append(", ")
+                    .append(rateLimit.burst()).append("))\n");
+        }
+        if (null != method.getAnnotation(Idempotent.class)) {
+            out.append(indent).append(INDENT).append(".idempotent()\n");
+        }
+        out.append(indent).append(INDENT).append(".build();\n\n");
+    }
+
+    private void writeMethod(StringBuilder out, String field, ExecutableElement method, ExecutableType methodType) {
+        TypeMirror returnType = methodType.getReturnType();
+        writeSignature(out, method, methodType);
+
+        out.append(INDENT).append(INDENT);
+        if (TypeKind.VOID != returnType.getKind()) {
+            out.append("return (").append(returnType.getKind().isPrimitive() ?
+                    processingEnv.getTypeUtils().boxedClass((PrimitiveType) returnType).getQualifiedName() :
+                    returnType.toString()).append(") ");
+        }
+        out.append("execute(this.").append(field).append(", ");
+        if (method.getParameters().isEmpty()) {
+            out.append("NO_ARGS");
+        } else {
+            /* explicit array, so single array argument isn't taken as varargs */
+            out.append("new Object[] {");
+            for (int i = 0; i < method.getParameters().size(); i++) {
+                out.append(i > 0 ? ", " : "").append(method.getParameters().get(i).getSimpleName());
+            }
+            out.append("}");
+        }
+        out.append(");\n");
+        out.append(INDENT).append("}\n");
+    }
+
+    private void writeUnmapped(StringBuilder out, ExecutableElement method, ExecutableType methodType) {
+        writeSignature(out, method, methodType);
+        out.append(INDENT).append(INDENT).append("throw new IllegalStateException(")
+                .append(processingEnv.getElementUtils().getConstantExpression(
+                        String.format("Method with name [%s] is not mapped", method.getSimpleName())))
+                .append(");\n");
+        out.append(INDENT).append("}\n");
+    }
+
+    private void writeSignature(StringBuilder out, ExecutableElement method, ExecutableType methodType) {
+        out.append("\n").append(INDENT).append("@Override\n")
+                .append(INDENT).append("public ").append(methodType.getReturnType()).append(" ")
+                .append(method.getSimpleName()).append("(");
+        List<? extends TypeMirror> parameterTypes = methodType.getParameterTypes();
+        for (int i = 0; i < parameterTypes.size(); i++) {
+            out.append(i > 0 ? ", " : "");
+            TypeMirror parameterType = parameterTypes.get(i);
+            if (method.isVarArgs() && i == parameterTypes.size() - 1) {
+                out.append(((ArrayType) parameterType).getComponentType()).append("...");
+            } else {
+                out.append(parameterType);
+            }
+            out.append(" ").append(method.getParameters().get(i).getSimpleName());
+        }
+        out.append(") {\n");
+    }
+
+    /**
+     * The same as proxy does: type argument of {@link Maybe} or {@link Response} or return type itself
+     */
+    private TypeMirror getResponseType(ExecutableElement method, TypeMirror returnType, boolean asynchronous,
+            boolean bodyOnly) {
+        if (!asynchronous && bodyOnly) {
+            return returnType;
+        }
+        List<? extends TypeMirror> arguments = returnType instanceof DeclaredType ?
+                ((DeclaredType) returnType).getTypeArguments() :
+                new ArrayList<TypeMirror>();
+        if (arguments.isEmpty()) {
+            throw new InvalidException(String.format(
+                    "Incorrect configuration. %s should be parameterized", returnType), method);
+        }
+        return arguments.get(0);
+    }
+
+    /**
+     * @return Expression of {@link java.lang.reflect.Type} of provided type
+     */
+    private String typeLiteral(TypeMirror type, Element element) {
+        TypeKind kind = type.getKind();
+        if (kind.isPrimitive() || TypeKind.VOID == kind) {
+            return type + ".class";
+        }
+        if (TypeKind.ARRAY != kind && TypeKind.DECLARED != kind) {
+            throw new UnsupportedException(String.format("Response type %s is not supported", type), element);
+        }
+        if (isParameterized(type)) {
+            return "new com.google.common.reflect.TypeToken<" + type + ">() {}.getType()";
+        }
+        return processingEnv.getTypeUtils().erasure(type) + ".class";
+    }
+
+    private boolean isParameterized(TypeMirror type) {
+        if (TypeKind.ARRAY == type.getKind()) {
+            return isParameterized(((ArrayType) type).getComponentType());
+        }
+        if (TypeKind.DECLARED != type.getKind()) {
+            return false;
+        }
+        DeclaredType declared = (DeclaredType) type;
+        return !declared.getTypeArguments().isEmpty() || isParameterized(declared.getEnclosingType());
+    }
+
+    private boolean isAssignable(TypeMirror type, Class<?> to) {
+        Types types = processingEnv.getTypeUtils();
+        TypeElement element = processingEnv.getElementUtils().getTypeElement(to.getCanonicalName());
+        return null != element && types.isAssignable(types.erasure(type), types.erasure(element.asType()));
+    }
+
+    private boolean isRaw(TypeMirror type, Class<?> clazz) {
+        Types types = processingEnv.getTypeUtils();
+        TypeElement element = processingEnv.getElementUtils().getTypeElement(clazz.getCanonicalName());
+        return null != element && types.isSameType(types.erasure(type), types.erasure(element.asType()));
+    }
+
+    private String erasure(List<? extends TypeMirror> types) {
+        List<String> erased = new ArrayList<String>(types.size());
+        for (TypeMirror type : types) {
+            erased.add(processingEnv.getTypeUtils().erasure(type).toString());
+        }
+        return erased.toString();
+    }
+
+    /**
+     * Interface cannot be implemented without reflection
+     */
+    private static class UnsupportedException extends RuntimeException {
+
+        private final Element element;
+
+        UnsupportedException(String message, Element element) {
+            super(message);
+            this.element = element;
+        }
+    }
+
+    /**
+     * Interface is configured incorrectly
+     */
+    private static class InvalidException extends RuntimeException {
+
+        private final Element element;
+
+        InvalidException(String message, Element element) {
+            super(message);
+            this.element = element;
+        }
+    }
+}
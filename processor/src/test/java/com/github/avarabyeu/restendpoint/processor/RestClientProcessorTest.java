@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.avarabyeu.restendpoint.processor;
+
+import com.github.avarabyeu.restendpoint.http.Response;
+import com.github.avarabyeu.restendpoint.http.RestEndpoint;
+import com.github.avarabyeu.restendpoint.http.RestEndpoints;
+import com.github.avarabyeu.restendpoint.http.annotation.Request;
+import com.github.avarabyeu.restendpoint.serializer.TextSerializer;
+import com.github.avarabyeu.restendpoint.serializer.VoidSerializer;
+import com.github.avarabyeu.restendpoint.serializer.json.GsonSerializer;
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.net.HttpHeaders;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+import io.reactivex.Maybe;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+
+/**
+ * {@link RestClientProcessor} tests. {@link SampleApi} client is generated during test compilation
+ *
+ * @author Andrei Varabyeu
+ */
+public class RestClientProcessorTest {
+
+    private static MockWebServer server = new MockWebServer();
+
+    private static RestEndpoint endpoint;
+
+    private static SampleApi client;
+
+    @BeforeClass
+    public static void before() throws IOException {
+        server.start();
+        endpoint = RestEndpoints.create().withBaseUrl("http://localhost:" + server.getPort())
+                .withSerializer(new VoidSerializer())
+                .withSerializer(new TextSerializer())
+                .withSerializer(new GsonSerializer())
+                .build();
+        client = RestEndpoints.forInterface(SampleApi.class, endpoint);
+    }
+
+    @AfterClass
+    public static void after() throws IOException {
+        ((Closeable) endpoint).close();
+        server.shutdown();
+    }
+
+    @Test
+    public void testGeneratedClientIsUsed() {
+        Assert.assertThat(client, instanceOf(SampleApiRestClient.class));
+        Assert.assertThat(Proxy.isProxyClass(client.getClass()), is(false));
+        Assert.assertThat(RestEndpoints.forInterface(SampleApi.Nested.class, endpoint),
+                instanceOf(SampleApi_NestedRestClient.class));
+    }
+
+    @Test
+    public void testGet() throws InterruptedException {
+        server.enqueue(text("hello"));
+        Assert.assertThat(client.get(), is("hello"));
+        Assert.assertThat(server.takeRequest().getMethod(), is("GET"));
+    }
+
+    @Test
+    public void testPathAndQuery() throws InterruptedException {
+        server.enqueue(text("hello"));
+        Assert.assertThat(client.getWithPath("b", "a", ImmutableMap.of("q", "1")), is("hello"));
+        Assert.assertThat(server.takeRequest().getPath(), is("/a/b?q=1"));
+    }
+
+    @Test
+    public void testPostAsync() throws InterruptedException {
+        server.enqueue(text("posted"));
+        Maybe<String> rs = client.postAsync("body");
+        Assert.assertThat(rs.blockingGet(), is("posted"));
+        RecordedRequest rq = server.takeRequest();
+        Assert.assertThat(rq.getMethod(), is("POST"));
+        Assert.assertThat(rq.getBody().readUtf8(), is("body"));
+    }
+
+    @Test
+    public void testResponse() throws InterruptedException {
+        server.enqueue(text("hello"));
+        Response<String> rs = client.getResponse();
+        Assert.assertThat(rs.getStatus(), is(200));
+        Assert.assertThat(rs.getBody(), is("hello"));
+        server.takeRequest();
+    }
+
+    @Test
+    public void testParameterizedResponse() throws InterruptedException {
+        server.enqueue(json("[\"a\",\"b\"]"));
+        Assert.assertThat(client.getList().blockingGet(), is(Arrays.asList("a", "b")));
+        server.takeRequest();
+    }
+
+    @Test
+    public void testPrimitiveResponse() throws InterruptedException {
+        server.enqueue(json("42"));
+        Assert.assertThat(client.getInt(), is(42));
+        server.takeRequest();
+    }
+
+    @Test
+    public void testVoid() throws InterruptedException {
+        server.enqueue(new MockResponse().setResponseCode(204));
+        Assert.assertThat(client.delete().blockingGet(), nullValue());
+        Assert.assertThat(server.takeRequest().getMethod(), is("DELETE"));
+    }
+
+    @Test
+    public void testRetry() throws InterruptedException {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(text("hello"));
+        Assert.assertThat(client.getRetried(), is("hello"));
+        server.takeRequest();
+        server.takeRequest();
+    }
+
+    @Test
+    public void testIdempotentPostIsRetried() throws InterruptedException {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(text("hello"));
+        Assert.assertThat(client.search("query"), is("hello"));
+        Assert.assertThat(server.takeRequest().getBody().readUtf8(), is("query"));
+        Assert.assertThat(server.takeRequest().getBody().readUtf8(), is("query"));
+    }
+
+    @Test
+    public void testRateLimit() throws InterruptedException {
+        server.enqueue(text("hello"));
+        Assert.assertThat(client.getLimited(), is("hello"));
+        server.takeRequest();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNotMapped() {
+        client.notMapped();
+    }
+
+    @Test
+    public void testMissingPathArgument() throws IOException {
+        String source = Joiner.on('\n').join(
+                "package test;",
+                "import com.github.avarabyeu.restendpoint.http.HttpMethod;",
+                "import com.github.avarabyeu.restendpoint.http.annotation.Request;",
+                "public interface Broken {",
+                "    @Request(method = HttpMethod.GET, url = \"/{id}\")",
+                "    String get();",
+                "}");
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        Assert.assertThat(compile("test.Broken", source, diagnostics), is(false));
+
+        StringBuilder errors = new StringBuilder();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (Diagnostic.Kind.ERROR == diagnostic.getKind()) {
+                errors.append(diagnostic.getMessage(null));
+            }
+        }
+        Assert.assertThat(errors.toString(), containsString("Did you forget @Path annotation?"));
+    }
+
+    private static boolean compile(String className, final String source,
+            DiagnosticCollector<JavaFileObject> diagnostics) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
+        try {
+            File output = new File("target/processor-test");
+            Assert.assertThat(output.isDirectory() || output.mkdirs(), is(true));
+            String classpath = Joiner.on(File.pathSeparator).join(location(Request.class), location(Maybe.class));
+            JavaFileObject file = new SimpleJavaFileObject(
+                    URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+                @Override
+                public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                    return source;
+                }
+            };
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    Arrays.asList("-classpath", classpath, "-d", output.getPath()), null,
+                    Collections.singletonList(file));
+            task.setProcessors(Collections.singletonList(new RestClientProcessor()));
+            return task.call();
+        } finally {
+            fileManager.close();
+        }
+    }
+
+    private static String location(Class<?> clazz) {
+        return new File(clazz.getProtectionDomain().getCodeSource().getLocation().getPath()).getPath();
+    }
+
+    private static MockResponse text(String body) {
+        return new MockResponse().setHeader(HttpHeaders.CONTENT_TYPE, "text/plain").setBody(body);
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse().setHeader(HttpHeaders.CONTENT_TYPE, "application/json").setBody(body);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2014 Andrei Varabyeu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.avarabyeu.restendpoint.processor;
+
+import com.github.avarabyeu.restendpoint.http.HttpMethod;
+import com.github.avarabyeu.restendpoint.http.Response;
+import com.github.avarabyeu.restendpoint.http.annotation.Body;
+import com.github.avarabyeu.restendpoint.http.annotation.Idempotent;
+import com.github.avarabyeu.restendpoint.http.annotation.Path;
+import com.github.avarabyeu.restendpoint.http.annotation.Query;
+import com.github.avarabyeu.restendpoint.http.annotation.RateLimit;
+import com.github.avarabyeu.restendpoint.http.annotation.Request;
+import com.github.avarabyeu.restendpoint.http.annotation.Retry;
+import io.reactivex.Maybe;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interface client is generated for during test compilation
+ *
+ * @author Andrei Varabyeu
+ */
+public interface SampleApi {
+
+    @Request(method = HttpMethod.GET, url = "/")
+    String get();
+
+    @Request(method = HttpMethod.GET, url = "/{first}/{second}")
+    String getWithPath(@Path("second") String second, @Path("first") String first,
+            @Query Map<String, String> query);
+
+    @Request(method = HttpMethod.POST, url = "/")
+    Maybe<String> postAsync(@Body String body);
+
+    @Request(method = HttpMethod.GET, url = "/")
+    Response<String> getResponse();
+
+    @Request(method = HttpMethod.GET, url = "/")
+    Maybe<List<String>> getList();
+
+    @Request(method = HttpMethod.GET, url = "/")
+    int getInt();
+
+    @Request(method = HttpMethod.DELETE, url = "/")
+    Maybe<Void> delete();
+
+    @Retry(maxAttempts = 2, initialBackoff = 1, maxBackoff = 1, statuses = 503)
+    @Request(method = HttpMethod.GET, url = "/")
+    String getRetried();
+
+    @RateLimit(permitsPerSecond = 1000)
+    @Request(method = HttpMethod.GET, url = "/")
+    String getLimited();
+
+    @Idempotent
+    @Retry(maxAttempts = 2, initialBackoff = 1, maxBackoff = 1, statuses = 503)
+    @Request(method = HttpMethod.POST, url = "/search")
+    String search(@Body String query);
+
+    String notMapped();
+
+    /**
+     * Nested interface
+     */
+    interface Nested {
+
+        @Request(method = HttpMethod.GET, url = "/nested")
+        String get();
+    }
+}